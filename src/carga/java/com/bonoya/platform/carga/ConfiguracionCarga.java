@@ -0,0 +1,29 @@
+package com.bonoya.platform.carga;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades del sistema ({@code -Dcarga.rps=200}).
+ *
+ * @param bonos Bonos sembrados antes de medir
+ * @param usuarios Inversores sembrados; el tráfico se reparte entre ellos
+ * @param rps Peticiones por segundo objetivo (tasa abierta: no espera a que terminen las anteriores)
+ * @param calentamientoSegundos Segundos de tráfico que no se incluyen en el reporte
+ * @param duracionSegundos Segundos de tráfico medido
+ * @param concurrenciaMaxima Peticiones en vuelo permitidas antes de contar el envío como error del cliente
+ * @param tasaErroresMaxima Proporción de errores (5xx, timeouts) a partir de la cual la prueba falla
+ * @param semilla Semilla de los generadores, para repetir la misma mezcla de datos y tráfico
+ */
+public record ConfiguracionCarga(int bonos, int usuarios, int rps, int calentamientoSegundos, int duracionSegundos,
+                                 int concurrenciaMaxima, double tasaErroresMaxima, long semilla) {
+
+    public static ConfiguracionCarga desdePropiedades() {
+        return new ConfiguracionCarga(
+                Integer.getInteger("carga.bonos", 50),
+                Integer.getInteger("carga.usuarios", 20),
+                Integer.getInteger("carga.rps", 100),
+                Integer.getInteger("carga.calentamiento-segundos", 5),
+                Integer.getInteger("carga.duracion-segundos", 30),
+                Integer.getInteger("carga.concurrencia-maxima", 512),
+                Double.parseDouble(System.getProperty("carga.tasa-errores-maxima", "0.01")),
+                Long.getLong("carga.semilla", 42L));
+    }
+}
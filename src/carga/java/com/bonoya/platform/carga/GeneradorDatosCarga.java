@@ -0,0 +1,96 @@
+package com.bonoya.platform.carga;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Genera bonos e inversores con la forma de los datos de {@code data-sample.sql}.
+ *
+ * Cada bono parte de una de las plantillas del script de ejemplo y varía plazo, frecuencia, tasas y gracia
+ * dentro de rangos realistas, de modo que el tráfico recorre cronogramas de distintos tamaños (de 1 a más de 200
+ * períodos). Con la misma semilla se generan siempre los mismos datos.
+ */
+class GeneradorDatosCarga {
+
+    private record Plantilla(String nombre, String descripcion, double valorNominal, double tasaCupon,
+                             int plazoAnios, int frecuenciaPagos, String moneda, double tasaDescuento) {
+    }
+
+    private static final List<Plantilla> PLANTILLAS = List.of(
+            new Plantilla("Bono Corporativo ABC", "Bono corporativo de empresa ABC con alta calificación crediticia",
+                    1000.0, 8.0, 5, 2, "PEN", 7.5),
+            new Plantilla("Bono Gubernamental XYZ", "Bono del gobierno peruano de largo plazo",
+                    5000.0, 6.0, 10, 2, "PEN", 5.5),
+            new Plantilla("Bono Municipal DEF", "Bono municipal para infraestructura urbana",
+                    2000.0, 7.5, 7, 2, "PEN", 7.0),
+            new Plantilla("Bono Hipotecario GHI", "Bono respaldado por hipotecas residenciales",
+                    3000.0, 9.0, 15, 4, "USD", 8.5),
+            new Plantilla("Bono Verde JKL", "Bono sostenible para proyectos ambientales",
+                    1500.0, 5.25, 8, 2, "USD", 5.0));
+
+    private static final int[] FRECUENCIAS = {1, 2, 4, 12};
+
+    private final Random random;
+
+    GeneradorDatosCarga(long semilla) {
+        this.random = new Random(semilla);
+    }
+
+    /**
+     * Cuerpos de {@code POST /api/v1/emisor/bonos}.
+     */
+    List<Map<String, Object>> bonos(int cantidad) {
+        List<Map<String, Object>> bonos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Plantilla plantilla = PLANTILLAS.get(i % PLANTILLAS.size());
+            int plazoAnios = Math.max(1, plantilla.plazoAnios() + random.nextInt(11) - 4);
+            int frecuencia = random.nextInt(4) == 0
+                    ? FRECUENCIAS[random.nextInt(FRECUENCIAS.length)]
+                    : plantilla.frecuenciaPagos();
+            int periodos = plazoAnios * frecuencia;
+
+            Map<String, Object> bono = new LinkedHashMap<>();
+            bono.put("nombre", plantilla.nombre() + " " + (i + 1));
+            bono.put("descripcion", plantilla.descripcion());
+            bono.put("valorNominal", plantilla.valorNominal());
+            bono.put("tasaCupon", redondear(plantilla.tasaCupon() + random.nextDouble() * 2 - 1));
+            bono.put("plazoAnios", plazoAnios);
+            bono.put("frecuenciaPagos", frecuencia);
+            bono.put("moneda", plantilla.moneda());
+            bono.put("fechaEmision", LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)).toString());
+            bono.put("plazosGraciaTotal", random.nextInt(10) == 0 ? Math.min(2, periodos - 1) : 0);
+            bono.put("plazosGraciaParcial", random.nextInt(10) == 0 ? Math.min(1, periodos - 1) : 0);
+            bono.put("tasaDescuento", redondear(plantilla.tasaDescuento() + random.nextDouble() * 2 - 1));
+            bono.put("metodoAmortizacion", "ALEMAN");
+            bonos.add(bono);
+        }
+        return bonos;
+    }
+
+    List<String> inversores(int cantidad) {
+        List<String> usuarios = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            usuarios.add("inversor_carga_" + i);
+        }
+        return usuarios;
+    }
+
+    /**
+     * Tasa esperada y precio de compra (entre 90% y 110% del nominal) de un análisis completo.
+     */
+    Map<String, Object> analisisCompleto(long bonoId, double valorNominal, Random aleatorio) {
+        Map<String, Object> cuerpo = new LinkedHashMap<>();
+        cuerpo.put("bonoId", bonoId);
+        cuerpo.put("tasaEsperada", redondear(4 + aleatorio.nextDouble() * 6));
+        cuerpo.put("precioCompra", redondear(valorNominal * (0.9 + aleatorio.nextDouble() * 0.2)));
+        return cuerpo;
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bonoya.platform.carga;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Operaciones de la mezcla de tráfico y su peso relativo.
+ *
+ * Los pesos por defecto reproducen el uso típico (mucha consulta de catálogo y flujo, menos análisis y
+ * autenticaciones) y pueden cambiarse con {@code -Dcarga.peso.analisis_completo=40}.
+ */
+enum OperacionCarga {
+    CATALOGO(40),
+    FLUJO(25),
+    ANALISIS_COMPLETO(20),
+    SIGN_IN(15);
+
+    private final int pesoPorDefecto;
+
+    OperacionCarga(int pesoPorDefecto) {
+        this.pesoPorDefecto = pesoPorDefecto;
+    }
+
+    int peso() {
+        return Integer.getInteger("carga.peso." + name().toLowerCase(Locale.ROOT), pesoPorDefecto);
+    }
+
+    /**
+     * Selector ponderado con los pesos vigentes al crearlo.
+     */
+    static Selector selector() {
+        OperacionCarga[] operaciones = values();
+        int[] acumulados = new int[operaciones.length];
+        int total = 0;
+        for (int i = 0; i < operaciones.length; i++) {
+            total += Math.max(0, operaciones[i].peso());
+            acumulados[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Al menos una operación de la mezcla debe tener peso positivo");
+        }
+        int pesoTotal = total;
+        return aleatorio -> {
+            int valor = aleatorio.nextInt(pesoTotal);
+            for (int i = 0; i < acumulados.length; i++) {
+                if (valor < acumulados[i]) {
+                    return operaciones[i];
+                }
+            }
+            return operaciones[operaciones.length - 1];
+        };
+    }
+
+    @FunctionalInterface
+    interface Selector {
+        OperacionCarga elegir(Random aleatorio);
+    }
+}
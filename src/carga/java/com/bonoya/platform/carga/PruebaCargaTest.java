@@ -0,0 +1,234 @@
+package com.bonoya.platform.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga de extremo a extremo: arranca la aplicación sobre un PostgreSQL embebido, siembra bonos e
+ * inversores a través de la API y genera tráfico mixto a tasa constante.
+ *
+ * Solo se compila y ejecuta con el perfil Maven {@code carga}:
+ * {@code mvn -B test -Pcarga -Dcarga.rps=200 -Dcarga.duracion-segundos=60}. El reporte (throughput,
+ * percentiles de latencia, errores y rechazos 429 por operación) se escribe en el log y en
+ * {@code target/carga/}, para comparar la capacidad antes y después de un cambio.
+ */
+@Tag("carga")
+@ActiveProfiles("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PruebaCargaTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PruebaCargaTest.class);
+    private static final String PASSWORD = "Carga2025!";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static EmbeddedPostgres postgres;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @LocalServerPort
+    private int puerto;
+
+    private record BonoSembrado(long id, double valorNominal) {
+    }
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registry) throws IOException {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.builder().start();
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void detenerBaseDeDatos() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+            postgres = null;
+        }
+    }
+
+    @Test
+    @DisplayName("Tráfico mixto a tasa constante dentro del umbral de errores")
+    void traficoMixto() throws Exception {
+        ConfiguracionCarga configuracion = ConfiguracionCarga.desdePropiedades();
+        GeneradorDatosCarga generador = new GeneradorDatosCarga(configuracion.semilla());
+        LOGGER.info("Configuración de carga: {}", configuracion);
+
+        List<BonoSembrado> bonos = sembrarBonos(generador.bonos(configuracion.bonos()));
+        List<String> inversores = generador.inversores(configuracion.usuarios());
+        List<String> tokens = new ArrayList<>(inversores.size());
+        for (String inversor : inversores) {
+            registrar(inversor, "ROLE_INVERSOR");
+            tokens.add(iniciarSesion(inversor));
+        }
+        LOGGER.info("Sembrados {} bonos y {} inversores", bonos.size(), inversores.size());
+
+        ResultadosCarga resultados = generarTrafico(configuracion, generador, bonos, inversores, tokens);
+
+        double segundosMedidos = configuracion.duracionSegundos();
+        String reporte = resultados.reporte(segundosMedidos);
+        LOGGER.info("Resultado de la prueba de carga ({} rps objetivo, {} s medidos):{}{}",
+                configuracion.rps(), configuracion.duracionSegundos(), System.lineSeparator(), reporte);
+        escribirReporte(configuracion, reporte);
+
+        assertTrue(resultados.totalPeticiones() > 0, "No se completó ninguna petición");
+        assertTrue(resultados.tasaErrores() <= configuracion.tasaErroresMaxima(),
+                () -> String.format("Tasa de errores %.4f supera el máximo %.4f",
+                        resultados.tasaErrores(), configuracion.tasaErroresMaxima()));
+    }
+
+    private ResultadosCarga generarTrafico(ConfiguracionCarga configuracion, GeneradorDatosCarga generador,
+                                           List<BonoSembrado> bonos, List<String> inversores, List<String> tokens) {
+        ResultadosCarga resultados = new ResultadosCarga();
+        OperacionCarga.Selector selector = OperacionCarga.selector();
+        Random aleatorio = new Random(configuracion.semilla());
+        AtomicInteger enVuelo = new AtomicInteger();
+        List<CompletableFuture<?>> pendientes = new ArrayList<>();
+
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / configuracion.rps();
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + TimeUnit.SECONDS.toNanos(configuracion.calentamientoSegundos());
+        long fin = inicioMedicion + TimeUnit.SECONDS.toNanos(configuracion.duracionSegundos());
+
+        for (long programada = inicio; programada < fin; programada += intervalo) {
+            long espera = programada - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            OperacionCarga operacion = selector.elegir(aleatorio);
+            int usuario = aleatorio.nextInt(inversores.size());
+            BonoSembrado bono = bonos.get(aleatorio.nextInt(bonos.size()));
+            boolean medida = programada >= inicioMedicion;
+            long inicioPeticion = programada;
+
+            if (enVuelo.get() >= configuracion.concurrenciaMaxima()) {
+                // El cliente no da abasto: la petición cuenta como error en lugar de retrasar las siguientes
+                if (medida) {
+                    resultados.registrar(operacion, 0, System.nanoTime() - inicioPeticion);
+                }
+                continue;
+            }
+            HttpRequest peticion = switch (operacion) {
+                case CATALOGO -> get("/api/v1/inversor/bonos/catalogo", tokens.get(usuario));
+                case FLUJO -> get("/api/v1/inversor/bonos/" + bono.id() + "/flujo", tokens.get(usuario));
+                case ANALISIS_COMPLETO -> post("/api/v1/inversor/calculos/analisis-completo", tokens.get(usuario),
+                        generador.analisisCompleto(bono.id(), bono.valorNominal(), aleatorio));
+                case SIGN_IN -> post("/api/v1/authentication/sign-in", null,
+                        Map.of("username", inversores.get(usuario), "password", PASSWORD));
+            };
+            enVuelo.incrementAndGet();
+            CompletableFuture<?> respuesta = cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+                    .handle((r, error) -> {
+                        enVuelo.decrementAndGet();
+                        if (medida) {
+                            resultados.registrar(operacion, error != null ? 0 : r.statusCode(),
+                                    System.nanoTime() - inicioPeticion);
+                        }
+                        return null;
+                    });
+            if (medida) {
+                pendientes.add(respuesta);
+            }
+        }
+        CompletableFuture.allOf(pendientes.toArray(new CompletableFuture[0])).join();
+        return resultados;
+    }
+
+    private List<BonoSembrado> sembrarBonos(List<Map<String, Object>> cuerpos) throws Exception {
+        registrar("emisor_carga", "ROLE_EMISOR");
+        String token = iniciarSesion("emisor_carga");
+        List<BonoSembrado> bonos = new ArrayList<>(cuerpos.size());
+        for (Map<String, Object> cuerpo : cuerpos) {
+            JsonNode bono = enviar(post("/api/v1/emisor/bonos", token, cuerpo));
+            bonos.add(new BonoSembrado(bono.get("id").asLong(), ((Number) cuerpo.get("valorNominal")).doubleValue()));
+        }
+        return bonos;
+    }
+
+    private void registrar(String username, String rol) throws Exception {
+        enviar(post("/api/v1/authentication/sign-up", null,
+                Map.of("username", username, "password", PASSWORD, "roles", List.of(rol))));
+    }
+
+    private String iniciarSesion(String username) throws Exception {
+        return enviar(post("/api/v1/authentication/sign-in", null,
+                Map.of("username", username, "password", PASSWORD))).get("token").asText();
+    }
+
+    private JsonNode enviar(HttpRequest peticion) throws Exception {
+        HttpResponse<String> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() >= 300) {
+            throw new IllegalStateException("Siembra fallida en " + peticion.uri() + ": "
+                    + respuesta.statusCode() + " " + respuesta.body());
+        }
+        return objectMapper.readTree(respuesta.body());
+    }
+
+    private HttpRequest get(String ruta, String token) {
+        return peticion(ruta, token).GET().build();
+    }
+
+    private HttpRequest post(String ruta, String token, Object cuerpo) {
+        try {
+            return peticion(ruta, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(cuerpo)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder peticion(String ruta, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static void escribirReporte(ConfiguracionCarga configuracion, String reporte) throws IOException {
+        Path directorio = Path.of("target", "carga");
+        Files.createDirectories(directorio);
+        String marca = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Files.writeString(directorio.resolve("reporte-" + marca + ".txt"), configuracion + System.lineSeparator() + reporte);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bonoya.platform.carga;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y resultados por operación de la fase medida.
+ *
+ * La latencia se cuenta desde el instante en que la petición debía enviarse según la tasa objetivo, no desde
+ * que realmente salió: si el servidor se atrasa, la espera en cola del cliente también cuenta (evita la
+ * omisión coordinada, que ocultaría precisamente las degradaciones que interesa medir).
+ */
+class ResultadosCarga {
+
+    private final Map<OperacionCarga, Registro> registros = new EnumMap<>(OperacionCarga.class);
+
+    ResultadosCarga() {
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            registros.put(operacion, new Registro());
+        }
+    }
+
+    void registrar(OperacionCarga operacion, int estado, long latenciaNanos) {
+        Registro registro = registros.get(operacion);
+        registro.agregarLatencia(latenciaNanos);
+        if (estado == 429) {
+            registro.rechazadas.increment();
+        } else if (estado >= 200 && estado < 400) {
+            registro.exitosas.increment();
+        } else {
+            // 4xx distintos de 429, 5xx y errores de red (estado 0)
+            registro.errores.increment();
+        }
+    }
+
+    long totalPeticiones() {
+        return registros.values().stream().mapToLong(Registro::total).sum();
+    }
+
+    long totalErrores() {
+        return registros.values().stream().mapToLong(r -> r.errores.sum()).sum();
+    }
+
+    double tasaErrores() {
+        long total = totalPeticiones();
+        return total == 0 ? 0.0 : (double) totalErrores() / total;
+    }
+
+    /**
+     * Tabla con throughput, percentiles de latencia (ms) y proporciones de error y rechazo por operación.
+     */
+    String reporte(double segundosMedidos) {
+        StringBuilder reporte = new StringBuilder();
+        reporte.append(String.format(Locale.ROOT, "%-18s %8s %9s %8s %8s %8s %8s %8s %8s%n",
+                "operacion", "peticion", "rps", "p50", "p90", "p99", "max", "error%", "429%"));
+        for (Map.Entry<OperacionCarga, Registro> entrada : registros.entrySet()) {
+            reporte.append(fila(entrada.getKey().name().toLowerCase(Locale.ROOT), entrada.getValue(), segundosMedidos));
+        }
+        Registro total = new Registro();
+        registros.values().forEach(total::combinar);
+        reporte.append(fila("total", total, segundosMedidos));
+        return reporte.toString();
+    }
+
+    private static String fila(String nombre, Registro registro, double segundos) {
+        long[] latencias = registro.latenciasOrdenadas();
+        long total = registro.total();
+        return String.format(Locale.ROOT, "%-18s %8d %9.1f %8.1f %8.1f %8.1f %8.1f %8.2f %8.2f%n",
+                nombre, total, total / segundos,
+                percentil(latencias, 0.50), percentil(latencias, 0.90), percentil(latencias, 0.99),
+                percentil(latencias, 1.0),
+                porcentaje(registro.errores.sum(), total), porcentaje(registro.rechazadas.sum(), total));
+    }
+
+    static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0.0;
+        }
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))] / 1_000_000.0;
+    }
+
+    private static double porcentaje(long parte, long total) {
+        return total == 0 ? 0.0 : 100.0 * parte / total;
+    }
+
+    private static final class Registro {
+        private final LongAdder exitosas = new LongAdder();
+        private final LongAdder rechazadas = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+        private long[] latencias = new long[1024];
+        private int cantidad;
+
+        private synchronized void agregarLatencia(long nanos) {
+            if (cantidad == latencias.length) {
+                latencias = Arrays.copyOf(latencias, latencias.length * 2);
+            }
+            latencias[cantidad++] = nanos;
+        }
+
+        private long total() {
+            return exitosas.sum() + rechazadas.sum() + errores.sum();
+        }
+
+        private synchronized long[] latenciasOrdenadas() {
+            long[] copia = Arrays.copyOf(latencias, cantidad);
+            Arrays.sort(copia);
+            return copia;
+        }
+
+        private void combinar(Registro otro) {
+            exitosas.add(otro.exitosas.sum());
+            rechazadas.add(otro.rechazadas.sum());
+            errores.add(otro.errores.sum());
+            for (long latencia : otro.latenciasOrdenadas()) {
+                agregarLatencia(latencia);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.bonoya.platform.jmh;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
+import com.bonoya.platform.bonos.domain.model.valueobjects.FlujosPortafolio;
+import com.bonoya.platform.bonos.domain.services.FusionCronogramas;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+import com.bonoya.platform.bonos.domain.services.KernelDescuento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el núcleo de descuento escalar con el vectorial sobre dos cargas:
+ * <ul>
+ *     <li>{@code portafolio}: precio, duración, convexidad y TIR de un portafolio fusionado de muchos bonos.</li>
+ *     <li>{@code mallaEstres}: el mismo portafolio revaluado en una malla de tasas de -2% a 22% cada 10 pb.</li>
+ * </ul>
+ *
+ * Se ejecuta con el perfil Maven {@code jmh}: {@code mvn -B -Pjmh,vectorial test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class KernelDescuentoBenchmark {
+
+    private static final LocalDate VALORACION = LocalDate.of(2025, 6, 30);
+    private static final int[] FRECUENCIAS = {1, 2, 4, 12};
+
+    @Param({"escalar", "vectorial"})
+    public String kernel;
+
+    @Param({"500"})
+    public int bonos;
+
+    private KernelDescuento nucleo;
+    private FlujosPortafolio flujos;
+    private double costo;
+    private double[] tiempos;
+    private double[] montos;
+    private double[] tasas;
+    private double[] resultados;
+
+    @Setup
+    public void preparar() {
+        boolean vectorial = "vectorial".equals(kernel);
+        if (vectorial && KernelDescuento.vectorial().isEmpty()) {
+            throw new IllegalStateException("Núcleo vectorial no disponible: compilar con -Pvectorial");
+        }
+        nucleo = KernelDescuento.configurar(vectorial);
+
+        Random aleatorio = new Random(42L);
+        List<FusionCronogramas.Fuente> fuentes = new ArrayList<>(bonos);
+        for (int i = 0; i < bonos; i++) {
+            Bono bono = new Bono();
+            bono.setNombre("JMH-" + i);
+            bono.setValorNominal(BigDecimal.valueOf(1_000L * (1 + aleatorio.nextInt(100))));
+            bono.setTasaCupon(BigDecimal.valueOf(200 + aleatorio.nextInt(1200), 2));
+            bono.setPlazoAnios(2 + aleatorio.nextInt(29));
+            bono.setFrecuenciaPagos(FRECUENCIAS[aleatorio.nextInt(FRECUENCIAS.length)]);
+            bono.setFechaEmision(LocalDate.of(2018 + aleatorio.nextInt(7), 1 + aleatorio.nextInt(12), 1 + aleatorio.nextInt(28)));
+            bono.setMetodoAmortizacion(aleatorio.nextBoolean() ? "ALEMAN" : "AMERICANO");
+            fuentes.add(new FusionCronogramas.Fuente(GeneradorCronograma.compilar(bono), 1 + aleatorio.nextInt(50),
+                    bono.getFechaEmision()));
+        }
+        flujos = FusionCronogramas.fusionar(fuentes, VALORACION);
+        costo = flujos.valorPresente(0.065);
+
+        tiempos = new double[flujos.getPagos()];
+        montos = new double[flujos.getPagos()];
+        for (int i = 0; i < flujos.getPagos(); i++) {
+            tiempos[i] = flujos.anios(i);
+            montos[i] = flujos.total(i);
+        }
+        tasas = new double[241];
+        for (int k = 0; k < tasas.length; k++) {
+            tasas[k] = -0.02 + k * 0.001;
+        }
+        resultados = new double[3 * tasas.length];
+    }
+
+    @Benchmark
+    public double portafolio() {
+        DuracionConvexidad medidas = flujos.medidasRiesgo(0.07);
+        return flujos.tir(costo) + medidas.getDuracion().doubleValue();
+    }
+
+    @Benchmark
+    public double[] mallaEstres() {
+        nucleo.acumular(tiempos, montos, tiempos.length, tasas, resultados);
+        return resultados;
+    }
+}
@@ -0,0 +1,44 @@
+package com.bonoya.platform.bonos.application.internal.admision;
+
+/**
+ * Almacén del estado de las cubetas de tokens de {@link ControlAdmision}.
+ *
+ * La implementación por defecto ({@link AlmacenCubetasMemoria}) guarda las cubetas en memoria del proceso.
+ * Para compartir los límites entre varias instancias basta con declarar un bean que implemente esta interfaz
+ * (por ejemplo, sobre Redis); {@link ControlAdmision} lo usa en lugar del almacén en memoria.
+ */
+public interface AlmacenCubetas {
+
+    /**
+     * Intenta retirar {@code costo} tokens de la cubeta, recargándola antes según el tiempo transcurrido.
+     *
+     * @return 0 si se admitió; si no, nanosegundos hasta que la cubeta tenga tokens suficientes
+     */
+    long consumir(String clave, double costo, LimiteCubeta limite);
+
+    /**
+     * Devuelve tokens retirados por una petición que finalmente no se ejecutó.
+     */
+    void reembolsar(String clave, double costo, LimiteCubeta limite);
+
+    /**
+     * Elimina las cubetas sin uso durante al menos el tiempo indicado.
+     *
+     * @return cubetas eliminadas
+     */
+    int purgarInactivas(long inactividadNanos);
+
+    /**
+     * Capacidad y ritmo de recarga de una cubeta.
+     *
+     * @param capacidad Tokens máximos acumulables (tamaño de ráfaga)
+     * @param recargaPorSegundo Tokens que se reponen por segundo
+     */
+    record LimiteCubeta(double capacidad, double recargaPorSegundo) {
+        public LimiteCubeta {
+            if (capacidad <= 0 || recargaPorSegundo <= 0) {
+                throw new IllegalArgumentException("La capacidad y la recarga de la cubeta deben ser positivas");
+            }
+        }
+    }
+}
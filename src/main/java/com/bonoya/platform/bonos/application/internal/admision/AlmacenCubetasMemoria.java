@@ -0,0 +1,86 @@
+package com.bonoya.platform.bonos.application.internal.admision;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Cubetas de tokens en memoria del proceso.
+ *
+ * Cada cubeta se recarga de forma perezosa al consultarla, por lo que no hay hilos de recarga; el bloqueo
+ * es por cubeta, así que usuarios distintos no compiten entre sí salvo en la cubeta global.
+ */
+public class AlmacenCubetasMemoria implements AlmacenCubetas {
+
+    private static final double NANOS_POR_SEGUNDO = 1_000_000_000.0;
+
+    private final Map<String, Cubeta> cubetas = new ConcurrentHashMap<>();
+    private final LongSupplier reloj;
+
+    public AlmacenCubetasMemoria() {
+        this(System::nanoTime);
+    }
+
+    AlmacenCubetasMemoria(LongSupplier reloj) {
+        this.reloj = reloj;
+    }
+
+    @Override
+    public long consumir(String clave, double costo, LimiteCubeta limite) {
+        Cubeta cubeta = cubetas.computeIfAbsent(clave, c -> new Cubeta(limite.capacidad(), reloj.getAsLong()));
+        synchronized (cubeta) {
+            long ahora = reloj.getAsLong();
+            cubeta.recargar(limite, ahora);
+            cubeta.ultimoUso = ahora;
+            if (cubeta.tokens >= costo) {
+                cubeta.tokens -= costo;
+                return 0L;
+            }
+            double faltante = costo - cubeta.tokens;
+            return (long) Math.ceil(faltante / limite.recargaPorSegundo() * NANOS_POR_SEGUNDO);
+        }
+    }
+
+    @Override
+    public void reembolsar(String clave, double costo, LimiteCubeta limite) {
+        Cubeta cubeta = cubetas.get(clave);
+        if (cubeta == null) {
+            return;
+        }
+        synchronized (cubeta) {
+            cubeta.tokens = Math.min(limite.capacidad(), cubeta.tokens + costo);
+        }
+    }
+
+    @Override
+    public int purgarInactivas(long inactividadNanos) {
+        long ahora = reloj.getAsLong();
+        int antes = cubetas.size();
+        cubetas.values().removeIf(cubeta -> ahora - cubeta.ultimoUso >= inactividadNanos);
+        return antes - cubetas.size();
+    }
+
+    int getTamano() {
+        return cubetas.size();
+    }
+
+    private static final class Cubeta {
+        private double tokens;
+        private long ultimaRecarga;
+        private volatile long ultimoUso;
+
+        private Cubeta(double tokens, long ahora) {
+            this.tokens = tokens;
+            this.ultimaRecarga = ahora;
+            this.ultimoUso = ahora;
+        }
+
+        private void recargar(LimiteCubeta limite, long ahora) {
+            long transcurrido = ahora - ultimaRecarga;
+            if (transcurrido > 0) {
+                tokens = Math.min(limite.capacidad(), tokens + transcurrido / NANOS_POR_SEGUNDO * limite.recargaPorSegundo());
+                ultimaRecarga = ahora;
+            }
+        }
+    }
+}
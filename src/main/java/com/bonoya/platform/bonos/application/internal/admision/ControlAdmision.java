@@ -0,0 +1,139 @@
+package com.bonoya.platform.bonos.application.internal.admision;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Control de admisión de los cálculos costosos.
+ *
+ * Cada petición se cobra en una cubeta de tokens del inversor y en una cubeta global que representa la
+ * capacidad de CPU del servicio. El costo estimado es períodos del cronograma × métricas que calcula el
+ * análisis, de modo que un bono a 30 años con análisis completo consume mucho más que una TCEA a 2 años.
+ * Si alguna cubeta no alcanza, la petición se rechaza de inmediato con {@link TooManyRequestsException}
+ * (429 con {@code Retry-After}) sin ocupar un hilo de cálculo; un cliente que abusa agota su propia cubeta
+ * antes de afectar a la global.
+ *
+ * La capacidad por usuario cubre el análisis más costoso habitual (ANALISIS_COMPLETO de un bono mensual a
+ * 30 años, 360 × 10); un costo mayor se cobra como la capacidad completa, de modo que ninguna petición
+ * queda rechazada de forma permanente. El control está deshabilitado por defecto hasta calibrar los límites
+ * con la carga real. Los resultados servidos por el coalescedor de cálculos no se cobran.
+ */
+@Component
+public class ControlAdmision {
+
+    // Métricas que calcula cada tipo de análisis (peso del costo por período)
+    private static final Map<String, Integer> METRICAS_POR_ANALISIS = Map.of(
+            "INVERSION", 2,
+            "TREA", 8,
+            "TCEA", 2,
+            "DURACION", 3,
+            "CONVEXIDAD", 3,
+            "PRECIO_MAXIMO", 3,
+            "ANALISIS_COMPLETO", 10);
+    private static final int METRICAS_POR_DEFECTO = 5;
+    private static final String CLAVE_GLOBAL = "global";
+
+    private final AlmacenCubetas almacen;
+    private final boolean habilitado;
+    private final AlmacenCubetas.LimiteCubeta limiteUsuario;
+    private final AlmacenCubetas.LimiteCubeta limiteGlobal;
+    private final long inactividadNanos;
+
+    private final AtomicLong admitidas = new AtomicLong();
+    private final AtomicLong rechazadasUsuario = new AtomicLong();
+    private final AtomicLong rechazadasGlobal = new AtomicLong();
+
+    @Autowired
+    public ControlAdmision(ObjectProvider<AlmacenCubetas> almacen,
+                           @Value("${bonoya.admision.enabled:false}") boolean habilitado,
+                           @Value("${bonoya.admision.usuario.capacidad:3600}") double capacidadUsuario,
+                           @Value("${bonoya.admision.usuario.recarga-por-segundo:300}") double recargaUsuario,
+                           @Value("${bonoya.admision.global.capacidad:30000}") double capacidadGlobal,
+                           @Value("${bonoya.admision.global.recarga-por-segundo:6000}") double recargaGlobal,
+                           @Value("${bonoya.admision.inactividad-minutos:10}") long inactividadMinutos) {
+        this(almacen.getIfAvailable(AlmacenCubetasMemoria::new), habilitado,
+                new AlmacenCubetas.LimiteCubeta(capacidadUsuario, recargaUsuario),
+                new AlmacenCubetas.LimiteCubeta(capacidadGlobal, recargaGlobal),
+                TimeUnit.MINUTES.toNanos(inactividadMinutos));
+    }
+
+    ControlAdmision(AlmacenCubetas almacen, boolean habilitado, AlmacenCubetas.LimiteCubeta limiteUsuario,
+                    AlmacenCubetas.LimiteCubeta limiteGlobal, long inactividadNanos) {
+        this.almacen = almacen;
+        this.habilitado = habilitado;
+        this.limiteUsuario = limiteUsuario;
+        this.limiteGlobal = limiteGlobal;
+        this.inactividadNanos = inactividadNanos;
+    }
+
+    /**
+     * Admite el análisis del bono o lanza {@link TooManyRequestsException}.
+     *
+     * @param inversorUsername Usuario autenticado que hace la petición
+     * @param tipoAnalisis Tipo de análisis (TREA, TCEA, DURACION, CONVEXIDAD, PRECIO_MAXIMO, ANALISIS_COMPLETO o INVERSION)
+     * @param bono Bono analizado; sus períodos determinan el costo
+     */
+    public void admitir(String inversorUsername, String tipoAnalisis, Bono bono) {
+        if (!habilitado) {
+            return;
+        }
+        admitir(inversorUsername, estimarCosto(tipoAnalisis, bono));
+    }
+
+    static double estimarCosto(String tipoAnalisis, Bono bono) {
+        int periodos = bono != null ? Math.max(1, bono.getPlazoAnios() * bono.getFrecuenciaPagos()) : 1;
+        return (double) periodos * METRICAS_POR_ANALISIS.getOrDefault(tipoAnalisis, METRICAS_POR_DEFECTO);
+    }
+
+    void admitir(String inversorUsername, double costo) {
+        String claveUsuario = "usuario:" + (inversorUsername != null ? inversorUsername : "anonimo");
+        // Un análisis más costoso que la ráfaga permitida se cobra como la ráfaga completa
+        double costoUsuario = Math.min(costo, limiteUsuario.capacidad());
+        double costoGlobal = Math.min(costo, limiteGlobal.capacidad());
+
+        long espera = almacen.consumir(claveUsuario, costoUsuario, limiteUsuario);
+        if (espera > 0) {
+            rechazadasUsuario.incrementAndGet();
+            throw new TooManyRequestsException(
+                    "Límite de cálculos por usuario excedido; reintente más tarde", segundos(espera));
+        }
+        espera = almacen.consumir(CLAVE_GLOBAL, costoGlobal, limiteGlobal);
+        if (espera > 0) {
+            almacen.reembolsar(claveUsuario, costoUsuario, limiteUsuario);
+            rechazadasGlobal.incrementAndGet();
+            throw new TooManyRequestsException(
+                    "El servicio de cálculo está saturado; reintente más tarde", segundos(espera));
+        }
+        admitidas.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${bonoya.admision.limpieza-ms:60000}")
+    public void purgarInactivas() {
+        almacen.purgarInactivas(inactividadNanos);
+    }
+
+    public long getAdmitidas() {
+        return admitidas.get();
+    }
+
+    public long getRechazadasUsuario() {
+        return rechazadasUsuario.get();
+    }
+
+    public long getRechazadasGlobal() {
+        return rechazadasGlobal.get();
+    }
+
+    private static long segundos(long esperaNanos) {
+        return Math.max(1L, (esperaNanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,153 @@
+package com.bonoya.platform.bonos.application.internal.cache;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalescencia de cálculos idénticos concurrentes ("single-flight").
+ *
+ * Cuando varios inversores piden el mismo análisis sobre el mismo bono con los mismos parámetros, solo el
+ * primero ejecuta el cálculo; los demás esperan el mismo {@link CompletableFuture}. El resultado se conserva
+ * además unos instantes para atender las peticiones que llegan justo después. Cada inversor recibe una copia
+ * propia del {@link Calculo}, de modo que el registro que se persiste sigue siendo individual.
+ */
+@Component
+public class CoalescedorCalculos {
+
+    private final Map<ClaveCalculo, CompletableFuture<Calculo>> enCurso = new ConcurrentHashMap<>();
+    private final Map<ClaveCalculo, ResultadoReciente> recientes = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxResultados;
+
+    private final AtomicLong calculosEjecutados = new AtomicLong();
+    private final AtomicLong peticionesCoalescidas = new AtomicLong();
+    private final AtomicLong aciertosRecientes = new AtomicLong();
+
+    public CoalescedorCalculos(@Value("${bonoya.calculos.coalescencia.ttl-ms:2000}") long ttlMs,
+                               @Value("${bonoya.calculos.coalescencia.max-resultados:1000}") int maxResultados) {
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.maxResultados = maxResultados;
+    }
+
+    /**
+     * Devuelve el resultado del cálculo identificado por la clave, ejecutándolo solo si no hay uno
+     * idéntico en curso o reciente.
+     *
+     * @param clave Identifica el cálculo (tipo, bono, versión del bono y parámetros)
+     * @param inversorUsername Inversor al que pertenecerá la copia devuelta
+     * @param calculo Cálculo a ejecutar si no se puede reutilizar otro
+     * @return Copia no persistida del resultado compartido, asignada al inversor
+     */
+    public Calculo obtenerOCalcular(ClaveCalculo clave, String inversorUsername, Supplier<Calculo> calculo) {
+        ResultadoReciente reciente = recientes.get(clave);
+        if (reciente != null && reciente.vigente(System.nanoTime())) {
+            aciertosRecientes.incrementAndGet();
+            return reciente.calculo().copiarPara(inversorUsername);
+        }
+
+        CompletableFuture<Calculo> propio = new CompletableFuture<>();
+        CompletableFuture<Calculo> existente = enCurso.putIfAbsent(clave, propio);
+        if (existente != null) {
+            peticionesCoalescidas.incrementAndGet();
+            return esperar(existente).copiarPara(inversorUsername);
+        }
+
+        try {
+            calculosEjecutados.incrementAndGet();
+            Calculo resultado = calculo.get();
+            // El resultado se publica como reciente antes de liberar la clave en curso para no dejar huecos
+            guardarReciente(clave, resultado);
+            propio.complete(resultado);
+            return resultado.copiarPara(inversorUsername);
+        } catch (RuntimeException e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propio);
+        }
+    }
+
+    /**
+     * Indica si una petición con esta clave se atendería ahora sin calcular, con un resultado reciente o
+     * esperando un cálculo idéntico en curso. Sirve para no cobrar la admisión de un trabajo que no se
+     * ejecuta; la respuesta puede quedar desactualizada en cuanto se devuelve.
+     */
+    public boolean disponible(ClaveCalculo clave) {
+        ResultadoReciente reciente = recientes.get(clave);
+        return (reciente != null && reciente.vigente(System.nanoTime())) || enCurso.containsKey(clave);
+    }
+
+    public long getCalculosEjecutados() {
+        return calculosEjecutados.get();
+    }
+
+    public long getPeticionesCoalescidas() {
+        return peticionesCoalescidas.get();
+    }
+
+    public long getAciertosRecientes() {
+        return aciertosRecientes.get();
+    }
+
+    public int getCalculosEnCurso() {
+        return enCurso.size();
+    }
+
+    private void guardarReciente(ClaveCalculo clave, Calculo resultado) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        if (recientes.size() >= maxResultados) {
+            recientes.values().removeIf(r -> !r.vigente(ahora));
+            if (recientes.size() >= maxResultados) {
+                recientes.clear();
+            }
+        }
+        recientes.put(clave, new ResultadoReciente(resultado, ahora + ttlNanos));
+    }
+
+    private static Calculo esperar(CompletableFuture<Calculo> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Clave de un cálculo. Los importes se normalizan para que 5.0 y 5.00 se consideren iguales, y la
+     * versión del bono (fecha de última modificación) evita reutilizar resultados de un bono ya editado.
+     */
+    public record ClaveCalculo(String tipo, Long bonoId, long versionBono,
+                               BigDecimal tasaEsperada, BigDecimal precioCompra) {
+
+        public static ClaveCalculo de(String tipo, Bono bono, BigDecimal tasaEsperada, BigDecimal precioCompra) {
+            long version = bono.getUpdatedAt() != null ? bono.getUpdatedAt().getTime() : 0L;
+            return new ClaveCalculo(tipo, bono.getId(), version, normalizar(tasaEsperada), normalizar(precioCompra));
+        }
+
+        private static BigDecimal normalizar(BigDecimal valor) {
+            return valor != null ? valor.stripTrailingZeros() : null;
+        }
+    }
+
+    private record ResultadoReciente(Calculo calculo, long expiraEnNanos) {
+        boolean vigente(long ahora) {
+            return ahora - expiraEnNanos < 0;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.bonoya.platform.bonos.application.internal.importacion;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+
+/**
+ * Registro leído de un archivo de importación: el bono interpretado o el motivo por el que no se pudo leer.
+ *
+ * @param numero Posición del registro en el archivo (1 para el primer registro de datos)
+ * @param bono Bono leído, nulo si hubo error de formato
+ * @param error Descripción del error de formato, nulo si la fila se leyó bien
+ */
+public record FilaImportacion(long numero, Bono bono, String error) {
+
+    public static FilaImportacion valida(long numero, Bono bono) {
+        return new FilaImportacion(numero, bono, null);
+    }
+
+    public static FilaImportacion invalida(long numero, String error) {
+        return new FilaImportacion(numero, null, error);
+    }
+}
@@ -0,0 +1,126 @@
+package com.bonoya.platform.bonos.application.internal.jobs;
+
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ejecutor acotado y priorizado para los trabajos de análisis.
+ *
+ * Un número fijo de hilos (independiente de Tomcat) atiende una cola por prioridad. La capacidad total
+ * (en cola + en ejecución) está limitada por un semáforo: cuando se agota, el envío se rechaza con
+ * {@link TooManyRequestsException} en lugar de acumular trabajo sin límite.
+ */
+@Component
+public class EjecutorTrabajosAnalisis {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EjecutorTrabajosAnalisis.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore capacidad;
+    private final int hilos;
+    private final AtomicLong secuencia = new AtomicLong();
+
+    // Duración media de los trabajos (media móvil exponencial) para estimar el Retry-After
+    private volatile double duracionMediaMs = 1000.0;
+
+    public EjecutorTrabajosAnalisis(@Value("${bonoya.trabajos.hilos:4}") int hilos,
+                                    @Value("${bonoya.trabajos.capacidad:100}") int capacidad) {
+        this.hilos = hilos;
+        this.capacidad = new Semaphore(capacidad);
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), new FabricaHilos());
+    }
+
+    /**
+     * Encola una tarea con la prioridad indicada.
+     *
+     * @throws TooManyRequestsException si la capacidad del ejecutor está agotada
+     */
+    public void enviar(PrioridadTrabajo prioridad, Runnable tarea) {
+        if (!capacidad.tryAcquire()) {
+            throw new TooManyRequestsException(
+                    "La cola de análisis está llena, intente nuevamente más tarde", estimarEsperaSegundos());
+        }
+        try {
+            executor.execute(new TareaPriorizada(prioridad, secuencia.getAndIncrement(), tarea));
+        } catch (RuntimeException e) {
+            capacidad.release();
+            throw e;
+        }
+    }
+
+    public int getTrabajosEnCola() {
+        return executor.getQueue().size();
+    }
+
+    public int getTrabajosActivos() {
+        return executor.getActiveCount();
+    }
+
+    private long estimarEsperaSegundos() {
+        double esperaMs = (executor.getQueue().size() + 1) * duracionMediaMs / hilos;
+        return Math.max(1L, (long) Math.ceil(esperaMs / 1000.0));
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            LOGGER.warn("Se detuvo el ejecutor de análisis con {} trabajos pendientes", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    private final class TareaPriorizada implements Runnable, Comparable<TareaPriorizada> {
+        private final PrioridadTrabajo prioridad;
+        private final long orden;
+        private final Runnable tarea;
+
+        private TareaPriorizada(PrioridadTrabajo prioridad, long orden, Runnable tarea) {
+            this.prioridad = prioridad;
+            this.orden = orden;
+            this.tarea = tarea;
+        }
+
+        @Override
+        public void run() {
+            long inicio = System.nanoTime();
+            try {
+                tarea.run();
+            } finally {
+                double duracionMs = (System.nanoTime() - inicio) / 1_000_000.0;
+                duracionMediaMs = 0.8 * duracionMediaMs + 0.2 * duracionMs;
+                capacidad.release();
+            }
+        }
+
+        @Override
+        public int compareTo(TareaPriorizada otra) {
+            int porPrioridad = prioridad.compareTo(otra.prioridad);
+            return porPrioridad != 0 ? porPrioridad : Long.compare(orden, otra.orden);
+        }
+    }
+
+    private static final class FabricaHilos implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread hilo = new Thread(r, "analisis-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
+    }
+}
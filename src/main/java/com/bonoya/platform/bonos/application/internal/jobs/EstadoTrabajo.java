@@ -0,0 +1,11 @@
+package com.bonoya.platform.bonos.application.internal.jobs;
+
+/**
+ * Estados por los que pasa un trabajo asíncrono de análisis.
+ */
+public enum EstadoTrabajo {
+    PENDIENTE,
+    EN_PROCESO,
+    COMPLETADO,
+    FALLIDO
+}
@@ -0,0 +1,11 @@
+package com.bonoya.platform.bonos.application.internal.jobs;
+
+/**
+ * Prioridad de ejecución de un trabajo asíncrono. Los trabajos de mayor prioridad se atienden primero;
+ * dentro de la misma prioridad se respeta el orden de llegada.
+ */
+public enum PrioridadTrabajo {
+    ALTA,
+    NORMAL,
+    BAJA
+}
@@ -0,0 +1,104 @@
+package com.bonoya.platform.bonos.application.internal.jobs;
+
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Trabajo asíncrono de análisis: identifica al inversor que lo envió y expone su resultado
+ * como un {@link CompletableFuture} que se completa al terminar la ejecución.
+ */
+public class TrabajoAnalisis {
+
+    private final String id;
+    private final String tipo;
+    private final String inversorUsername;
+    private final PrioridadTrabajo prioridad;
+    private final Instant creadoEn;
+    private final CompletableFuture<Calculo> resultado = new CompletableFuture<>();
+
+    private volatile EstadoTrabajo estado = EstadoTrabajo.PENDIENTE;
+    private volatile Instant finalizadoEn;
+    private volatile String error;
+
+    public TrabajoAnalisis(String tipo, String inversorUsername, PrioridadTrabajo prioridad) {
+        this.id = UUID.randomUUID().toString();
+        this.tipo = tipo;
+        this.inversorUsername = inversorUsername;
+        this.prioridad = prioridad;
+        this.creadoEn = Instant.now();
+    }
+
+    public void marcarEnProceso() {
+        this.estado = EstadoTrabajo.EN_PROCESO;
+    }
+
+    public void completar(Calculo calculo) {
+        this.finalizadoEn = Instant.now();
+        this.estado = EstadoTrabajo.COMPLETADO;
+        resultado.complete(calculo);
+    }
+
+    public void fallar(Throwable causa) {
+        this.finalizadoEn = Instant.now();
+        this.error = causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+        this.estado = EstadoTrabajo.FALLIDO;
+        resultado.completeExceptionally(causa);
+    }
+
+    /**
+     * Indica si el trabajo terminó hace más del tiempo de retención indicado.
+     */
+    public boolean expirado(Instant limite) {
+        return finalizadoEn != null && finalizadoEn.isBefore(limite);
+    }
+
+    public boolean terminado() {
+        return estado == EstadoTrabajo.COMPLETADO || estado == EstadoTrabajo.FALLIDO;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public String getInversorUsername() {
+        return inversorUsername;
+    }
+
+    public PrioridadTrabajo getPrioridad() {
+        return prioridad;
+    }
+
+    public Instant getCreadoEn() {
+        return creadoEn;
+    }
+
+    public Instant getFinalizadoEn() {
+        return finalizadoEn;
+    }
+
+    public EstadoTrabajo getEstado() {
+        return estado;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public CompletableFuture<Calculo> getResultado() {
+        return resultado;
+    }
+
+    /**
+     * Devuelve el cálculo si el trabajo terminó correctamente, o null en otro caso.
+     */
+    public Calculo getCalculo() {
+        return estado == EstadoTrabajo.COMPLETADO ? resultado.getNow(null) : null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.bonoya.platform.bonos.application.internal.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de los cálculos financieros.
+ *
+ * Las etiquetas se limitan a valores de un conjunto cerrado (tipo de análisis, resultado y método del
+ * solver) para que el número de series no crezca con los datos: nunca se etiqueta por bono ni por inversor.
+ * Un tipo de análisis desconocido se agrupa bajo {@code OTRO}.
+ */
+@Component
+public class MetricasCalculo {
+
+    public static final String TIEMPO_ANALISIS = "bonoya.calculo.tiempo";
+    public static final String PERIODOS_CRONOGRAMA = "bonoya.cronograma.periodos";
+    public static final String ITERACIONES_TIR = "bonoya.tir.iteraciones";
+    public static final String RESOLUCIONES_TIR = "bonoya.tir.resoluciones";
+
+    private static final Set<String> TIPOS_ANALISIS = Set.of(
+            "TREA", "TCEA", "DURACION", "CONVEXIDAD", "PRECIO_MAXIMO", "ANALISIS_COMPLETO");
+
+    private final MeterRegistry registry;
+    private final DistributionSummary periodosCronograma;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public MetricasCalculo(MeterRegistry registry) {
+        this.registry = registry;
+        this.periodosCronograma = DistributionSummary.builder(PERIODOS_CRONOGRAMA)
+                .description("Períodos del cronograma de cada análisis")
+                .baseUnit("periodos")
+                .serviceLevelObjectives(4, 12, 24, 60, 120, 240, 360)
+                .register(registry);
+    }
+
+    /**
+     * Instancia sin exportación, para construir los servicios fuera del contexto de Spring.
+     */
+    public static MetricasCalculo sinRegistro() {
+        return new MetricasCalculo(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Ejecuta el análisis midiendo su duración bajo el tipo indicado.
+     */
+    public <T> T medirAnalisis(String tipoAnalisis, Supplier<T> analisis) {
+        long inicio = System.nanoTime();
+        String resultado = "error";
+        try {
+            T valor = analisis.get();
+            resultado = "exito";
+            return valor;
+        } finally {
+            timer(tipoAnalisis, resultado).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void registrarPeriodos(int periodos) {
+        if (periodos > 0) {
+            periodosCronograma.record(periodos);
+        }
+    }
+
+    /**
+     * Registra una resolución de la TIR.
+     *
+     * @param metodo Método numérico ({@code biseccion} o {@code newton})
+     * @param iteraciones Iteraciones realizadas
+     * @param convergio false si se agotó el máximo de iteraciones sin alcanzar la tolerancia
+     */
+    public void registrarSolverTir(String metodo, int iteraciones, boolean convergio) {
+        Counter.builder(ITERACIONES_TIR)
+                .description("Iteraciones acumuladas del cálculo de la TIR")
+                .tag("metodo", metodo)
+                .register(registry)
+                .increment(iteraciones);
+        Counter.builder(RESOLUCIONES_TIR)
+                .description("Resoluciones de la TIR por resultado")
+                .tag("metodo", metodo)
+                .tag("resultado", convergio ? "convergio" : "no_convergio")
+                .register(registry)
+                .increment();
+    }
+
+    private Timer timer(String tipoAnalisis, String resultado) {
+        String tipo = tipoAnalisis != null && TIPOS_ANALISIS.contains(tipoAnalisis) ? tipoAnalisis : "OTRO";
+        return timers.computeIfAbsent(tipo + ':' + resultado, clave -> Timer.builder(TIEMPO_ANALISIS)
+                .description("Duración de los análisis financieros")
+                .tag("tipo", tipo)
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry));
+    }
+}
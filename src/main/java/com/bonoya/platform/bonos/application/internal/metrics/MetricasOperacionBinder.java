@@ -0,0 +1,121 @@
+package com.bonoya.platform.bonos.application.internal.metrics;
+
+import com.bonoya.platform.bonos.application.internal.admision.ControlAdmision;
+import com.bonoya.platform.bonos.application.internal.cache.CoalescedorCalculos;
+import com.bonoya.platform.bonos.application.internal.jobs.EjecutorTrabajosAnalisis;
+import com.bonoya.platform.bonos.application.services.RetencionHistorialService;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+import com.bonoya.platform.bonos.infrastructure.persistence.jdbc.EscritorDiferidoCalculos;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publica como métricas los contadores que ya mantienen los componentes de cálculo y persistencia.
+ *
+ * Los valores se leen en cada extracción (los componentes no dependen de Micrometer). Las tasas de acierto
+ * de las cachés se publican como proporción entre 0 y 1, además de los contadores de los que se derivan.
+ */
+@Component
+public class MetricasOperacionBinder implements MeterBinder {
+
+    private final CoalescedorCalculos coalescedor;
+    private final EjecutorTrabajosAnalisis ejecutorTrabajos;
+    private final EscritorDiferidoCalculos escritorDiferido;
+    private final RetencionHistorialService retencion;
+    private final ControlAdmision controlAdmision;
+
+    public MetricasOperacionBinder(CoalescedorCalculos coalescedor,
+                                   EjecutorTrabajosAnalisis ejecutorTrabajos,
+                                   EscritorDiferidoCalculos escritorDiferido,
+                                   RetencionHistorialService retencion,
+                                   ControlAdmision controlAdmision) {
+        this.coalescedor = coalescedor;
+        this.ejecutorTrabajos = ejecutorTrabajos;
+        this.escritorDiferido = escritorDiferido;
+        this.retencion = retencion;
+        this.controlAdmision = controlAdmision;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Caché de cronogramas compilados
+        FunctionCounter.builder("bonoya.cronograma.cache.aciertos", GeneradorCronograma.class,
+                        c -> GeneradorCronograma.getAciertosCache())
+                .description("Cronogramas servidos desde la caché")
+                .register(registry);
+        FunctionCounter.builder("bonoya.cronograma.cache.compilaciones", GeneradorCronograma.class,
+                        c -> GeneradorCronograma.getCompilaciones())
+                .description("Cronogramas compilados")
+                .register(registry);
+        FunctionCounter.builder("bonoya.cronograma.snapshot.aciertos", GeneradorCronograma.class,
+                        c -> GeneradorCronograma.getAciertosPrecompilados())
+                .description("Cronogramas servidos desde el snapshot del catálogo")
+                .register(registry);
+        Gauge.builder("bonoya.cronograma.cache.tamano", GeneradorCronograma::getTamanoCache)
+                .register(registry);
+        Gauge.builder("bonoya.cronograma.cache.ratio.aciertos",
+                        () -> ratio(GeneradorCronograma.getAciertosCache(), GeneradorCronograma.getCompilaciones()))
+                .register(registry);
+
+        // Coalescencia de cálculos
+        contador(registry, "bonoya.calculo.coalescencia.ejecutados", coalescedor, CoalescedorCalculos::getCalculosEjecutados);
+        contador(registry, "bonoya.calculo.coalescencia.coalescidos", coalescedor, CoalescedorCalculos::getPeticionesCoalescidas);
+        contador(registry, "bonoya.calculo.coalescencia.recientes", coalescedor, CoalescedorCalculos::getAciertosRecientes);
+        Gauge.builder("bonoya.calculo.coalescencia.en_curso", coalescedor, CoalescedorCalculos::getCalculosEnCurso)
+                .register(registry);
+        Gauge.builder("bonoya.calculo.coalescencia.ratio.aciertos", coalescedor, c -> ratio(
+                        c.getPeticionesCoalescidas() + c.getAciertosRecientes(), c.getCalculosEjecutados()))
+                .register(registry);
+
+        // Trabajos asíncronos de análisis
+        Gauge.builder("bonoya.trabajos.en_cola", ejecutorTrabajos, EjecutorTrabajosAnalisis::getTrabajosEnCola)
+                .register(registry);
+        Gauge.builder("bonoya.trabajos.activos", ejecutorTrabajos, EjecutorTrabajosAnalisis::getTrabajosActivos)
+                .register(registry);
+
+        // Escritura diferida del historial
+        Gauge.builder("bonoya.write_behind.cola", escritorDiferido, EscritorDiferidoCalculos::getProfundidadCola)
+                .register(registry);
+        Gauge.builder("bonoya.write_behind.retraso", escritorDiferido, EscritorDiferidoCalculos::getRetrasoActualMs)
+                .baseUnit("milliseconds")
+                .register(registry);
+        contador(registry, "bonoya.write_behind.escritos", escritorDiferido, EscritorDiferidoCalculos::getEscritos);
+        contador(registry, "bonoya.write_behind.descartados", escritorDiferido, EscritorDiferidoCalculos::getDescartados);
+        contador(registry, "bonoya.write_behind.sincronos", escritorDiferido, EscritorDiferidoCalculos::getEscriturasSincronas);
+
+        // Retención del historial
+        contador(registry, "bonoya.retencion.ejecuciones", retencion, RetencionHistorialService::getEjecuciones);
+        contador(registry, "bonoya.retencion.purgadas", retencion, RetencionHistorialService::getPurgadasTotal);
+        for (String tabla : retencion.getTablasPurgadas()) {
+            FunctionCounter.builder("bonoya.retencion.purgadas.tabla", retencion, r -> r.getPurgadas(tabla))
+                    .tag("tabla", tabla)
+                    .register(registry);
+        }
+        Gauge.builder("bonoya.retencion.ultima_duracion", retencion, RetencionHistorialService::getUltimaDuracionMs)
+                .baseUnit("milliseconds")
+                .register(registry);
+
+        // Control de admisión de cálculos
+        contador(registry, "bonoya.admision.admitidas", controlAdmision, ControlAdmision::getAdmitidas);
+        FunctionCounter.builder("bonoya.admision.rechazadas", controlAdmision, ControlAdmision::getRechazadasUsuario)
+                .tag("cubeta", "usuario")
+                .register(registry);
+        FunctionCounter.builder("bonoya.admision.rechazadas", controlAdmision, ControlAdmision::getRechazadasGlobal)
+                .tag("cubeta", "global")
+                .register(registry);
+    }
+
+    private static <T> void contador(MeterRegistry registry, String nombre, T origen, ToDoubleFunction<T> valor) {
+        FunctionCounter.builder(nombre, origen, valor).register(registry);
+    }
+
+    static double ratio(long aciertos, long fallos) {
+        long total = aciertos + fallos;
+        return total == 0 ? 0.0 : (double) aciertos / total;
+    }
+}
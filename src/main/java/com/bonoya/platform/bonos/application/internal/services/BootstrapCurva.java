@@ -0,0 +1,145 @@
+package com.bonoya.platform.bonos.application.internal.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bootstrapping secuencial de una curva cero a partir de instrumentos ordenados por vencimiento.
+ *
+ * Cada instrumento aporta un nodo en su vencimiento: la tasa del nodo se resuelve por bisección para
+ * que el instrumento, descontado con los nodos ya conocidos (interpolación lineal durante la
+ * construcción), reproduzca su precio. Como cada nodo solo depende de los anteriores, una
+ * reconstrucción reutiliza los nodos del prefijo de instrumentos que no cambió.
+ */
+final class BootstrapCurva {
+
+    private static final double TASA_MINIMA = -0.9;
+    private static final double TASA_MAXIMA = 5.0;
+    private static final double PRECISION = 1e-12;
+    private static final int MAX_ITERACIONES = 200;
+    private static final double TOLERANCIA_PLAZO = 1e-9;
+
+    private BootstrapCurva() {
+    }
+
+    /**
+     * Instrumento de entrada: flujos positivos por plazo (años) y su precio observado.
+     */
+    record Instrumento(double[] plazos, double[] montos, double precio) {
+
+        double vencimiento() {
+            return plazos[plazos.length - 1];
+        }
+
+        boolean mismoQue(Instrumento otro) {
+            return otro != null
+                    && Double.compare(precio, otro.precio) == 0
+                    && Arrays.equals(plazos, otro.plazos)
+                    && Arrays.equals(montos, otro.montos);
+        }
+    }
+
+    /**
+     * Resultado del bootstrapping: los instrumentos usados y un nodo por cada uno.
+     */
+    record EstadoCurva(List<Instrumento> instrumentos, double[] plazos, double[] tasas, int nodosReutilizados) {
+    }
+
+    /**
+     * Construye la curva reutilizando los nodos del estado previo mientras los instrumentos coincidan.
+     *
+     * @param instrumentos Instrumentos disponibles (en cualquier orden)
+     * @param previo Estado de la construcción anterior, o null
+     * @return Nuevo estado de la curva
+     */
+    static EstadoCurva construir(List<Instrumento> instrumentos, EstadoCurva previo) {
+        List<Instrumento> ordenados = ordenarSinDuplicados(instrumentos);
+        if (ordenados.isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos un instrumento para construir la curva");
+        }
+
+        int n = ordenados.size();
+        double[] plazos = new double[n];
+        double[] tasas = new double[n];
+
+        // Prefijo de instrumentos sin cambios: sus nodos siguen siendo válidos
+        int reutilizados = 0;
+        if (previo != null) {
+            while (reutilizados < n && reutilizados < previo.instrumentos().size()
+                    && ordenados.get(reutilizados).mismoQue(previo.instrumentos().get(reutilizados))) {
+                plazos[reutilizados] = previo.plazos()[reutilizados];
+                tasas[reutilizados] = previo.tasas()[reutilizados];
+                reutilizados++;
+            }
+        }
+
+        for (int k = reutilizados; k < n; k++) {
+            Instrumento instrumento = ordenados.get(k);
+            plazos[k] = instrumento.vencimiento();
+            tasas[k] = resolverNodo(instrumento, plazos, tasas, k);
+        }
+
+        return new EstadoCurva(List.copyOf(ordenados), plazos, tasas, reutilizados);
+    }
+
+    private static List<Instrumento> ordenarSinDuplicados(List<Instrumento> instrumentos) {
+        List<Instrumento> ordenados = new ArrayList<>();
+        instrumentos.stream()
+                .filter(i -> i.plazos().length > 0 && i.precio() > 0)
+                .sorted(Comparator.comparingDouble(Instrumento::vencimiento)
+                        .thenComparingDouble(Instrumento::precio))
+                .forEach(i -> {
+                    // Un solo nodo por vencimiento: se conserva el primer instrumento
+                    if (ordenados.isEmpty()
+                            || i.vencimiento() - ordenados.get(ordenados.size() - 1).vencimiento() > TOLERANCIA_PLAZO) {
+                        ordenados.add(i);
+                    }
+                });
+        return ordenados;
+    }
+
+    private static double resolverNodo(Instrumento instrumento, double[] plazos, double[] tasas, int k) {
+        double bajo = TASA_MINIMA;
+        double alto = TASA_MAXIMA;
+
+        // El valor presente decrece con la tasa del nodo
+        for (int iter = 0; iter < MAX_ITERACIONES && alto - bajo > PRECISION; iter++) {
+            double medio = (bajo + alto) / 2;
+            tasas[k] = medio;
+            double diferencia = valorPresente(instrumento, plazos, tasas, k) - instrumento.precio();
+            if (diferencia > 0) {
+                bajo = medio;
+            } else {
+                alto = medio;
+            }
+        }
+        return (bajo + alto) / 2;
+    }
+
+    private static double valorPresente(Instrumento instrumento, double[] plazos, double[] tasas, int k) {
+        double suma = 0.0;
+        for (int i = 0; i < instrumento.plazos().length; i++) {
+            double t = instrumento.plazos()[i];
+            double z = tasaLineal(plazos, tasas, k, t);
+            suma += instrumento.montos()[i] * Math.exp(-t * Math.log1p(z));
+        }
+        return suma;
+    }
+
+    private static double tasaLineal(double[] plazos, double[] tasas, int k, double t) {
+        if (t <= plazos[0]) {
+            return tasas[0];
+        }
+        if (t >= plazos[k]) {
+            return tasas[k];
+        }
+        int j = 1;
+        while (plazos[j] < t) {
+            j++;
+        }
+        double s = (t - plazos[j - 1]) / (plazos[j] - plazos[j - 1]);
+        return tasas[j - 1] + s * (tasas[j] - tasas[j - 1]);
+    }
+}
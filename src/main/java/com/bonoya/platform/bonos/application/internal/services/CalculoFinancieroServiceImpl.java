@@ -1,19 +1,31 @@
 package com.bonoya.platform.bonos.application.internal.services;
 
+import com.bonoya.platform.bonos.application.internal.metrics.MetricasCalculo;
 import com.bonoya.platform.bonos.domain.model.entities.Bono;
 import com.bonoya.platform.bonos.domain.model.entities.Calculo;
 import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DetalleCalculo;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
+import com.bonoya.platform.bonos.domain.services.AnaliticaCerrada;
 import com.bonoya.platform.bonos.domain.services.CalculoFinancieroService;
+import com.bonoya.platform.bonos.domain.services.KernelMetricas;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
 import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.CalculoRepository;
+import com.bonoya.platform.shared.infrastructure.timing.TiemposPeticion;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
@@ -22,145 +34,39 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
     private static final MathContext MC = new MathContext(SCALE, ROUNDING_MODE);
 
+    // Desplazamiento de tasa para la revaluación de medidas efectivas (1 punto básico)
+    private static final double DESPLAZAMIENTO_TASA = 0.0001;
+
     private final CalculoRepository calculoRepository;
+    private final MetricasCalculo metricas;
 
     public CalculoFinancieroServiceImpl(CalculoRepository calculoRepository) {
+        this(calculoRepository, MetricasCalculo.sinRegistro());
+    }
+
+    @Autowired
+    public CalculoFinancieroServiceImpl(CalculoRepository calculoRepository, MetricasCalculo metricas) {
         this.calculoRepository = calculoRepository;
+        this.metricas = metricas;
     }
 
     @Override
     public List<FlujoFinanciero> calcularFlujoFinanciero(Bono bono) {
-        BigDecimal valorNominal = bono.getValorNominal();
-        BigDecimal tasaCupon = bono.getTasaCupon().divide(BigDecimal.valueOf(100), SCALE, ROUNDING_MODE);
-        int plazoAnios = bono.getPlazoAnios();
-        int frecuenciaPagos = bono.getFrecuenciaPagos();
-        int totalPeriodos = plazoAnios * frecuenciaPagos;
-        LocalDate fechaEmision = bono.getFechaEmision();
-        
-        // Identificar el método de amortización real
-        String metodoReal = identificarMetodoAmortizacion(bono);
-
-        List<FlujoFinanciero> flujos = new ArrayList<>();
-
-        // Período 0 - Desembolso inicial
-        FlujoFinanciero flujoInicial = new FlujoFinanciero();
-        flujoInicial.setBono(bono);
-        flujoInicial.setPeriodo(0);
-        flujoInicial.setFecha(fechaEmision);
-        flujoInicial.setCupon(BigDecimal.ZERO);
-        flujoInicial.setAmortizacion(BigDecimal.ZERO);
-        flujoInicial.setInteres(BigDecimal.ZERO);
-        flujoInicial.setSaldoInsoluto(valorNominal);
-        flujoInicial.setSaldo(valorNominal);
-        flujoInicial.setFlujoTotal(valorNominal.negate());
-        flujoInicial.setFlujo(valorNominal.negate());
-        flujos.add(flujoInicial);
-
-        // Calcular tasa periódica
-        BigDecimal tasaPeriodica = tasaCupon.divide(BigDecimal.valueOf(frecuenciaPagos), SCALE, ROUNDING_MODE);
-        
-        if ("ALEMAN".equalsIgnoreCase(metodoReal)) {
-            // MÉTODO ALEMÁN: Amortización constante, intereses decrecientes
-            return calcularFlujoFinancieroAleman(bono, flujos, totalPeriodos, tasaPeriodica, valorNominal, fechaEmision);
-        } else {
-            // MÉTODO AMERICANO: Cupón constante, amortización solo al final
-            return calcularFlujoFinancieroAmericano(bono, flujos, totalPeriodos, tasaPeriodica, valorNominal, fechaEmision);
-        }
-    }
-
-    private List<FlujoFinanciero> calcularFlujoFinancieroAmericano(Bono bono, List<FlujoFinanciero> flujos, 
-                                                                  int totalPeriodos, BigDecimal tasaPeriodica, 
-                                                                  BigDecimal valorNominal, LocalDate fechaEmision) {
-        for (int i = 1; i <= totalPeriodos; i++) {
-            FlujoFinanciero flujo = new FlujoFinanciero();
-            flujo.setBono(bono);
-            flujo.setPeriodo(i);
-            
-            // Calcular fecha del período
-            LocalDate fechaPeriodo = fechaEmision.plus(i * 12 / bono.getFrecuenciaPagos(), ChronoUnit.MONTHS);
-            flujo.setFecha(fechaPeriodo);
-
-            // MÉTODO AMERICANO: Cupón constante siempre, amortización solo al final
-            BigDecimal cuponPeriodo = valorNominal.multiply(tasaPeriodica, MC).setScale(2, ROUNDING_MODE);
-            BigDecimal amortizacion;
-            BigDecimal flujoTotal;
-            BigDecimal saldoRestante;
-            
-            if (i == totalPeriodos) {
-                // ÚLTIMO PERÍODO: Cupón + Valor Nominal completo
-                amortizacion = valorNominal.setScale(2, ROUNDING_MODE);
-                flujoTotal = cuponPeriodo.add(amortizacion).setScale(2, ROUNDING_MODE);
-                saldoRestante = BigDecimal.ZERO.setScale(2, ROUNDING_MODE);
-            } else {
-                // PERÍODOS INTERMEDIOS: Solo cupón
-                amortizacion = BigDecimal.ZERO.setScale(2, ROUNDING_MODE);
-                flujoTotal = cuponPeriodo.setScale(2, ROUNDING_MODE);
-                saldoRestante = valorNominal.setScale(2, ROUNDING_MODE);
-            }
-
-            // Asignar valores al flujo con precisión de 2 decimales
-            flujo.setCupon(cuponPeriodo);
-            flujo.setInteres(cuponPeriodo);
-            flujo.setAmortizacion(amortizacion);
-            flujo.setCuota(flujoTotal);
-            flujo.setFlujoTotal(flujoTotal);
-            flujo.setFlujo(flujoTotal);
-            flujo.setSaldoInsoluto(saldoRestante);
-            flujo.setSaldo(saldoRestante);
-
-            flujos.add(flujo);
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("schedule")) {
+            // El cronograma se compila una vez por condiciones del bono y se comparte con los flujos del emisor
+            return compilarCronograma(bono).aFlujosFinancieros(bono);
         }
-
-        return flujos;
     }
 
-    private List<FlujoFinanciero> calcularFlujoFinancieroAleman(Bono bono, List<FlujoFinanciero> flujos, 
-                                                               int totalPeriodos, BigDecimal tasaPeriodica, 
-                                                               BigDecimal valorNominal, LocalDate fechaEmision) {
-        // MÉTODO ALEMÁN VERDADERO: Amortización constante, intereses sobre saldo insoluto
-        
-        BigDecimal amortizacionConstante = valorNominal.divide(BigDecimal.valueOf(totalPeriodos), MC);
-        BigDecimal saldoInsoluto = valorNominal;
-
-        for (int i = 1; i <= totalPeriodos; i++) {
-            FlujoFinanciero flujo = new FlujoFinanciero();
-            flujo.setBono(bono);
-            flujo.setPeriodo(i);
-            
-            // Calcular fecha del período
-            LocalDate fechaPeriodo = fechaEmision.plus(i * 12 / bono.getFrecuenciaPagos(), ChronoUnit.MONTHS);
-            flujo.setFecha(fechaPeriodo);
-
-            // MÉTODO ALEMÁN CORRECTO: Interés = Saldo insoluto inicial * Tasa periódica
-            BigDecimal interes = saldoInsoluto.multiply(tasaPeriodica, MC).setScale(2, ROUNDING_MODE);
-            BigDecimal amortizacion = amortizacionConstante.setScale(2, ROUNDING_MODE);
-            
-            // En el último período, ajustar la amortización para eliminar cualquier residuo
-            if (i == totalPeriodos) {
-                amortizacion = saldoInsoluto.setScale(2, ROUNDING_MODE);  // Amortizar todo el saldo restante
-                // Recalcular interés sobre el saldo exacto restante
-                interes = saldoInsoluto.multiply(tasaPeriodica, MC).setScale(2, ROUNDING_MODE);
-            }
-            
-            BigDecimal flujoTotal = interes.add(amortizacion).setScale(2, ROUNDING_MODE);
-
-            // Asignar valores al flujo
-            flujo.setCupon(interes);      // En alemán, "cupón" = interés variable
-            flujo.setInteres(interes);
-            flujo.setAmortizacion(amortizacion);
-            flujo.setCuota(flujoTotal);
-            flujo.setFlujoTotal(flujoTotal);
-            flujo.setFlujo(flujoTotal);
-            
-            // Actualizar saldo insoluto DESPUÉS de calcular los intereses
-            saldoInsoluto = saldoInsoluto.subtract(amortizacion).setScale(2, ROUNDING_MODE);
-            flujo.setSaldoInsoluto(saldoInsoluto);
-            flujo.setSaldo(saldoInsoluto);
-
-            flujos.add(flujo);
+    /**
+     * Compila (o recupera de la caché) el cronograma del bono con el método de amortización identificado.
+     */
+    private CronogramaCompilado compilarCronograma(Bono bono) {
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("schedule")) {
+            // Identificar el método de amortización real
+            String metodoReal = identificarMetodoAmortizacion(bono);
+            return GeneradorCronograma.compilar(bono, "ALEMAN".equalsIgnoreCase(metodoReal));
         }
-
-        return flujos;
     }
 
     @Override
@@ -200,207 +106,146 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
     
     @Override
     public BigDecimal calcularDuracion(List<FlujoFinanciero> flujos, BigDecimal tcea) {
-        BigDecimal sumaPonderada = BigDecimal.ZERO;
-        BigDecimal precio = BigDecimal.ZERO;
-        
-        // Convertir TCEA a decimal si viene en porcentaje
-        BigDecimal tceaDecimal = tcea;
-        if (tcea.compareTo(BigDecimal.valueOf(0.1)) > 0) {
-            tceaDecimal = tcea.divide(BigDecimal.valueOf(100), SCALE, ROUNDING_MODE);
-        }
-        
-        // Obtener información del bono para calcular correctamente
-        Bono bono = null;
-        if (!flujos.isEmpty() && flujos.get(0).getBono() != null) {
-            bono = flujos.get(0).getBono();
-        }
-        
-        int frecuenciaPagos = (bono != null) ? bono.getFrecuenciaPagos() : 2;
-        
-        // Calcular tasa periódica para descuento
-        BigDecimal tasaPeriodica = calcularTasaEfectivaPeriodica(tceaDecimal, frecuenciaPagos);
-        
-        // Saltar el periodo 0 (desembolso inicial)
-        for (int i = 1; i < flujos.size(); i++) {
-            FlujoFinanciero flujo = flujos.get(i);
-            
-            // Solo considerar flujos positivos reales
-            BigDecimal flujoValor = flujo.getFlujoTotal();
-            if (flujoValor == null) {
-                flujoValor = flujo.getFlujo();
-            }
-            
-            if (flujoValor.compareTo(BigDecimal.ZERO) > 0) {
-                // Usar el periodo exacto
-                BigDecimal factorTiempo = new BigDecimal(flujo.getPeriodo());
-                flujo.setFactorTiempo(factorTiempo);
-                
-                // Factor de descuento: 1/(1+tasaPeriodica)^periodo
-                BigDecimal factorDescuento = BigDecimal.ONE
-                        .divide(BigDecimal.ONE.add(tasaPeriodica, MC).pow(flujo.getPeriodo(), MC), SCALE, ROUNDING_MODE);
-                flujo.setFactorDescuento(factorDescuento);
-                
-                BigDecimal valorActual = flujoValor.multiply(factorDescuento, MC);
-                flujo.setValorActual(valorActual);
-                flujo.setValorPresente(valorActual);
-                
-                // Acumular para el cálculo de duración: t * VA(flujo)
-                sumaPonderada = sumaPonderada.add(factorTiempo.multiply(valorActual, MC), MC);
-                
-                // Acumular el precio total (suma de valores actuales)
-                precio = precio.add(valorActual, MC);
-            }
-        }
-        
-        // Duracion = Suma(t * VA(flujo)) / Precio
-        if (precio.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal duracion = sumaPonderada.divide(precio, SCALE, ROUNDING_MODE);
-            
-            // Convertir duracion a años si está en periodos
-            BigDecimal duracionAnios = duracion.divide(BigDecimal.valueOf(frecuenciaPagos), SCALE, ROUNDING_MODE);
-            
-            return duracionAnios;
-        }
-        
-        return BigDecimal.ZERO;
+        // Anota en cada flujo su factor de descuento y valor actual, como se muestra al inversor
+        return calcularMetricasFlujos(flujos, tcea, true).duracion();
     }
     
     @Override
     public BigDecimal calcularDuracion(Bono bono) {
-        List<FlujoFinanciero> flujos = calcularFlujoFinanciero(bono);
-        return calcularDuracion(flujos, bono.getTasaCupon());
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("metrics")) {
+            CronogramaCompilado cronograma = compilarCronograma(bono);
+            double tasaPeriodica = tasaPeriodicaDescuento(bono.getTasaCupon(), bono.getFrecuenciaPagos()).doubleValue();
+            if (AnaliticaCerrada.aplicable(cronograma, tasaPeriodica)) {
+                AnaliticaCerrada.Momentos momentos = AnaliticaCerrada.momentos(cronograma, tasaPeriodica);
+                return aDecimal(momentos.duracionPeriodos() / bono.getFrecuenciaPagos());
+            }
+            return calcularDuracion(cronograma.aFlujosFinancieros(bono), bono.getTasaCupon());
+        }
     }
 
     @Override
     public BigDecimal calcularConvexidad(List<FlujoFinanciero> flujos, BigDecimal tcea) {
-        BigDecimal sumaConvexidad = BigDecimal.ZERO;
-        BigDecimal precio = BigDecimal.ZERO;
-        
-        // Convertir TCEA a decimal si viene en porcentaje
-        BigDecimal tceaDecimal = tcea;
-        if (tcea.compareTo(BigDecimal.valueOf(0.1)) > 0) {
-            tceaDecimal = tcea.divide(BigDecimal.valueOf(100), SCALE, ROUNDING_MODE);
-        }
-        
-        // Obtener información del bono para calcular correctamente
-        Bono bono = null;
-        if (!flujos.isEmpty() && flujos.get(0).getBono() != null) {
-            bono = flujos.get(0).getBono();
-        }
-        
-        int frecuenciaPagos = (bono != null) ? bono.getFrecuenciaPagos() : 2;
-        
-        // Calcular tasa periódica para descuento
-        BigDecimal tasaPeriodica = calcularTasaEfectivaPeriodica(tceaDecimal, frecuenciaPagos);
-        
-        // Saltar el periodo 0 (desembolso inicial)
-        for (int i = 1; i < flujos.size(); i++) {
-            FlujoFinanciero ff = flujos.get(i);
-            
-            // Solo considerar flujos positivos reales
-            BigDecimal flujoValor = ff.getFlujoTotal();
-            if (flujoValor == null) {
-                flujoValor = ff.getFlujo();
-            }
-            
-            if (flujoValor.compareTo(BigDecimal.ZERO) > 0) {
-                // Usar el periodo exacto
-                int periodo = ff.getPeriodo();
-                BigDecimal t = new BigDecimal(periodo);
-                BigDecimal tMasUno = t.add(BigDecimal.ONE);
-                
-                // Factor de descuento: 1/(1+tasaPeriodica)^periodo
-                BigDecimal factorDescuento = BigDecimal.ONE
-                        .divide(BigDecimal.ONE.add(tasaPeriodica, MC).pow(periodo, MC), SCALE, ROUNDING_MODE);
-                
-                BigDecimal valorActual = flujoValor.multiply(factorDescuento, MC);
-                
-                // Fórmula de convexidad: t * (t + 1) * VA(flujo) / (1 + r)^2
-                BigDecimal contribucionConvexidad = t.multiply(tMasUno, MC)
-                        .multiply(valorActual, MC);
-                
-                sumaConvexidad = sumaConvexidad.add(contribucionConvexidad, MC);
-                
-                // Acumular el precio total (suma de valores actuales)
-                precio = precio.add(valorActual, MC);
-            }
-        }
-        
-        // Convexidad = Suma(t * (t+1) * VA(flujo)) / (Precio * (1+r)^2)
-        if (precio.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal divisor = precio.multiply(
-                BigDecimal.ONE.add(tasaPeriodica).pow(2, MC), MC
-            );
-            
-            BigDecimal convexidad = sumaConvexidad.divide(divisor, SCALE, ROUNDING_MODE);
-            
-            // Normalizamos para convertir de periodos a años
-            BigDecimal m = new BigDecimal(frecuenciaPagos);
-            BigDecimal convexidadAnual = convexidad.divide(m.pow(2), SCALE, ROUNDING_MODE);
-            
-            return convexidadAnual;
-        }
-        
-        return BigDecimal.ZERO;
+        return calcularMetricasFlujos(flujos, tcea, false).convexidad();
     }
     
     @Override
     public BigDecimal calcularConvexidad(Bono bono) {
-        List<FlujoFinanciero> flujos = calcularFlujoFinanciero(bono);
-        return calcularConvexidad(flujos, bono.getTasaCupon());
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("metrics")) {
+            CronogramaCompilado cronograma = compilarCronograma(bono);
+            double tasaPeriodica = tasaPeriodicaDescuento(bono.getTasaCupon(), bono.getFrecuenciaPagos()).doubleValue();
+            if (AnaliticaCerrada.aplicable(cronograma, tasaPeriodica)) {
+                AnaliticaCerrada.Momentos momentos = AnaliticaCerrada.momentos(cronograma, tasaPeriodica);
+                double frecuencia = bono.getFrecuenciaPagos();
+                return aDecimal(momentos.convexidadPeriodos(tasaPeriodica) / (frecuencia * frecuencia));
+            }
+            return calcularConvexidad(cronograma.aFlujosFinancieros(bono), bono.getTasaCupon());
+        }
     }
 
     @Override
     public BigDecimal calcularPrecioMaximo(List<FlujoFinanciero> flujos, BigDecimal trea) {
-        // Asegurarse de que la tasa esté en formato decimal (ej: 0.05 para 5%)
-        BigDecimal tasaDecimal = trea;
-        if (trea.compareTo(BigDecimal.valueOf(0.1)) > 0) {
-            tasaDecimal = trea.divide(BigDecimal.valueOf(100), SCALE, ROUNDING_MODE);
-        }
-        
         if (flujos == null || flujos.isEmpty()) {
             return BigDecimal.ZERO;
         }
-        
-        // Obtener la información del bono para determinar la frecuencia de pagos
-        Bono bono = flujos.get(0).getBono();
-        int frecuenciaPagos = (bono != null) ? bono.getFrecuenciaPagos() : 2;
-        
-        // Calcular la tasa periódica
-        BigDecimal tasaPeriodica = calcularTasaEfectivaPeriodica(tasaDecimal, frecuenciaPagos);
-        
-        BigDecimal precioMaximo = BigDecimal.ZERO;
-        
-        // Calcular el valor presente de todos los flujos futuros usando la tasa esperada
-        // Saltar el flujo inicial (período 0) que es el desembolso
-        for (int i = 1; i < flujos.size(); i++) {
-            FlujoFinanciero flujo = flujos.get(i);
-            
-            // Obtener el flujo total
-            BigDecimal flujoValor = flujo.getFlujoTotal();
-            if (flujoValor == null || flujoValor.compareTo(BigDecimal.ZERO) <= 0) {
-                continue;
-            }
-            
-            // Calcular el factor de descuento: 1 / (1 + r)^n
-            BigDecimal factorDescuento = BigDecimal.ONE
-                    .divide(BigDecimal.ONE.add(tasaPeriodica).pow(flujo.getPeriodo(), MC), SCALE, ROUNDING_MODE);
-            
-            // Calcular el valor presente de este flujo
-            BigDecimal valorPresente = flujoValor.multiply(factorDescuento, MC);
-            
-            // Acumular al precio máximo
-            precioMaximo = precioMaximo.add(valorPresente);
-        }
-        
         // Redondear a 2 decimales para mostrar como precio
-        return precioMaximo.setScale(2, ROUNDING_MODE);
+        return calcularMetricasFlujos(flujos, trea, false).precio().setScale(2, ROUNDING_MODE);
     }
     
     @Override
     public BigDecimal calcularPrecioMaximo(Bono bono, BigDecimal tasaEsperada) {
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("metrics")) {
+            CronogramaCompilado cronograma = compilarCronograma(bono);
+            double tasaPeriodica = tasaPeriodicaDescuento(tasaEsperada, bono.getFrecuenciaPagos()).doubleValue();
+            if (AnaliticaCerrada.aplicable(cronograma, tasaPeriodica)) {
+                // Bullet y amortización constante: precio en tiempo constante
+                return BigDecimal.valueOf(AnaliticaCerrada.precio(cronograma, tasaPeriodica)).setScale(2, ROUNDING_MODE);
+            }
+            return calcularPrecioMaximo(cronograma.aFlujosFinancieros(bono), tasaEsperada);
+        }
+    }
+
+    /**
+     * Precio, duración y convexidad de una lista de flujos en un solo recorrido.
+     * La frecuencia se toma del bono de los flujos (semestral si no hay bono).
+     */
+    private KernelMetricas.Metricas calcularMetricasFlujos(List<FlujoFinanciero> flujos, BigDecimal tasa,
+                                                           boolean anotarFlujos) {
+        Bono bono = flujos != null && !flujos.isEmpty() ? flujos.get(0).getBono() : null;
+        int frecuenciaPagos = (bono != null) ? bono.getFrecuenciaPagos() : 2;
+        BigDecimal tasaPeriodica = tasaPeriodicaDescuento(tasa, frecuenciaPagos);
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("metrics")) {
+            return KernelMetricas.calcular(flujos, tasaPeriodica, frecuenciaPagos, tasa, anotarFlujos);
+        }
+    }
+
+    /**
+     * Tasa periódica efectiva con la misma conversión que usan los recorridos por flujos
+     * (porcentaje a decimal y luego (1+y)^(1/m)-1).
+     */
+    private BigDecimal tasaPeriodicaDescuento(BigDecimal tasa, int frecuenciaPagos) {
+        BigDecimal tasaDecimal = tasa;
+        if (tasa.compareTo(BigDecimal.valueOf(0.1)) > 0) {
+            tasaDecimal = tasa.divide(BigDecimal.valueOf(100), SCALE, ROUNDING_MODE);
+        }
+        return calcularTasaEfectivaPeriodica(tasaDecimal, frecuenciaPagos);
+    }
+
+    @Override
+    public DuracionConvexidad calcularMedidasRiesgo(Bono bono, BigDecimal tasaMercado) {
         List<FlujoFinanciero> flujos = calcularFlujoFinanciero(bono);
-        return calcularPrecioMaximo(flujos, tasaEsperada);
+        return calcularMedidasRiesgo(flujos, tasaMercado);
+    }
+
+    @Override
+    public DuracionConvexidad calcularMedidasRiesgo(List<FlujoFinanciero> flujos, BigDecimal tasaMercado) {
+        // Convertir la tasa a decimal si viene en porcentaje
+        BigDecimal tasaDecimal = tasaMercado;
+        if (tasaMercado.compareTo(BigDecimal.valueOf(0.1)) > 0) {
+            tasaDecimal = tasaMercado.divide(BigDecimal.valueOf(100), SCALE, ROUNDING_MODE);
+        }
+
+        Bono bono = !flujos.isEmpty() ? flujos.get(0).getBono() : null;
+        int frecuenciaPagos = (bono != null) ? bono.getFrecuenciaPagos() : 2;
+
+        KernelMetricas.Metricas metricasFlujos = calcularMetricasFlujos(flujos, tasaDecimal, true);
+        BigDecimal duracion = metricasFlujos.duracion();
+        BigDecimal convexidad = metricasFlujos.convexidad();
+        BigDecimal duracionModificada = calcularDuracionModificada(duracion, tasaDecimal).setScale(SCALE, ROUNDING_MODE);
+        DuracionConvexidad metricas = new DuracionConvexidad(duracion, duracionModificada, convexidad, tasaDecimal);
+
+        // Un único cronograma compilado sirve para todos los escenarios de desplazamiento
+        int[] plazosClave = DuracionConvexidad.PLAZOS_CLAVE;
+        double[] precios = RevaluacionDesplazamientos
+                .compilar(flujos, frecuenciaPagos, tasaDecimal.doubleValue())
+                .revaluar(DESPLAZAMIENTO_TASA, plazosClave);
+
+        double precioBase = precios[0];
+        if (precioBase <= 0) {
+            metricas.setDuracionEfectiva(BigDecimal.ZERO);
+            metricas.setConvexidadEfectiva(BigDecimal.ZERO);
+            metricas.setDuracionesClave(new LinkedHashMap<>());
+            return metricas;
+        }
+
+        // Duración efectiva = (P- - P+) / (2 * P0 * Δy); Convexidad efectiva = (P+ + P- - 2 * P0) / (P0 * Δy²)
+        double duracionEfectiva = (precios[2] - precios[1]) / (2 * precioBase * DESPLAZAMIENTO_TASA);
+        double convexidadEfectiva = (precios[1] + precios[2] - 2 * precioBase)
+                / (precioBase * DESPLAZAMIENTO_TASA * DESPLAZAMIENTO_TASA);
+        metricas.setDuracionEfectiva(aDecimal(duracionEfectiva));
+        metricas.setConvexidadEfectiva(aDecimal(convexidadEfectiva));
+
+        Map<Integer, BigDecimal> duracionesClave = new LinkedHashMap<>();
+        for (int j = 0; j < plazosClave.length; j++) {
+            double duracionClave = (precios[4 + 2 * j] - precios[3 + 2 * j]) / (2 * precioBase * DESPLAZAMIENTO_TASA);
+            duracionesClave.put(plazosClave[j], aDecimal(duracionClave));
+        }
+        metricas.setDuracionesClave(duracionesClave);
+
+        return metricas;
+    }
+
+    private static BigDecimal aDecimal(double valor) {
+        return BigDecimal.valueOf(valor).setScale(SCALE, ROUNDING_MODE);
     }
 
     @Override
@@ -434,8 +279,9 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         }
         
         // 3. Calculamos duración y convexidad usando TCEA
-        BigDecimal duracion = calcularDuracion(flujos, tcea);
-        BigDecimal convexidad = calcularConvexidad(flujos, tcea);
+        KernelMetricas.Metricas metricasFlujos = calcularMetricasFlujos(flujos, tcea, true);
+        BigDecimal duracion = metricasFlujos.duracion();
+        BigDecimal convexidad = metricasFlujos.convexidad();
         
         bono.setDuracion(duracion);
         bono.setConvexidad(convexidad);
@@ -501,17 +347,11 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         calculo.setTreaPorcentaje(trea.multiply(BigDecimal.valueOf(100)));
         calculo.setValorPresente(precioMaximo);
         
-        // Información enriquecida del análisis
-        String infoAdicional = String.format("Análisis de Inversión - TREA objetivo: %.2f%%, Precio máximo: %.2f, TCEA emisor: %.2f%%, Spread: %.2f%%, Duración: %.2f años, Convexidad: %.4f, Margen seguridad: %.2f, Método amortización: %s", 
-            tasaEsperada.doubleValue(),
-            precioMaximo.doubleValue(),
-            tcea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            spread.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            duracion.doubleValue(),
-            convexidad.doubleValue(),
-            margenSeguridad.doubleValue(),
-            identificarMetodoAmortizacion(bono));
-        calculo.setInformacionAdicional(infoAdicional);
+        // Métricas en sus columnas y el resto en el detalle; el resumen en texto se arma al consultarlo
+        calculo.setTcea(tcea);
+        calculo.setDuracion(duracion);
+        calculo.setConvexidad(convexidad);
+        calculo.setDetalle(new DetalleCalculo(spread, margenSeguridad, null, identificarMetodoAmortizacion(bono)));
         
         return calculo;
     }
@@ -551,16 +391,11 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         calculo.setFrecuenciaPagos(bono.getFrecuenciaPagos());
         calculo.setMoneda(bono.getMoneda() != null ? bono.getMoneda() : "PEN");
         
-        // Actualizar información detallada
-        String infoAdicional = String.format("Procesamiento actualizado - TREA: %.2f%%, Precio máximo: %.2f, TCEA: %.2f%%, Spread: %.2f%%, Duración: %.2f años, Convexidad: %.4f, Margen seguridad: %.2f", 
-            trea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            precioMaximo.doubleValue(),
-            tcea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            spread.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            duracion.doubleValue(),
-            convexidad.doubleValue(),
-            margenSeguridad.doubleValue());
-        calculo.setInformacionAdicional(infoAdicional);
+        calculo.setTcea(tcea);
+        calculo.setDuracion(duracion);
+        calculo.setConvexidad(convexidad);
+        calculo.setDetalle(new DetalleCalculo(spread, margenSeguridad, null, null));
+        calculo.setInformacionAdicional(null);
         
         // Actualizamos el cálculo
         calculoRepository.save(calculo);
@@ -586,18 +421,20 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
      * Calcula la TIR (Tasa Interna de Retorno) dado un precio de compra
      */
     private BigDecimal calcularTIR(List<FlujoFinanciero> flujos, BigDecimal precioCompra, Bono bono) {
-        // Para método alemán, siempre usar bisección ya que los flujos son variables
-        if ("ALEMAN".equals(bono.getMetodoAmortizacion())) {
-            return calcularTIRBiseccion(flujos, precioCompra, bono);
-        }
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("solve")) {
+            // Para método alemán, siempre usar bisección ya que los flujos son variables
+            if ("ALEMAN".equals(bono.getMetodoAmortizacion())) {
+                return calcularTIRBiseccion(flujos, precioCompra, bono);
+            }
         
-        // Para bonos simples, usar método analítico más preciso
-        if (bono.getPlazoAnios() <= 3) {
-            return calcularTIRAnalitica(precioCompra, bono);
-        }
+            // Para bonos simples, usar método analítico más preciso
+            if (bono.getPlazoAnios() <= 3) {
+                return calcularTIRAnalitica(precioCompra, bono);
+            }
         
-        // Para bonos complejos, usar bisección que es más estable
-        return calcularTIRBiseccion(flujos, precioCompra, bono);
+            // Para bonos complejos, usar bisección que es más estable
+            return calcularTIRBiseccion(flujos, precioCompra, bono);
+        }
     }
     
     /**
@@ -686,6 +523,7 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
             BigDecimal van = calcularVANPeriodico(precio, cuponPeriodo, valorNominal, totalPeriodos, tirMedio);
             
             if (van.abs().compareTo(precision) < 0) {
+                metricas.registrarSolverTir("biseccion", i + 1, true);
                 return convertirTasaPeriodicaAAnual(tirMedio, frecuenciaPagos);
             }
             
@@ -697,6 +535,7 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         }
         
         // Si no converge, devolver el punto medio
+        metricas.registrarSolverTir("biseccion", maxIteraciones, false);
         BigDecimal tirFinal = tirMin.add(tirMax).divide(BigDecimal.valueOf(2), MC);
         return convertirTasaPeriodicaAAnual(tirFinal, frecuenciaPagos);
     }
@@ -772,6 +611,7 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
             BigDecimal van = calcularVANSimple(precio, cupon, valorNominal, plazo, tirMedio);
             
             if (van.abs().compareTo(precision) < 0) {
+                metricas.registrarSolverTir("biseccion", i + 1, true);
                 return tirMedio.multiply(BigDecimal.valueOf(100)).setScale(2, ROUNDING_MODE);
             }
             
@@ -783,6 +623,7 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         }
         
         // Si no converge, devolver el punto medio
+        metricas.registrarSolverTir("biseccion", maxIteraciones, false);
         BigDecimal tirFinal = tirMin.add(tirMax).divide(BigDecimal.valueOf(2), MC);
         return tirFinal.multiply(BigDecimal.valueOf(100)).setScale(2, ROUNDING_MODE);
     }
@@ -796,15 +637,24 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         BigDecimal precision = new BigDecimal("0.0001"); // 0.01% anual
         int maxIteraciones = 100;
         int frecuenciaPagos = bono.getFrecuenciaPagos();
+        CronogramaCompilado cronograma = compilarCronograma(bono);
         
         for (int i = 0; i < maxIteraciones; i++) {
             BigDecimal tirAnualMedio = tirMin.add(tirMax).divide(BigDecimal.valueOf(2), MC);
             
             // Convertir tasa anual a periódica para el cálculo del VAN
             BigDecimal tirPeriodica = convertirTasaAnualAPeriodica(tirAnualMedio, frecuenciaPagos);
-            BigDecimal van = calcularVANParaBiseccionConTasaPeriodica(flujos, precioCompra, tirPeriodica);
+            BigDecimal van;
+            if (AnaliticaCerrada.aplicable(cronograma, tirPeriodica.doubleValue())) {
+                // Cronograma regular: cada evaluación del VAN es de costo constante
+                van = BigDecimal.valueOf(AnaliticaCerrada.precio(cronograma, tirPeriodica.doubleValue()))
+                        .subtract(precioCompra);
+            } else {
+                van = calcularVANParaBiseccionConTasaPeriodica(flujos, precioCompra, tirPeriodica);
+            }
             
             if (van.abs().compareTo(precision) < 0) {
+                metricas.registrarSolverTir("biseccion", i + 1, true);
                 return tirAnualMedio.multiply(BigDecimal.valueOf(100)).setScale(2, ROUNDING_MODE);
             }
             
@@ -816,6 +666,7 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         }
         
         // Si no converge, devolver el punto medio
+        metricas.registrarSolverTir("biseccion", maxIteraciones, false);
         BigDecimal tirFinal = tirMin.add(tirMax).divide(BigDecimal.valueOf(2), MC);
         return tirFinal.multiply(BigDecimal.valueOf(100)).setScale(2, ROUNDING_MODE);
     }
@@ -1063,6 +914,10 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
     
     @Override
     public Calculo calcularTREAEnriquecido(Bono bono, BigDecimal precioCompra, String inversorUsername) {
+        return medirAnalisis("TREA", () -> ejecutarTREAEnriquecido(bono, precioCompra, inversorUsername));
+    }
+
+    private Calculo ejecutarTREAEnriquecido(Bono bono, BigDecimal precioCompra, String inversorUsername) {
         // Crear el objeto Calculo base
         Calculo calculo = crearCalculoBase(bono, inversorUsername, "TREA");
         
@@ -1130,22 +985,15 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         BigDecimal rendimientoTotal = calcularRendimientoTotal(gananciaCapital, ingresosCupones, precioCompra);
         calculo.setRendimientoTotal(rendimientoTotal);
         
-        // Información enriquecida del análisis TREA
-        String infoAdicional = String.format("TREA enriquecida: %.2f%%, TIR: %.2f%%, VAN: %.2f, TCEA: %.2f%%, Precio justo: %.2f, Duración: %.2f años, Convexidad: %.4f", 
-            trea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            tir.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            van.doubleValue(),
-            tcea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            precioJusto.doubleValue(),
-            duracion.doubleValue(),
-            convexidad.doubleValue());
-        calculo.setInformacionAdicional(infoAdicional);
-        
         return calculo;
     }
     
     @Override
     public Calculo calcularTCEAEnriquecido(Bono bono, String inversorUsername) {
+        return medirAnalisis("TCEA", () -> ejecutarTCEAEnriquecido(bono, inversorUsername));
+    }
+
+    private Calculo ejecutarTCEAEnriquecido(Bono bono, String inversorUsername) {
         // Crear el objeto Calculo base
         Calculo calculo = crearCalculoBase(bono, inversorUsername, "TCEA");
         
@@ -1157,23 +1005,23 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         // Para TCEA, el precio máximo es el valor nominal (precio par)
         calculo.setPrecioMaximo(bono.getValorNominal());
         calculo.setValorPresente(bono.getValorNominal());
-        calculo.setInformacionAdicional("Análisis TCEA - Tasa Costo Efectiva Anual del emisor");
         
         // Calcular métricas adicionales
         BigDecimal duracion = calcularDuracion(bono);
         
-        // Agregar información detallada
-        String infoAdicional = String.format("TCEA: %.2f%%, Duración: %.2f años, Método: %s", 
-            tcea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            duracion.doubleValue(),
-            identificarMetodoAmortizacion(bono));
-        calculo.setInformacionAdicional(infoAdicional);
+        calculo.setTcea(tcea);
+        calculo.setDuracion(duracion);
+        calculo.setDetalle(DetalleCalculo.deMetodo(identificarMetodoAmortizacion(bono)));
         
         return calculo;
     }
     
     @Override
     public Calculo calcularDuracionEnriquecida(Bono bono, String inversorUsername) {
+        return medirAnalisis("DURACION", () -> ejecutarDuracionEnriquecida(bono, inversorUsername));
+    }
+
+    private Calculo ejecutarDuracionEnriquecida(Bono bono, String inversorUsername) {
         // Crear el objeto Calculo base
         Calculo calculo = crearCalculoBase(bono, inversorUsername, "DURACION");
         
@@ -1190,19 +1038,19 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         calculo.setPrecioMaximo(bono.getValorNominal());
         calculo.setValorPresente(bono.getValorNominal());
         
-        // Información detallada sobre la duración
-        String infoAdicional = String.format("Duración de Macaulay: %.2f años, TCEA: %.2f%%, Convexidad: %.4f, Sensibilidad al 1%%: %.2f%%", 
-            duracion.doubleValue(),
-            tcea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            convexidad.doubleValue(),
-            duracion.multiply(BigDecimal.valueOf(0.01)).doubleValue()); // Aproximación de sensibilidad
-        calculo.setInformacionAdicional(infoAdicional);
+        calculo.setTcea(tcea);
+        calculo.setDuracion(duracion);
+        calculo.setConvexidad(convexidad);
         
         return calculo;
     }
     
     @Override
     public Calculo calcularConvexidadEnriquecida(Bono bono, String inversorUsername) {
+        return medirAnalisis("CONVEXIDAD", () -> ejecutarConvexidadEnriquecida(bono, inversorUsername));
+    }
+
+    private Calculo ejecutarConvexidadEnriquecida(Bono bono, String inversorUsername) {
         // Crear el objeto Calculo base
         Calculo calculo = crearCalculoBase(bono, inversorUsername, "CONVEXIDAD");
         
@@ -1219,19 +1067,19 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         calculo.setPrecioMaximo(bono.getValorNominal());
         calculo.setValorPresente(bono.getValorNominal());
         
-        // Información detallada sobre la convexidad
-        String infoAdicional = String.format("Convexidad: %.4f, Duración: %.2f años, TCEA: %.2f%%, Corrección convexidad al 1%%: %.4f%%", 
-            convexidad.doubleValue(),
-            duracion.doubleValue(),
-            tcea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            convexidad.multiply(BigDecimal.valueOf(0.5)).multiply(BigDecimal.valueOf(0.01)).multiply(BigDecimal.valueOf(0.01)).doubleValue());
-        calculo.setInformacionAdicional(infoAdicional);
+        calculo.setTcea(tcea);
+        calculo.setDuracion(duracion);
+        calculo.setConvexidad(convexidad);
         
         return calculo;
     }
     
     @Override
     public Calculo calcularPrecioMaximoEnriquecido(Bono bono, BigDecimal tasaEsperada, String inversorUsername) {
+        return medirAnalisis("PRECIO_MAXIMO", () -> ejecutarPrecioMaximoEnriquecido(bono, tasaEsperada, inversorUsername));
+    }
+
+    private Calculo ejecutarPrecioMaximoEnriquecido(Bono bono, BigDecimal tasaEsperada, String inversorUsername) {
         // Crear el objeto Calculo base
         Calculo calculo = crearCalculoBase(bono, inversorUsername, "PRECIO_MAXIMO");
         
@@ -1250,20 +1098,19 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         BigDecimal duracion = calcularDuracion(bono);
         BigDecimal tcea = calcularTCEA(bono);
         
-        // Información enriquecida
-        String infoAdicional = String.format("Precio máximo: %.2f, TREA esperada: %.2f%%, TCEA emisor: %.2f%%, Duración: %.2f años, Spread: %.2f%%", 
-            calculoBase.getPrecioMaximo().doubleValue(),
-            calculoBase.getTrea().multiply(BigDecimal.valueOf(100)).doubleValue(),
-            tcea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            duracion.doubleValue(),
-            calculoBase.getTrea().subtract(tcea).multiply(BigDecimal.valueOf(100)).doubleValue());
-        calculo.setInformacionAdicional(infoAdicional);
+        calculo.setTcea(tcea);
+        calculo.setDuracion(duracion);
+        calculo.setDetalle(DetalleCalculo.deSpread(calculoBase.getTrea().subtract(tcea)));
         
         return calculo;
     }
     
     @Override
     public Calculo calcularAnalisisCompleto(Bono bono, BigDecimal tasaEsperada, String inversorUsername) {
+        return medirAnalisis("ANALISIS_COMPLETO", () -> ejecutarAnalisisCompleto(bono, tasaEsperada, inversorUsername));
+    }
+
+    private Calculo ejecutarAnalisisCompleto(Bono bono, BigDecimal tasaEsperada, String inversorUsername) {
         // Crear el objeto Calculo base
         Calculo calculo = crearCalculoBase(bono, inversorUsername, "ANALISIS_COMPLETO");
         
@@ -1334,17 +1181,6 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         BigDecimal rendimientoTotal = calcularRendimientoTotal(gananciaCapital, ingresosCupones, precioMaximo);
         calculo.setRendimientoTotal(rendimientoTotal);
         
-        // Información completa del análisis
-        String infoAdicional = String.format("Análisis completo - TREA: %.2f%%, TIR: %.2f%%, VAN: %.2f, TCEA: %.2f%%, Precio justo: %.2f, Duración: %.2f años, Convexidad: %.4f", 
-            trea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            tir.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            van.doubleValue(),
-            tcea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            precioJusto.doubleValue(),
-            duracion.doubleValue(),
-            convexidad.doubleValue());
-        calculo.setInformacionAdicional(infoAdicional);
-        
         return calculo;
     }
     
@@ -1356,29 +1192,36 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
      * Calcula la Tasa Interna de Retorno (TIR) de un bono (método público simplificado)
      */
     public BigDecimal calcularTIRPublico(List<FlujoFinanciero> flujos, BigDecimal precioCompra) {
-        // Implementación del método de Newton-Raphson para encontrar la TIR
-        BigDecimal tir = BigDecimal.valueOf(0.1); // Valor inicial 10%
-        BigDecimal tolerance = BigDecimal.valueOf(0.000001);
-        int maxIteraciones = 100;
-        
-        for (int i = 0; i < maxIteraciones; i++) {
-            BigDecimal f = calcularFuncionVAN(flujos, precioCompra, tir);
-            BigDecimal df = calcularDerivadaVAN(flujos, tir);
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("solve")) {
+            // Implementación del método de Newton-Raphson para encontrar la TIR
+            BigDecimal tir = BigDecimal.valueOf(0.1); // Valor inicial 10%
+            BigDecimal tolerance = BigDecimal.valueOf(0.000001);
+            int maxIteraciones = 100;
+            int iteraciones = 0;
+            boolean convergio = false;
+        
+            for (int i = 0; i < maxIteraciones; i++) {
+                iteraciones = i + 1;
+                BigDecimal f = calcularFuncionVAN(flujos, precioCompra, tir);
+                BigDecimal df = calcularDerivadaVAN(flujos, tir);
             
-            if (df.abs().compareTo(tolerance) < 0) {
-                break;
-            }
+                if (df.abs().compareTo(tolerance) < 0) {
+                    break;
+                }
             
-            BigDecimal nuevaTir = tir.subtract(f.divide(df, MC));
+                BigDecimal nuevaTir = tir.subtract(f.divide(df, MC));
             
-            if (nuevaTir.subtract(tir).abs().compareTo(tolerance) < 0) {
-                break;
-            }
+                if (nuevaTir.subtract(tir).abs().compareTo(tolerance) < 0) {
+                    convergio = true;
+                    break;
+                }
             
-            tir = nuevaTir;
-        }
+                tir = nuevaTir;
+            }
         
-        return tir;
+            metricas.registrarSolverTir("newton", iteraciones, convergio);
+            return tir;
+        }
     }
     
     /**
@@ -1447,6 +1290,66 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         return precioJusto.setScale(2, ROUNDING_MODE);
     }
     
+    @Override
+    public BigDecimal calcularPrecioMaximo(List<FlujoFinanciero> flujos, CurvaDescuento curva) {
+        if (flujos == null || flujos.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        double[] factores = factoresDescuento(flujos, curva);
+        BigDecimal precioMaximo = BigDecimal.ZERO;
+        for (int i = 0; i < flujos.size(); i++) {
+            FlujoFinanciero flujo = flujos.get(i);
+            BigDecimal flujoValor = flujo.getFlujoTotal();
+            if (flujo.getPeriodo() <= 0 || flujoValor == null || flujoValor.compareTo(BigDecimal.ZERO) <= 0) {
+                continue;
+            }
+            precioMaximo = precioMaximo.add(flujoValor.multiply(BigDecimal.valueOf(factores[i]), MC));
+        }
+        return precioMaximo.setScale(2, ROUNDING_MODE);
+    }
+
+    @Override
+    public BigDecimal calcularPrecioJusto(List<FlujoFinanciero> flujos, CurvaDescuento curva) {
+        return valorPresenteConCurva(flujos, curva).setScale(2, ROUNDING_MODE);
+    }
+
+    @Override
+    public BigDecimal calcularVAN(List<FlujoFinanciero> flujos, BigDecimal inversionInicial, CurvaDescuento curva) {
+        return valorPresenteConCurva(flujos, curva).subtract(inversionInicial);
+    }
+
+    private BigDecimal valorPresenteConCurva(List<FlujoFinanciero> flujos, CurvaDescuento curva) {
+        if (flujos == null || flujos.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+
+        double[] factores = factoresDescuento(flujos, curva);
+        BigDecimal valorPresente = BigDecimal.ZERO;
+        for (int i = 0; i < flujos.size(); i++) {
+            FlujoFinanciero flujo = flujos.get(i);
+            if (flujo.getPeriodo() > 0 && flujo.getFlujoTotal() != null) { // Excluir el período 0
+                valorPresente = valorPresente.add(flujo.getFlujoTotal().multiply(BigDecimal.valueOf(factores[i]), MC));
+            }
+        }
+        return valorPresente;
+    }
+
+    /**
+     * Precalcula el factor de descuento de cada flujo según su fecha, tomando como base la emisión del bono.
+     */
+    private double[] factoresDescuento(List<FlujoFinanciero> flujos, CurvaDescuento curva) {
+        Bono bono = flujos.get(0).getBono();
+        LocalDate fechaBase = bono != null && bono.getFechaEmision() != null
+                ? bono.getFechaEmision()
+                : flujos.get(0).getFecha();
+        List<LocalDate> fechas = new ArrayList<>(flujos.size());
+        for (FlujoFinanciero flujo : flujos) {
+            fechas.add(flujo.getFecha());
+        }
+        return curva.factoresDescuento(fechaBase, fechas);
+    }
+
     /**
      * Calcula el valor presente solo de los cupones
      */
@@ -1553,6 +1456,17 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         return derivada;
     }
     
+    /**
+     * Ejecuta un cálculo enriquecido registrando su duración y los períodos del cronograma analizado
+     */
+    private Calculo medirAnalisis(String tipoAnalisis, Supplier<Calculo> analisis) {
+        Calculo calculo = metricas.medirAnalisis(tipoAnalisis, analisis);
+        if (calculo.getPlazoAnios() != null && calculo.getFrecuenciaPagos() != null) {
+            metricas.registrarPeriodos(calculo.getPlazoAnios() * calculo.getFrecuenciaPagos());
+        }
+        return calculo;
+    }
+
     /**
      * Método auxiliar para crear la base común de todos los cálculos enriquecidos
      */
@@ -1575,6 +1489,10 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
     
     @Override
     public Calculo calcularAnalisisCompleto(Bono bono, BigDecimal tasaEsperada, BigDecimal precioCompra, String inversorUsername) {
+        return medirAnalisis("ANALISIS_COMPLETO", () -> ejecutarAnalisisCompleto(bono, tasaEsperada, precioCompra, inversorUsername));
+    }
+
+    private Calculo ejecutarAnalisisCompleto(Bono bono, BigDecimal tasaEsperada, BigDecimal precioCompra, String inversorUsername) {
         // Crear el objeto Calculo base
         Calculo calculo = crearCalculoBase(bono, inversorUsername, "ANALISIS_COMPLETO");
         
@@ -1645,17 +1563,7 @@ public class CalculoFinancieroServiceImpl implements CalculoFinancieroService {
         BigDecimal rendimientoTotal = calcularRendimientoTotal(gananciaCapital, ingresosCupones, precioCompra);
         calculo.setRendimientoTotal(rendimientoTotal);
         
-        // Información completa del análisis
-        String infoAdicional = String.format("Análisis completo - TREA: %.2f%%, TIR: %.2f%%, VAN: %.2f, TCEA: %.2f%%, Precio justo: %.2f, Duración: %.2f años, Convexidad: %.4f, Precio compra: %.2f", 
-            trea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            tir.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            van.doubleValue(),
-            tcea.multiply(BigDecimal.valueOf(100)).doubleValue(),
-            precioJusto.doubleValue(),
-            duracion.doubleValue(),
-            convexidad.doubleValue(),
-            precioCompra.doubleValue());
-        calculo.setInformacionAdicional(infoAdicional);
+        calculo.setDetalle(DetalleCalculo.dePrecioCompra(precioCompra));
         
         return calculo;
     }
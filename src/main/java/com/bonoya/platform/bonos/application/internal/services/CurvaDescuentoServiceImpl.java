@@ -0,0 +1,255 @@
+package com.bonoya.platform.bonos.application.internal.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CotizacionCurva;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.domain.services.CalculoFinancieroService;
+import com.bonoya.platform.bonos.domain.services.CurvaDescuentoService;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.BonoRepository;
+import com.bonoya.platform.shared.application.exceptions.ResourceNotFoundException;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Implementación del servicio de curvas de descuento.
+ *
+ * Las curvas se guardan por moneda y fuente (catálogo o cotizaciones). Una curva de catálogo se marca
+ * como desactualizada cuando cambian los bonos de su moneda y se reconstruye en la siguiente consulta,
+ * reutilizando los nodos de los instrumentos que no cambiaron.
+ *
+ * La reconstrucción lee el catálogo fuera del mapa de curvas y solo reemplaza la entrada al terminar. Cada
+ * invalidación incrementa la generación de la entrada: una reconstrucción que empezó antes de una
+ * invalidación se guarda como desactualizada, para que no quede vigente una curva leída antes del cambio.
+ */
+@Service
+public class CurvaDescuentoServiceImpl implements CurvaDescuentoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CurvaDescuentoServiceImpl.class);
+
+    private static final String FUENTE_CATALOGO = "CATALOGO";
+    private static final String FUENTE_COTIZACIONES = "COTIZACIONES";
+
+    private final BonoRepository bonoRepository;
+    private final CalculoFinancieroService calculoFinancieroService;
+    private final ConcurrentMap<String, EntradaCurva> curvas = new ConcurrentHashMap<>();
+
+    public CurvaDescuentoServiceImpl(BonoRepository bonoRepository, CalculoFinancieroService calculoFinancieroService) {
+        this.bonoRepository = bonoRepository;
+        this.calculoFinancieroService = calculoFinancieroService;
+    }
+
+    /**
+     * Entrada de la caché: último estado construido (null si aún no se construyó), si sigue vigente y el
+     * número de invalidaciones recibidas.
+     */
+    private record EntradaCurva(BootstrapCurva.EstadoCurva estado, boolean vigente, long generacion) {
+
+        private EntradaCurva invalidada() {
+            return new EntradaCurva(estado, false, generacion + 1);
+        }
+    }
+
+    @Override
+    public CurvaDescuento obtenerCurva(String moneda, CurvaDescuento.Interpolacion interpolacion) {
+        String codigo = normalizarMoneda(moneda);
+        String clave = clave(codigo, FUENTE_CATALOGO);
+        EntradaCurva previa = curvas.get(clave);
+        if (previa != null && previa.vigente()) {
+            return aCurva(codigo, previa.estado(), interpolacion);
+        }
+
+        List<BootstrapCurva.Instrumento> instrumentos = instrumentosCatalogo(codigo);
+        if (instrumentos.isEmpty()) {
+            throw new ResourceNotFoundException("No hay bonos en el catálogo para construir la curva en " + codigo);
+        }
+        BootstrapCurva.EstadoCurva estado = reconstruir(codigo, instrumentos, previa);
+        long generacion = previa != null ? previa.generacion() : 0;
+        curvas.compute(clave, (k, actual) -> {
+            if (actual != null && actual.vigente()) {
+                return actual;
+            }
+            long generacionActual = actual != null ? actual.generacion() : 0;
+            return new EntradaCurva(estado, generacionActual == generacion, generacionActual);
+        });
+        return aCurva(codigo, estado, interpolacion);
+    }
+
+    @Override
+    public CurvaDescuento construirCurva(String moneda, List<CotizacionCurva> cotizaciones,
+                                         CurvaDescuento.Interpolacion interpolacion) {
+        if (cotizaciones == null || cotizaciones.isEmpty()) {
+            throw new ValidationException("Se requiere al menos una cotización para construir la curva");
+        }
+        String codigo = normalizarMoneda(moneda);
+        List<BootstrapCurva.Instrumento> instrumentos = new ArrayList<>();
+        for (CotizacionCurva cotizacion : cotizaciones) {
+            instrumentos.add(instrumentoDesdeCotizacion(cotizacion));
+        }
+
+        EntradaCurva entrada = curvas.compute(clave(codigo, FUENTE_COTIZACIONES),
+                (clave, previa) -> new EntradaCurva(reconstruir(codigo, instrumentos, previa), true, 0));
+        return aCurva(codigo, entrada.estado(), interpolacion);
+    }
+
+    @Override
+    public void invalidar(String moneda) {
+        if (moneda == null) {
+            return;
+        }
+        // Sin entrada se deja una vacía: una primera construcción en curso no debe quedar vigente
+        curvas.compute(clave(normalizarMoneda(moneda), FUENTE_CATALOGO),
+                (clave, entrada) -> entrada != null ? entrada.invalidada() : new EntradaCurva(null, false, 1));
+    }
+
+    @Override
+    public void invalidarTodas() {
+        curvas.replaceAll((clave, entrada) -> clave.endsWith(FUENTE_CATALOGO) ? entrada.invalidada() : entrada);
+    }
+
+    @Override
+    public List<CurvaDescuento> curvasCatalogoVigentes() {
+        List<CurvaDescuento> vigentes = new ArrayList<>();
+        curvas.forEach((clave, entrada) -> {
+            if (entrada.vigente() && clave.endsWith(FUENTE_CATALOGO)) {
+                String moneda = clave.substring(0, clave.length() - FUENTE_CATALOGO.length() - 1);
+                vigentes.add(aCurva(moneda, entrada.estado(), CurvaDescuento.Interpolacion.LINEAL));
+            }
+        });
+        return vigentes;
+    }
+
+    /**
+     * La curva restaurada no conserva sus instrumentos: la siguiente reconstrucción resuelve todos los nodos.
+     */
+    @Override
+    public void restaurarCurvaCatalogo(CurvaDescuento curva) {
+        String codigo = normalizarMoneda(curva.getMoneda());
+        BootstrapCurva.EstadoCurva estado = new BootstrapCurva.EstadoCurva(List.of(), curva.getPlazos(),
+                curva.getTasasCero(), 0);
+        curvas.putIfAbsent(clave(codigo, FUENTE_CATALOGO), new EntradaCurva(estado, true, 0));
+    }
+
+    private BootstrapCurva.EstadoCurva reconstruir(String moneda, List<BootstrapCurva.Instrumento> instrumentos,
+                                                   EntradaCurva previa) {
+        BootstrapCurva.EstadoCurva estado = BootstrapCurva.construir(instrumentos, previa != null ? previa.estado() : null);
+        LOGGER.info("Curva {} construida: {} nodos, {} reutilizados", moneda,
+                estado.plazos().length, estado.nodosReutilizados());
+        return estado;
+    }
+
+    private List<BootstrapCurva.Instrumento> instrumentosCatalogo(String moneda) {
+        List<BootstrapCurva.Instrumento> instrumentos = new ArrayList<>();
+        for (Bono bono : bonoRepository.findByMonedaIgnoreCase(moneda)) {
+            BootstrapCurva.Instrumento instrumento = instrumentoDesdeBono(bono);
+            if (instrumento != null) {
+                instrumentos.add(instrumento);
+            }
+        }
+        return instrumentos;
+    }
+
+    /**
+     * Un bono del catálogo se valora a su tasa de descuento (o, en su defecto, a su TCEA) desde su emisión.
+     */
+    private BootstrapCurva.Instrumento instrumentoDesdeBono(Bono bono) {
+        if (bono.getFechaEmision() == null || bono.getValorNominal() == null || bono.getTasaCupon() == null
+                || bono.getPlazoAnios() <= 0 || bono.getFrecuenciaPagos() <= 0) {
+            return null;
+        }
+
+        BigDecimal tasa = bono.getTasaDescuento() != null ? bono.getTasaDescuento()
+                : bono.getTcea() != null ? bono.getTcea()
+                : calculoFinancieroService.calcularTCEA(bono);
+        double rendimiento = aDecimal(tasa);
+
+        List<FlujoFinanciero> flujos = calculoFinancieroService.calcularFlujoFinanciero(bono);
+        double[] plazos = new double[flujos.size()];
+        double[] montos = new double[flujos.size()];
+        int n = 0;
+        double precio = 0.0;
+        for (FlujoFinanciero flujo : flujos) {
+            if (flujo.getPeriodo() <= 0 || flujo.getFlujoTotal() == null || flujo.getFlujoTotal().signum() <= 0) {
+                continue;
+            }
+            plazos[n] = CurvaDescuento.plazoEnAnios(bono.getFechaEmision(), flujo.getFecha());
+            montos[n] = flujo.getFlujoTotal().doubleValue();
+            precio += montos[n] * Math.exp(-plazos[n] * Math.log1p(rendimiento));
+            n++;
+        }
+        if (n == 0) {
+            return null;
+        }
+        return new BootstrapCurva.Instrumento(
+                Arrays.copyOf(plazos, n), Arrays.copyOf(montos, n), precio);
+    }
+
+    private BootstrapCurva.Instrumento instrumentoDesdeCotizacion(CotizacionCurva cotizacion) {
+        if (cotizacion.plazoAnios() == null || cotizacion.plazoAnios().signum() <= 0) {
+            throw new ValidationException("El plazo de cada cotización debe ser positivo");
+        }
+        if (cotizacion.rendimiento() == null) {
+            throw new ValidationException("El rendimiento de cada cotización es obligatorio");
+        }
+
+        double plazo = cotizacion.plazoAnios().doubleValue();
+        double rendimiento = aDecimal(cotizacion.rendimiento());
+        double cupon = cotizacion.tasaCupon() != null ? aDecimal(cotizacion.tasaCupon()) : 0.0;
+
+        // Cupón cero: un único flujo unitario al vencimiento
+        if (cupon == 0.0) {
+            return new BootstrapCurva.Instrumento(new double[]{plazo}, new double[]{1.0},
+                    Math.exp(-plazo * Math.log1p(rendimiento)));
+        }
+
+        int frecuencia = cotizacion.frecuenciaPagos() != null && cotizacion.frecuenciaPagos() > 0
+                ? cotizacion.frecuenciaPagos() : 1;
+        int periodos = Math.max(1, (int) Math.round(plazo * frecuencia));
+        double[] plazos = new double[periodos];
+        double[] montos = new double[periodos];
+        double precio = 0.0;
+        for (int i = 0; i < periodos; i++) {
+            plazos[i] = (double) (i + 1) / frecuencia;
+            montos[i] = 100.0 * cupon / frecuencia + (i == periodos - 1 ? 100.0 : 0.0);
+            precio += montos[i] * Math.exp(-plazos[i] * Math.log1p(rendimiento));
+        }
+        return new BootstrapCurva.Instrumento(plazos, montos, precio);
+    }
+
+    private static CurvaDescuento aCurva(String moneda, BootstrapCurva.EstadoCurva estado,
+                                         CurvaDescuento.Interpolacion interpolacion) {
+        return new CurvaDescuento(moneda, interpolacion, estado.plazos(), estado.tasas());
+    }
+
+    /**
+     * Convierte una tasa a formato decimal si viene en porcentaje (misma convención que el resto de cálculos).
+     */
+    private static double aDecimal(BigDecimal tasa) {
+        if (tasa.compareTo(BigDecimal.valueOf(0.1)) > 0) {
+            return tasa.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP).doubleValue();
+        }
+        return tasa.doubleValue();
+    }
+
+    private static String normalizarMoneda(String moneda) {
+        if (moneda == null || moneda.isBlank()) {
+            throw new ValidationException("La moneda es obligatoria para construir la curva");
+        }
+        return moneda.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String clave(String moneda, String fuente) {
+        return moneda + "|" + fuente;
+    }
+}
@@ -5,6 +5,8 @@ import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
 import com.bonoya.platform.bonos.domain.model.valueobjects.FlujoInversionista;
 import com.bonoya.platform.bonos.domain.services.CalculoFinancieroService;
 import com.bonoya.platform.bonos.domain.services.FlujoInversionistaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -20,6 +22,7 @@ import java.util.List;
 @Service
 public class FlujoInversionistaServiceImpl implements FlujoInversionistaService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlujoInversionistaServiceImpl.class);
     private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
     
     private final CalculoFinancieroService calculoFinancieroService;
@@ -30,23 +33,25 @@ public class FlujoInversionistaServiceImpl implements FlujoInversionistaService
 
     @Override
     public List<FlujoInversionista> calcularFlujoInversionista(Bono bono, BigDecimal precioCompra) {
-        System.out.println("🔄 Calculando flujo del inversionista - Bono: " + bono.getNombre() + 
-                          ", Precio compra: " + precioCompra);
-        
+        return simular(bono, precioCompra).getFlujos();
+    }
+
+    @Override
+    public SimulacionCalculada simular(Bono bono, BigDecimal precioCompra) {
         // Obtener el flujo financiero del bono
         List<FlujoFinanciero> flujoOriginal = calculoFinancieroService.calcularFlujoFinanciero(bono);
         
         // Crear la lista de flujos del inversionista
-        List<FlujoInversionista> flujoInversionista = new ArrayList<>();
+        List<FlujoInversionista> flujoInversionista = new ArrayList<>(flujoOriginal.size() + 1);
         BigDecimal saldoAcumulado = precioCompra.negate(); // Empezamos con la inversión negativa
         
         // Período 0: Inversión inicial
         FlujoInversionista inversionInicial = FlujoInversionista.inversionInicial(precioCompra, LocalDate.now());
         flujoInversionista.add(inversionInicial);
+        AcumuladorMetricas acumulador = new AcumuladorMetricas();
+        acumulador.agregar(inversionInicial);
         
-        System.out.println("  📤 Período 0 (Inversión): " + precioCompra.negate());
-        
-        // Procesar flujos futuros del bono
+        // Procesar flujos futuros del bono; las métricas se acumulan a medida que se generan
         for (FlujoFinanciero flujoOriginalPeriodo : flujoOriginal) {
             if (flujoOriginalPeriodo.getPeriodo() != null && flujoOriginalPeriodo.getPeriodo() > 0) {
                 BigDecimal cupon = flujoOriginalPeriodo.getCupon() != null ? 
@@ -75,14 +80,14 @@ public class FlujoInversionistaServiceImpl implements FlujoInversionistaService
                 );
                 
                 flujoInversionista.add(flujo);
-                
-                System.out.println("  📥 Período " + flujoOriginalPeriodo.getPeriodo() + 
-                                  ": Flujo=" + flujoTotalPeriodo + ", Saldo=" + saldoAcumulado);
+                acumulador.agregar(flujo);
             }
         }
         
-        System.out.println("✅ Flujo del inversionista calculado: " + flujoInversionista.size() + " períodos");
-        return flujoInversionista;
+        MetricasInversionista metricas = acumulador.metricas(precioCompra);
+        LOGGER.debug("Flujo del inversionista del bono {} a {}: {} períodos, ganancia {}, ROI {}%", bono.getNombre(),
+                precioCompra, flujoInversionista.size(), metricas.getGananciaNeta(), metricas.getRendimientoTotal());
+        return new SimulacionCalculada(flujoInversionista, metricas);
     }
 
     @Override
@@ -92,40 +97,47 @@ public class FlujoInversionistaServiceImpl implements FlujoInversionistaService
                                            BigDecimal.ZERO, BigDecimal.ZERO);
         }
         
-        // Ganancia neta: saldo final
-        FlujoInversionista ultimoFlujo = flujoInversionista.get(flujoInversionista.size() - 1);
-        BigDecimal gananciaNeta = ultimoFlujo.getSaldoAcumulado();
-        
-        // Rendimiento total: (ganancia / inversión) * 100
-        BigDecimal rendimientoTotal = BigDecimal.ZERO;
-        if (precioCompra.compareTo(BigDecimal.ZERO) > 0) {
-            rendimientoTotal = gananciaNeta.divide(precioCompra, MC).multiply(BigDecimal.valueOf(100));
-        }
-        
-        // Período de recuperación: primer período donde el saldo es positivo
-        Integer periodoRecuperacion = 0;
+        // Un solo recorrido para todas las métricas
+        AcumuladorMetricas acumulador = new AcumuladorMetricas();
         for (FlujoInversionista flujo : flujoInversionista) {
-            if (flujo.haRecuperadoInversion() && flujo.getPeriodo() > 0) {
-                periodoRecuperacion = flujo.getPeriodo();
-                break;
+            acumulador.agregar(flujo);
+        }
+        MetricasInversionista metricas = acumulador.metricas(precioCompra);
+        LOGGER.debug("Métricas del inversionista: ganancia {}, ROI {}%, recuperación en el período {}",
+                metricas.getGananciaNeta(), metricas.getRendimientoTotal(), metricas.getPeriodoRecuperacion());
+        return metricas;
+    }
+
+    /**
+     * Acumula las métricas del inversionista flujo a flujo, en el orden de los períodos.
+     */
+    private static final class AcumuladorMetricas {
+        private BigDecimal saldoFinal = BigDecimal.ZERO;
+        private Integer periodoRecuperacion = 0;
+        private BigDecimal totalCupones = BigDecimal.ZERO;
+        private BigDecimal totalPrincipal = BigDecimal.ZERO;
+
+        void agregar(FlujoInversionista flujo) {
+            // Ganancia neta: saldo del último flujo
+            saldoFinal = flujo.getSaldoAcumulado();
+            if (flujo.getPeriodo() > 0) {
+                totalCupones = totalCupones.add(flujo.getCupon());
+                totalPrincipal = totalPrincipal.add(flujo.getPrincipal());
+                // Período de recuperación: primer período donde el saldo es positivo
+                if (periodoRecuperacion == 0 && flujo.haRecuperadoInversion()) {
+                    periodoRecuperacion = flujo.getPeriodo();
+                }
             }
         }
-        
-        // Total de cupones y principal
-        BigDecimal totalCupones = flujoInversionista.stream()
-            .filter(f -> f.getPeriodo() > 0)
-            .map(FlujoInversionista::getCupon)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-            
-        BigDecimal totalPrincipal = flujoInversionista.stream()
-            .filter(f -> f.getPeriodo() > 0)
-            .map(FlujoInversionista::getPrincipal)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        System.out.println("📊 Métricas calculadas - Ganancia: " + gananciaNeta + 
-                          ", ROI: " + rendimientoTotal + "%, Recuperación: período " + periodoRecuperacion);
-        
-        return new MetricasInversionista(gananciaNeta, rendimientoTotal, periodoRecuperacion, 
-                                       totalCupones, totalPrincipal);
+
+        MetricasInversionista metricas(BigDecimal precioCompra) {
+            // Rendimiento total: (ganancia / inversión) * 100
+            BigDecimal rendimientoTotal = BigDecimal.ZERO;
+            if (precioCompra.compareTo(BigDecimal.ZERO) > 0) {
+                rendimientoTotal = saldoFinal.divide(precioCompra, MC).multiply(BigDecimal.valueOf(100));
+            }
+            return new MetricasInversionista(saldoFinal, rendimientoTotal, periodoRecuperacion,
+                                           totalCupones, totalPrincipal);
+        }
     }
 }
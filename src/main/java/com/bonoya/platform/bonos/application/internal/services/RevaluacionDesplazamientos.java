@@ -0,0 +1,129 @@
+package com.bonoya.platform.bonos.application.internal.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Revaluación de un cronograma ante desplazamientos de tasa (bump-and-reprice).
+ *
+ * El cronograma se compila una sola vez a arreglos de plazos, montos y factores de descuento base;
+ * los escenarios de desplazamiento paralelo y por plazo clave se acumulan después en una única
+ * pasada sobre esos arreglos, sin volver a generar flujos ni crear objetos por escenario.
+ */
+final class RevaluacionDesplazamientos {
+
+    private final double[] plazos;
+    private final double[] montos;
+    private final double[] factores;
+    private final double tasa;
+
+    private RevaluacionDesplazamientos(double[] plazos, double[] montos, double[] factores, double tasa) {
+        this.plazos = plazos;
+        this.montos = montos;
+        this.factores = factores;
+        this.tasa = tasa;
+    }
+
+    /**
+     * Compila los flujos positivos del cronograma (omitiendo el período 0) con la tasa efectiva anual indicada.
+     *
+     * @param flujos Cronograma del bono
+     * @param frecuenciaPagos Pagos por año, para convertir períodos a años
+     * @param tasaAnual Tasa efectiva anual en formato decimal
+     */
+    static RevaluacionDesplazamientos compilar(List<FlujoFinanciero> flujos, int frecuenciaPagos, double tasaAnual) {
+        int n = 0;
+        double[] plazos = new double[flujos.size()];
+        double[] montos = new double[flujos.size()];
+        double[] factores = new double[flujos.size()];
+        double logBase = Math.log1p(tasaAnual);
+
+        for (int i = 1; i < flujos.size(); i++) {
+            FlujoFinanciero flujo = flujos.get(i);
+            BigDecimal valor = flujo.getFlujoTotal() != null ? flujo.getFlujoTotal() : flujo.getFlujo();
+            if (valor == null || valor.signum() <= 0) {
+                continue;
+            }
+            plazos[n] = (double) flujo.getPeriodo() / frecuenciaPagos;
+            montos[n] = valor.doubleValue();
+            factores[n] = Math.exp(-plazos[n] * logBase);
+            n++;
+        }
+
+        return new RevaluacionDesplazamientos(
+                Arrays.copyOf(plazos, n),
+                Arrays.copyOf(montos, n),
+                Arrays.copyOf(factores, n),
+                tasaAnual);
+    }
+
+    /**
+     * Revalúa el cronograma en una sola pasada.
+     *
+     * El resultado tiene la forma {@code [P0, P+, P-, P+(k0), P-(k0), P+(k1), P-(k1), ...]}, donde los
+     * escenarios por plazo clave desplazan la tasa con pesos triangulares centrados en cada plazo clave.
+     *
+     * @param desplazamiento Desplazamiento de la tasa en formato decimal (0.0001 = 1 pb)
+     * @param plazosClave Plazos clave en años, en orden creciente
+     * @return Precios por escenario
+     */
+    double[] revaluar(double desplazamiento, int[] plazosClave) {
+        int k = plazosClave.length;
+        double[] precios = new double[3 + 2 * k];
+        double base = 1.0 + tasa;
+        double logSube = Math.log(base / (base + desplazamiento));
+        double logBaja = Math.log(base / (base - desplazamiento));
+
+        for (int i = 0; i < plazos.length; i++) {
+            double t = plazos[i];
+            double valorBase = montos[i] * factores[i];
+            double valorSube = valorBase * Math.exp(t * logSube);
+            double valorBaja = valorBase * Math.exp(t * logBaja);
+
+            precios[0] += valorBase;
+            precios[1] += valorSube;
+            precios[2] += valorBaja;
+
+            // Cada flujo afecta a lo sumo a dos plazos clave adyacentes
+            int j = ubicarTramo(t, plazosClave);
+            if (t <= plazosClave[0] || j == k - 1) {
+                acumularClave(precios, j, valorBase, valorSube, valorBaja);
+            } else {
+                double peso = (plazosClave[j + 1] - t) / (plazosClave[j + 1] - plazosClave[j]);
+                acumularClave(precios, j, valorBase,
+                        valorBase * desplazar(t, base, desplazamiento * peso),
+                        valorBase * desplazar(t, base, -desplazamiento * peso));
+                acumularClave(precios, j + 1, valorBase,
+                        valorBase * desplazar(t, base, desplazamiento * (1 - peso)),
+                        valorBase * desplazar(t, base, -desplazamiento * (1 - peso)));
+            }
+        }
+
+        // Los escenarios por plazo clave solo acumulan la diferencia contra el precio base
+        for (int j = 0; j < k; j++) {
+            precios[3 + 2 * j] += precios[0];
+            precios[4 + 2 * j] += precios[0];
+        }
+        return precios;
+    }
+
+    private static int ubicarTramo(double t, int[] plazosClave) {
+        int j = 0;
+        while (j < plazosClave.length - 1 && t >= plazosClave[j + 1]) {
+            j++;
+        }
+        return j;
+    }
+
+    private static double desplazar(double t, double base, double desplazamiento) {
+        return Math.exp(t * Math.log(base / (base + desplazamiento)));
+    }
+
+    private static void acumularClave(double[] precios, int j, double valorBase, double valorSube, double valorBaja) {
+        precios[3 + 2 * j] += valorSube - valorBase;
+        precios[4 + 2 * j] += valorBaja - valorBase;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bonoya.platform.bonos.application.internal.services;
+
+import com.bonoya.platform.bonos.domain.services.KernelDescuento;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aplica al arrancar el interruptor {@code bonoya.kernel.vectorial}.
+ *
+ * Por defecto (false) se usa el núcleo escalar. Con true se usa el vectorial si está disponible: compilado con el
+ * perfil Maven {@code vectorial} y la JVM arrancada con {@code --add-modules jdk.incubator.vector}. El núcleo
+ * elegido queda en el log.
+ */
+@Component
+public class SeleccionKernelDescuento {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SeleccionKernelDescuento.class);
+
+    public SeleccionKernelDescuento(@Value("${bonoya.kernel.vectorial:false}") boolean vectorial) {
+        KernelDescuento elegido = KernelDescuento.configurar(vectorial);
+        if (vectorial && KernelDescuento.vectorial().isEmpty()) {
+            LOGGER.info("Núcleo de descuento {}: el vectorial no se compiló (-Pvectorial) o la JVM no tiene "
+                    + "el módulo jdk.incubator.vector", elegido.nombre());
+        } else {
+            LOGGER.info("Núcleo de descuento {}", elegido.nombre());
+        }
+    }
+}
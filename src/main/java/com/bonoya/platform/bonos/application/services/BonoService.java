@@ -2,13 +2,20 @@ package com.bonoya.platform.bonos.application.services;
 
 import com.bonoya.platform.bonos.domain.model.entities.Bono;
 import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.VersionBono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.VersionCatalogo;
+import com.bonoya.platform.bonos.domain.services.CurvaDescuentoService;
 import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.BonoRepository;
 import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.FlujoFinancieroRepository;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,11 +24,16 @@ public class BonoService {
 
     private final BonoRepository bonoRepository;
     private final FlujoFinancieroRepository flujoFinancieroRepository;
+    private final CurvaDescuentoService curvaDescuentoService;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Autowired
-    public BonoService(BonoRepository bonoRepository, FlujoFinancieroRepository flujoFinancieroRepository) {
+    public BonoService(BonoRepository bonoRepository, FlujoFinancieroRepository flujoFinancieroRepository,
+                       CurvaDescuentoService curvaDescuentoService, EntityManagerFactory entityManagerFactory) {
         this.bonoRepository = bonoRepository;
         this.flujoFinancieroRepository = flujoFinancieroRepository;
+        this.curvaDescuentoService = curvaDescuentoService;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     @Transactional
@@ -47,6 +59,10 @@ public class BonoService {
             System.out.println("  ✅ Flujos persistidos en BD");
         }
         
+        // La curva de la moneda debe incorporar el nuevo bono
+        String moneda = bonoGuardado.getMoneda();
+        despuesDelCommit(() -> curvaDescuentoService.invalidar(moneda));
+        
         return bonoGuardado;
     }
 
@@ -78,6 +94,29 @@ public class BonoService {
         }
     }
 
+    public VersionCatalogo obtenerVersionCatalogo() {
+        return bonoRepository.obtenerVersionCatalogo();
+    }
+
+    public VersionCatalogo obtenerVersionCatalogoPorMoneda(String moneda) {
+        return bonoRepository.obtenerVersionCatalogoPorMoneda(moneda);
+    }
+
+    /**
+     * Versión del listado de {@link #obtenerBonosPorRangoTasa(double, double)} con los mismos criterios.
+     */
+    public VersionCatalogo obtenerVersionCatalogoPorRangoTasa(double tasaMinima, double tasaMaxima) {
+        BigDecimal minTasa = BigDecimal.valueOf(tasaMinima);
+        if (tasaMaxima == Double.MAX_VALUE) {
+            return bonoRepository.obtenerVersionCatalogoPorTasaMinima(minTasa);
+        }
+        return bonoRepository.obtenerVersionCatalogoPorRangoTasa(minTasa, BigDecimal.valueOf(tasaMaxima));
+    }
+
+    public Optional<VersionBono> obtenerVersionBono(Long id) {
+        return bonoRepository.obtenerVersion(id);
+    }
+
     @Transactional
     public Bono actualizarBono(Long id, Bono bono) {
         System.out.println("🔄 Actualizando bono ID: " + id + ", Método: " + bono.getMetodoAmortizacion());
@@ -85,6 +124,7 @@ public class BonoService {
         validarBono(bono);
         return bonoRepository.findById(id)
                 .map(existingBono -> {
+                    String monedaAnterior = existingBono.getMoneda();
                     bono.setId(id);
                     
                     // Eliminar flujos antiguos
@@ -107,6 +147,14 @@ public class BonoService {
                         System.out.println("  ✅ Nuevos flujos persistidos en BD");
                     }
                     
+                    // Invalidar la curva anterior y la nueva por si cambió la moneda
+                    String monedaNueva = bonoActualizado.getMoneda();
+                    despuesDelCommit(() -> {
+                        curvaDescuentoService.invalidar(monedaAnterior);
+                        curvaDescuentoService.invalidar(monedaNueva);
+                    });
+                    invalidarCacheSegundoNivel(id);
+                    
                     return bonoActualizado;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Bono no encontrado"));
@@ -114,6 +162,49 @@ public class BonoService {
 
     public void eliminarBono(Long id) {
         bonoRepository.deleteById(id);
+        despuesDelCommit(curvaDescuentoService::invalidarTodas);
+        invalidarCacheSegundoNivel(id);
+    }
+
+    /**
+     * Invalida las cachés afectadas por bonos insertados fuera de JPA (importación masiva): las consultas del
+     * catálogo y las curvas de descuento de las monedas indicadas.
+     */
+    public void invalidarTrasImportacion(Collection<String> monedas) {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class)
+                .evictQueryRegion(BonoRepository.REGION_CONSULTAS);
+        monedas.forEach(curvaDescuentoService::invalidar);
+    }
+
+    /**
+     * Quita el bono y las consultas del catálogo de la caché de segundo nivel.
+     */
+    private void invalidarCacheSegundoNivel(Long id) {
+        despuesDelCommit(() -> {
+            org.hibernate.Cache cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+            cache.evictEntityData(Bono.class, id);
+            cache.evictQueryRegion(BonoRepository.REGION_CONSULTAS);
+        });
+    }
+
+    /**
+     * Ejecuta una invalidación de caché tras el commit de la transacción en curso, o de inmediato si no hay una.
+     *
+     * Si se invalidara antes del commit, otra petición podría volver a cargar el estado anterior (la entidad
+     * en la caché de segundo nivel o la curva de su moneda) y marcarlo vigente mientras la transacción sigue
+     * abierta.
+     */
+    private static void despuesDelCommit(Runnable invalidacion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidacion.run();
+                }
+            });
+        } else {
+            invalidacion.run();
+        }
     }
 
     public void validarBono(Bono bono) {
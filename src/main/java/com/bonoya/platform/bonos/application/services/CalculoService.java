@@ -1,33 +1,112 @@
 package com.bonoya.platform.bonos.application.services;
 
 import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.infrastructure.persistence.jdbc.EscritorDiferidoCalculos;
 import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.CalculoRepository;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class CalculoService {
 
     private final CalculoRepository calculoRepository;
+    private final EscritorDiferidoCalculos escritorDiferido;
+    private final EntityManager entityManager;
+    private final TransactionTemplate lecturaTemplate;
+    private final int filasPorLimpieza;
 
     @Autowired
-    public CalculoService(CalculoRepository calculoRepository) {
+    public CalculoService(CalculoRepository calculoRepository, EscritorDiferidoCalculos escritorDiferido,
+                          EntityManager entityManager, PlatformTransactionManager transactionManager,
+                          @Value("${bonoya.exportacion.filas-por-limpieza:500}") int filasPorLimpieza) {
         this.calculoRepository = calculoRepository;
+        this.escritorDiferido = escritorDiferido;
+        this.entityManager = entityManager;
+        this.lecturaTemplate = new TransactionTemplate(transactionManager);
+        this.lecturaTemplate.setReadOnly(true);
+        this.filasPorLimpieza = Math.max(1, filasPorLimpieza);
     }
 
+    /**
+     * Guarda el cálculo. Con la escritura diferida habilitada se devuelve con su id ya asignado y la
+     * inserción ocurre en segundo plano.
+     */
     public Calculo guardarCalculo(Calculo calculo) {
+        if (escritorDiferido.isHabilitado() && calculo.getId() == null) {
+            return escritorDiferido.encolar(calculo);
+        }
         return calculoRepository.save(calculo);
     }
 
     public Optional<Calculo> obtenerCalculoPorId(Long id) {
-        return calculoRepository.findById(id);
+        Calculo pendiente = escritorDiferido.obtenerPendiente(id);
+        return pendiente != null ? Optional.of(pendiente) : calculoRepository.findById(id);
     }
 
     public List<Calculo> obtenerCalculosPorInversor(String inversorUsername) {
-        return calculoRepository.findByInversorUsername(inversorUsername);
+        // Los pendientes se leen primero: si su lote se escribe entre ambas lecturas aparecen en la consulta
+        // y se descartan como duplicados, en lugar de perderse
+        List<Calculo> pendientes = escritorDiferido.obtenerPendientesPorInversor(inversorUsername);
+        List<Calculo> calculos = new ArrayList<>(calculoRepository.findByInversorUsername(inversorUsername));
+        if (pendientes.isEmpty()) {
+            return calculos;
+        }
+        Set<Long> ids = new HashSet<>(calculos.size() * 2);
+        calculos.forEach(calculo -> ids.add(calculo.getId()));
+        for (Calculo pendiente : pendientes) {
+            if (ids.add(pendiente.getId())) {
+                calculos.add(pendiente);
+            }
+        }
+        return calculos;
+    }
+
+    /**
+     * Entrega el historial completo del inversor al consumidor, fila a fila y en orden de id, sin cargarlo en
+     * memoria: se recorre un cursor de solo lectura y el contexto de persistencia se vacía cada
+     * {@code filas-por-limpieza} filas. Los cálculos aún pendientes de la escritura diferida se entregan al
+     * final si la consulta no los incluyó.
+     *
+     * @return cantidad de cálculos entregados
+     */
+    public long exportarCalculosPorInversor(String inversorUsername, Consumer<Calculo> consumidor) {
+        // Como en obtenerCalculosPorInversor, los pendientes se leen antes que la base de datos
+        Map<Long, Calculo> pendientes = new LinkedHashMap<>();
+        for (Calculo pendiente : escritorDiferido.obtenerPendientesPorInversor(inversorUsername)) {
+            pendientes.put(pendiente.getId(), pendiente);
+        }
+        Long exportados = lecturaTemplate.execute(status -> {
+            long filas = 0;
+            try (Stream<Calculo> calculos = calculoRepository.streamByInversorUsername(inversorUsername)) {
+                Iterator<Calculo> iterador = calculos.iterator();
+                while (iterador.hasNext()) {
+                    Calculo calculo = iterador.next();
+                    pendientes.remove(calculo.getId());
+                    consumidor.accept(calculo);
+                    if (++filas % filasPorLimpieza == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return filas;
+        });
+        pendientes.values().forEach(consumidor);
+        return exportados + pendientes.size();
     }
 
     public List<Calculo> obtenerCalculosPorBono(Long bonoId) {
@@ -35,6 +114,7 @@ public class CalculoService {
     }
 
     public void eliminarCalculo(Long id) {
+        escritorDiferido.asegurarEscrito(id);
         calculoRepository.deleteById(id);
     }
 }
\ No newline at end of file
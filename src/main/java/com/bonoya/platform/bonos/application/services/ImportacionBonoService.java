@@ -0,0 +1,281 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.application.internal.importacion.FilaImportacion;
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.entities.ImportacionBono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.ErrorImportacion;
+import com.bonoya.platform.bonos.domain.model.valueobjects.EstadoImportacion;
+import com.bonoya.platform.bonos.infrastructure.persistence.jdbc.EscritorLotesBonos;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.ImportacionBonoRepository;
+import com.bonoya.platform.shared.application.exceptions.ResourceAlreadyException;
+import com.bonoya.platform.shared.application.exceptions.ResourceNotFoundException;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importación masiva de bonos de un emisor.
+ *
+ * Las filas se consumen a medida que se leen del archivo, en lotes de {@code tamano-lote}: cada lote se valida
+ * con las reglas de {@link BonoService#validarBono(Bono)}, genera sus cronogramas en paralelo y se inserta por
+ * JDBC en una sola transacción junto con el progreso de la importación. Las filas inválidas no detienen la
+ * importación; se cuentan y las primeras {@code max-errores} se guardan con su motivo.
+ *
+ * Si la lectura se corta, la importación queda INTERRUMPIDA con la última fila confirmada y puede reanudarse
+ * reenviando el mismo archivo: las filas ya confirmadas se saltan.
+ *
+ * La protección contra dos reanudaciones simultáneas de la misma importación es local a esta instancia: con
+ * varias réplicas, las reanudaciones deben enviarse a la misma o serializarse por fuera.
+ */
+@Service
+public class ImportacionBonoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportacionBonoService.class);
+
+    private static final BigDecimal TASA_DESCUENTO_POR_DEFECTO = BigDecimal.valueOf(0.08);
+    private static final int PRECISION_COLUMNAS = 19;
+
+    private final ImportacionBonoRepository importacionRepository;
+    private final BonoService bonoService;
+    private final EscritorLotesBonos escritorLotes;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+    private final int maxErrores;
+    private final ExecutorService generadores;
+
+    // Importaciones con una petición activa en esta instancia, para que dos reanudaciones simultáneas no
+    // inserten dos veces; no coordina réplicas distintas
+    private final Set<Long> enCurso = ConcurrentHashMap.newKeySet();
+
+    public ImportacionBonoService(ImportacionBonoRepository importacionRepository, BonoService bonoService,
+                                  EscritorLotesBonos escritorLotes, PlatformTransactionManager transactionManager,
+                                  @Value("${bonoya.importacion.tamano-lote:500}") int tamanoLote,
+                                  @Value("${bonoya.importacion.hilos:0}") int hilos,
+                                  @Value("${bonoya.importacion.max-errores:1000}") int maxErrores) {
+        this.importacionRepository = importacionRepository;
+        this.bonoService = bonoService;
+        this.escritorLotes = escritorLotes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+        this.maxErrores = maxErrores;
+        AtomicInteger contador = new AtomicInteger();
+        this.generadores = Executors.newFixedThreadPool(hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors(),
+                r -> {
+                    Thread hilo = new Thread(r, "importacion-bonos-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    /**
+     * Importa las filas en lotes hasta agotarlas o hasta que la lectura falle.
+     *
+     * @param emisorUsername Emisor al que se asignan los bonos
+     * @param formato Formato del archivo, solo informativo
+     * @param reanudarId Importación interrumpida a reanudar, o null para iniciar una nueva
+     * @param filas Filas del archivo en orden
+     * @return la importación con su estado final (COMPLETADA o INTERRUMPIDA)
+     */
+    public ImportacionBono importar(String emisorUsername, String formato, Long reanudarId,
+                                    Iterator<FilaImportacion> filas) {
+        ImportacionBono importacion = iniciar(emisorUsername, formato, reanudarId);
+        Long id = importacion.getId();
+        if (!enCurso.add(id)) {
+            throw new ResourceAlreadyException("La importación " + id + " ya se está procesando");
+        }
+        try {
+            long desde = importacion.getUltimaFilaConfirmada();
+            List<FilaImportacion> lote = new ArrayList<>(tamanoLote);
+            while (filas.hasNext()) {
+                FilaImportacion fila = filas.next();
+                if (fila.numero() <= desde) {
+                    continue;
+                }
+                lote.add(fila);
+                if (lote.size() == tamanoLote) {
+                    procesarLote(id, emisorUsername, lote);
+                    lote.clear();
+                }
+            }
+            procesarLote(id, emisorUsername, lote);
+            return finalizar(id, EstadoImportacion.COMPLETADA, null);
+        } catch (UncheckedIOException e) {
+            LOGGER.warn("Importación {} interrumpida: {}", id, e.getMessage());
+            return finalizar(id, EstadoImportacion.INTERRUMPIDA, "Lectura interrumpida: " + e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.error("Importación {} fallida", id, e);
+            finalizar(id, EstadoImportacion.INTERRUMPIDA, "Error al persistir un lote: " + e.getMessage());
+            throw e;
+        } finally {
+            enCurso.remove(id);
+        }
+    }
+
+    public Optional<ImportacionBono> obtenerImportacion(Long id, String emisorUsername) {
+        return transactionTemplate.execute(status -> importacionRepository.findByIdAndEmisorUsername(id, emisorUsername)
+                .map(importacion -> {
+                    // Los errores se cargan aquí; el controlador los serializa fuera de la transacción
+                    importacion.getErrores().size();
+                    return importacion;
+                }));
+    }
+
+    private ImportacionBono iniciar(String emisorUsername, String formato, Long reanudarId) {
+        if (reanudarId == null) {
+            return importacionRepository.save(new ImportacionBono(emisorUsername, formato));
+        }
+        ImportacionBono importacion = importacionRepository.findByIdAndEmisorUsername(reanudarId, emisorUsername)
+                .orElseThrow(() -> new ResourceNotFoundException("Importación no encontrada: " + reanudarId));
+        if (importacion.getEstado() == EstadoImportacion.COMPLETADA) {
+            throw new ValidationException("La importación " + reanudarId + " ya está completada");
+        }
+        LOGGER.info("Reanudando importación {} desde la fila {}", reanudarId, importacion.getUltimaFilaConfirmada() + 1);
+        importacion.setEstado(EstadoImportacion.EN_PROCESO);
+        importacion.setMensaje(null);
+        return importacionRepository.save(importacion);
+    }
+
+    private void procesarLote(Long id, String emisorUsername, List<FilaImportacion> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<Object>> preparadas = lote.stream()
+                .map(fila -> CompletableFuture.supplyAsync(() -> preparar(fila, emisorUsername), generadores))
+                .toList();
+
+        List<Bono> bonos = new ArrayList<>(lote.size());
+        List<ErrorImportacion> errores = new ArrayList<>();
+        Set<String> monedas = new HashSet<>();
+        for (int i = 0; i < lote.size(); i++) {
+            Object resultado = preparadas.get(i).join();
+            if (resultado instanceof Bono bono) {
+                bonos.add(bono);
+                monedas.add(bono.getMoneda());
+            } else {
+                errores.add(new ErrorImportacion(lote.get(i).numero(), (String) resultado));
+            }
+        }
+
+        long ultimaFila = lote.get(lote.size() - 1).numero();
+        transactionTemplate.executeWithoutResult(status -> {
+            escritorLotes.insertar(bonos);
+            ImportacionBono importacion = importacionRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Importación no encontrada: " + id));
+            importacion.confirmarLote(ultimaFila, bonos.size(), errores, maxErrores);
+        });
+        if (!bonos.isEmpty()) {
+            bonoService.invalidarTrasImportacion(monedas);
+        }
+        LOGGER.debug("Importación {}: lote hasta la fila {} ({} bonos, {} errores)", id, ultimaFila, bonos.size(),
+                errores.size());
+    }
+
+    /**
+     * Valida la fila y genera el cronograma del bono.
+     *
+     * @return el bono listo para insertar, o el mensaje de error de la fila
+     */
+    private Object preparar(FilaImportacion fila, String emisorUsername) {
+        if (fila.error() != null) {
+            return fila.error();
+        }
+        Bono bono = fila.bono();
+        try {
+            bono.setEmisorUsername(emisorUsername);
+            bonoService.validarBono(bono);
+            validarLongitudes(bono);
+            validarPrecisiones(bono);
+            bono.generarFlujoCaja(bono.getTasaDescuento() != null ? bono.getTasaDescuento() : TASA_DESCUENTO_POR_DEFECTO);
+            validarPrecisionesFlujos(bono);
+            return bono;
+        } catch (RuntimeException e) {
+            return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+    }
+
+    // Los límites de las columnas: una fila que no cabe haría fallar el lote completo en la base de datos
+    private static void validarLongitudes(Bono bono) {
+        if (bono.getNombre() == null || bono.getNombre().isBlank() || bono.getNombre().length() > 100) {
+            throw new IllegalArgumentException("El nombre es obligatorio y admite hasta 100 caracteres");
+        }
+        if (bono.getDescripcion() != null && bono.getDescripcion().length() > 500) {
+            throw new IllegalArgumentException("La descripción admite hasta 500 caracteres");
+        }
+        if (bono.getMoneda() == null || bono.getMoneda().isBlank() || bono.getMoneda().length() > 10) {
+            throw new IllegalArgumentException("La moneda es obligatoria y admite hasta 10 caracteres");
+        }
+        if (bono.getMetodoAmortizacion() != null && bono.getMetodoAmortizacion().length() > 20) {
+            throw new IllegalArgumentException("El método de amortización admite hasta 20 caracteres");
+        }
+    }
+
+    // Las columnas numéricas son numeric(19, 4) o numeric(19, 6): un valor con más dígitos enteros haría fallar
+    // el lote; los decimales sobrantes los redondea la base de datos
+    private static void validarPrecisiones(Bono bono) {
+        validarPrecision("El valor nominal", bono.getValorNominal(), 4);
+        validarPrecision("La tasa cupón", bono.getTasaCupon(), 6);
+        validarPrecision("La TCEA", bono.getTcea(), 6);
+        validarPrecision("La duración", bono.getDuracion(), 6);
+        validarPrecision("La convexidad", bono.getConvexidad(), 6);
+        validarPrecision("La tasa de descuento", bono.getTasaDescuento(), 6);
+    }
+
+    private static void validarPrecisionesFlujos(Bono bono) {
+        for (FlujoFinanciero flujo : bono.getFlujos()) {
+            for (BigDecimal valor : new BigDecimal[]{flujo.getCupon(), flujo.getAmortizacion(), flujo.getFlujoTotal(),
+                    flujo.getSaldoInsoluto(), flujo.getValorPresente(), flujo.getInteres(), flujo.getCuota(),
+                    flujo.getSaldo(), flujo.getFlujo(), flujo.getFactorDescuento(), flujo.getValorActual(),
+                    flujo.getFactorTiempo()}) {
+                validarPrecision("El flujo del período " + flujo.getPeriodo(), valor, 6);
+            }
+        }
+    }
+
+    private static void validarPrecision(String campo, BigDecimal valor, int escala) {
+        if (valor == null) {
+            return;
+        }
+        BigDecimal redondeado = valor.setScale(escala, RoundingMode.HALF_UP);
+        int maxEnteros = PRECISION_COLUMNAS - escala;
+        if (redondeado.precision() - redondeado.scale() > maxEnteros) {
+            throw new IllegalArgumentException(campo + " admite hasta " + maxEnteros + " dígitos enteros");
+        }
+    }
+
+    private ImportacionBono finalizar(Long id, EstadoImportacion estado, String mensaje) {
+        return transactionTemplate.execute(status -> {
+            ImportacionBono importacion = importacionRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Importación no encontrada: " + id));
+            importacion.setEstado(estado);
+            importacion.setMensaje(mensaje != null && mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje);
+            importacion.getErrores().size();
+            return importacion;
+        });
+    }
+
+    @PreDestroy
+    void detener() {
+        generadores.shutdownNow();
+    }
+}
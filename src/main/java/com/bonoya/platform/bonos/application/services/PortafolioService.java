@@ -0,0 +1,189 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.Portafolio;
+import com.bonoya.platform.bonos.domain.model.entities.PosicionPortafolio;
+import com.bonoya.platform.bonos.domain.model.valueobjects.AnalisisPortafolio;
+import com.bonoya.platform.bonos.domain.model.valueobjects.FlujosPortafolio;
+import com.bonoya.platform.bonos.domain.services.FusionCronogramas;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.BonoRepository;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.PortafolioRepository;
+import com.bonoya.platform.shared.application.exceptions.ResourceNotFoundException;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de portafolios del inversor.
+ *
+ * El análisis combina los cronogramas compilados de las posiciones (compartidos por la caché de
+ * {@link GeneradorCronograma}) con {@link FusionCronogramas}, y calcula las métricas agregadas en un
+ * recorrido de los flujos fusionados.
+ *
+ * Los flujos se suman sin conversión de tipo de cambio, por lo que todas las posiciones de un portafolio
+ * deben estar en la misma moneda: se valida al agregar posiciones y de nuevo al analizar, por si la moneda
+ * de un bono cambió después.
+ */
+@Service
+public class PortafolioService {
+
+    private final PortafolioRepository portafolioRepository;
+    private final BonoRepository bonoRepository;
+
+    public PortafolioService(PortafolioRepository portafolioRepository, BonoRepository bonoRepository) {
+        this.portafolioRepository = portafolioRepository;
+        this.bonoRepository = bonoRepository;
+    }
+
+    /**
+     * Posición solicitada al crear un portafolio o agregar una posición.
+     */
+    public record PosicionSolicitada(Long bonoId, BigDecimal cantidad, BigDecimal precioCompra) {
+    }
+
+    @Transactional
+    public Portafolio crearPortafolio(String inversorUsername, String nombre, String descripcion,
+                                      List<PosicionSolicitada> posiciones) {
+        if (nombre == null || nombre.isBlank()) {
+            throw new ValidationException("El nombre del portafolio es obligatorio");
+        }
+        Portafolio portafolio = new Portafolio(inversorUsername, nombre.trim(), descripcion);
+        if (posiciones != null && !posiciones.isEmpty()) {
+            agregarPosiciones(portafolio, posiciones);
+        }
+        return portafolioRepository.save(portafolio);
+    }
+
+    public List<Portafolio> obtenerPortafolios(String inversorUsername) {
+        return portafolioRepository.findByInversorUsernameOrderByIdAsc(inversorUsername);
+    }
+
+    public Optional<Portafolio> obtenerPortafolio(Long id, String inversorUsername) {
+        return portafolioRepository.findByIdAndInversorUsername(id, inversorUsername);
+    }
+
+    @Transactional
+    public Portafolio agregarPosicion(Long portafolioId, String inversorUsername, PosicionSolicitada posicion) {
+        Portafolio portafolio = buscarPortafolio(portafolioId, inversorUsername);
+        agregarPosiciones(portafolio, List.of(posicion));
+        return portafolioRepository.save(portafolio);
+    }
+
+    @Transactional
+    public Portafolio eliminarPosicion(Long portafolioId, String inversorUsername, Long posicionId) {
+        Portafolio portafolio = buscarPortafolio(portafolioId, inversorUsername);
+        if (!portafolio.eliminarPosicion(posicionId)) {
+            throw new ResourceNotFoundException("Posición no encontrada: " + posicionId);
+        }
+        return portafolioRepository.save(portafolio);
+    }
+
+    @Transactional
+    public void eliminarPortafolio(Long portafolioId, String inversorUsername) {
+        portafolioRepository.delete(buscarPortafolio(portafolioId, inversorUsername));
+    }
+
+    /**
+     * Analiza el portafolio a una fecha de valoración.
+     *
+     * @param tasaMercado Tasa efectiva anual para descontar (porcentaje o decimal); si es null se usa la TIR
+     * @param agrupacion Granularidad de la escalera de flujos
+     * @param fechaValoracion Fecha desde la que se consideran los flujos futuros
+     */
+    public AnalisisPortafolio analizar(Long portafolioId, String inversorUsername, BigDecimal tasaMercado,
+                                       FlujosPortafolio.Agrupacion agrupacion, LocalDate fechaValoracion) {
+        Portafolio portafolio = buscarPortafolio(portafolioId, inversorUsername);
+        String moneda = validarMonedaUnica(portafolio.getPosiciones().stream().map(PosicionPortafolio::getBono).toList());
+
+        List<FusionCronogramas.Fuente> fuentes = new ArrayList<>(portafolio.getPosiciones().size());
+        BigDecimal costoTotal = BigDecimal.ZERO;
+        for (PosicionPortafolio posicion : portafolio.getPosiciones()) {
+            Bono bono = posicion.getBono();
+            LocalDate referencia = bono.getFechaEmision() != null ? bono.getFechaEmision() : fechaValoracion;
+            fuentes.add(new FusionCronogramas.Fuente(GeneradorCronograma.compilar(bono),
+                    posicion.getCantidad().doubleValue(), referencia));
+            costoTotal = costoTotal.add(posicion.getCostoTotal());
+        }
+        FlujosPortafolio flujos = FusionCronogramas.fusionar(fuentes, fechaValoracion);
+
+        double tir = flujos.tir(costoTotal.doubleValue());
+        double tasaMetricas;
+        if (tasaMercado != null) {
+            // Misma convención que el resto de cálculos: valores mayores a 0.1 se toman como porcentaje
+            tasaMetricas = tasaMercado.compareTo(BigDecimal.valueOf(0.1)) > 0
+                    ? tasaMercado.doubleValue() / 100.0
+                    : tasaMercado.doubleValue();
+        } else {
+            tasaMetricas = Double.isNaN(tir) ? 0.0 : tir;
+        }
+        FlujosPortafolio.Valoracion valoracion = flujos.valorar(tasaMetricas);
+
+        return new AnalisisPortafolio(portafolio.getId(), fechaValoracion, agrupacion,
+                portafolio.getPosiciones().size(), moneda, flujos.agrupar(agrupacion),
+                costoTotal.setScale(2, RoundingMode.HALF_UP),
+                BigDecimal.valueOf(valoracion.valorPresente()).setScale(2, RoundingMode.HALF_UP),
+                Double.isNaN(tir) ? null : BigDecimal.valueOf(tir).setScale(10, RoundingMode.HALF_UP),
+                BigDecimal.valueOf(flujos.plazoRemanente()).setScale(4, RoundingMode.HALF_UP),
+                valoracion.medidas());
+    }
+
+    private Portafolio buscarPortafolio(Long portafolioId, String inversorUsername) {
+        return portafolioRepository.findByIdAndInversorUsername(portafolioId, inversorUsername)
+                .orElseThrow(() -> new ResourceNotFoundException("Portafolio no encontrado: " + portafolioId));
+    }
+
+    /**
+     * @return la moneda común de los bonos (en mayúsculas), o null si no hay bonos
+     * @throws ValidationException si los bonos están en más de una moneda
+     */
+    private static String validarMonedaUnica(List<Bono> bonos) {
+        TreeSet<String> monedas = new TreeSet<>();
+        for (Bono bono : bonos) {
+            monedas.add(bono.getMoneda() != null ? bono.getMoneda().trim().toUpperCase(Locale.ROOT) : "");
+        }
+        if (monedas.size() > 1) {
+            throw new ValidationException("Todas las posiciones del portafolio deben estar en la misma moneda; "
+                    + "se encontraron " + String.join(", ", monedas));
+        }
+        return monedas.isEmpty() || monedas.first().isEmpty() ? null : monedas.first();
+    }
+
+    private void agregarPosiciones(Portafolio portafolio, List<PosicionSolicitada> posiciones) {
+        // Los bonos se cargan en una sola consulta aunque el portafolio tenga cientos de posiciones
+        List<Long> ids = posiciones.stream().map(PosicionSolicitada::bonoId).distinct().collect(Collectors.toList());
+        Map<Long, Bono> bonos = bonoRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Bono::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!bonos.containsKey(id)) {
+                throw new ResourceNotFoundException("Bono no encontrado: " + id);
+            }
+        }
+        List<Bono> todos = new ArrayList<>(bonos.values());
+        portafolio.getPosiciones().forEach(posicion -> todos.add(posicion.getBono()));
+        validarMonedaUnica(todos);
+
+        for (PosicionSolicitada solicitada : posiciones) {
+            Bono bono = bonos.get(solicitada.bonoId());
+            if (solicitada.cantidad() == null || solicitada.cantidad().signum() <= 0) {
+                throw new ValidationException("La cantidad de la posición debe ser mayor que cero");
+            }
+            if (solicitada.precioCompra() == null || solicitada.precioCompra().signum() <= 0) {
+                throw new ValidationException("El precio de compra de la posición debe ser mayor que cero");
+            }
+            portafolio.agregarPosicion(new PosicionPortafolio(bono, solicitada.cantidad(), solicitada.precioCompra()));
+        }
+    }
+}
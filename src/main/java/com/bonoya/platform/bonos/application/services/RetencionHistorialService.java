@@ -0,0 +1,192 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.infrastructure.persistence.jdbc.PurgadorRetencion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retención del historial de simulaciones y cálculos.
+ *
+ * Una tarea programada elimina las filas más antiguas que el plazo configurado para cada tabla, en lotes
+ * acotados con una pausa entre lotes para no competir con el tráfico. Los flujos de detalle se eliminan
+ * junto con su simulación. Opcionalmente, cada ejecución archiva las filas eliminadas en un archivo NDJSON,
+ * que solo se crea si algún lote eliminó filas. Un plazo de 0 días desactiva la retención de esa tabla.
+ */
+@Service
+public class RetencionHistorialService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetencionHistorialService.class);
+    private static final DateTimeFormatter FORMATO_ARCHIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final PurgadorRetencion purgador;
+    private final boolean habilitado;
+    private final Map<PurgadorRetencion.Tabla, Integer> diasRetencion = new EnumMap<>(PurgadorRetencion.Tabla.class);
+    private final int tamanoLote;
+    private final long pausaMs;
+    private final int maxLotes;
+    private final boolean archivar;
+    private final Path directorioArchivo;
+
+    private final AtomicLong ejecuciones = new AtomicLong();
+    private final AtomicLong purgadasTotal = new AtomicLong();
+    private final Map<String, AtomicLong> purgadasPorTabla = new LinkedHashMap<>();
+    private volatile Map<String, Long> purgadasUltimaEjecucion = Collections.emptyMap();
+    private volatile long ultimaDuracionMs;
+    private volatile Instant ultimaEjecucion;
+
+    public RetencionHistorialService(PurgadorRetencion purgador,
+                                     @Value("${bonoya.retencion.enabled:false}") boolean habilitado,
+                                     @Value("${bonoya.retencion.simulaciones-dias:365}") int simulacionesDias,
+                                     @Value("${bonoya.retencion.calculos-dias:180}") int calculosDias,
+                                     @Value("${bonoya.retencion.tamano-lote:500}") int tamanoLote,
+                                     @Value("${bonoya.retencion.pausa-ms:50}") long pausaMs,
+                                     @Value("${bonoya.retencion.max-lotes:1000}") int maxLotes,
+                                     @Value("${bonoya.retencion.archivo.enabled:false}") boolean archivar,
+                                     @Value("${bonoya.retencion.archivo.directorio:archivo-retencion}") String directorioArchivo) {
+        this.purgador = purgador;
+        this.habilitado = habilitado;
+        this.diasRetencion.put(PurgadorRetencion.Tabla.SIMULACIONES, simulacionesDias);
+        this.diasRetencion.put(PurgadorRetencion.Tabla.CALCULOS, calculosDias);
+        this.tamanoLote = tamanoLote;
+        this.pausaMs = pausaMs;
+        this.maxLotes = maxLotes;
+        this.archivar = archivar;
+        this.directorioArchivo = Paths.get(directorioArchivo);
+        for (PurgadorRetencion.Tabla tabla : PurgadorRetencion.Tabla.values()) {
+            purgadasPorTabla.put(tabla.getNombre(), new AtomicLong());
+            if (tabla.getTablaHija() != null) {
+                purgadasPorTabla.put(tabla.getTablaHija(), new AtomicLong());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${bonoya.retencion.cron:0 30 3 * * *}")
+    public void ejecutarProgramado() {
+        if (habilitado) {
+            ejecutar();
+        }
+    }
+
+    /**
+     * Ejecuta una pasada de retención sobre todas las tablas.
+     *
+     * @return filas eliminadas por tabla (incluye las tablas hijas)
+     */
+    public synchronized Map<String, Long> ejecutar() {
+        long inicio = System.nanoTime();
+        Map<String, Long> purgadas = new LinkedHashMap<>();
+        Path archivo = archivar ? directorioArchivo.resolve("retencion-" + LocalDateTime.now().format(FORMATO_ARCHIVO) + ".ndjson") : null;
+
+        try {
+            for (Map.Entry<PurgadorRetencion.Tabla, Integer> entrada : diasRetencion.entrySet()) {
+                if (entrada.getValue() > 0) {
+                    purgarTabla(entrada.getKey(), entrada.getValue(), archivo, purgadas);
+                }
+            }
+        } finally {
+            ultimaDuracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            ultimaEjecucion = Instant.now();
+            ejecuciones.incrementAndGet();
+            purgadasUltimaEjecucion = Collections.unmodifiableMap(purgadas);
+        }
+
+        long total = purgadas.values().stream().mapToLong(Long::longValue).sum();
+        purgadasTotal.addAndGet(total);
+        if (total > 0) {
+            LOGGER.info("Retención del historial: {} filas eliminadas en {} ms {}", total, ultimaDuracionMs, purgadas);
+        }
+        return purgadasUltimaEjecucion;
+    }
+
+    public long getEjecuciones() {
+        return ejecuciones.get();
+    }
+
+    public long getPurgadasTotal() {
+        return purgadasTotal.get();
+    }
+
+    /**
+     * Tablas cuyas filas eliminadas se cuentan por separado (principales e hijas).
+     */
+    public Set<String> getTablasPurgadas() {
+        return purgadasPorTabla.keySet();
+    }
+
+    /**
+     * Filas eliminadas de una tabla desde el arranque.
+     */
+    public long getPurgadas(String tabla) {
+        AtomicLong purgadas = purgadasPorTabla.get(tabla);
+        return purgadas != null ? purgadas.get() : 0;
+    }
+
+    public Map<String, Long> getPurgadasUltimaEjecucion() {
+        return purgadasUltimaEjecucion;
+    }
+
+    public long getUltimaDuracionMs() {
+        return ultimaDuracionMs;
+    }
+
+    public Instant getUltimaEjecucion() {
+        return ultimaEjecucion;
+    }
+
+    private void purgarTabla(PurgadorRetencion.Tabla tabla, int dias, Path archivo, Map<String, Long> purgadas) {
+        Object limite = tabla == PurgadorRetencion.Tabla.SIMULACIONES
+                ? LocalDate.now().minusDays(dias)
+                : Timestamp.from(Instant.now().minus(dias, ChronoUnit.DAYS));
+
+        for (int lote = 0; lote < maxLotes; lote++) {
+            PurgadorRetencion.ResultadoLote resultado = purgador.purgarLote(tabla, limite, tamanoLote, archivo);
+            if (resultado.principales() > 0) {
+                purgadas.merge(tabla.getNombre(), (long) resultado.principales(), Long::sum);
+                purgadasPorTabla.get(tabla.getNombre()).addAndGet(resultado.principales());
+            }
+            if (resultado.hijas() > 0) {
+                purgadas.merge(tabla.getNombre() + ".detalle", (long) resultado.hijas(), Long::sum);
+                purgadasPorTabla.get(tabla.getTablaHija()).addAndGet(resultado.hijas());
+            }
+            if (resultado.principales() < tamanoLote) {
+                return;
+            }
+            if (!pausar()) {
+                return;
+            }
+        }
+        LOGGER.warn("Retención de {} detenida tras {} lotes; el resto se elimina en la siguiente ejecución",
+                tabla.getNombre(), maxLotes);
+    }
+
+    private boolean pausar() {
+        if (pausaMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
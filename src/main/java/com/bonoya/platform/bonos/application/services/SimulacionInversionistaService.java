@@ -0,0 +1,96 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoInversionistaDetalle;
+import com.bonoya.platform.bonos.domain.model.entities.SimulacionInversionista;
+import com.bonoya.platform.bonos.domain.services.FlujoInversionistaService;
+import com.bonoya.platform.bonos.infrastructure.persistence.jdbc.EscritorDetallesSimulacion;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.BonoRepository;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.FlujoInversionistaDetalleRepository;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.SimulacionInversionistaRepository;
+import com.bonoya.platform.shared.application.exceptions.ResourceNotFoundException;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Servicio de simulaciones guardadas del inversionista.
+ *
+ * Las métricas de resumen se calculan mientras se generan los flujos y se guardan en la simulación, de
+ * modo que leer un resumen nunca requiere consultas de agregación sobre los flujos de detalle.
+ */
+@Service
+public class SimulacionInversionistaService {
+
+    private final SimulacionInversionistaRepository simulacionRepository;
+    private final FlujoInversionistaDetalleRepository detalleRepository;
+    private final BonoRepository bonoRepository;
+    private final FlujoInversionistaService flujoInversionistaService;
+    private final EscritorDetallesSimulacion escritorDetalles;
+
+    public SimulacionInversionistaService(SimulacionInversionistaRepository simulacionRepository,
+                                          FlujoInversionistaDetalleRepository detalleRepository,
+                                          BonoRepository bonoRepository,
+                                          FlujoInversionistaService flujoInversionistaService,
+                                          EscritorDetallesSimulacion escritorDetalles) {
+        this.simulacionRepository = simulacionRepository;
+        this.detalleRepository = detalleRepository;
+        this.bonoRepository = bonoRepository;
+        this.flujoInversionistaService = flujoInversionistaService;
+        this.escritorDetalles = escritorDetalles;
+    }
+
+    /**
+     * Simula la compra del bono y guarda la simulación con todos sus flujos en una transacción.
+     *
+     * @return la simulación guardada y los flujos generados
+     */
+    @Transactional
+    public SimulacionGuardada registrarSimulacion(Long bonoId, BigDecimal precioCompra, String descripcion,
+                                                  String inversorUsername) {
+        if (precioCompra == null || precioCompra.signum() <= 0) {
+            throw new ValidationException("El precio de compra debe ser mayor que cero");
+        }
+        Bono bono = bonoRepository.findById(bonoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bono no encontrado: " + bonoId));
+
+        FlujoInversionistaService.SimulacionCalculada calculada = flujoInversionistaService.simular(bono, precioCompra);
+        FlujoInversionistaService.MetricasInversionista metricas = calculada.getMetricas();
+
+        SimulacionInversionista simulacion = new SimulacionInversionista(bono, inversorUsername, precioCompra, descripcion);
+        simulacion.setGananciaNeta(metricas.getGananciaNeta());
+        simulacion.setRendimientoTotal(metricas.getRendimientoTotal());
+        simulacion.setPeriodoRecuperacion(metricas.getPeriodoRecuperacion());
+        simulacion.setTotalCupones(metricas.getTotalCupones());
+        simulacion.setTotalPrincipal(metricas.getTotalPrincipal());
+
+        // La simulación se inserta primero (id IDENTITY) y los detalles van en un único lote JDBC
+        SimulacionInversionista guardada = simulacionRepository.saveAndFlush(simulacion);
+        escritorDetalles.insertar(guardada.getId(), calculada.getFlujos());
+        return new SimulacionGuardada(guardada, calculada);
+    }
+
+    public List<SimulacionInversionista> obtenerSimulaciones(String inversorUsername) {
+        return simulacionRepository.findByInversorUsernameOrderByFechaSimulacionDesc(inversorUsername);
+    }
+
+    public Optional<SimulacionInversionista> obtenerSimulacion(Long id, String inversorUsername) {
+        return simulacionRepository.findById(id)
+                .filter(simulacion -> simulacion.getInversorUsername().equals(inversorUsername));
+    }
+
+    public List<FlujoInversionistaDetalle> obtenerFlujos(Long simulacionId) {
+        return detalleRepository.findBySimulacion_IdOrderByPeriodo(simulacionId);
+    }
+
+    /**
+     * Simulación recién guardada junto con los flujos que la originaron.
+     */
+    public record SimulacionGuardada(SimulacionInversionista simulacion,
+                                     FlujoInversionistaService.SimulacionCalculada calculada) {
+    }
+}
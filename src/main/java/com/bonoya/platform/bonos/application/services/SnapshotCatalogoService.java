@@ -0,0 +1,181 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.domain.services.CurvaDescuentoService;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+import com.bonoya.platform.bonos.infrastructure.persistence.jdbc.LectorCatalogoBonos;
+import com.bonoya.platform.bonos.infrastructure.persistence.snapshot.EscritorSnapshotCatalogo;
+import com.bonoya.platform.bonos.infrastructure.persistence.snapshot.SnapshotCatalogo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Snapshot del catálogo para arranques en caliente.
+ *
+ * Una tarea programada escribe en un archivo columnar los cronogramas compilados de todos los bonos y las
+ * curvas de catálogo vigentes. Al arrancar, el archivo se mapea en memoria y se instala como fuente de
+ * cronogramas precompilados de {@link GeneradorCronograma}, de modo que los primeros cálculos no compilan.
+ *
+ * Solo se usan los bonos cuyo {@code updated_at} coincide con el guardado, y las curvas cuya moneda conserva
+ * la misma última modificación y cantidad de bonos. Un snapshot de otra versión del formato o de la
+ * aritmética del cronograma se ignora por completo.
+ */
+@Service
+public class SnapshotCatalogoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotCatalogoService.class);
+
+    private final LectorCatalogoBonos lector;
+    private final CurvaDescuentoService curvaDescuentoService;
+    private final boolean habilitado;
+    private final Path archivo;
+
+    private volatile int bonosRestaurados;
+    private volatile int curvasRestauradas;
+    private volatile long ultimaEscrituraMs;
+
+    public SnapshotCatalogoService(LectorCatalogoBonos lector,
+                                   CurvaDescuentoService curvaDescuentoService,
+                                   @Value("${bonoya.snapshot.enabled:false}") boolean habilitado,
+                                   @Value("${bonoya.snapshot.archivo:snapshot/catalogo.snap}") String archivo) {
+        this.lector = lector;
+        this.curvaDescuentoService = curvaDescuentoService;
+        this.habilitado = habilitado;
+        this.archivo = Paths.get(archivo);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restaurarAlArrancar() {
+        if (!habilitado || !Files.exists(archivo)) {
+            return;
+        }
+        try {
+            restaurar();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("No se pudo restaurar el snapshot del catálogo {}; se compilará bajo demanda", archivo, e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${bonoya.snapshot.intervalo-ms:600000}",
+            fixedDelayString = "${bonoya.snapshot.intervalo-ms:600000}")
+    public void escribirProgramado() {
+        if (habilitado) {
+            escribir();
+        }
+    }
+
+    /**
+     * Mapea el snapshot e instala los cronogramas y curvas que siguen vigentes.
+     */
+    public synchronized void restaurar() throws IOException {
+        long inicio = System.nanoTime();
+        SnapshotCatalogo snapshot = SnapshotCatalogo.mapear(archivo);
+        if (snapshot.getVersionAritmetica() != GeneradorCronograma.VERSION_ARITMETICA) {
+            LOGGER.info("Snapshot del catálogo descartado: aritmética v{} (actual v{})",
+                    snapshot.getVersionAritmetica(), GeneradorCronograma.VERSION_ARITMETICA);
+            return;
+        }
+
+        Map<Long, Long> versiones = lector.versionesBonos();
+        Map<GeneradorCronograma.Terminos, Integer> indice = new HashMap<>();
+        for (int i = 0; i < snapshot.getBonos(); i++) {
+            Long actualizado = versiones.get(snapshot.id(i));
+            if (actualizado != null && actualizado == snapshot.actualizado(i)) {
+                indice.putIfAbsent(snapshot.terminos(i), i);
+            }
+        }
+        GeneradorCronograma.usarPrecompilados(terminos -> {
+            Integer posicion = indice.get(terminos);
+            return posicion != null ? snapshot.cronograma(posicion) : null;
+        });
+
+        Map<String, LectorCatalogoBonos.VersionMoneda> monedas = lector.versionesMonedas();
+        int curvas = 0;
+        for (SnapshotCatalogo.CurvaGuardada guardada : snapshot.getCurvas()) {
+            LectorCatalogoBonos.VersionMoneda version = monedas.get(guardada.curva().getMoneda().toUpperCase(Locale.ROOT));
+            if (version != null && version.actualizado() == guardada.actualizado()
+                    && version.cantidad() == guardada.cantidad()) {
+                curvaDescuentoService.restaurarCurvaCatalogo(guardada.curva());
+                curvas++;
+            }
+        }
+
+        bonosRestaurados = indice.size();
+        curvasRestauradas = curvas;
+        LOGGER.info("Snapshot del catálogo restaurado en {} ms: {} de {} cronogramas, {} de {} curvas",
+                (System.nanoTime() - inicio) / 1_000_000, bonosRestaurados, snapshot.getBonos(), curvas,
+                snapshot.getCurvas().size());
+    }
+
+    /**
+     * Escribe un snapshot de todo el catálogo y reemplaza el anterior.
+     *
+     * @return bonos guardados
+     */
+    public synchronized int escribir() {
+        long inicio = System.nanoTime();
+        // La versión de cada moneda se lee antes que las curvas: si cambia entre ambas lecturas, la curva
+        // queda con una versión anterior y se descarta al restaurar en lugar de restaurarse desactualizada
+        Map<String, LectorCatalogoBonos.VersionMoneda> monedas = lector.versionesMonedas();
+        List<CurvaDescuento> curvas = curvaDescuentoService.curvasCatalogoVigentes();
+
+        try (EscritorSnapshotCatalogo escritor = new EscritorSnapshotCatalogo(archivo, GeneradorCronograma.VERSION_ARITMETICA)) {
+            int curvasGuardadas = 0;
+            for (CurvaDescuento curva : curvas) {
+                LectorCatalogoBonos.VersionMoneda version = monedas.get(curva.getMoneda().toUpperCase(Locale.ROOT));
+                if (version != null) {
+                    escritor.agregarCurva(curva, version.actualizado(), version.cantidad());
+                    curvasGuardadas++;
+                }
+            }
+            lector.recorrerTerminos(bono -> {
+                CronogramaCompilado cronograma;
+                try {
+                    cronograma = GeneradorCronograma.compilarSinCache(bono.terminos());
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    return;
+                }
+                try {
+                    escritor.agregarBono(bono.id(), bono.actualizado(), bono.terminos(), cronograma);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            long tamano = escritor.confirmar();
+            ultimaEscrituraMs = (System.nanoTime() - inicio) / 1_000_000;
+            LOGGER.info("Snapshot del catálogo escrito en {} ms: {} bonos, {} filas, {} curvas, {} bytes",
+                    ultimaEscrituraMs, escritor.getBonos(), escritor.getFilas(), curvasGuardadas, tamano);
+            return escritor.getBonos();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el snapshot del catálogo " + archivo, e);
+        }
+    }
+
+    public int getBonosRestaurados() {
+        return bonosRestaurados;
+    }
+
+    public int getCurvasRestauradas() {
+        return curvasRestauradas;
+    }
+
+    public long getUltimaEscrituraMs() {
+        return ultimaEscrituraMs;
+    }
+}
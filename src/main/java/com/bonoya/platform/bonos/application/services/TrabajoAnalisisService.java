@@ -0,0 +1,179 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.application.internal.admision.ControlAdmision;
+import com.bonoya.platform.bonos.application.internal.cache.CoalescedorCalculos;
+import com.bonoya.platform.bonos.application.internal.jobs.EjecutorTrabajosAnalisis;
+import com.bonoya.platform.bonos.application.internal.jobs.PrioridadTrabajo;
+import com.bonoya.platform.bonos.application.internal.jobs.TrabajoAnalisis;
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.domain.services.CalculoFinancieroService;
+import com.bonoya.platform.shared.application.exceptions.ResourceNotFoundException;
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Servicio de trabajos asíncronos de análisis.
+ *
+ * Los cálculos costosos se ejecutan en {@link EjecutorTrabajosAnalisis} en lugar de en los hilos de Tomcat.
+ * Los trabajos terminados se conservan durante un tiempo de retención para que el inversor consulte el
+ * resultado y luego se descartan. Los trabajos retenidos están además acotados en total y por inversor: al
+ * llegar al límite se descarta el terminado más antiguo y, si todos siguen pendientes, el envío se rechaza con
+ * {@link TooManyRequestsException}.
+ *
+ * La prioridad se deriva siempre del tamaño del bono; el inversor no la elige, para que nadie adelante sus
+ * trabajos a los del resto.
+ */
+@Service
+public class TrabajoAnalisisService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrabajoAnalisisService.class);
+
+    // Bonos con más períodos que este umbral se encolan con prioridad baja por defecto
+    private static final int PERIODOS_TRABAJO_LARGO = 120;
+
+    private final EjecutorTrabajosAnalisis ejecutor;
+    private final BonoService bonoService;
+    private final CalculoService calculoService;
+    private final CalculoFinancieroService calculoFinancieroService;
+    private final CoalescedorCalculos coalescedorCalculos;
+    private final ControlAdmision controlAdmision;
+    private final Duration retencion;
+    private final int maxRetenidos;
+    private final int maxRetenidosPorUsuario;
+    private final Map<String, TrabajoAnalisis> trabajos = new ConcurrentHashMap<>();
+
+    public TrabajoAnalisisService(EjecutorTrabajosAnalisis ejecutor, BonoService bonoService,
+                                  CalculoService calculoService, CalculoFinancieroService calculoFinancieroService,
+                                  CoalescedorCalculos coalescedorCalculos, ControlAdmision controlAdmision,
+                                  @Value("${bonoya.trabajos.retencion-minutos:15}") long retencionMinutos,
+                                  @Value("${bonoya.trabajos.max-retenidos:1000}") int maxRetenidos,
+                                  @Value("${bonoya.trabajos.max-retenidos-usuario:20}") int maxRetenidosPorUsuario) {
+        this.ejecutor = ejecutor;
+        this.bonoService = bonoService;
+        this.calculoService = calculoService;
+        this.calculoFinancieroService = calculoFinancieroService;
+        this.coalescedorCalculos = coalescedorCalculos;
+        this.controlAdmision = controlAdmision;
+        this.retencion = Duration.ofMinutes(retencionMinutos);
+        this.maxRetenidos = maxRetenidos;
+        this.maxRetenidosPorUsuario = maxRetenidosPorUsuario;
+    }
+
+    /**
+     * Encola un análisis completo y devuelve el trabajo creado sin esperar el resultado.
+     *
+     * @param bonoId ID del bono a analizar
+     * @param tasaEsperada Tasa esperada por el inversor
+     * @param precioCompra Precio de compra (opcional)
+     * @param inversorUsername Inversor que envía el trabajo
+     * @return Trabajo en estado PENDIENTE
+     * @throws TooManyRequestsException si el inversor o el servicio ya retienen el máximo de trabajos pendientes
+     */
+    public TrabajoAnalisis enviarAnalisisCompleto(Long bonoId, BigDecimal tasaEsperada, BigDecimal precioCompra,
+                                                  String inversorUsername) {
+        Bono bono = bonoService.obtenerBonoPorId(bonoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Bono no encontrado: " + bonoId));
+        CoalescedorCalculos.ClaveCalculo clave =
+                CoalescedorCalculos.ClaveCalculo.de("ANALISIS_COMPLETO", bono, tasaEsperada, precioCompra);
+        // Un trabajo asíncrono consume el mismo presupuesto de CPU que el análisis síncrono, salvo que su
+        // resultado ya esté disponible en el coalescedor
+        if (!coalescedorCalculos.disponible(clave)) {
+            controlAdmision.admitir(inversorUsername, "ANALISIS_COMPLETO", bono);
+        }
+
+        PrioridadTrabajo prioridad = prioridadPorTamano(bono);
+        TrabajoAnalisis trabajo = new TrabajoAnalisis("ANALISIS_COMPLETO", inversorUsername, prioridad);
+
+        // Se registra antes de encolar para que el inversor pueda consultarlo de inmediato
+        registrar(trabajo);
+        try {
+            ejecutor.enviar(prioridad, () -> ejecutar(trabajo, () -> {
+                Calculo resultado = coalescedorCalculos.obtenerOCalcular(clave, inversorUsername, () -> precioCompra != null
+                        ? calculoFinancieroService.calcularAnalisisCompleto(bono, tasaEsperada, precioCompra, inversorUsername)
+                        : calculoFinancieroService.calcularAnalisisCompleto(bono, tasaEsperada, inversorUsername));
+                return calculoService.guardarCalculo(resultado);
+            }));
+        } catch (RuntimeException e) {
+            trabajos.remove(trabajo.getId());
+            throw e;
+        }
+        return trabajo;
+    }
+
+    /**
+     * Busca un trabajo del inversor; los trabajos de otros inversores no son visibles.
+     */
+    public Optional<TrabajoAnalisis> obtenerTrabajo(String id, String inversorUsername) {
+        return Optional.ofNullable(trabajos.get(id))
+                .filter(trabajo -> trabajo.getInversorUsername().equals(inversorUsername));
+    }
+
+    @Scheduled(fixedDelayString = "${bonoya.trabajos.limpieza-ms:60000}")
+    public void descartarTrabajosExpirados() {
+        Instant limite = Instant.now().minus(retencion);
+        int antes = trabajos.size();
+        trabajos.values().removeIf(trabajo -> trabajo.expirado(limite));
+        int descartados = antes - trabajos.size();
+        if (descartados > 0) {
+            LOGGER.debug("Trabajos de análisis expirados descartados: {}", descartados);
+        }
+    }
+
+    /**
+     * Registra el trabajo respetando los límites de retención, descartando primero el terminado más antiguo
+     * del inversor y luego el más antiguo del servicio.
+     */
+    private void registrar(TrabajoAnalisis trabajo) {
+        synchronized (trabajos) {
+            String inversor = trabajo.getInversorUsername();
+            if (trabajos.values().stream().filter(t -> t.getInversorUsername().equals(inversor)).count()
+                    >= maxRetenidosPorUsuario && !descartarTerminadoMasAntiguo(inversor)) {
+                throw new TooManyRequestsException(
+                        "Tiene demasiados trabajos de análisis pendientes, intente nuevamente más tarde", 1L);
+            }
+            if (trabajos.size() >= maxRetenidos && !descartarTerminadoMasAntiguo(null)) {
+                throw new TooManyRequestsException(
+                        "Hay demasiados trabajos de análisis pendientes, intente nuevamente más tarde", 1L);
+            }
+            trabajos.put(trabajo.getId(), trabajo);
+        }
+    }
+
+    // Con inversor null considera los trabajos de todos los inversores
+    private boolean descartarTerminadoMasAntiguo(String inversor) {
+        return trabajos.values().stream()
+                .filter(t -> t.terminado() && (inversor == null || t.getInversorUsername().equals(inversor)))
+                .min(Comparator.comparing(TrabajoAnalisis::getFinalizadoEn))
+                .map(t -> trabajos.remove(t.getId()) != null)
+                .orElse(false);
+    }
+
+    private void ejecutar(TrabajoAnalisis trabajo, Supplier<Calculo> calculo) {
+        trabajo.marcarEnProceso();
+        try {
+            trabajo.completar(calculo.get());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Falló el trabajo de análisis {}: {}", trabajo.getId(), e.getMessage());
+            trabajo.fallar(e);
+        }
+    }
+
+    private static PrioridadTrabajo prioridadPorTamano(Bono bono) {
+        int periodos = bono.getPlazoAnios() * bono.getFrecuenciaPagos();
+        return periodos > PERIODOS_TRABAJO_LARGO ? PrioridadTrabajo.BAJA : PrioridadTrabajo.NORMAL;
+    }
+}
@@ -1,12 +1,15 @@
 package com.bonoya.platform.bonos.domain.model.entities;
 
 import com.bonoya.platform.bonos.domain.model.valueobjects.ConfiguracionCalculo;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
 import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
 import com.bonoya.platform.bonos.domain.model.valueobjects.Moneda;
 import com.bonoya.platform.bonos.domain.model.valueobjects.PlazoGracia;
 import com.bonoya.platform.bonos.domain.model.valueobjects.PrecioMercado;
 import com.bonoya.platform.bonos.domain.model.valueobjects.Rendimiento;
 import com.bonoya.platform.bonos.domain.model.valueobjects.TasaInteres;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+import com.bonoya.platform.bonos.domain.services.KernelMetricas;
 import com.bonoya.platform.shared.domain.model.entities.AuditableModel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -14,6 +17,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
@@ -31,6 +36,8 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(name = "bonos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "bonos")
 public class Bono extends AuditableModel {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -236,108 +243,7 @@ public class Bono extends AuditableModel {
      * @return Lista de flujos de caja
      */
     public List<FlujoFinanciero> generarFlujoCajaMetodoAmericano(BigDecimal tasaDescuento) {
-        // Validamos la tasa de descuento
-        if (tasaDescuento == null) {
-            tasaDescuento = BigDecimal.valueOf(0.08); // Valor por defecto 8%
-        }
-
-        // Guardamos la tasa para futuros cálculos
-        this.tasaDescuento = tasaDescuento;
-
-        // Calculamos el número total de períodos
-        int periodosTotales = this.plazoAnios * this.frecuenciaPagos;
-
-        // Preparamos la tasa por período (convertimos porcentaje a decimal)
-        BigDecimal tasaCuponDecimal = this.tasaCupon.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP);
-        BigDecimal tasaCuponPorPeriodo = tasaCuponDecimal.divide(BigDecimal.valueOf(frecuenciaPagos), 10, RoundingMode.HALF_UP);
-
-        // Calculamos la tasa de descuento por período
-        BigDecimal tasaDescuentoPorPeriodo = tasaDescuento.divide(BigDecimal.valueOf(frecuenciaPagos), 10, RoundingMode.HALF_UP);
-
-        // Inicializamos la lista de flujos
-        List<FlujoFinanciero> flujos = new ArrayList<>();
-
-        // Valor nominal como saldo inicial
-        BigDecimal saldoInicial = this.valorNominal;
-
-        // Calculamos la fecha de inicio (fecha de emisión)
-        LocalDate fechaInicio = this.fechaEmision;
-
-        // Inicializamos el valor presente total
-        BigDecimal valorPresenteTotal = BigDecimal.ZERO;
-
-        // Para cada período generamos un flujo
-        for (int periodo = 1; periodo <= periodosTotales; periodo++) {
-            FlujoFinanciero flujo = new FlujoFinanciero();
-            flujo.setPeriodo(periodo);
-
-            // Calculamos la fecha del flujo
-            LocalDate fechaFlujo = calcularFechaFlujo(fechaInicio, periodo);
-            flujo.setFecha(fechaFlujo);
-
-            // Establecemos el bono asociado al flujo
-            flujo.setBono(this);
-
-            // Calculamos el interés para este período
-            BigDecimal interes = saldoInicial.multiply(tasaCuponPorPeriodo);
-
-            // Por defecto no hay amortización excepto en el último período
-            BigDecimal amortizacion = BigDecimal.ZERO;
-
-            // En el método americano, sólo se amortiza el capital en el último período
-            if (periodo == periodosTotales) {
-                amortizacion = saldoInicial;
-            }
-
-            // Aplicamos reglas de períodos de gracia
-            if (periodo <= plazosGraciaTotal) {
-                // En período de gracia total, no se paga nada
-                flujo.setCupon(BigDecimal.ZERO);
-                flujo.setAmortizacion(BigDecimal.ZERO);
-                flujo.setInteres(BigDecimal.ZERO);
-
-                // El interés se capitaliza
-                saldoInicial = saldoInicial.add(interes);
-            } else if (periodo <= plazosGraciaTotal + plazosGraciaParcial) {
-                // En período de gracia parcial, sólo se pagan intereses
-                flujo.setCupon(interes);
-                flujo.setAmortizacion(BigDecimal.ZERO);
-                flujo.setInteres(interes);
-            } else {
-                // Período normal
-                flujo.setCupon(interes);
-                flujo.setAmortizacion(amortizacion);
-                flujo.setInteres(interes);
-            }
-
-            // Calculamos el flujo total
-            BigDecimal flujoTotal = flujo.getCupon().add(flujo.getAmortizacion());
-            flujo.setFlujoTotal(flujoTotal);
-
-            // Actualizamos el saldo insoluto
-            BigDecimal nuevoSaldo = saldoInicial.subtract(flujo.getAmortizacion());
-            flujo.setSaldoInsoluto(nuevoSaldo);
-            saldoInicial = nuevoSaldo;
-
-            // Actualizamos todos los campos derivados para mantener consistencia
-            flujo.actualizarCamposDerivados();
-
-            // Calculamos el valor presente de este flujo
-            BigDecimal factorDescuento = BigDecimal.ONE.add(tasaDescuentoPorPeriodo).pow(periodo, MC);
-            BigDecimal valorPresente = flujoTotal.divide(factorDescuento, 10, RoundingMode.HALF_UP);
-            flujo.setValorPresente(valorPresente);
-
-            // Acumulamos el valor presente total
-            valorPresenteTotal = valorPresenteTotal.add(valorPresente);
-
-            // Agregamos el flujo a la lista
-            flujos.add(flujo);
-        }
-
-        // Guardamos los flujos generados
-        this.flujos = flujos;
-
-        return flujos;
+        return generarFlujoCaja(GeneradorCronograma.compilar(this, false), tasaDescuento);
     }
 
     /**
@@ -351,8 +257,24 @@ public class Bono extends AuditableModel {
      * @return Lista de flujos de caja
      */
     public List<FlujoFinanciero> generarFlujoCajaMetodoAleman(BigDecimal tasaDescuento) {
-        System.out.println("🔧 Iniciando método alemán");
-        
+        return generarFlujoCaja(GeneradorCronograma.compilar(this, true), tasaDescuento);
+    }
+
+    /**
+     * Genera el flujo de caja para el bono usando el método de amortización configurado.
+     * 
+     * @param tasaDescuento Tasa de descuento para calcular valores actuales
+     * @return Lista de flujos de caja
+     */
+    public List<FlujoFinanciero> generarFlujoCaja(BigDecimal tasaDescuento) {
+        return generarFlujoCaja(GeneradorCronograma.compilar(this), tasaDescuento);
+    }
+
+    /**
+     * Construye los flujos del emisor a partir del cronograma compilado y calcula el valor presente de
+     * cada flujo descontando a la tasa nominal dividida entre la frecuencia de pagos.
+     */
+    private List<FlujoFinanciero> generarFlujoCaja(CronogramaCompilado cronograma, BigDecimal tasaDescuento) {
         // Validamos la tasa de descuento
         if (tasaDescuento == null) {
             tasaDescuento = BigDecimal.valueOf(0.08); // Valor por defecto 8%
@@ -361,139 +283,29 @@ public class Bono extends AuditableModel {
         // Guardamos la tasa para futuros cálculos
         this.tasaDescuento = tasaDescuento;
 
-        // Calculamos el número total de períodos
-        int periodosTotales = this.plazoAnios * this.frecuenciaPagos;
-        System.out.println("  📋 Períodos totales: " + periodosTotales);
-
-        // Preparamos la tasa de cupón por período (convertimos porcentaje a decimal)
-        BigDecimal tasaCuponDecimal = this.tasaCupon.divide(BigDecimal.valueOf(100), 10, RoundingMode.HALF_UP);
-        BigDecimal tasaCuponPorPeriodo = tasaCuponDecimal.divide(BigDecimal.valueOf(frecuenciaPagos), 10, RoundingMode.HALF_UP);
-        System.out.println("  💰 Tasa cupón por período: " + tasaCuponPorPeriodo);
-
-        // Calculamos la tasa de descuento por período
         BigDecimal tasaDescuentoPorPeriodo = tasaDescuento.divide(BigDecimal.valueOf(frecuenciaPagos), 10, RoundingMode.HALF_UP);
+        BigDecimal unoMasTasa = BigDecimal.ONE.add(tasaDescuentoPorPeriodo);
 
-        // Inicializamos la lista de flujos
-        List<FlujoFinanciero> flujos = new ArrayList<>();
-
-        // Valor nominal como saldo inicial
-        BigDecimal saldoInsoluto = this.valorNominal;
-
-        // Calculamos la amortización constante (método alemán)
-        BigDecimal amortizacionConstante = this.valorNominal.divide(BigDecimal.valueOf(periodosTotales), 10, RoundingMode.HALF_UP);
-        System.out.println("  🏗️ Amortización constante: " + amortizacionConstante);
-
-        // Calculamos la fecha de inicio (fecha de emisión)
-        LocalDate fechaInicio = this.fechaEmision;
-
-        // Inicializamos el valor presente total
-        BigDecimal valorPresenteTotal = BigDecimal.ZERO;
-
-        // Para cada período generamos un flujo
-        for (int periodo = 1; periodo <= periodosTotales; periodo++) {
-            FlujoFinanciero flujo = new FlujoFinanciero();
-            flujo.setPeriodo(periodo);
-
-            // Calculamos la fecha del flujo
-            LocalDate fechaFlujo = calcularFechaFlujo(fechaInicio, periodo);
-            flujo.setFecha(fechaFlujo);
-
-            // Establecemos el bono asociado al flujo
-            flujo.setBono(this);
-
-            // MÉTODO ALEMÁN: Los intereses se calculan sobre el saldo pendiente
-            BigDecimal interes = saldoInsoluto.multiply(tasaCuponPorPeriodo);
-
-            // La amortización es constante en todos los períodos
-            BigDecimal amortizacion = amortizacionConstante;
-
-            // Manejo de plazos de gracia
-            PlazoGracia plazoGracia = getPlazoGracia();
-            if (plazoGracia.getTipo() == PlazoGracia.TipoPlazoGracia.TOTAL && periodo <= plazosGraciaTotal) {
-                // En período de gracia total, no se paga nada y se capitaliza
-                flujo.setCupon(BigDecimal.ZERO);
-                flujo.setAmortizacion(BigDecimal.ZERO);
-                flujo.setInteres(BigDecimal.ZERO);
-                // Los intereses se capitalizan (se suman al saldo)
-                saldoInsoluto = saldoInsoluto.add(interes);
-            } else if (plazoGracia.getTipo() == PlazoGracia.TipoPlazoGracia.PARCIAL && 
-                      periodo <= plazosGraciaTotal + plazosGraciaParcial) {
-                // En período de gracia parcial, solo se pagan intereses
-                flujo.setCupon(interes);
-                flujo.setAmortizacion(BigDecimal.ZERO);
-                flujo.setInteres(interes);
-                // El saldo no cambia
-            } else {
-                // Período normal: pago de intereses y amortización
-                flujo.setCupon(interes);
-                flujo.setAmortizacion(amortizacion);
-                flujo.setInteres(interes);
-                // Actualizamos el saldo insoluto
-                saldoInsoluto = saldoInsoluto.subtract(amortizacion);
-            }
-
-            // Calculamos el flujo total
-            BigDecimal flujoTotal = flujo.getCupon().add(flujo.getAmortizacion());
-            flujo.setFlujoTotal(flujoTotal);
+        List<FlujoFinanciero> flujos = new ArrayList<>(cronograma.getPeriodos());
+        BigDecimal factorDescuento = BigDecimal.ONE;
+        for (int periodo = 1; periodo <= cronograma.getPeriodos(); periodo++) {
+            FlujoFinanciero flujo = cronograma.aFlujoFinanciero(this, periodo);
 
-            // Establecemos el saldo insoluto después del pago
-            flujo.setSaldoInsoluto(saldoInsoluto);
+            // Calculamos el valor presente de este flujo
+            factorDescuento = factorDescuento.multiply(unoMasTasa, MC);
+            flujo.setValorPresente(flujo.getFlujoTotal().divide(factorDescuento, 10, RoundingMode.HALF_UP));
 
             // Actualizamos todos los campos derivados para mantener consistencia
             flujo.actualizarCamposDerivados();
-
-            // Calculamos el valor presente de este flujo
-            BigDecimal factorDescuento = BigDecimal.ONE.add(tasaDescuentoPorPeriodo).pow(periodo, MC);
-            BigDecimal valorPresente = flujoTotal.divide(factorDescuento, 10, RoundingMode.HALF_UP);
-            flujo.setValorPresente(valorPresente);
-
-            // Acumulamos el valor presente total
-            valorPresenteTotal = valorPresenteTotal.add(valorPresente);
-
-            // Agregamos el flujo a la lista
             flujos.add(flujo);
         }
 
         // Guardamos los flujos generados
         this.flujos = flujos;
-        
-        System.out.println("✅ Método alemán completado - Flujos generados: " + flujos.size());
 
         return flujos;
     }
 
-    /**
-     * Genera el flujo de caja para el bono usando el método de amortización configurado.
-     * 
-     * @param tasaDescuento Tasa de descuento para calcular valores actuales
-     * @return Lista de flujos de caja
-     */
-    public List<FlujoFinanciero> generarFlujoCaja(BigDecimal tasaDescuento) {
-        System.out.println("🎯 Generando flujo de caja - Bono: " + this.nombre + 
-                          ", Método: " + this.metodoAmortizacion);
-        
-        if ("ALEMAN".equalsIgnoreCase(this.metodoAmortizacion)) {
-            System.out.println("  ✅ Llamando a método alemán");
-            return generarFlujoCajaMetodoAleman(tasaDescuento);
-        } else {
-            System.out.println("  ✅ Llamando a método americano (default)");
-            // Por defecto usar método americano
-            return generarFlujoCajaMetodoAmericano(tasaDescuento);
-        }
-    }
-
-    /**
-     * Calcula la fecha de un flujo basado en la fecha de emisión y el período.
-     *
-     * @param fechaEmision Fecha de emisión del bono
-     * @param periodo Número de período
-     * @return Fecha del flujo
-     */
-    private LocalDate calcularFechaFlujo(LocalDate fechaEmision, int periodo) {
-        int mesesPorPeriodo = 12 / frecuenciaPagos;
-        return fechaEmision.plusMonths((long) periodo * mesesPorPeriodo);
-    }
-
     /**
      * Calcula las métricas de duración y convexidad del bono.
      *
@@ -506,63 +318,17 @@ public class Bono extends AuditableModel {
             generarFlujoCaja(tasaMercado);
         }
 
-        // Preparamos variables para el cálculo
-        BigDecimal precioActual = calcularPrecio(tasaMercado);
+        // Precio, duración y convexidad en un solo recorrido de los flujos
         BigDecimal tasaPorPeriodo = tasaMercado.divide(BigDecimal.valueOf(frecuenciaPagos), 10, RoundingMode.HALF_UP);
-
-        // Variables para acumular cálculos
-        BigDecimal sumaDuracion = BigDecimal.ZERO;
-        BigDecimal sumaConvexidad = BigDecimal.ZERO;
-
-        // Para cada flujo calculamos su contribución a la duración y convexidad
-        for (FlujoFinanciero flujo : flujos) {
-            BigDecimal flujoTotal = flujo.getFlujoTotal();
-            int periodo = flujo.getPeriodo();
-
-            // Factor de descuento
-            BigDecimal factorDescuento = BigDecimal.ONE.add(tasaPorPeriodo).pow(periodo, MC);
-
-            // Valor presente del flujo
-            BigDecimal valorPresente = flujoTotal.divide(factorDescuento, 10, RoundingMode.HALF_UP);
-
-            // Contribución a la duración (ponderada por tiempo)
-            BigDecimal contribucionDuracion = valorPresente.multiply(BigDecimal.valueOf(periodo));
-            sumaDuracion = sumaDuracion.add(contribucionDuracion);
-
-            // Contribución a la convexidad
-            BigDecimal t = BigDecimal.valueOf(periodo);
-            BigDecimal tMasUno = t.add(BigDecimal.ONE);
-            BigDecimal contribucionConvexidad = valorPresente.multiply(t).multiply(tMasUno);
-            sumaConvexidad = sumaConvexidad.add(contribucionConvexidad);
-        }
-
-        // Calculamos la duración de Macaulay (en períodos)
-        BigDecimal duracionPeriodos = sumaDuracion.divide(precioActual, 10, RoundingMode.HALF_UP);
-
-        // Convertimos a años
-        BigDecimal duracionAnios = duracionPeriodos.divide(BigDecimal.valueOf(frecuenciaPagos), 10, RoundingMode.HALF_UP);
-
-        // Calculamos la duración modificada
-        BigDecimal duracionModificada = duracionPeriodos.divide(BigDecimal.ONE.add(tasaPorPeriodo), 10, RoundingMode.HALF_UP);
-
-        // Convertimos la duración modificada a años
-        BigDecimal duracionModificadaAnios = duracionModificada.divide(BigDecimal.valueOf(frecuenciaPagos), 10, RoundingMode.HALF_UP);
-
-        // Calculamos la convexidad
-        BigDecimal convexidad = sumaConvexidad.divide(
-                precioActual.multiply(BigDecimal.valueOf(Math.pow(1 + tasaPorPeriodo.doubleValue(), 2))),
-                10, RoundingMode.HALF_UP);
-
-        // Normalizamos la convexidad
-        BigDecimal convexidadNormalizada = convexidad.divide(
-                BigDecimal.valueOf(Math.pow(frecuenciaPagos, 2)),
-                10, RoundingMode.HALF_UP);
+        DuracionConvexidad metricas = KernelMetricas
+                .calcular(flujos, tasaPorPeriodo, frecuenciaPagos, tasaMercado, false)
+                .duracionConvexidad();
 
         // Guardamos la duración y convexidad en el bono
-        this.duracion = duracionAnios;
-        this.convexidad = convexidadNormalizada;
+        this.duracion = metricas.getDuracion();
+        this.convexidad = metricas.getConvexidad();
 
-        return new DuracionConvexidad(duracionAnios, duracionModificadaAnios, convexidadNormalizada, tasaMercado);
+        return metricas;
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.bonoya.platform.bonos.domain.model.entities;
 
+import com.bonoya.platform.bonos.domain.model.valueobjects.DetalleCalculo;
 import com.bonoya.platform.shared.domain.model.entities.AuditableModel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -7,6 +8,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -38,9 +42,15 @@ public class Calculo extends AuditableModel {
     
     private LocalDate fechaCalculo;
     
-    // Información adicional sobre el cálculo (como tipo de valoración)
+    // Resumen en texto guardado por versiones anteriores; los cálculos nuevos lo dejan en null y el resumen se
+    // arma al consultarlo a partir de las columnas y del detalle
     @Column(name = "informacion_adicional", length = 255)
     private String informacionAdicional;
+
+    // Datos del resultado sin columna propia (spread, margen de seguridad, precio de compra, método)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "detalle", columnDefinition = "jsonb")
+    private DetalleCalculo detalle;
     
     // Campos adicionales para enriquecer el historial
     @Column(name = "tipo_analisis", length = 50)
@@ -115,6 +125,44 @@ public class Calculo extends AuditableModel {
         return bono != null ? bono.getNombre() : null;
     }
     
+    /**
+     * Crea una copia no persistida del cálculo para otro inversor.
+     * Se usa cuando varios inversores comparten el mismo resultado y cada uno necesita su propio registro.
+     */
+    public Calculo copiarPara(String inversorUsername) {
+        Calculo copia = new Calculo();
+        copia.bono = bono;
+        copia.inversorUsername = inversorUsername;
+        copia.tasaEsperada = tasaEsperada;
+        copia.trea = trea;
+        copia.precioMaximo = precioMaximo;
+        copia.fechaCalculo = fechaCalculo;
+        copia.informacionAdicional = informacionAdicional;
+        copia.detalle = detalle;
+        copia.tipoAnalisis = tipoAnalisis;
+        copia.valorNominal = valorNominal;
+        copia.tasaCupon = tasaCupon;
+        copia.plazoAnios = plazoAnios;
+        copia.frecuenciaPagos = frecuenciaPagos;
+        copia.moneda = moneda;
+        copia.treaPorcentaje = treaPorcentaje;
+        copia.valorPresente = valorPresente;
+        copia.tir = tir;
+        copia.van = van;
+        copia.tcea = tcea;
+        copia.duracion = duracion;
+        copia.duracionModificada = duracionModificada;
+        copia.convexidad = convexidad;
+        copia.precioJusto = precioJusto;
+        copia.valorPresenteCupones = valorPresenteCupones;
+        copia.yield = yield;
+        copia.sensibilidadPrecio = sensibilidadPrecio;
+        copia.gananciaCapital = gananciaCapital;
+        copia.ingresosCupones = ingresosCupones;
+        copia.rendimientoTotal = rendimientoTotal;
+        return copia;
+    }
+    
     /**
      * Métodos de utilidad para convertir entre BigDecimal y double
      */
@@ -0,0 +1,79 @@
+package com.bonoya.platform.bonos.domain.model.entities;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.ErrorImportacion;
+import com.bonoya.platform.bonos.domain.model.valueobjects.EstadoImportacion;
+import com.bonoya.platform.shared.domain.model.entities.AuditableModel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progreso de una importación masiva de bonos de un emisor.
+ *
+ * Se actualiza en la misma transacción que cada lote insertado, de modo que {@code ultimaFilaConfirmada}
+ * indica exactamente hasta dónde llegó la importación: al reenviar el mismo archivo para reanudarla, las filas
+ * anteriores se leen pero no se vuelven a insertar.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "importaciones_bonos")
+public class ImportacionBono extends AuditableModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "emisor_username", nullable = false, length = 50)
+    private String emisorUsername;
+
+    @Column(name = "formato", nullable = false, length = 10)
+    private String formato;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoImportacion estado = EstadoImportacion.EN_PROCESO;
+
+    private long filasImportadas;
+    private long filasConError;
+    private long ultimaFilaConfirmada;
+
+    @Column(name = "mensaje", length = 500)
+    private String mensaje;
+
+    // Solo se guardan los primeros errores; el total está en filasConError
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "importaciones_bonos_errores", joinColumns = @JoinColumn(name = "importacion_id"))
+    @OrderColumn(name = "posicion")
+    private List<ErrorImportacion> errores = new ArrayList<>();
+
+    public ImportacionBono(String emisorUsername, String formato) {
+        this.emisorUsername = emisorUsername;
+        this.formato = formato;
+    }
+
+    /**
+     * Registra el resultado de un lote confirmado.
+     *
+     * @param ultimaFila número de la última fila leída en el lote
+     * @param importadas filas insertadas en el lote
+     * @param erroresLote filas rechazadas en el lote
+     * @param maxErrores máximo de errores que se conservan en total
+     */
+    public void confirmarLote(long ultimaFila, int importadas, List<ErrorImportacion> erroresLote, int maxErrores) {
+        this.ultimaFilaConfirmada = ultimaFila;
+        this.filasImportadas += importadas;
+        this.filasConError += erroresLote.size();
+        for (ErrorImportacion error : erroresLote) {
+            if (errores.size() >= maxErrores) {
+                break;
+            }
+            errores.add(error);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bonoya.platform.bonos.domain.model.entities;
+
+import com.bonoya.platform.shared.domain.model.entities.AuditableModel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agregado con las posiciones de un inversor en distintos bonos.
+ * Los flujos del portafolio se obtienen combinando los cronogramas de sus posiciones.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "portafolios")
+public class Portafolio extends AuditableModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "inversor_username", nullable = false, length = 50)
+    private String inversorUsername;
+
+    @Column(name = "nombre", nullable = false, length = 100)
+    private String nombre;
+
+    @Column(name = "descripcion", length = 500)
+    private String descripcion;
+
+    @OneToMany(mappedBy = "portafolio", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    private List<PosicionPortafolio> posiciones = new ArrayList<>();
+
+    public Portafolio(String inversorUsername, String nombre, String descripcion) {
+        this.inversorUsername = inversorUsername;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+    }
+
+    // Métodos de utilidad
+    public void agregarPosicion(PosicionPortafolio posicion) {
+        posiciones.add(posicion);
+        posicion.setPortafolio(this);
+    }
+
+    public boolean eliminarPosicion(Long posicionId) {
+        return posiciones.removeIf(posicion -> posicion.getId() != null && posicion.getId().equals(posicionId));
+    }
+}
@@ -0,0 +1,53 @@
+package com.bonoya.platform.bonos.domain.model.entities;
+
+import com.bonoya.platform.shared.domain.model.entities.AuditableModel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Posición de un portafolio: cantidad de bonos de una emisión y precio pagado por cada uno.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "posiciones_portafolio")
+public class PosicionPortafolio extends AuditableModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "portafolio_id", nullable = false)
+    private Portafolio portafolio;
+
+    @ManyToOne
+    @JoinColumn(name = "bono_id", nullable = false)
+    private Bono bono;
+
+    // Número de bonos (de valor nominal bono.valorNominal) que se mantienen
+    @Column(name = "cantidad", precision = 19, scale = 4, nullable = false)
+    private BigDecimal cantidad;
+
+    // Precio de compra por bono
+    @Column(name = "precio_compra", precision = 19, scale = 4, nullable = false)
+    private BigDecimal precioCompra;
+
+    public PosicionPortafolio(Bono bono, BigDecimal cantidad, BigDecimal precioCompra) {
+        this.bono = bono;
+        this.cantidad = cantidad;
+        this.precioCompra = precioCompra;
+    }
+
+    /**
+     * Importe invertido en la posición (cantidad por precio de compra).
+     */
+    public BigDecimal getCostoTotal() {
+        return cantidad.multiply(precioCompra);
+    }
+}
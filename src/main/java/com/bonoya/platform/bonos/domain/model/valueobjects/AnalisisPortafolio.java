@@ -0,0 +1,40 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resultado del análisis de un portafolio: escalera de flujos agrupada y métricas agregadas.
+ */
+@Getter
+@AllArgsConstructor
+public class AnalisisPortafolio {
+
+    private final Long portafolioId;
+    private final LocalDate fechaValoracion;
+    private final FlujosPortafolio.Agrupacion agrupacion;
+    private final int posiciones;
+
+    // Moneda común de las posiciones; null si el portafolio está vacío
+    private final String moneda;
+
+    private final List<FlujosPortafolio.Tramo> escalera;
+
+    // Importe invertido (cantidad por precio de compra de cada posición)
+    private final BigDecimal costoTotal;
+
+    // Valor presente de los flujos futuros a la tasa de las métricas
+    private final BigDecimal valorMercado;
+
+    // TIR efectiva anual respecto al costo total; null si no existe
+    private final BigDecimal tir;
+
+    private final BigDecimal plazoRemanente;
+
+    // Duración, duración modificada y convexidad en años, a la tasa de mercado o a la TIR
+    private final DuracionConvexidad medidasRiesgo;
+}
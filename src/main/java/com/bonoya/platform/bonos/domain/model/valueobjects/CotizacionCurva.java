@@ -0,0 +1,17 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import java.math.BigDecimal;
+
+/**
+ * Cotización de mercado usada para construir una curva de descuento.
+ * Sin tasa cupón se interpreta como un instrumento cupón cero; con tasa cupón, como un bono
+ * bullet de valor 100 que paga cupones con la frecuencia indicada.
+ *
+ * @param plazoAnios Plazo del instrumento en años
+ * @param rendimiento Rendimiento efectivo anual observado (decimal o porcentaje)
+ * @param tasaCupon Tasa cupón nominal anual (decimal o porcentaje), opcional
+ * @param frecuenciaPagos Pagos por año del cupón, opcional (por defecto 1)
+ */
+public record CotizacionCurva(BigDecimal plazoAnios, BigDecimal rendimiento,
+                              BigDecimal tasaCupon, Integer frecuenciaPagos) {
+}
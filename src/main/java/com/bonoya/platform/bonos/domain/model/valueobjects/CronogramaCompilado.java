@@ -0,0 +1,233 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+
+import java.math.BigDecimal;
+import java.nio.LongBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Value object inmutable con el cronograma de pagos de un bono ya compilado.
+ *
+ * Los importes se guardan en céntimos ({@code long}) y las fechas como días desde la época, en arreglos
+ * indexados por período: el índice 0 corresponde a la emisión (sin pagos, saldo igual al valor nominal) y
+ * los índices 1..n a los pagos. Al ser inmutable, un mismo cronograma se comparte entre todas las vistas
+ * (flujos del emisor, flujos del inversor, métricas) sin volver a generarlo.
+ *
+ * Los arreglos se leen a través de {@link LongBuffer}: sobre memoria del heap para los cronogramas
+ * generados, o como vistas de solo lectura de un archivo mapeado en memoria para los que se restauran de un
+ * snapshot ({@link #deColumnas}), sin copiarlos.
+ */
+public final class CronogramaCompilado {
+
+    /**
+     * Estructura del cronograma, usada para elegir fórmulas cerradas cuando los flujos son regulares.
+     */
+    public enum Forma {
+        BULLET,                  // Cupón constante y principal al vencimiento (americano sin gracia)
+        AMORTIZACION_CONSTANTE,  // Amortización constante e interés sobre saldo (alemán sin gracia)
+        GENERAL                  // Cualquier otro caso (con gracia)
+    }
+
+    private final Forma forma;
+    private final double tasaCuponPeriodica;
+    private final BigDecimal valorNominal;
+    private final int frecuenciaPagos;
+    private final LongBuffer fechasEpochDay;
+    private final LongBuffer interesCentimos;
+    private final LongBuffer amortizacionCentimos;
+    private final LongBuffer saldoCentimos;
+
+    public CronogramaCompilado(Forma forma, double tasaCuponPeriodica, BigDecimal valorNominal, int frecuenciaPagos,
+                               long[] fechasEpochDay, long[] interesCentimos, long[] amortizacionCentimos,
+                               long[] saldoCentimos) {
+        if (interesCentimos.length != amortizacionCentimos.length || interesCentimos.length != saldoCentimos.length
+                || (fechasEpochDay != null && fechasEpochDay.length != interesCentimos.length)) {
+            throw new IllegalArgumentException("Los arreglos del cronograma deben tener la misma longitud");
+        }
+        this.forma = forma;
+        this.tasaCuponPeriodica = tasaCuponPeriodica;
+        this.valorNominal = valorNominal;
+        this.frecuenciaPagos = frecuenciaPagos;
+        this.fechasEpochDay = fechasEpochDay != null ? LongBuffer.wrap(fechasEpochDay.clone()) : null;
+        this.interesCentimos = LongBuffer.wrap(interesCentimos.clone());
+        this.amortizacionCentimos = LongBuffer.wrap(amortizacionCentimos.clone());
+        this.saldoCentimos = LongBuffer.wrap(saldoCentimos.clone());
+    }
+
+    private CronogramaCompilado(Forma forma, double tasaCuponPeriodica, BigDecimal valorNominal, int frecuenciaPagos,
+                                LongBuffer fechasEpochDay, LongBuffer interesCentimos,
+                                LongBuffer amortizacionCentimos, LongBuffer saldoCentimos) {
+        this.forma = forma;
+        this.tasaCuponPeriodica = tasaCuponPeriodica;
+        this.valorNominal = valorNominal;
+        this.frecuenciaPagos = frecuenciaPagos;
+        this.fechasEpochDay = fechasEpochDay;
+        this.interesCentimos = interesCentimos;
+        this.amortizacionCentimos = amortizacionCentimos;
+        this.saldoCentimos = saldoCentimos;
+    }
+
+    /**
+     * Cronograma sobre columnas ya existentes, sin copiarlas. Las columnas se convierten en vistas de solo
+     * lectura; quien las entrega no debe modificarlas después.
+     *
+     * @param fechasEpochDay Fechas por período, o null si el cronograma no tiene fechas
+     */
+    public static CronogramaCompilado deColumnas(Forma forma, double tasaCuponPeriodica, BigDecimal valorNominal,
+                                                 int frecuenciaPagos, LongBuffer fechasEpochDay,
+                                                 LongBuffer interesCentimos, LongBuffer amortizacionCentimos,
+                                                 LongBuffer saldoCentimos) {
+        int filas = interesCentimos.remaining();
+        if (amortizacionCentimos.remaining() != filas || saldoCentimos.remaining() != filas
+                || (fechasEpochDay != null && fechasEpochDay.remaining() != filas) || filas == 0) {
+            throw new IllegalArgumentException("Las columnas del cronograma deben tener la misma longitud");
+        }
+        return new CronogramaCompilado(forma, tasaCuponPeriodica, valorNominal, frecuenciaPagos,
+                fechasEpochDay != null ? fechasEpochDay.slice().asReadOnlyBuffer() : null,
+                interesCentimos.slice().asReadOnlyBuffer(), amortizacionCentimos.slice().asReadOnlyBuffer(),
+                saldoCentimos.slice().asReadOnlyBuffer());
+    }
+
+    /**
+     * Número de períodos de pago (sin contar la emisión).
+     */
+    public int getPeriodos() {
+        return interesCentimos.limit() - 1;
+    }
+
+    public Forma getForma() {
+        return forma;
+    }
+
+    /**
+     * Tasa de cupón por período con la que se calcularon los intereses.
+     */
+    public double getTasaCuponPeriodica() {
+        return tasaCuponPeriodica;
+    }
+
+    public int getFrecuenciaPagos() {
+        return frecuenciaPagos;
+    }
+
+    public BigDecimal getValorNominal() {
+        return valorNominal;
+    }
+
+    public LocalDate fecha(int periodo) {
+        return fechasEpochDay != null ? LocalDate.ofEpochDay(fechasEpochDay.get(periodo)) : null;
+    }
+
+    /**
+     * Indica si el cronograma tiene fechas (el bono tenía fecha de emisión).
+     */
+    public boolean tieneFechas() {
+        return fechasEpochDay != null;
+    }
+
+    /**
+     * Fecha del período en días desde la época, sin crear un {@link LocalDate}.
+     */
+    public long fechaEpochDay(int periodo) {
+        if (fechasEpochDay == null) {
+            throw new IllegalStateException("El cronograma no tiene fechas");
+        }
+        return fechasEpochDay.get(periodo);
+    }
+
+    public long interesCentimos(int periodo) {
+        return interesCentimos.get(periodo);
+    }
+
+    public long amortizacionCentimos(int periodo) {
+        return amortizacionCentimos.get(periodo);
+    }
+
+    public long saldoCentimos(int periodo) {
+        return saldoCentimos.get(periodo);
+    }
+
+    public long flujoTotalCentimos(int periodo) {
+        return interesCentimos.get(periodo) + amortizacionCentimos.get(periodo);
+    }
+
+    public BigDecimal interes(int periodo) {
+        return BigDecimal.valueOf(interesCentimos.get(periodo), 2);
+    }
+
+    public BigDecimal amortizacion(int periodo) {
+        return BigDecimal.valueOf(amortizacionCentimos.get(periodo), 2);
+    }
+
+    public BigDecimal saldo(int periodo) {
+        return BigDecimal.valueOf(saldoCentimos.get(periodo), 2);
+    }
+
+    public BigDecimal flujoTotal(int periodo) {
+        return BigDecimal.valueOf(flujoTotalCentimos(periodo), 2);
+    }
+
+    /**
+     * Flujos totales de los períodos 1..n en unidades monetarias, para los cálculos en punto flotante.
+     * El índice 0 del arreglo corresponde al período 1.
+     */
+    public double[] flujosTotales() {
+        double[] flujos = new double[getPeriodos()];
+        for (int periodo = 1; periodo <= flujos.length; periodo++) {
+            flujos[periodo - 1] = flujoTotalCentimos(periodo) / 100.0;
+        }
+        return flujos;
+    }
+
+    /**
+     * Construye los flujos financieros del bono, incluyendo el desembolso inicial en el período 0.
+     */
+    public List<FlujoFinanciero> aFlujosFinancieros(Bono bono) {
+        List<FlujoFinanciero> flujos = new ArrayList<>(getPeriodos() + 1);
+        // El cronograma puede ser compartido por bonos con el mismo nominal en otra escala; se usa el del bono
+        BigDecimal valorNominal = bono != null && bono.getValorNominal() != null ? bono.getValorNominal() : this.valorNominal;
+
+        FlujoFinanciero flujoInicial = new FlujoFinanciero();
+        flujoInicial.setBono(bono);
+        flujoInicial.setPeriodo(0);
+        flujoInicial.setFecha(fecha(0));
+        flujoInicial.setCupon(BigDecimal.ZERO);
+        flujoInicial.setAmortizacion(BigDecimal.ZERO);
+        flujoInicial.setInteres(BigDecimal.ZERO);
+        flujoInicial.setSaldoInsoluto(valorNominal);
+        flujoInicial.setSaldo(valorNominal);
+        flujoInicial.setFlujoTotal(valorNominal.negate());
+        flujoInicial.setFlujo(valorNominal.negate());
+        flujos.add(flujoInicial);
+
+        for (int periodo = 1; periodo <= getPeriodos(); periodo++) {
+            FlujoFinanciero flujo = aFlujoFinanciero(bono, periodo);
+            flujo.setCuota(flujo.getFlujoTotal());
+            flujo.setFlujo(flujo.getFlujoTotal());
+            flujo.setSaldo(flujo.getSaldoInsoluto());
+            flujos.add(flujo);
+        }
+        return flujos;
+    }
+
+    /**
+     * Construye el flujo financiero de un período de pago (sin valores presentes).
+     */
+    public FlujoFinanciero aFlujoFinanciero(Bono bono, int periodo) {
+        FlujoFinanciero flujo = new FlujoFinanciero();
+        flujo.setBono(bono);
+        flujo.setPeriodo(periodo);
+        flujo.setFecha(fecha(periodo));
+        BigDecimal interes = interes(periodo);
+        flujo.setCupon(interes);
+        flujo.setInteres(interes);
+        flujo.setAmortizacion(amortizacion(periodo));
+        flujo.setFlujoTotal(flujoTotal(periodo));
+        flujo.setSaldoInsoluto(saldo(periodo));
+        return flujo;
+    }
+}
@@ -0,0 +1,185 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Value object que representa una curva cero (tasas efectivas anuales por plazo) de una moneda.
+ * Los nodos provienen del bootstrapping y entre ellos la tasa se interpola de forma lineal o con
+ * un cúbico monótono (Fritsch-Carlson). Fuera del rango de nodos la tasa se extrapola plana.
+ */
+public class CurvaDescuento {
+
+    public enum Interpolacion {
+        LINEAL,
+        CUBICA_MONOTONA
+    }
+
+    private static final double DIAS_ANIO = 365.0;
+
+    private final String moneda;
+    private final Interpolacion interpolacion;
+    private final double[] plazos;
+    private final double[] tasasCero;
+    private final double[] pendientes;
+
+    /**
+     * Constructor para CurvaDescuento.
+     *
+     * @param moneda Moneda de la curva
+     * @param interpolacion Método de interpolación entre nodos
+     * @param plazos Plazos de los nodos en años, estrictamente crecientes
+     * @param tasasCero Tasas cero efectivas anuales de cada nodo (formato decimal)
+     */
+    public CurvaDescuento(String moneda, Interpolacion interpolacion, double[] plazos, double[] tasasCero) {
+        if (plazos == null || tasasCero == null || plazos.length == 0 || plazos.length != tasasCero.length) {
+            throw new IllegalArgumentException("La curva requiere al menos un nodo con plazo y tasa");
+        }
+        for (int i = 1; i < plazos.length; i++) {
+            if (plazos[i] <= plazos[i - 1]) {
+                throw new IllegalArgumentException("Los plazos de la curva deben ser estrictamente crecientes");
+            }
+        }
+
+        this.moneda = moneda;
+        this.interpolacion = interpolacion != null ? interpolacion : Interpolacion.LINEAL;
+        this.plazos = plazos.clone();
+        this.tasasCero = tasasCero.clone();
+        this.pendientes = this.interpolacion == Interpolacion.CUBICA_MONOTONA
+                ? calcularPendientesMonotonas(this.plazos, this.tasasCero)
+                : null;
+    }
+
+    public String getMoneda() {
+        return moneda;
+    }
+
+    public Interpolacion getInterpolacion() {
+        return interpolacion;
+    }
+
+    public double[] getPlazos() {
+        return plazos.clone();
+    }
+
+    public double[] getTasasCero() {
+        return tasasCero.clone();
+    }
+
+    /**
+     * Devuelve la misma curva (mismos nodos) con otro método de interpolación.
+     */
+    public CurvaDescuento conInterpolacion(Interpolacion otra) {
+        if (otra == null || otra == interpolacion) {
+            return this;
+        }
+        return new CurvaDescuento(moneda, otra, plazos, tasasCero);
+    }
+
+    /**
+     * Tasa cero efectiva anual interpolada para un plazo en años.
+     */
+    public double tasaCero(double plazo) {
+        int n = plazos.length;
+        if (n == 1 || plazo <= plazos[0]) {
+            return tasasCero[0];
+        }
+        if (plazo >= plazos[n - 1]) {
+            return tasasCero[n - 1];
+        }
+
+        int i = Arrays.binarySearch(plazos, plazo);
+        if (i >= 0) {
+            return tasasCero[i];
+        }
+        int j = -i - 1;
+        int k = j - 1;
+        double h = plazos[j] - plazos[k];
+        double s = (plazo - plazos[k]) / h;
+
+        if (interpolacion == Interpolacion.LINEAL) {
+            return tasasCero[k] + s * (tasasCero[j] - tasasCero[k]);
+        }
+
+        // Hermite cúbico con pendientes monótonas
+        double s2 = s * s;
+        double s3 = s2 * s;
+        return (2 * s3 - 3 * s2 + 1) * tasasCero[k]
+                + (s3 - 2 * s2 + s) * h * pendientes[k]
+                + (-2 * s3 + 3 * s2) * tasasCero[j]
+                + (s3 - s2) * h * pendientes[j];
+    }
+
+    /**
+     * Factor de descuento para un plazo en años: 1 / (1 + z(t))^t.
+     */
+    public double factorDescuento(double plazo) {
+        if (plazo <= 0) {
+            return 1.0;
+        }
+        return Math.exp(-plazo * Math.log1p(tasaCero(plazo)));
+    }
+
+    /**
+     * Precalcula los factores de descuento de un conjunto de fechas respecto a una fecha base.
+     * Las fechas anteriores o iguales a la fecha base reciben factor 1.
+     *
+     * @param fechaBase Fecha de valoración
+     * @param fechas Fechas de los flujos
+     * @return Factores de descuento alineados con las fechas
+     */
+    public double[] factoresDescuento(LocalDate fechaBase, List<LocalDate> fechas) {
+        double[] factores = new double[fechas.size()];
+        for (int i = 0; i < factores.length; i++) {
+            LocalDate fecha = fechas.get(i);
+            factores[i] = fecha == null ? 1.0 : factorDescuento(plazoEnAnios(fechaBase, fecha));
+        }
+        return factores;
+    }
+
+    /**
+     * Fracción de año (actual/365) entre dos fechas.
+     */
+    public static double plazoEnAnios(LocalDate desde, LocalDate hasta) {
+        return ChronoUnit.DAYS.between(desde, hasta) / DIAS_ANIO;
+    }
+
+    private static double[] calcularPendientesMonotonas(double[] x, double[] y) {
+        int n = x.length;
+        double[] m = new double[n];
+        if (n < 2) {
+            return m;
+        }
+
+        double[] delta = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            delta[i] = (y[i + 1] - y[i]) / (x[i + 1] - x[i]);
+        }
+
+        m[0] = delta[0];
+        m[n - 1] = delta[n - 2];
+        for (int i = 1; i < n - 1; i++) {
+            m[i] = delta[i - 1] * delta[i] <= 0 ? 0.0 : (delta[i - 1] + delta[i]) / 2;
+        }
+
+        // Ajuste de Fritsch-Carlson para preservar la monotonía en cada tramo
+        for (int i = 0; i < n - 1; i++) {
+            if (delta[i] == 0.0) {
+                m[i] = 0.0;
+                m[i + 1] = 0.0;
+                continue;
+            }
+            double a = m[i] / delta[i];
+            double b = m[i + 1] / delta[i];
+            double r = a * a + b * b;
+            if (r > 9.0) {
+                double tau = 3.0 / Math.sqrt(r);
+                m[i] = tau * a * delta[i];
+                m[i + 1] = tau * b * delta[i];
+            }
+        }
+        return m;
+    }
+}
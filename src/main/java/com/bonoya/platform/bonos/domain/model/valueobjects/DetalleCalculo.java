@@ -0,0 +1,30 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import java.math.BigDecimal;
+
+/**
+ * Datos del resultado de un cálculo que no tienen columna propia en {@code calculos}.
+ *
+ * Las métricas principales (TREA, TCEA, duración, convexidad, etc.) viven en sus columnas; aquí solo queda lo
+ * que algunos análisis agregan. Se guarda como {@code jsonb} y los campos que el análisis no usa quedan en null.
+ *
+ * @param spread Diferencia entre la TREA del inversor y la TCEA del emisor, en decimal
+ * @param margenSeguridad Valor nominal menos el precio máximo
+ * @param precioCompra Precio de compra indicado por el inversor
+ * @param metodoAmortizacion Método de amortización identificado en el cronograma del bono
+ */
+public record DetalleCalculo(BigDecimal spread, BigDecimal margenSeguridad, BigDecimal precioCompra,
+                             String metodoAmortizacion) {
+
+    public static DetalleCalculo deSpread(BigDecimal spread) {
+        return new DetalleCalculo(spread, null, null, null);
+    }
+
+    public static DetalleCalculo deMetodo(String metodoAmortizacion) {
+        return new DetalleCalculo(null, null, null, metodoAmortizacion);
+    }
+
+    public static DetalleCalculo dePrecioCompra(BigDecimal precioCompra) {
+        return new DetalleCalculo(null, null, precioCompra, null);
+    }
+}
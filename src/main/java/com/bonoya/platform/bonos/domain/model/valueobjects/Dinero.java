@@ -0,0 +1,218 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.function.Supplier;
+
+/**
+ * Value object de importe monetario en punto fijo: un {@code long} de céntimos, inmutable.
+ *
+ * Sustituye a {@link BigDecimal} en la generación de cronogramas, donde cada período hacía varias
+ * asignaciones. Las operaciones que redondean reproducen exactamente la aritmética anterior
+ * ({@code multiply}/{@code divide} con {@code MathContext} y {@code setScale(2, HALF_UP)}), de modo que los
+ * cronogramas son idénticos céntimo a céntimo. Si un producto intermedio no cabe en un {@code long}, la
+ * operación se resuelve con {@link BigDecimal} sin cambiar el resultado.
+ *
+ * La conversión a {@link BigDecimal} solo debe hacerse en los bordes (persistencia y JSON).
+ */
+public final class Dinero implements Comparable<Dinero> {
+
+    public static final Dinero CERO = new Dinero(0L);
+
+    private static final long[] POTENCIAS_10 = new long[19];
+
+    static {
+        POTENCIAS_10[0] = 1L;
+        for (int i = 1; i < POTENCIAS_10.length; i++) {
+            POTENCIAS_10[i] = POTENCIAS_10[i - 1] * 10L;
+        }
+    }
+
+    private final long centimos;
+
+    private Dinero(long centimos) {
+        this.centimos = centimos;
+    }
+
+    public static Dinero deCentimos(long centimos) {
+        return centimos == 0L ? CERO : new Dinero(centimos);
+    }
+
+    /**
+     * Redondea el importe a céntimos con HALF_UP.
+     *
+     * @throws ArithmeticException si el importe no cabe en un {@code long} de céntimos
+     */
+    public static Dinero de(BigDecimal importe) {
+        return deCentimos(importe.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Indica si el importe se representa sin pérdida: como mucho dos decimales y dentro del rango de un
+     * {@code long} de céntimos.
+     */
+    public static boolean esRepresentable(BigDecimal importe) {
+        if (importe.signum() == 0) {
+            return true;
+        }
+        BigDecimal normalizado = importe.stripTrailingZeros();
+        return normalizado.scale() <= 2 && normalizado.precision() - normalizado.scale() <= 16;
+    }
+
+    public Dinero mas(Dinero otro) {
+        return deCentimos(Math.addExact(centimos, otro.centimos));
+    }
+
+    public Dinero menos(Dinero otro) {
+        return deCentimos(Math.subtractExact(centimos, otro.centimos));
+    }
+
+    /**
+     * Equivale a {@code importe.multiply(tasa, new MathContext(precision, HALF_UP)).setScale(2, HALF_UP)}.
+     *
+     * @param tasaEscalada Valor no escalado de la tasa
+     * @param escala Número de decimales de la tasa (la tasa es {@code tasaEscalada / 10^escala})
+     * @param precision Dígitos significativos del producto antes de redondear a céntimos
+     */
+    public Dinero porTasa(long tasaEscalada, int escala, int precision) {
+        if (escala < 0 || escala >= POTENCIAS_10.length) {
+            throw new IllegalArgumentException("Escala de tasa fuera de rango: " + escala);
+        }
+        Supplier<BigDecimal> respaldo = () -> toBigDecimal()
+                .multiply(BigDecimal.valueOf(tasaEscalada, escala), new MathContext(precision, RoundingMode.HALF_UP));
+        long producto;
+        try {
+            producto = Math.multiplyExact(centimos, tasaEscalada);
+        } catch (ArithmeticException e) {
+            return de(respaldo.get());
+        }
+        return redondear(producto, POTENCIAS_10[escala], precision, respaldo);
+    }
+
+    /**
+     * Equivale a {@code importe.divide(partes, new MathContext(precision, HALF_UP)).setScale(2, HALF_UP)}.
+     */
+    public Dinero dividir(long partes, int precision) {
+        if (partes <= 0) {
+            throw new IllegalArgumentException("El número de partes debe ser mayor que cero");
+        }
+        return redondear(centimos, partes, precision, () -> toBigDecimal()
+                .divide(BigDecimal.valueOf(partes), new MathContext(precision, RoundingMode.HALF_UP)));
+    }
+
+    public long getCentimos() {
+        return centimos;
+    }
+
+    public boolean esCero() {
+        return centimos == 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centimos, 2);
+    }
+
+    @Override
+    public int compareTo(Dinero otro) {
+        return Long.compare(centimos, otro.centimos);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return centimos == ((Dinero) o).centimos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centimos);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    /**
+     * Redondea {@code numerador / denominador} céntimos primero a {@code precision} dígitos significativos y
+     * luego a céntimos, ambos con HALF_UP (simétrico para negativos), igual que el doble redondeo de
+     * {@link BigDecimal}. Los dígitos significativos no dependen de la unidad, así que se cuentan en céntimos.
+     */
+    private static Dinero redondear(long numerador, long denominador, int precision,
+                                    Supplier<BigDecimal> respaldo) {
+        if (numerador == 0L) {
+            return CERO;
+        }
+        if (numerador == Long.MIN_VALUE || precision <= 0) {
+            return de(respaldo.get());
+        }
+        long absoluto = Math.abs(numerador);
+        long cociente = absoluto / denominador;
+        long resto = absoluto % denominador;
+
+        // Exponente del dígito más significativo del cociente exacto
+        int exponente;
+        if (cociente > 0) {
+            exponente = digitos(cociente) - 1;
+        } else {
+            exponente = -1;
+            long escalado = resto;
+            while (true) {
+                if (escalado > Long.MAX_VALUE / 10) {
+                    return de(respaldo.get());
+                }
+                escalado *= 10;
+                if (escalado >= denominador) {
+                    break;
+                }
+                exponente--;
+            }
+        }
+        int unidad = exponente - precision + 1;
+
+        long resultado;
+        if (unidad >= 0) {
+            // La precisión recorta céntimos enteros: un único redondeo a múltiplos de 10^unidad
+            if (unidad >= POTENCIAS_10.length) {
+                return de(respaldo.get());
+            }
+            long paso = POTENCIAS_10[unidad];
+            long base = cociente / paso;
+            try {
+                long fraccionNumerador = Math.addExact(Math.multiplyExact(cociente % paso, denominador), resto);
+                long fraccionDenominador = Math.multiplyExact(denominador, paso);
+                resultado = Math.multiplyExact(
+                        base + (Math.multiplyExact(2L, fraccionNumerador) >= fraccionDenominador ? 1L : 0L), paso);
+            } catch (ArithmeticException e) {
+                return de(respaldo.get());
+            }
+        } else {
+            // Primero a 10^unidad céntimos (puede arrastrar a la siguiente unidad), después a céntimos
+            int decimales = -unidad;
+            if (decimales >= POTENCIAS_10.length) {
+                return de(respaldo.get());
+            }
+            long escala = POTENCIAS_10[decimales];
+            long fraccion;
+            try {
+                long escalado = Math.multiplyExact(resto, escala);
+                fraccion = escalado / denominador
+                        + (Math.multiplyExact(2L, escalado % denominador) >= denominador ? 1L : 0L);
+            } catch (ArithmeticException e) {
+                return de(respaldo.get());
+            }
+            resultado = cociente + (2L * fraccion >= escala ? 1L : 0L);
+        }
+        return deCentimos(numerador < 0 ? -resultado : resultado);
+    }
+
+    private static int digitos(long valor) {
+        int digitos = 1;
+        while (digitos < POTENCIAS_10.length && valor >= POTENCIAS_10[digitos]) {
+            digitos++;
+        }
+        return digitos;
+    }
+}
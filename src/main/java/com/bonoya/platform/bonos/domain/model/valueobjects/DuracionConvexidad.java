@@ -1,12 +1,12 @@
 package com.bonoya.platform.bonos.domain.model.valueobjects;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -16,13 +16,33 @@ import java.util.Objects;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class DuracionConvexidad {
+
+    /**
+     * Plazos clave (en años) sobre los que se calculan las duraciones parciales.
+     */
+    public static final int[] PLAZOS_CLAVE = {1, 2, 5, 10, 30};
+
     private BigDecimal duracion;
     private BigDecimal duracionModificada;
     private BigDecimal convexidad;
     private BigDecimal tasaMercado;
 
+    // Medidas efectivas obtenidas revaluando el bono ante desplazamientos de la tasa
+    private BigDecimal duracionEfectiva;
+    private BigDecimal convexidadEfectiva;
+
+    // Duraciones por plazo clave (años -> duración parcial)
+    private Map<Integer, BigDecimal> duracionesClave;
+
+    public DuracionConvexidad(BigDecimal duracion, BigDecimal duracionModificada,
+                              BigDecimal convexidad, BigDecimal tasaMercado) {
+        this.duracion = duracion;
+        this.duracionModificada = duracionModificada;
+        this.convexidad = convexidad;
+        this.tasaMercado = tasaMercado;
+    }
+
     /**
      * Estima el cambio porcentual en el precio del bono para un cambio dado en la tasa de interés,
      * considerando tanto la duración modificada como la convexidad.
@@ -0,0 +1,23 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila rechazada durante una importación masiva, con el motivo del rechazo.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class ErrorImportacion {
+
+    @Column(name = "fila", nullable = false)
+    private long fila;
+
+    @Column(name = "mensaje", length = 500)
+    private String mensaje;
+}
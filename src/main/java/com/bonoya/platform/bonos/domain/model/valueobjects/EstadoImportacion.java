@@ -0,0 +1,10 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+/**
+ * Estado de una importación masiva de bonos.
+ */
+public enum EstadoImportacion {
+    EN_PROCESO,     // Leyendo y persistiendo lotes
+    COMPLETADA,     // Se leyó el archivo completo
+    INTERRUMPIDA    // La lectura se cortó; puede reanudarse desde la última fila confirmada
+}
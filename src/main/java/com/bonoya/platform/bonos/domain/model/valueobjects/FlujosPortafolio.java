@@ -0,0 +1,244 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import com.bonoya.platform.bonos.domain.services.KernelDescuento;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Value object inmutable con los flujos futuros de un portafolio, ordenados por fecha y con un único
+ * registro por fecha de pago.
+ *
+ * Los importes se guardan en punto flotante (ya multiplicados por la cantidad de cada posición) y se
+ * redondean a céntimos solo al agrupar. El tiempo de cada flujo se mide en años desde la fecha de
+ * valoración (días / 365), de modo que las métricas son comparables entre bonos de distinta frecuencia.
+ *
+ * Los tiempos y totales se precalculan en arreglos para que el descuento (precio, riesgo y cada iteración
+ * de la TIR) sea un único recorrido de {@link KernelDescuento}.
+ */
+public final class FlujosPortafolio {
+
+    private static final double DIAS_POR_ANIO = 365.0;
+    private static final int MAX_ITERACIONES_TIR = 100;
+    private static final double TOLERANCIA_TIR = 1e-10;
+
+    /**
+     * Valor presente y medidas de riesgo a una misma tasa.
+     */
+    public record Valoracion(double valorPresente, DuracionConvexidad medidas) {
+    }
+
+    /**
+     * Granularidad de la escalera de flujos.
+     */
+    public enum Agrupacion {
+        DIA, MES, TRIMESTRE, ANIO;
+
+        LocalDate inicio(LocalDate fecha) {
+            return switch (this) {
+                case DIA -> fecha;
+                case MES -> fecha.withDayOfMonth(1);
+                case TRIMESTRE -> LocalDate.of(fecha.getYear(), ((fecha.getMonthValue() - 1) / 3) * 3 + 1, 1);
+                case ANIO -> LocalDate.of(fecha.getYear(), 1, 1);
+            };
+        }
+    }
+
+    /**
+     * Tramo de la escalera: pagos agrupados desde una fecha de inicio.
+     */
+    public record Tramo(LocalDate desde, BigDecimal interes, BigDecimal amortizacion, BigDecimal total, int pagos) {
+    }
+
+    private final LocalDate fechaValoracion;
+    private final long[] fechasEpochDay;
+    private final double[] interes;
+    private final double[] amortizacion;
+    private final double[] tiempos;
+    private final double[] totales;
+
+    public FlujosPortafolio(LocalDate fechaValoracion, long[] fechasEpochDay, double[] interes, double[] amortizacion) {
+        if (fechasEpochDay.length != interes.length || interes.length != amortizacion.length) {
+            throw new IllegalArgumentException("Los arreglos de flujos deben tener la misma longitud");
+        }
+        this.fechaValoracion = fechaValoracion;
+        this.fechasEpochDay = fechasEpochDay;
+        this.interes = interes;
+        this.amortizacion = amortizacion;
+        this.tiempos = new double[fechasEpochDay.length];
+        this.totales = new double[fechasEpochDay.length];
+        long valoracion = fechaValoracion.toEpochDay();
+        for (int i = 0; i < fechasEpochDay.length; i++) {
+            tiempos[i] = (fechasEpochDay[i] - valoracion) / DIAS_POR_ANIO;
+            totales[i] = interes[i] + amortizacion[i];
+        }
+    }
+
+    public LocalDate getFechaValoracion() {
+        return fechaValoracion;
+    }
+
+    /**
+     * Número de fechas de pago distintas.
+     */
+    public int getPagos() {
+        return fechasEpochDay.length;
+    }
+
+    public LocalDate fecha(int indice) {
+        return LocalDate.ofEpochDay(fechasEpochDay[indice]);
+    }
+
+    public double interes(int indice) {
+        return interes[indice];
+    }
+
+    public double amortizacion(int indice) {
+        return amortizacion[indice];
+    }
+
+    public double total(int indice) {
+        return totales[indice];
+    }
+
+    /**
+     * Tiempo del flujo en años desde la fecha de valoración.
+     */
+    public double anios(int indice) {
+        return tiempos[indice];
+    }
+
+    /**
+     * Agrupa los flujos en tramos consecutivos. Como los flujos ya están ordenados basta un recorrido.
+     */
+    public List<Tramo> agrupar(Agrupacion agrupacion) {
+        List<Tramo> tramos = new ArrayList<>();
+        int i = 0;
+        while (i < fechasEpochDay.length) {
+            LocalDate desde = agrupacion.inicio(fecha(i));
+            double interesTramo = 0.0;
+            double amortizacionTramo = 0.0;
+            int pagos = 0;
+            while (i < fechasEpochDay.length && agrupacion.inicio(fecha(i)).equals(desde)) {
+                interesTramo += interes[i];
+                amortizacionTramo += amortizacion[i];
+                pagos++;
+                i++;
+            }
+            BigDecimal interesDecimal = centimos(interesTramo);
+            BigDecimal amortizacionDecimal = centimos(amortizacionTramo);
+            tramos.add(new Tramo(desde, interesDecimal, amortizacionDecimal, interesDecimal.add(amortizacionDecimal), pagos));
+        }
+        return tramos;
+    }
+
+    /**
+     * Valor presente de los flujos a una tasa efectiva anual (en decimal).
+     */
+    public double valorPresente(double tasaAnual) {
+        return KernelDescuento.actual().acumular(tiempos, totales, tasaAnual)[0];
+    }
+
+    /**
+     * Duración de Macaulay, duración modificada y convexidad del portafolio (en años) a una tasa efectiva anual.
+     */
+    public DuracionConvexidad medidasRiesgo(double tasaAnual) {
+        return valorar(tasaAnual).medidas();
+    }
+
+    /**
+     * Valor presente y medidas de riesgo a una tasa efectiva anual, con un solo recorrido de los flujos.
+     */
+    public Valoracion valorar(double tasaAnual) {
+        double[] sumas = KernelDescuento.actual().acumular(tiempos, totales, tasaAnual);
+        return new Valoracion(sumas[0], medidas(sumas, tasaAnual));
+    }
+
+    private static DuracionConvexidad medidas(double[] sumas, double tasaAnual) {
+        double precio = sumas[0];
+        double sumaPonderada = sumas[1];
+        double sumaConvexidad = sumas[2];
+        BigDecimal tasa = BigDecimal.valueOf(tasaAnual);
+        if (precio <= 0) {
+            return new DuracionConvexidad(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, tasa);
+        }
+        double duracion = sumaPonderada / precio;
+        double convexidad = sumaConvexidad / (precio * (1.0 + tasaAnual) * (1.0 + tasaAnual));
+        return new DuracionConvexidad(aDecimal(duracion), aDecimal(duracion / (1.0 + tasaAnual)),
+                aDecimal(convexidad), tasa);
+    }
+
+    /**
+     * Tasa interna de retorno efectiva anual para un costo de adquisición pagado en la fecha de valoración.
+     * Usa Newton-Raphson y, si no converge, bisección.
+     *
+     * @return la TIR en decimal, o {@code NaN} si no existe en el rango (-99%, 1000%)
+     */
+    public double tir(double costo) {
+        if (costo <= 0 || fechasEpochDay.length == 0) {
+            return Double.NaN;
+        }
+        KernelDescuento kernel = KernelDescuento.actual();
+        double tasa = 0.05;
+        for (int iteracion = 0; iteracion < MAX_ITERACIONES_TIR; iteracion++) {
+            double[] sumas = kernel.acumular(tiempos, totales, tasa);
+            double van = sumas[0] - costo;
+            double derivada = -sumas[1] / (1.0 + tasa);
+            if (Math.abs(van) < TOLERANCIA_TIR * costo) {
+                return tasa;
+            }
+            if (derivada == 0.0) {
+                break;
+            }
+            double siguiente = tasa - van / derivada;
+            if (!Double.isFinite(siguiente) || siguiente <= -0.99) {
+                break;
+            }
+            tasa = siguiente;
+        }
+        return tirBiseccion(costo);
+    }
+
+    private double tirBiseccion(double costo) {
+        double minimo = -0.99;
+        double maximo = 10.0;
+        // Ambos extremos del intervalo en un solo lote
+        double[] extremos = new double[6];
+        KernelDescuento.actual().acumular(tiempos, totales, tiempos.length, new double[]{minimo, maximo}, extremos);
+        double vanMinimo = extremos[0] - costo;
+        if (vanMinimo * (extremos[3] - costo) > 0) {
+            return Double.NaN;
+        }
+        for (int iteracion = 0; iteracion < 200 && maximo - minimo > TOLERANCIA_TIR; iteracion++) {
+            double medio = (minimo + maximo) / 2.0;
+            double vanMedio = valorPresente(medio) - costo;
+            if (vanMedio * vanMinimo > 0) {
+                minimo = medio;
+                vanMinimo = vanMedio;
+            } else {
+                maximo = medio;
+            }
+        }
+        return (minimo + maximo) / 2.0;
+    }
+
+    /**
+     * Años entre la fecha de valoración y el último pago.
+     */
+    public double plazoRemanente() {
+        return fechasEpochDay.length == 0 ? 0.0
+                : ChronoUnit.DAYS.between(fechaValoracion, fecha(fechasEpochDay.length - 1)) / DIAS_POR_ANIO;
+    }
+
+    private static BigDecimal centimos(double importe) {
+        return BigDecimal.valueOf(importe).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal aDecimal(double valor) {
+        return BigDecimal.valueOf(valor).setScale(10, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,31 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Versión de un bono y de su cronograma: la última modificación más los términos de los que depende el flujo.
+ *
+ * Incluye el emisor para poder comprobar la propiedad del bono sin cargar la entidad.
+ */
+public record VersionBono(Long id, String emisorUsername, Date ultimaModificacion,
+                          BigDecimal valorNominal, BigDecimal tasaCupon, int plazoAnios, int frecuenciaPagos,
+                          LocalDate fechaEmision, String metodoAmortizacion, BigDecimal tasaDescuento,
+                          int plazosGraciaTotal, int plazosGraciaParcial) {
+
+    public String etag() {
+        int terminos = Objects.hash(
+                valorNominal != null ? valorNominal.stripTrailingZeros() : null,
+                tasaCupon != null ? tasaCupon.stripTrailingZeros() : null,
+                plazoAnios, frecuenciaPagos, fechaEmision, metodoAmortizacion,
+                tasaDescuento != null ? tasaDescuento.stripTrailingZeros() : null,
+                plazosGraciaTotal, plazosGraciaParcial);
+        return "W/\"" + id + "-" + ultimaModificacionMillis() + "-" + Integer.toHexString(terminos) + "\"";
+    }
+
+    public long ultimaModificacionMillis() {
+        return ultimaModificacion != null ? ultimaModificacion.getTime() : -1L;
+    }
+}
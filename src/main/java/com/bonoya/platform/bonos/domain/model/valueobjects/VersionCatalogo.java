@@ -0,0 +1,28 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import java.util.Date;
+
+/**
+ * Versión de un listado de bonos: la última modificación y la cantidad de bonos que lo componen.
+ * Cualquier alta, edición o baja cambia al menos uno de los dos valores, así que basta para validar una
+ * respuesta en caché sin cargar las entidades.
+ *
+ * @param ultimaModificacion Mayor {@code updatedAt} del listado, nulo si está vacío
+ * @param cantidad Número de bonos del listado
+ */
+public record VersionCatalogo(Date ultimaModificacion, Long cantidad) {
+
+    /**
+     * ETag débil: la representación puede variar en detalles de serialización sin que cambie el contenido.
+     */
+    public String etag() {
+        return "W/\"" + cantidad + "-" + ultimaModificacionMillis() + "\"";
+    }
+
+    /**
+     * @return milisegundos de la última modificación, o -1 si el listado está vacío
+     */
+    public long ultimaModificacionMillis() {
+        return ultimaModificacion != null ? ultimaModificacion.getTime() : -1L;
+    }
+}
@@ -0,0 +1,136 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+
+/**
+ * Fórmulas cerradas para el precio, la duración y la convexidad de cronogramas regulares.
+ *
+ * Para un bono bullet (cupón constante C y principal al vencimiento) y para uno de amortización constante
+ * (flujo lineal en t: α + βt) las sumas descontadas Σ v^t·CF_t, Σ t·v^t·CF_t y Σ t(t+1)·v^t·CF_t se
+ * reducen a sumas de potencias Σ t^k·x^t con x = 1/(1+r), que tienen expresión cerrada. El costo es
+ * constante en el número de períodos.
+ *
+ * El último período se toma tal cual del cronograma (incluye el ajuste de redondeo del saldo). En la
+ * amortización constante los intereses intermedios se modelan sin su redondeo a céntimos, por lo que el
+ * resultado difiere del recorrido período a período en a lo sumo medio céntimo por flujo.
+ */
+public final class AnaliticaCerrada {
+
+    // Cerca de r = 0 las fórmulas pierden precisión por cancelación; se usa el recorrido período a período
+    private static final double TASA_MINIMA = 1e-6;
+
+    private AnaliticaCerrada() {
+    }
+
+    /**
+     * Sumas descontadas de un cronograma a una tasa periódica.
+     *
+     * @param precio Σ v^t·CF_t
+     * @param sumaPonderada Σ t·v^t·CF_t
+     * @param sumaConvexidad Σ t(t+1)·v^t·CF_t
+     */
+    public record Momentos(double precio, double sumaPonderada, double sumaConvexidad) {
+
+        /**
+         * Duración de Macaulay en períodos.
+         */
+        public double duracionPeriodos() {
+            return precio > 0 ? sumaPonderada / precio : 0.0;
+        }
+
+        /**
+         * Convexidad en períodos al cuadrado: Σ t(t+1)·v^t·CF_t / (P·(1+r)^2).
+         */
+        public double convexidadPeriodos(double tasaPeriodica) {
+            double unoMasTasa = 1.0 + tasaPeriodica;
+            return precio > 0 ? sumaConvexidad / (precio * unoMasTasa * unoMasTasa) : 0.0;
+        }
+    }
+
+    /**
+     * Indica si el cronograma admite fórmula cerrada a la tasa periódica indicada.
+     */
+    public static boolean aplicable(CronogramaCompilado cronograma, double tasaPeriodica) {
+        return cronograma.getForma() != CronogramaCompilado.Forma.GENERAL
+                && cronograma.getPeriodos() > 0
+                && tasaPeriodica > -1.0
+                && Math.abs(tasaPeriodica) >= TASA_MINIMA
+                && Double.isFinite(tasaPeriodica);
+    }
+
+    /**
+     * Calcula las tres sumas descontadas en tiempo constante.
+     *
+     * @throws IllegalArgumentException si el cronograma no admite fórmula cerrada
+     */
+    public static Momentos momentos(CronogramaCompilado cronograma, double tasaPeriodica) {
+        if (!aplicable(cronograma, tasaPeriodica)) {
+            throw new IllegalArgumentException("El cronograma no admite fórmula cerrada a la tasa " + tasaPeriodica);
+        }
+        int n = cronograma.getPeriodos();
+        double x = 1.0 / (1.0 + tasaPeriodica);
+        double[] m = sumasPotencias(n - 1, x);
+
+        // Coeficientes del flujo lineal CF_t = α + β·t para t = 1..n-1
+        double alfa;
+        double beta;
+        if (cronograma.getForma() == CronogramaCompilado.Forma.BULLET) {
+            alfa = cronograma.interesCentimos(1) / 100.0;
+            beta = 0.0;
+        } else {
+            double amortizacion = cronograma.amortizacionCentimos(1) / 100.0;
+            double valorNominal = cronograma.saldoCentimos(0) / 100.0;
+            double c = cronograma.getTasaCuponPeriodica();
+            // Interés sobre el saldo previo: c·(VN − (t−1)·A) = c·(VN + A) − c·A·t
+            alfa = amortizacion + c * (valorNominal + amortizacion);
+            beta = -c * amortizacion;
+        }
+
+        double flujoFinal = cronograma.flujoTotalCentimos(n) / 100.0;
+        double descuentoFinal = Math.pow(x, n);
+
+        double precio = alfa * m[0] + beta * m[1] + flujoFinal * descuentoFinal;
+        double sumaPonderada = alfa * m[1] + beta * m[2] + flujoFinal * n * descuentoFinal;
+        double sumaConvexidad = alfa * (m[2] + m[1]) + beta * (m[3] + m[2])
+                + flujoFinal * n * (n + 1.0) * descuentoFinal;
+        return new Momentos(precio, sumaPonderada, sumaConvexidad);
+    }
+
+    /**
+     * Precio (Σ v^t·CF_t) en tiempo constante.
+     */
+    public static double precio(CronogramaCompilado cronograma, double tasaPeriodica) {
+        return momentos(cronograma, tasaPeriodica).precio();
+    }
+
+    /**
+     * Sumas finitas M_k = Σ_{t=1..N} t^k·x^t para k = 0..3.
+     *
+     * Se obtienen de las series infinitas L_k = Σ_{t≥1} t^k·x^t restando la cola desde N+1:
+     * Σ_{t>N} t^k·x^t = x^N · Σ_j C(k,j)·N^(k−j)·L_j. La identidad es algebraica, así que vale para todo x ≠ 1.
+     */
+    static double[] sumasPotencias(int n, double x) {
+        if (n <= 0) {
+            return new double[4];
+        }
+        double u = 1.0 - x;
+        double l0 = x / u;
+        double l1 = x / (u * u);
+        double l2 = x * (1.0 + x) / (u * u * u);
+        double l3 = x * (1.0 + 4.0 * x + x * x) / (u * u * u * u);
+
+        double xn = Math.pow(x, n);
+        double nd = n;
+        double cola0 = l0;
+        double cola1 = nd * l0 + l1;
+        double cola2 = nd * nd * l0 + 2.0 * nd * l1 + l2;
+        double cola3 = nd * nd * nd * l0 + 3.0 * nd * nd * l1 + 3.0 * nd * l2 + l3;
+
+        return new double[]{
+                l0 - xn * cola0,
+                l1 - xn * cola1,
+                l2 - xn * cola2,
+                l3 - xn * cola3
+        };
+    }
+}
@@ -3,6 +3,8 @@ package com.bonoya.platform.bonos.domain.services;
 import com.bonoya.platform.bonos.domain.model.entities.Bono;
 import com.bonoya.platform.bonos.domain.model.entities.Calculo;
 import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -41,6 +43,18 @@ public interface CalculoFinancieroService {
 
     BigDecimal calcularPrecioMaximo(List<FlujoFinanciero> flujos, BigDecimal trea);
 
+    // Calcula duración efectiva, convexidad efectiva y duraciones por plazo clave revaluando el bono
+    DuracionConvexidad calcularMedidasRiesgo(Bono bono, BigDecimal tasaMercado);
+
+    DuracionConvexidad calcularMedidasRiesgo(List<FlujoFinanciero> flujos, BigDecimal tasaMercado);
+
+    // Valoración descontando cada flujo con la curva cero en lugar de una tasa plana
+    BigDecimal calcularPrecioMaximo(List<FlujoFinanciero> flujos, CurvaDescuento curva);
+
+    BigDecimal calcularPrecioJusto(List<FlujoFinanciero> flujos, CurvaDescuento curva);
+
+    BigDecimal calcularVAN(List<FlujoFinanciero> flujos, BigDecimal inversionInicial, CurvaDescuento curva);
+
     // Calcula la inversión para un bono con una tasa esperada
     Calculo calcularInversion(Bono bono, BigDecimal tasaEsperada);
     
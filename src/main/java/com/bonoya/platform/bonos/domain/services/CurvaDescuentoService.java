@@ -0,0 +1,31 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.CotizacionCurva;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+
+import java.util.List;
+
+/**
+ * Servicio de dominio para construir y mantener en caché las curvas de descuento por moneda.
+ */
+public interface CurvaDescuentoService {
+
+    // Obtiene la curva cero de la moneda construida a partir de los bonos del catálogo
+    CurvaDescuento obtenerCurva(String moneda, CurvaDescuento.Interpolacion interpolacion);
+
+    // Construye la curva cero de la moneda a partir de cotizaciones suministradas
+    CurvaDescuento construirCurva(String moneda, List<CotizacionCurva> cotizaciones,
+                                  CurvaDescuento.Interpolacion interpolacion);
+
+    // Marca como desactualizada la curva de catálogo de la moneda (se reconstruye en la siguiente consulta)
+    void invalidar(String moneda);
+
+    // Marca como desactualizadas todas las curvas de catálogo
+    void invalidarTodas();
+
+    // Curvas de catálogo vigentes (nodos e interpolación lineal), para guardarlas en un snapshot
+    List<CurvaDescuento> curvasCatalogoVigentes();
+
+    // Restaura una curva de catálogo desde un snapshot; queda vigente hasta la siguiente invalidación
+    void restaurarCurvaCatalogo(CurvaDescuento curva);
+}
@@ -30,6 +30,31 @@ public interface FlujoInversionistaService {
      */
     MetricasInversionista calcularMetricas(List<FlujoInversionista> flujoInversionista, BigDecimal precioCompra);
 
+    /**
+     * Genera el flujo del inversionista y calcula sus métricas en el mismo recorrido.
+     *
+     * @param bono El bono de inversión
+     * @param precioCompra El precio real que pagará el inversionista
+     * @return Flujos y métricas de la simulación
+     */
+    SimulacionCalculada simular(Bono bono, BigDecimal precioCompra);
+
+    /**
+     * Resultado de una simulación: flujos del inversionista y sus métricas
+     */
+    class SimulacionCalculada {
+        private final List<FlujoInversionista> flujos;
+        private final MetricasInversionista metricas;
+
+        public SimulacionCalculada(List<FlujoInversionista> flujos, MetricasInversionista metricas) {
+            this.flujos = flujos;
+            this.metricas = metricas;
+        }
+
+        public List<FlujoInversionista> getFlujos() { return flujos; }
+        public MetricasInversionista getMetricas() { return metricas; }
+    }
+
     /**
      * Clase interna para las métricas del inversionista
      */
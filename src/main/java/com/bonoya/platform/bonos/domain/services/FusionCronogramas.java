@@ -0,0 +1,146 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import com.bonoya.platform.bonos.domain.model.valueobjects.FlujosPortafolio;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Combina los cronogramas de varias posiciones en los flujos de un portafolio.
+ *
+ * Cada cronograma compilado ya está ordenado por fecha, así que se recorren como secuencias ordenadas
+ * con una mezcla de k vías: un montículo guarda el siguiente pago de cada posición y en cada paso se
+ * extrae el más próximo. El costo es O(N log k) para N pagos y k posiciones, sin concatenar y reordenar
+ * todos los flujos. Los pagos de la misma fecha se acumulan en un único registro.
+ */
+public final class FusionCronogramas {
+
+    private FusionCronogramas() {
+    }
+
+    /**
+     * Cronograma de una posición y su multiplicador.
+     *
+     * @param cronograma Cronograma compilado del bono
+     * @param factor Cantidad de bonos de la posición
+     * @param fechaReferencia Fecha desde la que se proyectan los pagos si el cronograma no tiene fechas
+     */
+    public record Fuente(CronogramaCompilado cronograma, double factor, LocalDate fechaReferencia) {
+    }
+
+    /**
+     * Fusiona los pagos posteriores a la fecha de valoración de todas las fuentes. Los importes se suman tal
+     * cual: todas las fuentes deben estar en la misma moneda.
+     */
+    public static FlujosPortafolio fusionar(List<Fuente> fuentes, LocalDate fechaValoracion) {
+        long valoracion = fechaValoracion.toEpochDay();
+        PriorityQueue<Cursor> monticulo = new PriorityQueue<>(Math.max(1, fuentes.size()));
+        int pendientes = 0;
+        for (Fuente fuente : fuentes) {
+            Cursor cursor = new Cursor(fuente, valoracion);
+            if (cursor.activo()) {
+                monticulo.add(cursor);
+                pendientes += cursor.restantes();
+            }
+        }
+
+        // El total de pagos es conocido: los arreglos se reservan una vez y se recortan al final
+        long[] fechas = new long[pendientes];
+        double[] interes = new double[pendientes];
+        double[] amortizacion = new double[pendientes];
+        int n = 0;
+
+        while (!monticulo.isEmpty()) {
+            Cursor cursor = monticulo.poll();
+            long fecha = cursor.fecha;
+            if (n == 0 || fechas[n - 1] != fecha) {
+                fechas[n] = fecha;
+                n++;
+            }
+            interes[n - 1] += cursor.interes();
+            amortizacion[n - 1] += cursor.amortizacion();
+            if (cursor.avanzar()) {
+                monticulo.add(cursor);
+            }
+        }
+
+        return new FlujosPortafolio(fechaValoracion, Arrays.copyOf(fechas, n),
+                Arrays.copyOf(interes, n), Arrays.copyOf(amortizacion, n));
+    }
+
+    /**
+     * Posición de lectura sobre un cronograma; se ordena por la fecha del pago actual.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+        private final CronogramaCompilado cronograma;
+        private final double factor;
+        private final LocalDate fechaReferencia;
+        private int periodo;
+        private long fecha;
+
+        private Cursor(Fuente fuente, long valoracion) {
+            this.cronograma = fuente.cronograma();
+            this.factor = fuente.factor();
+            this.fechaReferencia = fuente.fechaReferencia();
+            this.periodo = primerPeriodoPosterior(valoracion);
+            if (activo()) {
+                this.fecha = fechaDe(periodo);
+            }
+        }
+
+        boolean activo() {
+            return periodo <= cronograma.getPeriodos();
+        }
+
+        int restantes() {
+            return cronograma.getPeriodos() - periodo + 1;
+        }
+
+        double interes() {
+            return cronograma.interesCentimos(periodo) * factor / 100.0;
+        }
+
+        double amortizacion() {
+            return cronograma.amortizacionCentimos(periodo) * factor / 100.0;
+        }
+
+        boolean avanzar() {
+            periodo++;
+            if (!activo()) {
+                return false;
+            }
+            fecha = fechaDe(periodo);
+            return true;
+        }
+
+        private long fechaDe(int p) {
+            if (cronograma.tieneFechas()) {
+                return cronograma.fechaEpochDay(p);
+            }
+            return fechaReferencia.plusMonths((long) p * 12 / cronograma.getFrecuenciaPagos()).toEpochDay();
+        }
+
+        // Búsqueda binaria del primer pago con fecha posterior a la valoración (las fechas son crecientes)
+        private int primerPeriodoPosterior(long valoracion) {
+            int bajo = 1;
+            int alto = cronograma.getPeriodos() + 1;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (fechaDe(medio) <= valoracion) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+
+        @Override
+        public int compareTo(Cursor otro) {
+            return Long.compare(fecha, otro.fecha);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import com.bonoya.platform.bonos.domain.model.valueobjects.Dinero;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Motor único de cronogramas de pago.
+ *
+ * Compila las condiciones de un bono (valor nominal, cupón, plazo, frecuencia, gracia y método) en un
+ * {@link CronogramaCompilado}. Tanto los flujos del emisor ({@link Bono#generarFlujoCaja}) como los del
+ * inversor ({@link CalculoFinancieroService#calcularFlujoFinanciero}) se derivan de él, por lo que hay una
+ * sola aritmética de cronograma: intereses con {@code MathContext(10)} redondeados a céntimos, amortización
+ * alemana constante sobre el saldo tras la gracia y ajuste del residuo en el último período.
+ *
+ * El recorrido se hace en céntimos con {@link Dinero}; solo los valores nominales con fracciones de céntimo
+ * usan {@link BigDecimal}. Ambos caminos dan el mismo cronograma, verificado contra un archivo de referencia
+ * en {@code GeneradorCronogramaGoldenTest}.
+ *
+ * Los cronogramas se guardan en una caché LRU acotada por condiciones: dos bonos con los mismos términos
+ * comparten el mismo objeto y, al llenarse, solo se descarta el menos usado. Antes de generar un cronograma se consulta además la fuente de precompilados
+ * ({@link #usarPrecompilados(Function)}), que un snapshot del catálogo puede instalar al arrancar.
+ */
+public final class GeneradorCronograma {
+
+    /**
+     * Versión de la aritmética del cronograma. Debe incrementarse si un cambio altera algún céntimo o fecha,
+     * para que los cronogramas precompilados con la versión anterior se descarten.
+     */
+    public static final int VERSION_ARITMETICA = 1;
+
+    private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
+    private static final int ESCALA_TASA = 10;
+    private static final int MAX_CRONOGRAMAS = 1024;
+
+    // LRU por orden de acceso; se accede siempre con el monitor del mapa
+    private static final Map<Terminos, CronogramaCompilado> CACHE = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Terminos, CronogramaCompilado> eldest) {
+            return size() > MAX_CRONOGRAMAS;
+        }
+    };
+    private static final AtomicLong ACIERTOS = new AtomicLong();
+    private static final AtomicLong COMPILACIONES = new AtomicLong();
+    private static final AtomicLong ACIERTOS_PRECOMPILADOS = new AtomicLong();
+
+    private static volatile Function<Terminos, CronogramaCompilado> precompilados = terminos -> null;
+
+    private GeneradorCronograma() {
+    }
+
+    /**
+     * Compila el cronograma del bono con su método de amortización (alemán si no se indica).
+     */
+    public static CronogramaCompilado compilar(Bono bono) {
+        return compilar(bono, Terminos.esAleman(bono.getMetodoAmortizacion()));
+    }
+
+    /**
+     * Compila el cronograma del bono forzando el método de amortización.
+     *
+     * @param bono Bono con las condiciones de emisión
+     * @param aleman true para amortización constante, false para amortización al vencimiento
+     */
+    public static CronogramaCompilado compilar(Bono bono, boolean aleman) {
+        return compilar(Terminos.de(bono, aleman));
+    }
+
+    /**
+     * Compila el cronograma de unas condiciones, guardándolo en la caché.
+     */
+    public static CronogramaCompilado compilar(Terminos terminos) {
+        CronogramaCompilado cronograma = enCache(terminos);
+        if (cronograma != null) {
+            ACIERTOS.incrementAndGet();
+            return cronograma;
+        }
+        // Se genera fuera del monitor; si otro hilo lo guardó antes, se comparte el suyo
+        CronogramaCompilado generado = buscarOGenerar(terminos, true);
+        synchronized (CACHE) {
+            CronogramaCompilado previo = CACHE.putIfAbsent(terminos, generado);
+            return previo != null ? previo : generado;
+        }
+    }
+
+    /**
+     * Obtiene el cronograma sin guardarlo en la caché, para recorridos de todo el catálogo que no deben
+     * desplazar los cronogramas de uso frecuente. Tampoco cuenta como acierto de la caché ni de los
+     * precompilados, que miden solo las consultas de cálculo.
+     */
+    public static CronogramaCompilado compilarSinCache(Terminos terminos) {
+        CronogramaCompilado cronograma = enCache(terminos);
+        return cronograma != null ? cronograma : buscarOGenerar(terminos, false);
+    }
+
+    /**
+     * Instala la fuente de cronogramas precompilados; debe devolver null para las condiciones que no conoce.
+     */
+    public static void usarPrecompilados(Function<Terminos, CronogramaCompilado> fuente) {
+        precompilados = fuente != null ? fuente : terminos -> null;
+    }
+
+    private static CronogramaCompilado buscarOGenerar(Terminos terminos, boolean contarAcierto) {
+        CronogramaCompilado cronograma = precompilados.apply(terminos);
+        if (cronograma != null) {
+            if (contarAcierto) {
+                ACIERTOS_PRECOMPILADOS.incrementAndGet();
+            }
+            return cronograma;
+        }
+        return generar(terminos);
+    }
+
+    public static long getAciertosPrecompilados() {
+        return ACIERTOS_PRECOMPILADOS.get();
+    }
+
+    public static long getAciertosCache() {
+        return ACIERTOS.get();
+    }
+
+    public static long getCompilaciones() {
+        return COMPILACIONES.get();
+    }
+
+    public static int getTamanoCache() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    private static CronogramaCompilado enCache(Terminos terminos) {
+        synchronized (CACHE) {
+            return CACHE.get(terminos);
+        }
+    }
+
+    static CronogramaCompilado generar(Terminos terminos) {
+        COMPILACIONES.incrementAndGet();
+        int frecuencia = terminos.frecuenciaPagos();
+        if (frecuencia <= 0) {
+            throw new IllegalArgumentException("La frecuencia de pagos debe ser mayor que cero");
+        }
+        int periodos = Math.max(0, terminos.plazoAnios() * frecuencia);
+
+        // La gracia nunca alcanza el último período: el bono siempre se cancela al vencimiento
+        int graciaTotal = Math.min(Math.max(0, terminos.graciaTotal()), Math.max(0, periodos - 1));
+        int graciaParcial = Math.min(Math.max(0, terminos.graciaParcial()), Math.max(0, periodos - 1 - graciaTotal));
+        int finGracia = graciaTotal + graciaParcial;
+
+        BigDecimal tasaPeriodica = terminos.tasaCupon()
+                .divide(BigDecimal.valueOf(100), ESCALA_TASA, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(frecuencia), ESCALA_TASA, RoundingMode.HALF_UP);
+
+        long[] fechas = null;
+        if (terminos.fechaEmision() != null) {
+            fechas = new long[periodos + 1];
+            for (int periodo = 0; periodo <= periodos; periodo++) {
+                fechas[periodo] = terminos.fechaEmision().plusMonths((long) periodo * 12 / frecuencia).toEpochDay();
+            }
+        }
+        long[] interes = new long[periodos + 1];
+        long[] amortizacion = new long[periodos + 1];
+        long[] saldo = new long[periodos + 1];
+
+        if (Dinero.esRepresentable(terminos.valorNominal()) && tasaPeriodica.unscaledValue().bitLength() < Long.SIZE) {
+            calcularEnCentimos(terminos, periodos, graciaTotal, finGracia, tasaPeriodica.unscaledValue().longValue(),
+                    interes, amortizacion, saldo);
+        } else {
+            calcularEnDecimal(terminos, periodos, graciaTotal, finGracia, tasaPeriodica, interes, amortizacion, saldo);
+        }
+
+        CronogramaCompilado.Forma forma = finGracia > 0
+                ? CronogramaCompilado.Forma.GENERAL
+                : terminos.aleman() ? CronogramaCompilado.Forma.AMORTIZACION_CONSTANTE : CronogramaCompilado.Forma.BULLET;
+        return new CronogramaCompilado(forma, tasaPeriodica.doubleValue(),
+                terminos.valorNominal().setScale(2, RoundingMode.HALF_UP), frecuencia, fechas, interes, amortizacion, saldo);
+    }
+
+    /**
+     * Recorrido del cronograma en punto fijo ({@link Dinero}); da los mismos céntimos que
+     * {@link #calcularEnDecimal} sin crear un {@link BigDecimal} por operación.
+     */
+    private static void calcularEnCentimos(Terminos terminos, int periodos, int graciaTotal, int finGracia,
+                                           long tasaEscalada, long[] interes, long[] amortizacion, long[] saldo) {
+        Dinero saldoInsoluto = Dinero.de(terminos.valorNominal());
+        Dinero amortizacionConstante = null;
+        saldo[0] = saldoInsoluto.getCentimos();
+
+        for (int periodo = 1; periodo <= periodos; periodo++) {
+            Dinero interesPeriodo = saldoInsoluto.porTasa(tasaEscalada, ESCALA_TASA, MC.getPrecision());
+            Dinero amortizacionPeriodo = Dinero.CERO;
+
+            if (periodo <= graciaTotal) {
+                // Gracia total: no se paga nada y el interés se capitaliza
+                saldoInsoluto = saldoInsoluto.mas(interesPeriodo);
+                interesPeriodo = Dinero.CERO;
+            } else if (periodo > finGracia) {
+                if (periodo == periodos) {
+                    // Último período: se amortiza todo el saldo para no dejar residuos de redondeo
+                    amortizacionPeriodo = saldoInsoluto;
+                } else if (terminos.aleman()) {
+                    if (amortizacionConstante == null) {
+                        amortizacionConstante = saldoInsoluto.dividir(periodos - finGracia, MC.getPrecision());
+                    }
+                    amortizacionPeriodo = amortizacionConstante;
+                }
+                saldoInsoluto = saldoInsoluto.menos(amortizacionPeriodo);
+            }
+            // En gracia parcial solo se pagan intereses y el saldo no cambia
+
+            interes[periodo] = interesPeriodo.getCentimos();
+            amortizacion[periodo] = amortizacionPeriodo.getCentimos();
+            saldo[periodo] = saldoInsoluto.getCentimos();
+        }
+    }
+
+    /**
+     * Recorrido con {@link BigDecimal}, solo para valores nominales con fracciones de céntimo o tasas fuera
+     * del rango de un {@code long}.
+     */
+    private static void calcularEnDecimal(Terminos terminos, int periodos, int graciaTotal, int finGracia,
+                                          BigDecimal tasaPeriodica, long[] interes, long[] amortizacion, long[] saldo) {
+        BigDecimal saldoInsoluto = terminos.valorNominal();
+        BigDecimal amortizacionConstante = null;
+        saldo[0] = centimos(saldoInsoluto);
+
+        for (int periodo = 1; periodo <= periodos; periodo++) {
+            BigDecimal interesPeriodo = saldoInsoluto.multiply(tasaPeriodica, MC).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal amortizacionPeriodo = BigDecimal.ZERO;
+
+            if (periodo <= graciaTotal) {
+                saldoInsoluto = saldoInsoluto.add(interesPeriodo);
+                interesPeriodo = BigDecimal.ZERO;
+            } else if (periodo > finGracia) {
+                if (periodo == periodos) {
+                    amortizacionPeriodo = saldoInsoluto.setScale(2, RoundingMode.HALF_UP);
+                } else if (terminos.aleman()) {
+                    if (amortizacionConstante == null) {
+                        amortizacionConstante = saldoInsoluto.divide(BigDecimal.valueOf(periodos - finGracia), MC);
+                    }
+                    amortizacionPeriodo = amortizacionConstante.setScale(2, RoundingMode.HALF_UP);
+                }
+                saldoInsoluto = saldoInsoluto.subtract(amortizacionPeriodo).setScale(2, RoundingMode.HALF_UP);
+            }
+
+            interes[periodo] = centimos(interesPeriodo);
+            amortizacion[periodo] = centimos(amortizacionPeriodo);
+            saldo[periodo] = centimos(saldoInsoluto);
+        }
+    }
+
+    private static long centimos(BigDecimal importe) {
+        return importe.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Condiciones que determinan un cronograma; es la clave de la caché.
+     */
+    public record Terminos(BigDecimal valorNominal, BigDecimal tasaCupon, int plazoAnios, int frecuenciaPagos,
+                           LocalDate fechaEmision, int graciaTotal, int graciaParcial, boolean aleman) {
+
+        public static Terminos de(Bono bono, boolean aleman) {
+            return de(bono.getValorNominal(), bono.getTasaCupon(), bono.getPlazoAnios(), bono.getFrecuenciaPagos(),
+                    bono.getFechaEmision(), bono.getPlazosGraciaTotal(), bono.getPlazosGraciaParcial(), aleman);
+        }
+
+        public static Terminos de(BigDecimal valorNominal, BigDecimal tasaCupon, int plazoAnios, int frecuenciaPagos,
+                                  LocalDate fechaEmision, int graciaTotal, int graciaParcial, boolean aleman) {
+            if (valorNominal == null || tasaCupon == null) {
+                throw new IllegalArgumentException("El bono debe tener valor nominal y tasa de cupón");
+            }
+            // Los importes se normalizan para que 1000 y 1000.00 compartan cronograma
+            return new Terminos(valorNominal.stripTrailingZeros(), tasaCupon.stripTrailingZeros(), plazoAnios,
+                    frecuenciaPagos, fechaEmision, graciaTotal, graciaParcial, aleman);
+        }
+
+        /**
+         * Método de amortización del bono: alemán salvo que se indique otro explícitamente.
+         */
+        public static boolean esAleman(String metodoAmortizacion) {
+            return metodoAmortizacion == null || metodoAmortizacion.isEmpty()
+                    || "ALEMAN".equalsIgnoreCase(metodoAmortizacion);
+        }
+    }
+}
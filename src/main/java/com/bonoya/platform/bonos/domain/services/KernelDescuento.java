@@ -0,0 +1,113 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import java.util.Optional;
+
+/**
+ * Núcleo de descuento en lote sobre arreglos primitivos.
+ *
+ * Para cada tasa efectiva anual r de un lote acumula, sobre los mismos flujos, Σ CF_t·v^t (precio),
+ * Σ t·CF_t·v^t y Σ t(t+1)·CF_t·v^t, con v^t = (1+r)^-t = exp(-t·ln(1+r)). Es la base del precio, la duración,
+ * la convexidad y la TIR de portafolios y de las mallas de tasas.
+ *
+ * Hay dos implementaciones con el mismo contrato: la escalar, siempre disponible y en uso por defecto, y una
+ * vectorial con la Vector API del JDK ({@code jdk.incubator.vector}). La vectorial solo existe si se compiló
+ * con el perfil Maven {@code vectorial} y solo se carga si la JVM arrancó con
+ * {@code --add-modules jdk.incubator.vector}; se busca por reflexión para que esta clase no dependa del módulo
+ * incubado, y si no se puede cargar se usa la escalar.
+ *
+ * Para que el resultado no dependa del ancho de los registros de la CPU, ambas reparten los flujos en
+ * {@value #PARCIALES} sumas parciales fijas (el flujo i va a la parcial i mod {@value #PARCIALES}, en orden) y
+ * las combinan con {@link #sumarParciales}. Así las sumas se hacen en el mismo orden en cualquier máquina y con
+ * cualquier núcleo; la única diferencia entre ambos es el redondeo de {@code exp} vectorial (hasta 1 ulp por
+ * flujo, diferencias relativas del orden de 1e-15). Los cálculos persistidos no pasan por este núcleo: usan la
+ * aritmética decimal de {@link KernelMetricas}.
+ */
+public abstract class KernelDescuento {
+
+    /**
+     * Cantidad de sumas parciales por tasa.
+     */
+    static final int PARCIALES = 8;
+
+    private static final KernelDescuento ESCALAR = new KernelDescuentoEscalar();
+
+    private static volatile KernelDescuento actual = ESCALAR;
+
+    /**
+     * Acumula las tres sumas para cada tasa del lote.
+     *
+     * @param tiempos Tiempo de cada flujo en años
+     * @param montos Importe de cada flujo
+     * @param n Número de flujos a considerar (prefijo de ambos arreglos)
+     * @param tasas Tasas efectivas anuales en decimal, mayores que -1
+     * @param resultados Arreglo de {@code 3 * tasas.length}: para la tasa k, precio en {@code 3k}, Σ t·VA en
+     *                   {@code 3k+1} y Σ t(t+1)·VA en {@code 3k+2}
+     */
+    public abstract void acumular(double[] tiempos, double[] montos, int n, double[] tasas, double[] resultados);
+
+    public abstract String nombre();
+
+    /**
+     * Sumas para una sola tasa: {@code [precio, Σ t·VA, Σ t(t+1)·VA]}.
+     */
+    public double[] acumular(double[] tiempos, double[] montos, double tasa) {
+        double[] resultados = new double[3];
+        acumular(tiempos, montos, Math.min(tiempos.length, montos.length), new double[]{tasa}, resultados);
+        return resultados;
+    }
+
+    /**
+     * Núcleo en uso, elegido con {@link #configurar(boolean)}; por defecto el escalar.
+     */
+    public static KernelDescuento actual() {
+        return actual;
+    }
+
+    public static KernelDescuento escalar() {
+        return ESCALAR;
+    }
+
+    /**
+     * Núcleo vectorial, o vacío si no se compiló o la JVM no tiene el módulo {@code jdk.incubator.vector}.
+     */
+    public static Optional<KernelDescuento> vectorial() {
+        return Optional.ofNullable(Vectorial.INSTANCIA);
+    }
+
+    /**
+     * Elige el núcleo en uso.
+     *
+     * @param vectorial true para usar el vectorial si está disponible, false para forzar el escalar
+     * @return el núcleo efectivamente elegido
+     */
+    public static KernelDescuento configurar(boolean vectorial) {
+        actual = vectorial && Vectorial.INSTANCIA != null ? Vectorial.INSTANCIA : ESCALAR;
+        return actual;
+    }
+
+    /**
+     * Suma las {@value #PARCIALES} parciales que empiezan en {@code desde}, por pares y siempre en el mismo orden.
+     */
+    static double sumarParciales(double[] parciales, int desde) {
+        return ((parciales[desde] + parciales[desde + 1]) + (parciales[desde + 2] + parciales[desde + 3]))
+                + ((parciales[desde + 4] + parciales[desde + 5]) + (parciales[desde + 6] + parciales[desde + 7]));
+    }
+
+    // Carga diferida: la clase vectorial solo se resuelve la primera vez que se consulta
+    private static final class Vectorial {
+        private static final KernelDescuento INSTANCIA = cargar();
+
+        private static KernelDescuento cargar() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                return null;
+            }
+            try {
+                return (KernelDescuento) Class.forName(KernelDescuento.class.getPackageName() + ".KernelDescuentoVectorial")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
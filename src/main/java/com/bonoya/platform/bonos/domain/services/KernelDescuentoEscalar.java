@@ -0,0 +1,35 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import java.util.Arrays;
+
+/**
+ * Implementación escalar de {@link KernelDescuento}: un recorrido de los flujos por tasa, repartido en las
+ * sumas parciales fijas del contrato.
+ */
+final class KernelDescuentoEscalar extends KernelDescuento {
+
+    @Override
+    public void acumular(double[] tiempos, double[] montos, int n, double[] tasas, double[] resultados) {
+        double[] parciales = new double[3 * PARCIALES];
+        for (int k = 0; k < tasas.length; k++) {
+            double menosLogBase = -Math.log1p(tasas[k]);
+            Arrays.fill(parciales, 0.0);
+            for (int i = 0; i < n; i++) {
+                int parcial = i % PARCIALES;
+                double t = tiempos[i];
+                double valorActual = montos[i] * Math.exp(t * menosLogBase);
+                parciales[parcial] += valorActual;
+                parciales[PARCIALES + parcial] += t * valorActual;
+                parciales[2 * PARCIALES + parcial] += (t + 1.0) * t * valorActual;
+            }
+            resultados[3 * k] = sumarParciales(parciales, 0);
+            resultados[3 * k + 1] = sumarParciales(parciales, PARCIALES);
+            resultados[3 * k + 2] = sumarParciales(parciales, 2 * PARCIALES);
+        }
+    }
+
+    @Override
+    public String nombre() {
+        return "escalar";
+    }
+}
@@ -0,0 +1,122 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Núcleo fusionado de métricas sobre una lista de flujos.
+ *
+ * En un solo recorrido acumula Σ v^t·CF_t (precio), Σ t·v^t·CF_t (duración) y Σ t(t+1)·v^t·CF_t
+ * (convexidad). El factor de descuento se obtiene de forma incremental (v^t = v^(t-1)·v) en lugar de
+ * elevar (1+r)^t y dividir en cada flujo; para que los productos sucesivos no acumulen error se trabaja
+ * con más dígitos que la escala del resultado.
+ *
+ * Solo se consideran los flujos positivos a partir del período 1, igual que los cálculos por lista.
+ */
+public final class KernelMetricas {
+
+    private static final int ESCALA = 10;
+    private static final RoundingMode REDONDEO = RoundingMode.HALF_UP;
+    private static final MathContext MC = new MathContext(24, REDONDEO);
+
+    private KernelMetricas() {
+    }
+
+    /**
+     * Resultado del recorrido: precio y métricas de riesgo expresadas en años.
+     *
+     * @param precio Σ v^t·CF_t con escala 10
+     * @param duracionConvexidad Duración de Macaulay, duración modificada (D / (1+r)) y convexidad
+     */
+    public record Metricas(BigDecimal precio, DuracionConvexidad duracionConvexidad) {
+
+        public BigDecimal duracion() {
+            return duracionConvexidad.getDuracion();
+        }
+
+        public BigDecimal convexidad() {
+            return duracionConvexidad.getConvexidad();
+        }
+    }
+
+    /**
+     * Calcula precio, duración y convexidad en un solo recorrido.
+     *
+     * @param flujos Flujos del bono (el período 0 y los flujos no positivos se ignoran)
+     * @param tasaPeriodica Tasa de descuento por período, en decimal
+     * @param frecuenciaPagos Períodos por año, para expresar las métricas en años
+     * @param tasaMercado Tasa que se informa en el resultado
+     * @param anotarFlujos Si es true, guarda en cada flujo su factor de tiempo, factor de descuento y valor actual
+     */
+    public static Metricas calcular(List<FlujoFinanciero> flujos, BigDecimal tasaPeriodica, int frecuenciaPagos,
+                                    BigDecimal tasaMercado, boolean anotarFlujos) {
+        if (frecuenciaPagos <= 0) {
+            throw new IllegalArgumentException("La frecuencia de pagos debe ser mayor que cero");
+        }
+        BigDecimal unoMasTasa = BigDecimal.ONE.add(tasaPeriodica, MC);
+        BigDecimal v = BigDecimal.ONE.divide(unoMasTasa, MC);
+
+        BigDecimal precio = BigDecimal.ZERO;
+        BigDecimal sumaPonderada = BigDecimal.ZERO;
+        BigDecimal sumaConvexidad = BigDecimal.ZERO;
+
+        // Factor de descuento del último período alcanzado
+        int periodoFactor = 0;
+        BigDecimal factor = BigDecimal.ONE;
+
+        if (flujos != null) {
+            for (FlujoFinanciero flujo : flujos) {
+                int periodo = flujo.getPeriodo();
+                BigDecimal flujoValor = flujo.getFlujoTotal() != null ? flujo.getFlujoTotal() : flujo.getFlujo();
+                if (periodo <= 0 || flujoValor == null || flujoValor.signum() <= 0) {
+                    continue;
+                }
+
+                if (periodo < periodoFactor) {
+                    // Lista desordenada: se recalcula el factor desde cero
+                    periodoFactor = 0;
+                    factor = BigDecimal.ONE;
+                }
+                while (periodoFactor < periodo) {
+                    factor = factor.multiply(v, MC);
+                    periodoFactor++;
+                }
+
+                BigDecimal valorActual = flujoValor.multiply(factor, MC);
+                BigDecimal t = BigDecimal.valueOf(periodo);
+                precio = precio.add(valorActual, MC);
+                sumaPonderada = sumaPonderada.add(t.multiply(valorActual, MC), MC);
+                sumaConvexidad = sumaConvexidad.add(t.multiply(t.add(BigDecimal.ONE), MC).multiply(valorActual, MC), MC);
+
+                if (anotarFlujos) {
+                    BigDecimal valorActualEscalado = valorActual.setScale(ESCALA, REDONDEO);
+                    flujo.setFactorTiempo(t);
+                    flujo.setFactorDescuento(factor.setScale(ESCALA, REDONDEO));
+                    flujo.setValorActual(valorActualEscalado);
+                    flujo.setValorPresente(valorActualEscalado);
+                }
+            }
+        }
+
+        if (precio.signum() <= 0) {
+            DuracionConvexidad vacio = new DuracionConvexidad(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, tasaMercado);
+            return new Metricas(BigDecimal.ZERO.setScale(ESCALA), vacio);
+        }
+
+        BigDecimal m = BigDecimal.valueOf(frecuenciaPagos);
+        BigDecimal duracionPeriodos = sumaPonderada.divide(precio, MC);
+        BigDecimal duracion = duracionPeriodos.divide(m, ESCALA, REDONDEO);
+        BigDecimal duracionModificada = duracionPeriodos.divide(unoMasTasa, MC).divide(m, ESCALA, REDONDEO);
+        BigDecimal convexidad = sumaConvexidad
+                .divide(precio.multiply(unoMasTasa.pow(2, MC), MC), MC)
+                .divide(m.pow(2), ESCALA, REDONDEO);
+
+        return new Metricas(precio.setScale(ESCALA, REDONDEO),
+                new DuracionConvexidad(duracion, duracionModificada, convexidad, tasaMercado));
+    }
+}
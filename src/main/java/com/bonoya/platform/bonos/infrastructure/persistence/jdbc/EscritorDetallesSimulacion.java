@@ -0,0 +1,81 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.jdbc;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.FlujoInversionista;
+import com.bonoya.platform.shared.infrastructure.timing.TiemposPeticion;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserción por lotes de los flujos de detalle de una simulación.
+ *
+ * La tabla usa ids IDENTITY, con lo que Hibernate inserta fila por fila; aquí todas las filas se envían en
+ * un único {@code batchUpdate}. Al usar el {@link JdbcTemplate} del mismo DataSource, participa en la
+ * transacción JPA en curso junto con la inserción de la simulación.
+ */
+@Component
+public class EscritorDetallesSimulacion {
+
+    private static final String SQL_INSERT = "insert into flujos_inversionista_detalle (simulacion_id, periodo, fecha, "
+            + "cupon, principal, flujo_total, flujo_neto, saldo_acumulado, descripcion, es_inversion_inicial, "
+            + "created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EscritorDetallesSimulacion(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserta los flujos de la simulación en un solo lote.
+     *
+     * @return número de filas enviadas
+     */
+    public int insertar(Long simulacionId, List<FlujoInversionista> flujos) {
+        if (flujos.isEmpty()) {
+            return 0;
+        }
+        Timestamp ahora = new Timestamp(System.currentTimeMillis());
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("persist")) {
+            insertarLote(simulacionId, flujos, ahora);
+        }
+        return flujos.size();
+    }
+
+    private void insertarLote(Long simulacionId, List<FlujoInversionista> flujos, Timestamp ahora) {
+        jdbcTemplate.batchUpdate(SQL_INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                FlujoInversionista flujo = flujos.get(i);
+                ps.setLong(1, simulacionId);
+                ps.setInt(2, flujo.getPeriodo());
+                if (flujo.getFecha() != null) {
+                    ps.setDate(3, Date.valueOf(flujo.getFecha()));
+                } else {
+                    ps.setNull(3, Types.DATE);
+                }
+                ps.setBigDecimal(4, flujo.getCupon());
+                ps.setBigDecimal(5, flujo.getPrincipal());
+                ps.setBigDecimal(6, flujo.getFlujoTotal());
+                ps.setBigDecimal(7, flujo.getFlujoNeto());
+                ps.setBigDecimal(8, flujo.getSaldoAcumulado());
+                ps.setString(9, flujo.getDescripcion());
+                ps.setBoolean(10, flujo.isEsInversionInicial());
+                ps.setTimestamp(11, ahora);
+                ps.setTimestamp(12, ahora);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return flujos.size();
+            }
+        });
+    }
+}
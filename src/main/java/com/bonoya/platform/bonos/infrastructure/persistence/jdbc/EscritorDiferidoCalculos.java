@@ -0,0 +1,466 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.jdbc;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DetalleCalculo;
+import com.bonoya.platform.shared.infrastructure.persistense.jdbc.AsignadorIdentificadores;
+import com.bonoya.platform.shared.infrastructure.timing.TiemposPeticion;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritura diferida ("write-behind") del historial de cálculos.
+ *
+ * Cuando está habilitada, el cálculo recibe su id de inmediato desde un bloque de la secuencia, se devuelve
+ * al cliente y queda en una cola acotada que un hilo de fondo inserta en lotes. Si la cola está llena, el
+ * cálculo se escribe de forma síncrona (contrapresión) en lugar de descartarse. Al detener la aplicación se
+ * vacía la cola antes de cerrar el pool de conexiones.
+ *
+ * Un lote que falla se reintenta con espera exponencial; si el error no es transitorio o se agotan los
+ * reintentos, sus cálculos se insertan uno a uno. Solo los que vuelven a fallar se apartan, con el error,
+ * en un archivo NDJSON de cálculos no escritos para reprocesarlos.
+ */
+@Component
+public class EscritorDiferidoCalculos {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EscritorDiferidoCalculos.class);
+
+    static final String TABLA = "calculos";
+
+    private static final String SQL_INSERT = "insert into calculos (id, bono_id, inversor_username, tasa_esperada, trea, "
+            + "precio_maximo, fecha_calculo, informacion_adicional, tipo_analisis, valor_nominal, tasa_cupon, "
+            + "plazo_anios, frecuencia_pagos, moneda, trea_porcentaje, valor_presente, tir, van, tcea, duracion, "
+            + "duracion_modificada, convexidad, precio_justo, valor_presente_cupones, yield, sensibilidad_precio, "
+            + "ganancia_capital, ingresos_cupones, rendimiento_total, created_at, updated_at, detalle) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, "
+            + "cast(? as jsonb))";
+
+    private static final int MAX_REINTENTOS = 3;
+    private static final DateTimeFormatter FORMATO_ARCHIVO = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    // Misma forma que escribe Hibernate para la columna jsonb: un objeto con los componentes del record
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // Cálculos no escritos: las columnas del cálculo sin la entidad del bono (basta con su id)
+    private static final ObjectMapper JSON_NO_ESCRITOS = JsonMapper.builder()
+            .findAndAddModules()
+            .addMixIn(Calculo.class, CalculoNoEscrito.class)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AsignadorIdentificadores asignadorIdentificadores;
+    private final boolean habilitado;
+    private final int tamanoLote;
+    private final long intervaloMs;
+    private final long esperaReintentoMs;
+    private final Path directorioNoEscritos;
+    private final BlockingQueue<Pendiente> cola;
+
+    // Cálculos encolados aún no escritos, para que las lecturas por id los encuentren
+    private final Map<Long, Calculo> pendientes = new ConcurrentHashMap<>();
+    // Se notifica cada vez que salen cálculos de pendientes (escritos o apartados)
+    private final Object salidaPendientes = new Object();
+
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong escriturasSincronas = new AtomicLong();
+    private volatile long ultimoRetrasoMs;
+    private volatile boolean activo;
+    private Thread hiloEscritor;
+
+    public EscritorDiferidoCalculos(JdbcTemplate jdbcTemplate, AsignadorIdentificadores asignadorIdentificadores,
+                                    @Value("${bonoya.calculos.write-behind.enabled:false}") boolean habilitado,
+                                    @Value("${bonoya.calculos.write-behind.capacidad:10000}") int capacidad,
+                                    @Value("${bonoya.calculos.write-behind.tamano-lote:200}") int tamanoLote,
+                                    @Value("${bonoya.calculos.write-behind.intervalo-ms:200}") long intervaloMs,
+                                    @Value("${bonoya.calculos.write-behind.espera-reintento-ms:100}") long esperaReintentoMs,
+                                    @Value("${bonoya.calculos.write-behind.no-escritos.directorio:calculos-no-escritos}") String directorioNoEscritos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.asignadorIdentificadores = asignadorIdentificadores;
+        this.habilitado = habilitado;
+        this.tamanoLote = tamanoLote;
+        this.intervaloMs = intervaloMs;
+        this.esperaReintentoMs = esperaReintentoMs;
+        this.directorioNoEscritos = Paths.get(directorioNoEscritos);
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        activo = true;
+        hiloEscritor = new Thread(this::procesar, "escritor-calculos");
+        hiloEscritor.setDaemon(true);
+        hiloEscritor.start();
+        LOGGER.info("Escritura diferida de cálculos habilitada (lote={}, intervalo={} ms)", tamanoLote, intervaloMs);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Asigna un id al cálculo y lo encola para su inserción. Devuelve el mismo cálculo con el id asignado.
+     */
+    public Calculo encolar(Calculo calculo) {
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("persist")) {
+            calculo.setId(asignadorIdentificadores.siguienteId(TABLA));
+            pendientes.put(calculo.getId(), calculo);
+            if (!cola.offer(new Pendiente(calculo, System.nanoTime()))) {
+                // Cola llena: se escribe en el hilo de la petición para no perder el registro
+                escriturasSincronas.incrementAndGet();
+                escribir(List.of(new Pendiente(calculo, System.nanoTime())));
+            }
+        }
+        return calculo;
+    }
+
+    public Calculo obtenerPendiente(Long id) {
+        return pendientes.get(id);
+    }
+
+    public List<Calculo> obtenerPendientesPorInversor(String inversorUsername) {
+        return pendientes.values().stream()
+                .filter(calculo -> inversorUsername.equals(calculo.getInversorUsername()))
+                .toList();
+    }
+
+    /**
+     * Garantiza que el cálculo indicado ya salió de la cola (por ejemplo, antes de eliminarlo).
+     */
+    public void asegurarEscrito(Long id) {
+        if (!pendientes.containsKey(id)) {
+            return;
+        }
+        vaciar();
+        // El cálculo puede estar en el lote que el hilo de fondo está escribiendo en este momento
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        synchronized (salidaPendientes) {
+            long restante;
+            while (pendientes.containsKey(id) && (restante = limite - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(salidaPendientes, restante);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Escribe de forma síncrona todo lo que haya en la cola.
+     */
+    public void vaciar() {
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        while (cola.drainTo(lote, tamanoLote) > 0) {
+            escribir(lote);
+            lote.clear();
+        }
+    }
+
+    public int getProfundidadCola() {
+        return cola.size();
+    }
+
+    /**
+     * Antigüedad en milisegundos del cálculo más antiguo que sigue en cola.
+     */
+    public long getRetrasoActualMs() {
+        Pendiente primero = cola.peek();
+        return primero != null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - primero.encoladoEn()) : 0L;
+    }
+
+    /**
+     * Retraso entre encolado y escritura del último lote insertado.
+     */
+    public long getUltimoRetrasoMs() {
+        return ultimoRetrasoMs;
+    }
+
+    public long getEscritos() {
+        return escritos.get();
+    }
+
+    /**
+     * Cálculos que no se pudieron insertar y se apartaron en el archivo de no escritos.
+     */
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    public long getEscriturasSincronas() {
+        return escriturasSincronas.get();
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        if (!activo) {
+            return;
+        }
+        activo = false;
+        hiloEscritor.interrupt();
+        hiloEscritor.join(TimeUnit.SECONDS.toMillis(10));
+        vaciar();
+        LOGGER.info("Escritor de cálculos detenido; escritos={}, descartados={}", escritos.get(), descartados.get());
+    }
+
+    private void procesar() {
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        while (activo) {
+            try {
+                Pendiente primero = cola.poll(intervaloMs, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                escribir(lote);
+                lote.clear();
+            } catch (InterruptedException e) {
+                // Al detener, el resto de la cola se vacía desde detener()
+                escribir(lote);
+                lote.clear();
+                return;
+            }
+        }
+    }
+
+    private void escribir(List<Pendiente> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<Pendiente> copia = List.copyOf(lote);
+        for (int intento = 1; intento <= MAX_REINTENTOS; intento++) {
+            try {
+                jdbcTemplate.batchUpdate(SQL_INSERT, new InsercionLote(copia));
+                registrarEscritos(copia);
+                return;
+            } catch (NonTransientDataAccessException e) {
+                // Un dato inválido no se corrige reintentando: se aísla insertando fila a fila
+                LOGGER.warn("Falló la inserción de {} cálculos; se insertan uno a uno: {}", copia.size(), e.getMessage());
+                break;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Falló la inserción de {} cálculos (intento {}/{}): {}",
+                        copia.size(), intento, MAX_REINTENTOS, e.getMessage());
+                if (intento == MAX_REINTENTOS || !esperar(esperaReintentoMs << (intento - 1))) {
+                    break;
+                }
+            }
+        }
+        copia.forEach(this::escribirUno);
+    }
+
+    private void escribirUno(Pendiente pendiente) {
+        try {
+            jdbcTemplate.batchUpdate(SQL_INSERT, new InsercionLote(List.of(pendiente)));
+        } catch (DuplicateKeyException e) {
+            // El id viene de la secuencia: la fila ya se insertó en un intento anterior
+            LOGGER.debug("El cálculo {} ya estaba escrito", pendiente.calculo().getId());
+        } catch (RuntimeException e) {
+            apartar(pendiente, e);
+            return;
+        }
+        registrarEscritos(List.of(pendiente));
+    }
+
+    /**
+     * Guarda el cálculo con el error en el archivo de no escritos y lo quita de los pendientes.
+     */
+    private void apartar(Pendiente pendiente, RuntimeException error) {
+        Calculo calculo = pendiente.calculo();
+        descartados.incrementAndGet();
+        String linea;
+        try {
+            Map<String, Object> registro = new LinkedHashMap<>();
+            registro.put("error", error.getMessage());
+            registro.put("calculo", calculo);
+            linea = JSON_NO_ESCRITOS.writeValueAsString(registro);
+        } catch (JsonProcessingException e) {
+            linea = null;
+        }
+        Path archivo = directorioNoEscritos.resolve("calculos-no-escritos-" + LocalDate.now().format(FORMATO_ARCHIVO) + ".ndjson");
+        try {
+            if (linea == null) {
+                throw new IOException("no se pudo serializar el cálculo");
+            }
+            synchronized (this) {
+                Files.createDirectories(directorioNoEscritos);
+                try (BufferedWriter escritor = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    escritor.write(linea);
+                    escritor.newLine();
+                }
+            }
+            LOGGER.error("No se pudo insertar el cálculo {} del inversor {}; apartado en {}: {}", calculo.getId(),
+                    calculo.getInversorUsername(), archivo, error.getMessage());
+        } catch (IOException e) {
+            LOGGER.error("No se pudo insertar ni apartar el cálculo {}: {} ({})", calculo.getId(),
+                    linea != null ? linea : calculo, error.getMessage(), e);
+        }
+        quitarPendientes(List.of(pendiente));
+    }
+
+    private void registrarEscritos(List<Pendiente> lote) {
+        long ahora = System.nanoTime();
+        ultimoRetrasoMs = TimeUnit.NANOSECONDS.toMillis(ahora - lote.get(0).encoladoEn());
+        escritos.addAndGet(lote.size());
+        quitarPendientes(lote);
+    }
+
+    private void quitarPendientes(List<Pendiente> lote) {
+        lote.forEach(pendiente -> pendientes.remove(pendiente.calculo().getId()));
+        synchronized (salidaPendientes) {
+            salidaPendientes.notifyAll();
+        }
+    }
+
+    private static boolean esperar(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private abstract static class CalculoNoEscrito {
+        @JsonIgnore
+        abstract Bono getBono();
+
+        @JsonIgnore
+        abstract String getBonoNombre();
+    }
+
+    private record Pendiente(Calculo calculo, long encoladoEn) {
+    }
+
+    private static final class InsercionLote implements BatchPreparedStatementSetter {
+        private final List<Pendiente> lote;
+        private final Timestamp ahora = new Timestamp(System.currentTimeMillis());
+
+        private InsercionLote(List<Pendiente> lote) {
+            this.lote = lote;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            Calculo c = lote.get(i).calculo();
+            ps.setLong(1, c.getId());
+            setLong(ps, 2, c.getBonoId());
+            ps.setString(3, c.getInversorUsername());
+            setDecimal(ps, 4, c.getTasaEsperada());
+            setDecimal(ps, 5, c.getTrea());
+            setDecimal(ps, 6, c.getPrecioMaximo());
+            ps.setDate(7, c.getFechaCalculo() != null ? Date.valueOf(c.getFechaCalculo()) : null);
+            ps.setString(8, c.getInformacionAdicional());
+            ps.setString(9, c.getTipoAnalisis());
+            setDecimal(ps, 10, c.getValorNominal());
+            setDecimal(ps, 11, c.getTasaCupon());
+            setInt(ps, 12, c.getPlazoAnios());
+            setInt(ps, 13, c.getFrecuenciaPagos());
+            ps.setString(14, c.getMoneda());
+            setDecimal(ps, 15, c.getTreaPorcentaje());
+            setDecimal(ps, 16, c.getValorPresente());
+            setDecimal(ps, 17, c.getTir());
+            setDecimal(ps, 18, c.getVan());
+            setDecimal(ps, 19, c.getTcea());
+            setDecimal(ps, 20, c.getDuracion());
+            setDecimal(ps, 21, c.getDuracionModificada());
+            setDecimal(ps, 22, c.getConvexidad());
+            setDecimal(ps, 23, c.getPrecioJusto());
+            setDecimal(ps, 24, c.getValorPresenteCupones());
+            setDecimal(ps, 25, c.getYield());
+            setDecimal(ps, 26, c.getSensibilidadPrecio());
+            setDecimal(ps, 27, c.getGananciaCapital());
+            setDecimal(ps, 28, c.getIngresosCupones());
+            setDecimal(ps, 29, c.getRendimientoTotal());
+            ps.setTimestamp(30, ahora);
+            ps.setTimestamp(31, ahora);
+            ps.setString(32, aJson(c.getDetalle()));
+        }
+
+        @Override
+        public int getBatchSize() {
+            return lote.size();
+        }
+
+        private static String aJson(DetalleCalculo detalle) {
+            if (detalle == null) {
+                return null;
+            }
+            try {
+                return JSON.writeValueAsString(detalle);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("No se pudo serializar el detalle del cálculo " + detalle, e);
+            }
+        }
+
+        private static void setDecimal(PreparedStatement ps, int indice, BigDecimal valor) throws SQLException {
+            if (valor != null) {
+                ps.setBigDecimal(indice, valor);
+            } else {
+                ps.setNull(indice, Types.NUMERIC);
+            }
+        }
+
+        private static void setLong(PreparedStatement ps, int indice, Long valor) throws SQLException {
+            if (valor != null) {
+                ps.setLong(indice, valor);
+            } else {
+                ps.setNull(indice, Types.BIGINT);
+            }
+        }
+
+        private static void setInt(PreparedStatement ps, int indice, Integer valor) throws SQLException {
+            if (valor != null) {
+                ps.setInt(indice, valor);
+            } else {
+                ps.setNull(indice, Types.INTEGER);
+            }
+        }
+    }
+}
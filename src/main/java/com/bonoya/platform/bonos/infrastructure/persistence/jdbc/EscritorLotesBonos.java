@@ -0,0 +1,120 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.jdbc;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.shared.infrastructure.persistense.jdbc.AsignadorIdentificadores;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserción por lotes de bonos importados junto con sus flujos.
+ *
+ * Los ids de los bonos se reservan de la secuencia de la tabla antes de insertar, así los flujos pueden
+ * referenciarlos en el mismo lote sin leer las claves generadas fila por fila. Participa en la transacción en
+ * curso, la misma que registra el progreso de la importación.
+ */
+@Component
+public class EscritorLotesBonos {
+
+    static final String TABLA = "bonos";
+
+    private static final String SQL_INSERT_BONO = "insert into bonos (id, nombre, descripcion, valor_nominal, "
+            + "tasa_cupon, plazo_anios, frecuencia_pagos, moneda, fecha_emision, plazos_gracia_total, "
+            + "plazos_gracia_parcial, tcea, duracion, convexidad, tasa_descuento, metodo_amortizacion, "
+            + "emisor_username, created_at, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_INSERT_FLUJO = "insert into flujos_financieros (bono_id, periodo, fecha, cupon, "
+            + "amortizacion, flujo_total, saldo_insoluto, valor_presente, interes, cuota, saldo, flujo, "
+            + "factor_descuento, valor_actual, factor_tiempo, created_at, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AsignadorIdentificadores asignadorIdentificadores;
+
+    public EscritorLotesBonos(JdbcTemplate jdbcTemplate, AsignadorIdentificadores asignadorIdentificadores) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.asignadorIdentificadores = asignadorIdentificadores;
+    }
+
+    /**
+     * Asigna ids a los bonos e inserta los bonos y los flujos ya generados en {@link Bono#getFlujos()}.
+     *
+     * @return número de flujos insertados
+     */
+    public int insertar(List<Bono> bonos) {
+        if (bonos.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = asignadorIdentificadores.reservar(TABLA, bonos.size());
+        List<FlujoFinanciero> flujos = new ArrayList<>();
+        for (int i = 0; i < bonos.size(); i++) {
+            Bono bono = bonos.get(i);
+            bono.setId(ids.get(i));
+            flujos.addAll(bono.getFlujos());
+        }
+        Timestamp ahora = new Timestamp(System.currentTimeMillis());
+
+        jdbcTemplate.batchUpdate(SQL_INSERT_BONO, bonos, bonos.size(), (ps, bono) -> {
+            ps.setLong(1, bono.getId());
+            ps.setString(2, bono.getNombre());
+            ps.setString(3, bono.getDescripcion());
+            ps.setBigDecimal(4, bono.getValorNominal());
+            ps.setBigDecimal(5, bono.getTasaCupon());
+            ps.setInt(6, bono.getPlazoAnios());
+            ps.setInt(7, bono.getFrecuenciaPagos());
+            ps.setString(8, bono.getMoneda());
+            setFecha(ps, 9, bono.getFechaEmision());
+            ps.setInt(10, bono.getPlazosGraciaTotal());
+            ps.setInt(11, bono.getPlazosGraciaParcial());
+            ps.setBigDecimal(12, bono.getTcea());
+            ps.setBigDecimal(13, bono.getDuracion());
+            ps.setBigDecimal(14, bono.getConvexidad());
+            ps.setBigDecimal(15, bono.getTasaDescuento());
+            ps.setString(16, bono.getMetodoAmortizacion());
+            ps.setString(17, bono.getEmisorUsername());
+            ps.setTimestamp(18, ahora);
+            ps.setTimestamp(19, ahora);
+        });
+
+        if (!flujos.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERT_FLUJO, flujos, flujos.size(), (ps, flujo) -> {
+                ps.setLong(1, flujo.getBono().getId());
+                ps.setInt(2, flujo.getPeriodo());
+                setFecha(ps, 3, flujo.getFecha());
+                ps.setBigDecimal(4, flujo.getCupon());
+                ps.setBigDecimal(5, flujo.getAmortizacion());
+                ps.setBigDecimal(6, flujo.getFlujoTotal());
+                ps.setBigDecimal(7, flujo.getSaldoInsoluto());
+                ps.setBigDecimal(8, flujo.getValorPresente());
+                ps.setBigDecimal(9, flujo.getInteres());
+                ps.setBigDecimal(10, flujo.getCuota());
+                ps.setBigDecimal(11, flujo.getSaldo());
+                ps.setBigDecimal(12, flujo.getFlujo());
+                ps.setBigDecimal(13, flujo.getFactorDescuento());
+                ps.setBigDecimal(14, flujo.getValorActual());
+                ps.setBigDecimal(15, flujo.getFactorTiempo());
+                ps.setTimestamp(16, ahora);
+                ps.setTimestamp(17, ahora);
+            });
+        }
+        return flujos.size();
+    }
+
+    private static void setFecha(PreparedStatement ps, int indice, LocalDate fecha) throws SQLException {
+        if (fecha != null) {
+            ps.setDate(indice, Date.valueOf(fecha));
+        } else {
+            ps.setNull(indice, Types.DATE);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.jdbc;
+
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lecturas del catálogo por JDBC para el snapshot: solo las columnas que determinan el cronograma y las
+ * marcas de modificación, sin cargar entidades.
+ *
+ * El recorrido de todos los bonos se lee por páginas ordenadas por id (la siguiente empieza después del último
+ * id leído): cada página se lee completa y se entrega después, así ninguna transacción ni cursor queda abierto
+ * mientras se compilan y escriben los cronogramas, y la memoria no crece con el tamaño del catálogo.
+ */
+@Component
+public class LectorCatalogoBonos {
+
+    private static final String SQL_TERMINOS = "select id, updated_at, valor_nominal, tasa_cupon, plazo_anios, "
+            + "frecuencia_pagos, fecha_emision, plazos_gracia_total, plazos_gracia_parcial, metodo_amortizacion "
+            + "from bonos where id > ? and valor_nominal is not null and tasa_cupon is not null "
+            + "order by id limit ?";
+
+    private static final String SQL_VERSIONES_BONOS = "select id, updated_at from bonos";
+
+    private static final String SQL_VERSIONES_MONEDAS = "select upper(trim(moneda)), max(updated_at), count(*) "
+            + "from bonos where moneda is not null group by upper(trim(moneda))";
+
+    private static final int FILAS_POR_LECTURA = 1000;
+
+    /**
+     * Condiciones de un bono y su última modificación (epoch millis).
+     */
+    public record TerminosBono(long id, long actualizado, GeneradorCronograma.Terminos terminos) {
+    }
+
+    /**
+     * Última modificación (epoch millis) y número de bonos de una moneda: la versión de su curva de catálogo.
+     */
+    public record VersionMoneda(long actualizado, long cantidad) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate soloLectura;
+
+    public LectorCatalogoBonos(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FILAS_POR_LECTURA);
+        this.soloLectura = new TransactionTemplate(transactionManager);
+        this.soloLectura.setReadOnly(true);
+    }
+
+    /**
+     * Recorre todos los bonos en orden de id. Los bonos sin valor nominal o tasa de cupón se omiten.
+     *
+     * Las páginas no comparten transacción: cada bono lleva el {@code updated_at} con el que se leyó, y es esa
+     * marca la que decide al restaurar si su cronograma sigue vigente.
+     */
+    public void recorrerTerminos(Consumer<TerminosBono> consumidor) {
+        long ultimoId = Long.MIN_VALUE;
+        List<TerminosBono> pagina;
+        do {
+            pagina = jdbcTemplate.query(SQL_TERMINOS, (rs, fila) -> terminosBono(rs), ultimoId, FILAS_POR_LECTURA);
+            for (TerminosBono bono : pagina) {
+                consumidor.accept(bono);
+            }
+            if (!pagina.isEmpty()) {
+                ultimoId = pagina.get(pagina.size() - 1).id();
+            }
+        } while (pagina.size() == FILAS_POR_LECTURA);
+    }
+
+    /**
+     * Última modificación de cada bono, por id.
+     */
+    public Map<Long, Long> versionesBonos() {
+        Map<Long, Long> versiones = new HashMap<>();
+        soloLectura.executeWithoutResult(status -> jdbcTemplate.query(SQL_VERSIONES_BONOS,
+                rs -> {
+                    versiones.put(rs.getLong(1), millis(rs, "updated_at"));
+                }));
+        return versiones;
+    }
+
+    /**
+     * Versión de cada moneda del catálogo, con el código en mayúsculas.
+     */
+    public Map<String, VersionMoneda> versionesMonedas() {
+        Map<String, VersionMoneda> versiones = new HashMap<>();
+        jdbcTemplate.query(SQL_VERSIONES_MONEDAS, rs -> {
+            Timestamp actualizado = rs.getTimestamp(2);
+            versiones.put(rs.getString(1).toUpperCase(Locale.ROOT),
+                    new VersionMoneda(actualizado != null ? actualizado.getTime() : 0L, rs.getLong(3)));
+        });
+        return versiones;
+    }
+
+    private static TerminosBono terminosBono(ResultSet rs) throws SQLException {
+        Date emision = rs.getDate("fecha_emision");
+        GeneradorCronograma.Terminos terminos = GeneradorCronograma.Terminos.de(
+                rs.getBigDecimal("valor_nominal"), rs.getBigDecimal("tasa_cupon"), rs.getInt("plazo_anios"),
+                rs.getInt("frecuencia_pagos"), emision != null ? emision.toLocalDate() : null,
+                rs.getInt("plazos_gracia_total"), rs.getInt("plazos_gracia_parcial"),
+                GeneradorCronograma.Terminos.esAleman(rs.getString("metodo_amortizacion")));
+        return new TerminosBono(rs.getLong("id"), millis(rs, "updated_at"), terminos);
+    }
+
+    private static long millis(ResultSet rs, String columna) throws SQLException {
+        Timestamp valor = rs.getTimestamp(columna);
+        return valor != null ? valor.getTime() : 0L;
+    }
+}
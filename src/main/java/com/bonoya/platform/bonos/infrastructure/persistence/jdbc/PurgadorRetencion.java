@@ -0,0 +1,186 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Borrado por lotes de filas antiguas del historial.
+ *
+ * Cada lote selecciona como máximo {@code tamanoLote} ids de la tabla principal, elimina primero las filas
+ * hijas y luego las principales, todo en una transacción corta. Así los bloqueos duran lo que dura un lote
+ * y no todo el borrado.
+ *
+ * Si se archiva, las filas del lote se escriben y sincronizan en un archivo temporal antes del commit, y
+ * solo después del commit se anexan al archivo de la ejecución. Un lote revertido no deja filas en el
+ * archivo, y si el anexo falla tras el commit el archivo temporal se conserva con las filas eliminadas.
+ */
+@Component
+public class PurgadorRetencion {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PurgadorRetencion.class);
+
+    /**
+     * Tablas con retención: tabla principal, columna de fecha y, si existe, tabla hija con su clave foránea.
+     */
+    public enum Tabla {
+        SIMULACIONES("simulaciones_inversionista", "fecha_simulacion", "flujos_inversionista_detalle", "simulacion_id"),
+        CALCULOS("calculos", "created_at", null, null);
+
+        private final String nombre;
+        private final String columnaFecha;
+        private final String tablaHija;
+        private final String claveHija;
+
+        Tabla(String nombre, String columnaFecha, String tablaHija, String claveHija) {
+            this.nombre = nombre;
+            this.columnaFecha = columnaFecha;
+            this.tablaHija = tablaHija;
+            this.claveHija = claveHija;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public String getTablaHija() {
+            return tablaHija;
+        }
+    }
+
+    /**
+     * Filas eliminadas en un lote.
+     */
+    public record ResultadoLote(int principales, int hijas) {
+        public static final ResultadoLote VACIO = new ResultadoLote(0, 0);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PurgadorRetencion(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Elimina un lote de filas anteriores al límite.
+     *
+     * @param tabla Tabla a purgar
+     * @param limite Fecha límite (exclusiva) comparable con la columna de fecha de la tabla
+     * @param tamanoLote Máximo de filas principales del lote
+     * @param archivo Archivo NDJSON de la ejecución al que se anexa el lote, o null para no archivar
+     * @return filas eliminadas; {@link ResultadoLote#VACIO} si no quedan filas antiguas
+     * @throws UncheckedIOException si no se pudo archivar el lote
+     */
+    public ResultadoLote purgarLote(Tabla tabla, Object limite, int tamanoLote, Path archivo) {
+        Path temporal = archivo != null ? crearTemporal(archivo) : null;
+        ResultadoLote resultado;
+        try {
+            resultado = purgarEnTransaccion(tabla, limite, tamanoLote, temporal);
+        } catch (RuntimeException e) {
+            eliminar(temporal);
+            throw e;
+        }
+        if (temporal != null) {
+            if (resultado.principales() > 0) {
+                anexar(temporal, archivo);
+            }
+            eliminar(temporal);
+        }
+        return resultado;
+    }
+
+    private ResultadoLote purgarEnTransaccion(Tabla tabla, Object limite, int tamanoLote, Path temporal) {
+        ResultadoLote resultado = transactionTemplate.execute(estado -> {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "select id from " + tabla.nombre + " where " + tabla.columnaFecha + " < ? order by id limit ?",
+                    Long.class, limite, tamanoLote);
+            if (ids.isEmpty()) {
+                return ResultadoLote.VACIO;
+            }
+            String marcadores = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            Object[] parametros = ids.toArray();
+
+            if (temporal != null) {
+                // Las filas quedan en disco antes del commit; si no se pueden escribir, el lote se revierte
+                try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                    Writer escritor = Channels.newWriter(canal, StandardCharsets.UTF_8);
+                    if (tabla.tablaHija != null) {
+                        archivar(escritor, tabla.tablaHija, "select row_to_json(t)::text from " + tabla.tablaHija
+                                + " t where " + tabla.claveHija + " in (" + marcadores + ")", parametros);
+                    }
+                    archivar(escritor, tabla.nombre, "select row_to_json(t)::text from " + tabla.nombre
+                            + " t where id in (" + marcadores + ")", parametros);
+                    escritor.flush();
+                    canal.force(true);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No se pudo archivar el lote de " + tabla.nombre, e);
+                }
+            }
+
+            int hijas = 0;
+            if (tabla.tablaHija != null) {
+                hijas = jdbcTemplate.update("delete from " + tabla.tablaHija + " where " + tabla.claveHija
+                        + " in (" + marcadores + ")", parametros);
+            }
+            int principales = jdbcTemplate.update("delete from " + tabla.nombre + " where id in (" + marcadores + ")",
+                    parametros);
+            return new ResultadoLote(principales, hijas);
+        });
+        return resultado != null ? resultado : ResultadoLote.VACIO;
+    }
+
+    private void archivar(Writer escritor, String tabla, String sql, Object[] parametros) throws IOException {
+        for (String fila : jdbcTemplate.queryForList(sql, String.class, parametros)) {
+            escritor.write("{\"tabla\":\"" + tabla + "\",\"fila\":" + fila + "}\n");
+        }
+    }
+
+    private static Path crearTemporal(Path archivo) {
+        try {
+            Path directorio = archivo.toAbsolutePath().getParent();
+            Files.createDirectories(directorio);
+            return Files.createTempFile(directorio, archivo.getFileName() + ".", ".lote");
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el archivo temporal del lote junto a " + archivo, e);
+        }
+    }
+
+    private static void anexar(Path temporal, Path archivo) {
+        try (OutputStream salida = Files.newOutputStream(archivo, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            Files.copy(temporal, salida);
+        } catch (IOException e) {
+            // Las filas ya se eliminaron: el temporal queda en disco como única copia del lote
+            throw new UncheckedIOException("No se pudo anexar el lote a " + archivo + "; las filas eliminadas quedan en "
+                    + temporal, e);
+        }
+    }
+
+    private static void eliminar(Path temporal) {
+        if (temporal == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporal);
+        } catch (IOException e) {
+            LOGGER.warn("No se pudo eliminar el archivo temporal {}", temporal, e);
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories;
 
 import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.VersionBono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.VersionCatalogo;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio JPA para la entidad Bono.
+ *
+ * Las consultas del catálogo se guardan en la caché de consultas (región {@value #REGION_CONSULTAS}); Hibernate
+ * las invalida al modificar la tabla de bonos y {@code BonoService} además vacía la región tras cada cambio.
  */
 @Repository
 public interface BonoRepository extends JpaRepository<Bono, Long> {
-    
+
+    String REGION_CONSULTAS = "bonos-consultas";
+
     /**
      * Busca bonos cuyo nombre contiene la cadena especificada (insensible a mayúsculas/minúsculas).
      * 
@@ -21,8 +32,62 @@ public interface BonoRepository extends JpaRepository<Bono, Long> {
      */
     List<Bono> findByNombreContainingIgnoreCase(String nombre);
 
+    @Override
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
+    List<Bono> findAll();
+
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
     List<Bono> findByEmisorUsername(String emisorUsername);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
     List<Bono> findByMoneda(String moneda);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
+    List<Bono> findByMonedaIgnoreCase(String moneda);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
     List<Bono> findByTasaCuponBetween(BigDecimal min, BigDecimal max);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
     List<Bono> findByTasaCuponGreaterThanEqual(BigDecimal min);
-}
\ No newline at end of file
+
+    /*
+     * Versiones para las peticiones condicionales: solo agregados y columnas escalares, sin hidratar entidades.
+     */
+
+    @Query("select new com.bonoya.platform.bonos.domain.model.valueobjects.VersionCatalogo(max(b.updatedAt), count(b)) "
+            + "from Bono b")
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
+    VersionCatalogo obtenerVersionCatalogo();
+
+    @Query("select new com.bonoya.platform.bonos.domain.model.valueobjects.VersionCatalogo(max(b.updatedAt), count(b)) "
+            + "from Bono b where b.moneda = :moneda")
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
+    VersionCatalogo obtenerVersionCatalogoPorMoneda(String moneda);
+
+    @Query("select new com.bonoya.platform.bonos.domain.model.valueobjects.VersionCatalogo(max(b.updatedAt), count(b)) "
+            + "from Bono b where b.tasaCupon between :min and :max")
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
+    VersionCatalogo obtenerVersionCatalogoPorRangoTasa(BigDecimal min, BigDecimal max);
+
+    @Query("select new com.bonoya.platform.bonos.domain.model.valueobjects.VersionCatalogo(max(b.updatedAt), count(b)) "
+            + "from Bono b where b.tasaCupon >= :min")
+    @QueryHints({@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = REGION_CONSULTAS)})
+    VersionCatalogo obtenerVersionCatalogoPorTasaMinima(BigDecimal min);
+
+    @Query("select new com.bonoya.platform.bonos.domain.model.valueobjects.VersionBono(b.id, b.emisorUsername, "
+            + "b.updatedAt, b.valorNominal, b.tasaCupon, b.plazoAnios, b.frecuenciaPagos, b.fechaEmision, "
+            + "b.metodoAmortizacion, b.tasaDescuento, b.plazosGraciaTotal, b.plazosGraciaParcial) "
+            + "from Bono b where b.id = :id")
+    Optional<VersionBono> obtenerVersion(Long id);
+}
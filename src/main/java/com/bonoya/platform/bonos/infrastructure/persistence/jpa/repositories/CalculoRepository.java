@@ -1,13 +1,32 @@
 package com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories;
 
 import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CalculoRepository extends JpaRepository<Calculo, Long> {
+
     List<Calculo> findByInversorUsername(String inversorUsername);
     List<Calculo> findByBono_Id(Long bonoId);
-}
\ No newline at end of file
+
+    /**
+     * Recorre el historial del inversor en orden de id sin materializarlo: el driver trae 500
+     * filas por viaje y las entidades se cargan de solo lectura. Debe
+     * consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @Query("select c from Calculo c left join fetch c.bono where c.inversorUsername = :inversorUsername order by c.id")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    Stream<Calculo> streamByInversorUsername(@Param("inversorUsername") String inversorUsername);
+}
@@ -3,10 +3,13 @@ package com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories;
 import com.bonoya.platform.bonos.domain.model.entities.FlujoInversionistaDetalle;
 import com.bonoya.platform.bonos.domain.model.entities.SimulacionInversionista;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
@@ -39,6 +42,17 @@ public interface FlujoInversionistaDetalleRepository extends JpaRepository<Flujo
      */
     void deleteBySimulacion(SimulacionInversionista simulacion);
     
+    /**
+     * Elimina los flujos de las simulaciones anteriores a la fecha límite
+     *
+     * @return número de flujos eliminados
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FlujoInversionistaDetalle f WHERE f.simulacion.id IN "
+            + "(SELECT s.id FROM SimulacionInversionista s WHERE s.fechaSimulacion < :fechaLimite)")
+    int deleteBySimulacionAnterior(@Param("fechaLimite") LocalDate fechaLimite);
+    
     /**
      * Cuenta flujos por simulación
      */
@@ -0,0 +1,13 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories;
+
+import com.bonoya.platform.bonos.domain.model.entities.ImportacionBono;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportacionBonoRepository extends JpaRepository<ImportacionBono, Long> {
+
+    Optional<ImportacionBono> findByIdAndEmisorUsername(Long id, String emisorUsername);
+}
@@ -0,0 +1,25 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories;
+
+import com.bonoya.platform.bonos.domain.model.entities.Portafolio;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PortafolioRepository extends JpaRepository<Portafolio, Long> {
+
+    /**
+     * Encuentra los portafolios de un inversor con sus posiciones
+     */
+    @EntityGraph(attributePaths = {"posiciones", "posiciones.bono"})
+    List<Portafolio> findByInversorUsernameOrderByIdAsc(String inversorUsername);
+
+    /**
+     * Encuentra un portafolio del inversor con sus posiciones y bonos en una sola consulta
+     */
+    @EntityGraph(attributePaths = {"posiciones", "posiciones.bono"})
+    Optional<Portafolio> findByIdAndInversorUsername(Long id, String inversorUsername);
+}
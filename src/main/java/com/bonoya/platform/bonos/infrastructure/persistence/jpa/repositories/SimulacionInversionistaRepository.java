@@ -2,9 +2,11 @@ package com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories;
 
 import com.bonoya.platform.bonos.domain.model.entities.SimulacionInversionista;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -55,8 +57,15 @@ public interface SimulacionInversionistaRepository extends JpaRepository<Simulac
     long countByInversorUsername(String inversorUsername);
     
     /**
-     * Elimina simulaciones antiguas (más de X días)
+     * Elimina simulaciones antiguas (más de X días) en una sola sentencia.
+     * Los flujos de detalle deben eliminarse antes con
+     * {@link FlujoInversionistaDetalleRepository#deleteBySimulacionAnterior(LocalDate)}; para volúmenes grandes
+     * usar la retención por lotes ({@code RetencionHistorialService}).
+     *
+     * @return número de simulaciones eliminadas
      */
+    @Modifying
+    @Transactional
     @Query("DELETE FROM SimulacionInversionista s WHERE s.fechaSimulacion < :fechaLimite")
-    void deleteOldSimulations(@Param("fechaLimite") LocalDate fechaLimite);
+    int deleteOldSimulations(@Param("fechaLimite") LocalDate fechaLimite);
 }
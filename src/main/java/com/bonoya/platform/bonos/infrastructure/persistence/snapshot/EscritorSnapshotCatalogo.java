@@ -0,0 +1,324 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.snapshot;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Escribe un snapshot del catálogo con la disposición de {@link FormatoSnapshot}.
+ *
+ * Los bonos se agregan uno a uno: sus columnas (unos 90 bytes por bono) se acumulan en memoria y las filas
+ * de los cronogramas se vuelcan a archivos temporales por columna, de modo que la memoria no depende del
+ * número de períodos. {@link #confirmar()} ensambla el archivo junto al destino y lo reemplaza con un
+ * movimiento atómico: un proceso que tenga mapeado el snapshot anterior lo sigue leyendo sin cambios.
+ */
+public final class EscritorSnapshotCatalogo implements Closeable {
+
+    private static final int TAMANO_BUFFER = 1 << 16;
+
+    private final Path destino;
+    private final int versionAritmetica;
+    private final ColumnaTemporal[] filas = new ColumnaTemporal[FormatoSnapshot.COLUMNAS_FILA];
+    private final List<SnapshotCatalogo.CurvaGuardada> curvas = new ArrayList<>();
+
+    private long[][] columnasLong = new long[FormatoSnapshot.COLUMNAS_LONG_BONO][1024];
+    private int[][] columnasInt = new int[FormatoSnapshot.COLUMNAS_INT_BONO][1024];
+    private byte[][] columnasByte = new byte[FormatoSnapshot.COLUMNAS_BYTE_BONO][1024];
+    private int bonos;
+    private long totalFilas;
+
+    /**
+     * @param destino Archivo final del snapshot; los temporales se crean en su mismo directorio
+     * @param versionAritmetica Versión de la aritmética con la que se generaron los cronogramas
+     */
+    public EscritorSnapshotCatalogo(Path destino, int versionAritmetica) throws IOException {
+        this.destino = destino.toAbsolutePath();
+        this.versionAritmetica = versionAritmetica;
+        Files.createDirectories(this.destino.getParent());
+        try {
+            for (int c = 0; c < filas.length; c++) {
+                filas[c] = new ColumnaTemporal(Files.createTempFile(this.destino.getParent(), ".snapshot-", ".col"));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Agrega un bono con su cronograma.
+     *
+     * @return false si las condiciones no caben en las columnas (más de 4 decimales en el nominal o 6 en la
+     *         tasa, o valores fuera de rango); el bono se omite y se compilará al usarse
+     */
+    public boolean agregarBono(long id, long actualizado, GeneradorCronograma.Terminos terminos,
+                               CronogramaCompilado cronograma) throws IOException {
+        long nominal;
+        long tasa;
+        long nominalCronograma;
+        try {
+            nominal = escalado(terminos.valorNominal(), 4);
+            tasa = escalado(terminos.tasaCupon(), 6);
+            nominalCronograma = escalado(cronograma.getValorNominal(), 2);
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        if (bonos == columnasLong[0].length) {
+            crecer();
+        }
+        int filasCronograma = cronograma.getPeriodos() + 1;
+        long[] valoresLong = {id, actualizado, nominal, tasa,
+                terminos.fechaEmision() != null ? terminos.fechaEmision().toEpochDay() : FormatoSnapshot.SIN_FECHA,
+                nominalCronograma, Double.doubleToRawLongBits(cronograma.getTasaCuponPeriodica()), totalFilas};
+        int[] valoresInt = {terminos.plazoAnios(), cronograma.getFrecuenciaPagos(), terminos.graciaTotal(),
+                terminos.graciaParcial(), filasCronograma};
+        byte[] valoresByte = {(byte) (terminos.aleman() ? 1 : 0), (byte) cronograma.getForma().ordinal(),
+                (byte) (cronograma.tieneFechas() ? 1 : 0)};
+        for (int c = 0; c < valoresLong.length; c++) {
+            columnasLong[c][bonos] = valoresLong[c];
+        }
+        for (int c = 0; c < valoresInt.length; c++) {
+            columnasInt[c][bonos] = valoresInt[c];
+        }
+        for (int c = 0; c < valoresByte.length; c++) {
+            columnasByte[c][bonos] = valoresByte[c];
+        }
+
+        for (int periodo = 0; periodo < filasCronograma; periodo++) {
+            filas[0].escribir(cronograma.tieneFechas() ? cronograma.fechaEpochDay(periodo) : 0L);
+            filas[1].escribir(cronograma.interesCentimos(periodo));
+            filas[2].escribir(cronograma.amortizacionCentimos(periodo));
+            filas[3].escribir(cronograma.saldoCentimos(periodo));
+        }
+        totalFilas += filasCronograma;
+        bonos++;
+        return true;
+    }
+
+    /**
+     * Agrega una curva de catálogo con la versión de su moneda al momento de construirla.
+     */
+    public void agregarCurva(CurvaDescuento curva, long actualizado, long cantidad) {
+        curvas.add(new SnapshotCatalogo.CurvaGuardada(curva, actualizado, cantidad));
+    }
+
+    public int getBonos() {
+        return bonos;
+    }
+
+    public long getFilas() {
+        return totalFilas;
+    }
+
+    /**
+     * Ensambla el archivo y reemplaza el destino.
+     *
+     * @return tamaño del snapshot en bytes
+     */
+    public long confirmar() throws IOException {
+        Path temporal = Files.createTempFile(destino.getParent(), ".snapshot-", ".tmp");
+        try {
+            long tamano;
+            CRC32C crc = new CRC32C();
+            try (FileChannel salida = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+                salida.position(FormatoSnapshot.TAMANO_CABECERA);
+                long offsetBonos = FormatoSnapshot.TAMANO_CABECERA;
+                escribirSeccionBonos(salida, crc);
+                long offsetFilas = offsetBonos + FormatoSnapshot.tamanoSeccionBonos(bonos);
+                for (ColumnaTemporal columna : filas) {
+                    columna.copiarA(salida, crc);
+                }
+                long offsetCurvas = offsetFilas + totalFilas * Long.BYTES * FormatoSnapshot.COLUMNAS_FILA;
+                escribirCurvas(salida, crc);
+                tamano = salida.position();
+
+                ByteBuffer cabecera = ByteBuffer.allocate(FormatoSnapshot.TAMANO_CABECERA).order(FormatoSnapshot.ORDEN);
+                cabecera.putInt(0, FormatoSnapshot.MAGIA)
+                        .putInt(4, FormatoSnapshot.VERSION)
+                        .putInt(FormatoSnapshot.POS_VERSION_ARITMETICA, versionAritmetica)
+                        .putInt(FormatoSnapshot.POS_BONOS, bonos)
+                        .putLong(FormatoSnapshot.POS_FILAS, totalFilas)
+                        .putLong(FormatoSnapshot.POS_GENERADO, System.currentTimeMillis())
+                        .putInt(FormatoSnapshot.POS_CURVAS, curvas.size())
+                        .putLong(FormatoSnapshot.POS_OFFSET_BONOS, offsetBonos)
+                        .putLong(FormatoSnapshot.POS_OFFSET_FILAS, offsetFilas)
+                        .putLong(FormatoSnapshot.POS_OFFSET_CURVAS, offsetCurvas)
+                        .putLong(FormatoSnapshot.POS_TAMANO, tamano)
+                        .putLong(FormatoSnapshot.POS_CRC, crc.getValue());
+                salida.write(cabecera, 0);
+                salida.force(true);
+            }
+            try {
+                Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return tamano;
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException error = null;
+        for (ColumnaTemporal columna : filas) {
+            if (columna == null) {
+                continue;
+            }
+            try {
+                columna.eliminar();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void escribirSeccionBonos(FileChannel salida, CRC32C crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER).order(FormatoSnapshot.ORDEN);
+        for (long[] columna : columnasLong) {
+            for (int i = 0; i < bonos; i++) {
+                buffer = asegurar(salida, crc, buffer, Long.BYTES);
+                buffer.putLong(columna[i]);
+            }
+        }
+        for (int[] columna : columnasInt) {
+            for (int i = 0; i < bonos; i++) {
+                buffer = asegurar(salida, crc, buffer, Integer.BYTES);
+                buffer.putInt(columna[i]);
+            }
+        }
+        for (byte[] columna : columnasByte) {
+            for (int i = 0; i < bonos; i++) {
+                buffer = asegurar(salida, crc, buffer, 1);
+                buffer.put(columna[i]);
+            }
+        }
+        long relleno = FormatoSnapshot.tamanoSeccionBonos(bonos) - (long) bonos
+                * (FormatoSnapshot.COLUMNAS_LONG_BONO * Long.BYTES + FormatoSnapshot.COLUMNAS_INT_BONO * Integer.BYTES
+                + FormatoSnapshot.COLUMNAS_BYTE_BONO);
+        for (long i = 0; i < relleno; i++) {
+            buffer = asegurar(salida, crc, buffer, 1);
+            buffer.put((byte) 0);
+        }
+        vaciar(salida, crc, buffer);
+    }
+
+    private void escribirCurvas(FileChannel salida, CRC32C crc) throws IOException {
+        for (SnapshotCatalogo.CurvaGuardada guardada : curvas) {
+            byte[] moneda = guardada.curva().getMoneda().getBytes(StandardCharsets.UTF_8);
+            double[] plazos = guardada.curva().getPlazos();
+            double[] tasas = guardada.curva().getTasasCero();
+            ByteBuffer buffer = ByteBuffer.allocate(Short.BYTES + moneda.length + 2 * Long.BYTES + Integer.BYTES
+                    + 2 * plazos.length * Double.BYTES).order(FormatoSnapshot.ORDEN);
+            buffer.putShort((short) moneda.length).put(moneda)
+                    .putLong(guardada.actualizado()).putLong(guardada.cantidad()).putInt(plazos.length);
+            for (double plazo : plazos) {
+                buffer.putDouble(plazo);
+            }
+            for (double tasa : tasas) {
+                buffer.putDouble(tasa);
+            }
+            vaciar(salida, crc, buffer);
+        }
+    }
+
+    private void crecer() {
+        int capacidad = columnasLong[0].length * 2;
+        for (int c = 0; c < columnasLong.length; c++) {
+            columnasLong[c] = Arrays.copyOf(columnasLong[c], capacidad);
+        }
+        for (int c = 0; c < columnasInt.length; c++) {
+            columnasInt[c] = Arrays.copyOf(columnasInt[c], capacidad);
+        }
+        for (int c = 0; c < columnasByte.length; c++) {
+            columnasByte[c] = Arrays.copyOf(columnasByte[c], capacidad);
+        }
+    }
+
+    private static long escalado(BigDecimal valor, int escala) {
+        return valor.setScale(escala).unscaledValue().longValueExact();
+    }
+
+    private static ByteBuffer asegurar(FileChannel salida, CRC32C crc, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            vaciar(salida, crc, buffer);
+        }
+        return buffer;
+    }
+
+    // Escribe el contenido del buffer, lo suma al CRC y lo deja listo para reutilizar
+    private static void vaciar(FileChannel salida, CRC32C crc, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            salida.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Columna de longs volcada a un archivo temporal a medida que se agregan filas.
+     */
+    private static final class ColumnaTemporal {
+        private final Path archivo;
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER).order(FormatoSnapshot.ORDEN);
+
+        private ColumnaTemporal(Path archivo) throws IOException {
+            this.archivo = archivo;
+            this.canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        private void escribir(long valor) throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    canal.write(buffer);
+                }
+                buffer.clear();
+            }
+            buffer.putLong(valor);
+        }
+
+        private void copiarA(FileChannel salida, CRC32C crc) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+            canal.position(0);
+            while (canal.read(buffer) > 0) {
+                vaciar(salida, crc, buffer);
+            }
+            vaciar(salida, crc, buffer);
+        }
+
+        private void eliminar() throws IOException {
+            try {
+                canal.close();
+            } finally {
+                Files.deleteIfExists(archivo);
+            }
+        }
+    }
+}
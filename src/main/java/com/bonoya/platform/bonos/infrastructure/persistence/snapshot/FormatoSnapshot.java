@@ -0,0 +1,63 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.snapshot;
+
+import java.nio.ByteOrder;
+
+/**
+ * Disposición binaria del snapshot del catálogo (little-endian, secciones alineadas a 8 bytes).
+ *
+ * <pre>
+ * Cabecera (96 bytes)
+ *   0  int   magia 'BNYS'          4  int   versión del formato     8  int  versión de la aritmética
+ *   12 int   bonos (N)             16 long  filas (F)               24 long generado (epoch millis)
+ *   32 int   curvas (C)            36 int   reservado
+ *   40 long  offset bonos          48 long  offset filas            56 long offset curvas
+ *   64 long  tamaño total          72 long  CRC32C de [96, tamaño total)
+ * Bonos: columnas de N valores
+ *   long id, actualizado, valor nominal (escala 4), tasa cupón (escala 6), emisión (epoch day o MIN_VALUE),
+ *        nominal del cronograma (céntimos), tasa periódica (bits de double), primera fila
+ *   int  plazo, frecuencia, gracia total, gracia parcial, filas del cronograma
+ *   byte alemán, forma, con fechas (relleno hasta múltiplo de 8)
+ * Filas: columnas de F valores long: fecha (epoch day), interés, amortización y saldo en céntimos
+ * Curvas: por curva, moneda (short + UTF-8), long actualizado, long cantidad, int nodos,
+ *         double plazos[nodos], double tasas[nodos]
+ * </pre>
+ *
+ * Cualquier cambio en esta disposición debe incrementar {@link #VERSION}.
+ */
+final class FormatoSnapshot {
+
+    static final int MAGIA = 0x424E5953;
+    static final int VERSION = 1;
+    static final ByteOrder ORDEN = ByteOrder.LITTLE_ENDIAN;
+
+    static final int TAMANO_CABECERA = 96;
+    static final int POS_VERSION_ARITMETICA = 8;
+    static final int POS_BONOS = 12;
+    static final int POS_FILAS = 16;
+    static final int POS_GENERADO = 24;
+    static final int POS_CURVAS = 32;
+    static final int POS_OFFSET_BONOS = 40;
+    static final int POS_OFFSET_FILAS = 48;
+    static final int POS_OFFSET_CURVAS = 56;
+    static final int POS_TAMANO = 64;
+    static final int POS_CRC = 72;
+
+    static final int COLUMNAS_LONG_BONO = 8;
+    static final int COLUMNAS_INT_BONO = 5;
+    static final int COLUMNAS_BYTE_BONO = 3;
+    static final int COLUMNAS_FILA = 4;
+
+    static final long SIN_FECHA = Long.MIN_VALUE;
+
+    private FormatoSnapshot() {
+    }
+
+    static long tamanoSeccionBonos(int bonos) {
+        return alinear((long) bonos * (COLUMNAS_LONG_BONO * Long.BYTES + COLUMNAS_INT_BONO * Integer.BYTES
+                + COLUMNAS_BYTE_BONO));
+    }
+
+    static long alinear(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
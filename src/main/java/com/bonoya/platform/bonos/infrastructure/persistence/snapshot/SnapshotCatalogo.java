@@ -0,0 +1,216 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.snapshot;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshot del catálogo mapeado en memoria con {@link FileChannel#map}.
+ *
+ * Cada columna de filas se mapea por separado (hasta 268 millones de filas por columna, el límite de un
+ * mapeo) y los cronogramas se entregan como vistas de solo lectura sobre esas páginas: restaurar un bono no
+ * copia ni decodifica sus flujos en el heap. La carga no es perezosa: {@link #mapear} recorre el archivo
+ * completo una vez para verificar el CRC, así que el arranque lee todas las páginas del disco (luego quedan en
+ * la caché de páginas del sistema operativo mientras haya memoria). El mapeo sigue vigente aunque el archivo
+ * se reemplace, porque el escritor publica uno nuevo con un movimiento atómico.
+ */
+public final class SnapshotCatalogo {
+
+    private static final long TAMANO_BLOQUE_CRC = 1L << 30;
+
+    /**
+     * Curva de catálogo guardada con la versión de su moneda al momento de construirla.
+     */
+    public record CurvaGuardada(CurvaDescuento curva, long actualizado, long cantidad) {
+    }
+
+    private final int versionAritmetica;
+    private final long generado;
+    private final int bonos;
+    private final LongBuffer[] columnasLong = new LongBuffer[FormatoSnapshot.COLUMNAS_LONG_BONO];
+    private final IntBuffer[] columnasInt = new IntBuffer[FormatoSnapshot.COLUMNAS_INT_BONO];
+    private final ByteBuffer[] columnasByte = new ByteBuffer[FormatoSnapshot.COLUMNAS_BYTE_BONO];
+    private final LongBuffer[] filas = new LongBuffer[FormatoSnapshot.COLUMNAS_FILA];
+    private final List<CurvaGuardada> curvas;
+
+    private SnapshotCatalogo(int versionAritmetica, long generado, int bonos, List<CurvaGuardada> curvas) {
+        this.versionAritmetica = versionAritmetica;
+        this.generado = generado;
+        this.bonos = bonos;
+        this.curvas = curvas;
+    }
+
+    /**
+     * Mapea un snapshot y verifica su cabecera y su CRC.
+     *
+     * @throws IOException si el archivo no se puede leer
+     * @throws IllegalStateException si el archivo no es un snapshot válido de esta versión del formato
+     */
+    public static SnapshotCatalogo mapear(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanoArchivo = canal.size();
+            if (tamanoArchivo < FormatoSnapshot.TAMANO_CABECERA) {
+                throw new IllegalStateException("El snapshot está truncado");
+            }
+            ByteBuffer cabecera = canal.map(FileChannel.MapMode.READ_ONLY, 0, FormatoSnapshot.TAMANO_CABECERA)
+                    .order(FormatoSnapshot.ORDEN);
+            if (cabecera.getInt(0) != FormatoSnapshot.MAGIA) {
+                throw new IllegalStateException("El archivo no es un snapshot del catálogo");
+            }
+            if (cabecera.getInt(4) != FormatoSnapshot.VERSION) {
+                throw new IllegalStateException("Versión de formato no soportada: " + cabecera.getInt(4));
+            }
+            long tamano = cabecera.getLong(FormatoSnapshot.POS_TAMANO);
+            if (tamano != tamanoArchivo) {
+                throw new IllegalStateException("El snapshot está truncado");
+            }
+            if (calcularCrc(canal, tamano) != cabecera.getLong(FormatoSnapshot.POS_CRC)) {
+                throw new IllegalStateException("El CRC del snapshot no coincide");
+            }
+
+            int bonos = cabecera.getInt(FormatoSnapshot.POS_BONOS);
+            long totalFilas = cabecera.getLong(FormatoSnapshot.POS_FILAS);
+            long offsetBonos = cabecera.getLong(FormatoSnapshot.POS_OFFSET_BONOS);
+            long offsetFilas = cabecera.getLong(FormatoSnapshot.POS_OFFSET_FILAS);
+            long offsetCurvas = cabecera.getLong(FormatoSnapshot.POS_OFFSET_CURVAS);
+            if (bonos < 0 || totalFilas < 0 || totalFilas > Integer.MAX_VALUE / Long.BYTES
+                    || offsetFilas != offsetBonos + FormatoSnapshot.tamanoSeccionBonos(bonos)
+                    || offsetCurvas != offsetFilas + totalFilas * Long.BYTES * FormatoSnapshot.COLUMNAS_FILA
+                    || offsetCurvas > tamano) {
+                throw new IllegalStateException("Las secciones del snapshot no son consistentes");
+            }
+
+            ByteBuffer seccionCurvas = canal.map(FileChannel.MapMode.READ_ONLY, offsetCurvas, tamano - offsetCurvas)
+                    .order(FormatoSnapshot.ORDEN);
+            SnapshotCatalogo snapshot = new SnapshotCatalogo(cabecera.getInt(FormatoSnapshot.POS_VERSION_ARITMETICA),
+                    cabecera.getLong(FormatoSnapshot.POS_GENERADO), bonos,
+                    leerCurvas(seccionCurvas, cabecera.getInt(FormatoSnapshot.POS_CURVAS)));
+
+            MappedByteBuffer seccionBonos = canal.map(FileChannel.MapMode.READ_ONLY, offsetBonos,
+                    FormatoSnapshot.tamanoSeccionBonos(bonos));
+            int posicion = 0;
+            for (int c = 0; c < snapshot.columnasLong.length; c++) {
+                snapshot.columnasLong[c] = seccionBonos.slice(posicion, bonos * Long.BYTES)
+                        .order(FormatoSnapshot.ORDEN).asLongBuffer();
+                posicion += bonos * Long.BYTES;
+            }
+            for (int c = 0; c < snapshot.columnasInt.length; c++) {
+                snapshot.columnasInt[c] = seccionBonos.slice(posicion, bonos * Integer.BYTES)
+                        .order(FormatoSnapshot.ORDEN).asIntBuffer();
+                posicion += bonos * Integer.BYTES;
+            }
+            for (int c = 0; c < snapshot.columnasByte.length; c++) {
+                snapshot.columnasByte[c] = seccionBonos.slice(posicion, bonos);
+                posicion += bonos;
+            }
+
+            long bytesColumna = totalFilas * Long.BYTES;
+            for (int c = 0; c < snapshot.filas.length; c++) {
+                snapshot.filas[c] = canal.map(FileChannel.MapMode.READ_ONLY, offsetFilas + c * bytesColumna,
+                        bytesColumna).order(FormatoSnapshot.ORDEN).asLongBuffer();
+            }
+            return snapshot;
+        }
+    }
+
+    public int getVersionAritmetica() {
+        return versionAritmetica;
+    }
+
+    /**
+     * Momento en que se escribió el snapshot (epoch millis).
+     */
+    public long getGenerado() {
+        return generado;
+    }
+
+    public int getBonos() {
+        return bonos;
+    }
+
+    public long id(int bono) {
+        return columnasLong[0].get(bono);
+    }
+
+    /**
+     * Última modificación del bono (epoch millis) al momento de escribir el snapshot.
+     */
+    public long actualizado(int bono) {
+        return columnasLong[1].get(bono);
+    }
+
+    public GeneradorCronograma.Terminos terminos(int bono) {
+        long emision = columnasLong[4].get(bono);
+        return GeneradorCronograma.Terminos.de(BigDecimal.valueOf(columnasLong[2].get(bono), 4),
+                BigDecimal.valueOf(columnasLong[3].get(bono), 6), columnasInt[0].get(bono), columnasInt[1].get(bono),
+                emision != FormatoSnapshot.SIN_FECHA ? LocalDate.ofEpochDay(emision) : null,
+                columnasInt[2].get(bono), columnasInt[3].get(bono), columnasByte[0].get(bono) != 0);
+    }
+
+    /**
+     * Cronograma del bono como vista de solo lectura sobre las columnas mapeadas.
+     */
+    public CronogramaCompilado cronograma(int bono) {
+        long primera = columnasLong[7].get(bono);
+        int cantidad = columnasInt[4].get(bono);
+        int forma = columnasByte[1].get(bono);
+        if (primera < 0 || cantidad <= 0 || primera + cantidad > filas[1].limit()
+                || forma < 0 || forma >= CronogramaCompilado.Forma.values().length) {
+            throw new IllegalStateException("El bono " + id(bono) + " del snapshot no es consistente");
+        }
+        int desde = (int) primera;
+        return CronogramaCompilado.deColumnas(CronogramaCompilado.Forma.values()[forma],
+                Double.longBitsToDouble(columnasLong[6].get(bono)), BigDecimal.valueOf(columnasLong[5].get(bono), 2),
+                columnasInt[1].get(bono), columnasByte[2].get(bono) != 0 ? filas[0].slice(desde, cantidad) : null,
+                filas[1].slice(desde, cantidad), filas[2].slice(desde, cantidad), filas[3].slice(desde, cantidad));
+    }
+
+    public List<CurvaGuardada> getCurvas() {
+        return curvas;
+    }
+
+    private static long calcularCrc(FileChannel canal, long tamano) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long posicion = FormatoSnapshot.TAMANO_CABECERA; posicion < tamano; posicion += TAMANO_BLOQUE_CRC) {
+            crc.update(canal.map(FileChannel.MapMode.READ_ONLY, posicion,
+                    Math.min(TAMANO_BLOQUE_CRC, tamano - posicion)));
+        }
+        return crc.getValue();
+    }
+
+    private static List<CurvaGuardada> leerCurvas(ByteBuffer seccion, int cantidad) {
+        List<CurvaGuardada> curvas = new ArrayList<>(cantidad);
+        for (int c = 0; c < cantidad; c++) {
+            byte[] moneda = new byte[seccion.getShort()];
+            seccion.get(moneda);
+            long actualizado = seccion.getLong();
+            long bonos = seccion.getLong();
+            int nodos = seccion.getInt();
+            double[] plazos = new double[nodos];
+            double[] tasas = new double[nodos];
+            seccion.asDoubleBuffer().get(plazos);
+            seccion.position(seccion.position() + nodos * Double.BYTES);
+            seccion.asDoubleBuffer().get(tasas);
+            seccion.position(seccion.position() + nodos * Double.BYTES);
+            curvas.add(new CurvaGuardada(new CurvaDescuento(new String(moneda, StandardCharsets.UTF_8),
+                    CurvaDescuento.Interpolacion.LINEAL, plazos, tasas), actualizado, bonos));
+        }
+        return Collections.unmodifiableList(curvas);
+    }
+}
@@ -0,0 +1,105 @@
+package com.bonoya.platform.bonos.interfaces.rest.controllers;
+
+import com.bonoya.platform.bonos.application.services.BonoService;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CotizacionCurva;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.domain.services.CalculoFinancieroService;
+import com.bonoya.platform.bonos.domain.services.CurvaDescuentoService;
+import com.bonoya.platform.bonos.interfaces.rest.resources.ConstruirCurvaRequest;
+import com.bonoya.platform.bonos.interfaces.rest.resources.CurvaDescuentoResource;
+import com.bonoya.platform.bonos.interfaces.rest.resources.ValoracionCurvaResource;
+import com.bonoya.platform.bonos.interfaces.rest.transform.CurvaDescuentoResourceFromValueAssembler;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping(value = "/api/v1/inversor", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Curvas de descuento", description = "Curvas cero por moneda y valoración de bonos con curva")
+public class CurvaDescuentoController {
+
+    private final CurvaDescuentoService curvaDescuentoService;
+    private final CalculoFinancieroService calculoFinancieroService;
+    private final BonoService bonoService;
+
+    public CurvaDescuentoController(CurvaDescuentoService curvaDescuentoService,
+                                    CalculoFinancieroService calculoFinancieroService,
+                                    BonoService bonoService) {
+        this.curvaDescuentoService = curvaDescuentoService;
+        this.calculoFinancieroService = calculoFinancieroService;
+        this.bonoService = bonoService;
+    }
+
+    @GetMapping("/curvas/{moneda}")
+    @Operation(summary = "Obtener la curva cero de una moneda construida desde el catálogo")
+    public ResponseEntity<CurvaDescuentoResource> obtenerCurva(
+            @PathVariable String moneda,
+            @RequestParam(defaultValue = "LINEAL") String interpolacion) {
+        CurvaDescuento curva = curvaDescuentoService.obtenerCurva(moneda, parsearInterpolacion(interpolacion));
+        return ResponseEntity.ok(CurvaDescuentoResourceFromValueAssembler.toResourceFromValue(curva));
+    }
+
+    @PostMapping("/curvas/{moneda}")
+    @Operation(summary = "Construir la curva cero de una moneda a partir de cotizaciones")
+    public ResponseEntity<CurvaDescuentoResource> construirCurva(
+            @PathVariable String moneda,
+            @RequestBody ConstruirCurvaRequest request) {
+        if (request.getCotizaciones() == null) {
+            throw new ValidationException("Se requiere al menos una cotización para construir la curva");
+        }
+        List<CotizacionCurva> cotizaciones = request.getCotizaciones().stream()
+                .map(CurvaDescuentoResourceFromValueAssembler::toValueFromResource)
+                .collect(Collectors.toList());
+        CurvaDescuento curva = curvaDescuentoService.construirCurva(moneda, cotizaciones,
+                parsearInterpolacion(request.getInterpolacion()));
+        return ResponseEntity.ok(CurvaDescuentoResourceFromValueAssembler.toResourceFromValue(curva));
+    }
+
+    @GetMapping("/bonos/{id}/valoracion-curva")
+    @Operation(summary = "Valorar un bono descontando sus flujos con la curva cero de su moneda")
+    public ResponseEntity<ValoracionCurvaResource> valorarConCurva(
+            @PathVariable Long id,
+            @RequestParam(required = false) BigDecimal precioCompra,
+            @RequestParam(defaultValue = "LINEAL") String interpolacion) {
+        return bonoService.obtenerBonoPorId(id)
+                .map(bono -> {
+                    CurvaDescuento curva = curvaDescuentoService.obtenerCurva(bono.getMoneda(),
+                            parsearInterpolacion(interpolacion));
+                    List<FlujoFinanciero> flujos = calculoFinancieroService.calcularFlujoFinanciero(bono);
+                    BigDecimal inversion = precioCompra != null ? precioCompra : bono.getValorNominal();
+
+                    ValoracionCurvaResource resource = new ValoracionCurvaResource();
+                    resource.setBonoId(bono.getId());
+                    resource.setMoneda(curva.getMoneda());
+                    resource.setInterpolacion(curva.getInterpolacion().name());
+                    resource.setPrecioMaximo(calculoFinancieroService.calcularPrecioMaximo(flujos, curva));
+                    resource.setPrecioJusto(calculoFinancieroService.calcularPrecioJusto(flujos, curva));
+                    resource.setPrecioCompra(inversion);
+                    resource.setVan(calculoFinancieroService.calcularVAN(flujos, inversion, curva)
+                            .setScale(2, RoundingMode.HALF_UP));
+                    return ResponseEntity.ok(resource);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static CurvaDescuento.Interpolacion parsearInterpolacion(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return CurvaDescuento.Interpolacion.LINEAL;
+        }
+        try {
+            return CurvaDescuento.Interpolacion.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Interpolación no soportada: " + valor + " (use LINEAL o CUBICA_MONOTONA)");
+        }
+    }
+}
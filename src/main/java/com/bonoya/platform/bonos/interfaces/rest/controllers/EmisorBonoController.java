@@ -8,6 +8,8 @@ import com.bonoya.platform.bonos.interfaces.rest.resources.BonoResource;
 import com.bonoya.platform.bonos.interfaces.rest.resources.CreateBonoResource;
 import com.bonoya.platform.bonos.interfaces.rest.transform.BonoResourceFromEntityAssembler;
 import com.bonoya.platform.iam.infrastructure.persistence.jpa.repositories.UserRepository;
+import com.bonoya.platform.bonos.domain.model.valueobjects.VersionBono;
+import com.bonoya.platform.shared.interfaces.rest.cache.PeticionCondicional;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -16,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -110,10 +113,21 @@ public class EmisorBonoController {
     }
 
     @GetMapping("/{id}/flujo")
-    public ResponseEntity<List<java.util.Map<String, Object>>> obtenerFlujoFinanciero(@PathVariable Long id) {
+    public ResponseEntity<List<java.util.Map<String, Object>>> obtenerFlujoFinanciero(@PathVariable Long id,
+                                                                                      WebRequest request) {
         String username = obtenerUsernameAutenticado();
         System.out.println("📊 Obteniendo flujo para bono ID: " + id);
 
+        return bonoService.obtenerVersionBono(id)
+                .filter(version -> username.equals(version.emisorUsername()))
+                .map(version -> PeticionCondicional.<List<Map<String, Object>>>noModificado(request, version.etag(),
+                                version.ultimaModificacionMillis(), PeticionCondicional.PRIVADO)
+                        .orElseGet(() -> generarFlujoFinanciero(id, username, version)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<List<Map<String, Object>>> generarFlujoFinanciero(Long id, String username,
+                                                                             VersionBono version) {
         return bonoService.obtenerBonoPorId(id)
                 .filter(bono -> bono.getEmisorUsername().equals(username))
                 .map(bono -> {
@@ -149,7 +163,9 @@ public class EmisorBonoController {
                         })
                         .collect(java.util.stream.Collectors.toList());
                     
-                    return ResponseEntity.ok(flujosLimpios);
+                    return PeticionCondicional.ok(version.etag(), version.ultimaModificacionMillis(),
+                                    PeticionCondicional.PRIVADO)
+                            .body(flujosLimpios);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -0,0 +1,69 @@
+package com.bonoya.platform.bonos.interfaces.rest.controllers;
+
+import com.bonoya.platform.bonos.application.services.ImportacionBonoService;
+import com.bonoya.platform.bonos.domain.model.entities.ImportacionBono;
+import com.bonoya.platform.bonos.interfaces.rest.importacion.LectorFilasBono;
+import com.bonoya.platform.bonos.interfaces.rest.resources.ImportacionBonoResource;
+import com.bonoya.platform.bonos.interfaces.rest.transform.ImportacionBonoResourceFromEntityAssembler;
+import com.bonoya.platform.shared.application.exceptions.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.net.URI;
+
+@RestController
+@RequestMapping(value = "/api/v1/emisor/bonos/importaciones", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Importación de bonos", description = "Carga masiva de bonos desde CSV o NDJSON")
+public class ImportacionBonoController {
+
+    private final ImportacionBonoService importacionBonoService;
+    private final ObjectMapper objectMapper;
+
+    public ImportacionBonoController(ImportacionBonoService importacionBonoService, ObjectMapper objectMapper) {
+        this.importacionBonoService = importacionBonoService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    @Operation(summary = "Importar bonos desde el cuerpo de la petición (text/csv o application/x-ndjson)")
+    public ResponseEntity<ImportacionBonoResource> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @Parameter(description = "Id de una importación interrumpida para continuarla con el mismo archivo")
+            @RequestParam(required = false) Long reanudar,
+            InputStream cuerpo) {
+        String formato = LectorFilasBono.formatoDe(contentType);
+        ImportacionBono importacion = importacionBonoService.importar(obtenerUsernameAutenticado(), formato, reanudar,
+                LectorFilasBono.de(formato, cuerpo, objectMapper));
+
+        return ResponseEntity.status(reanudar == null ? HttpStatus.CREATED : HttpStatus.OK)
+                .location(URI.create(ubicacion(importacion)))
+                .body(ImportacionBonoResourceFromEntityAssembler.toResourceFromEntity(importacion));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar el progreso y los errores de una importación")
+    public ResponseEntity<ImportacionBonoResource> obtenerImportacion(@PathVariable Long id) {
+        ImportacionBono importacion = importacionBonoService.obtenerImportacion(id, obtenerUsernameAutenticado())
+                .orElseThrow(() -> new ResourceNotFoundException("Importación no encontrada: " + id));
+        return ResponseEntity.ok(ImportacionBonoResourceFromEntityAssembler.toResourceFromEntity(importacion));
+    }
+
+    private static String ubicacion(ImportacionBono importacion) {
+        return "/api/v1/emisor/bonos/importaciones/" + importacion.getId();
+    }
+
+    private String obtenerUsernameAutenticado() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getName();
+    }
+}
@@ -1,5 +1,7 @@
 package com.bonoya.platform.bonos.interfaces.rest.controllers;
 
+import com.bonoya.platform.bonos.application.internal.admision.ControlAdmision;
+import com.bonoya.platform.bonos.application.internal.cache.CoalescedorCalculos;
 import com.bonoya.platform.bonos.application.services.BonoService;
 import com.bonoya.platform.bonos.application.services.CalculoService;
 import com.bonoya.platform.bonos.domain.model.entities.Bono;
@@ -7,22 +9,34 @@ import com.bonoya.platform.bonos.domain.model.entities.Calculo;
 import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
 import com.bonoya.platform.bonos.domain.services.CalculoFinancieroService;
 import com.bonoya.platform.bonos.domain.services.FlujoInversionistaService;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
 import com.bonoya.platform.bonos.domain.model.valueobjects.FlujoInversionista;
+import com.bonoya.platform.bonos.domain.model.valueobjects.VersionCatalogo;
+import com.bonoya.platform.bonos.interfaces.rest.exportacion.EscritorCalculos;
 import com.bonoya.platform.bonos.interfaces.rest.resources.*;
 import com.bonoya.platform.bonos.interfaces.rest.transform.BonoResourceFromEntityAssembler;
 import com.bonoya.platform.bonos.interfaces.rest.transform.CalculoResourceFromEntityAssembler;
+import com.bonoya.platform.bonos.interfaces.rest.transform.DuracionConvexidadResourceAssembler;
 import com.bonoya.platform.bonos.interfaces.rest.transform.FlujoFinancieroResourceFromEntityAssembler;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import com.bonoya.platform.shared.interfaces.rest.cache.PeticionCondicional;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -36,64 +50,98 @@ public class InversorBonoController {
     private final CalculoService calculoService;
     private final CalculoFinancieroService calculoFinancieroService;
     private final FlujoInversionistaService flujoInversionistaService;
+    private final DuracionConvexidadResourceAssembler duracionConvexidadAssembler;
+    private final CoalescedorCalculos coalescedorCalculos;
+    private final ControlAdmision controlAdmision;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public InversorBonoController(BonoService bonoService, CalculoService calculoService,
                                   CalculoFinancieroService calculoFinancieroService,
-                                  FlujoInversionistaService flujoInversionistaService) {
+                                  FlujoInversionistaService flujoInversionistaService,
+                                  DuracionConvexidadResourceAssembler duracionConvexidadAssembler,
+                                  CoalescedorCalculos coalescedorCalculos,
+                                  ControlAdmision controlAdmision,
+                                  ObjectMapper objectMapper) {
         this.bonoService = bonoService;
         this.calculoService = calculoService;
         this.calculoFinancieroService = calculoFinancieroService;
         this.flujoInversionistaService = flujoInversionistaService;
+        this.duracionConvexidadAssembler = duracionConvexidadAssembler;
+        this.coalescedorCalculos = coalescedorCalculos;
+        this.controlAdmision = controlAdmision;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/bonos/catalogo")
     @Operation(summary = "Obtener catálogo completo de bonos disponibles")
-    public ResponseEntity<List<BonoResource>> obtenerCatalogoBonos() {
-        List<Bono> bonos = bonoService.obtenerTodosLosBonos();
-        List<BonoResource> resources = bonos.stream()
-                .map(BonoResourceFromEntityAssembler::toResourceFromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(resources);
+    public ResponseEntity<List<BonoResource>> obtenerCatalogoBonos(WebRequest request) {
+        VersionCatalogo version = bonoService.obtenerVersionCatalogo();
+        return PeticionCondicional.<List<BonoResource>>noModificado(request, version.etag(),
+                        version.ultimaModificacionMillis(), PeticionCondicional.COMPARTIDO)
+                .orElseGet(() -> listado(version, bonoService.obtenerTodosLosBonos()));
     }
 
     @GetMapping("/bonos/catalogo/{id}")
     @Operation(summary = "Obtener detalles de un bono específico")
-    public ResponseEntity<BonoResource> obtenerBonoPorId(@PathVariable Long id) {
-        return bonoService.obtenerBonoPorId(id)
-                .map(BonoResourceFromEntityAssembler::toResourceFromEntity)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<BonoResource> obtenerBonoPorId(@PathVariable Long id, WebRequest request) {
+        return bonoService.obtenerVersionBono(id)
+                .map(version -> PeticionCondicional.<BonoResource>noModificado(request, version.etag(),
+                                version.ultimaModificacionMillis(), PeticionCondicional.COMPARTIDO)
+                        .orElseGet(() -> bonoService.obtenerBonoPorId(id)
+                                .map(bono -> PeticionCondicional.ok(version.etag(),
+                                                version.ultimaModificacionMillis(), PeticionCondicional.COMPARTIDO)
+                                        .body(BonoResourceFromEntityAssembler.toResourceFromEntity(bono)))
+                                .orElse(ResponseEntity.notFound().build())))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/bonos/catalogo/moneda/{moneda}")
     @Operation(summary = "Filtrar bonos por tipo de moneda")
     public ResponseEntity<List<BonoResource>> obtenerBonosPorMoneda(
-            @Parameter(description = "Código de moneda (ej: USD, PEN)") @PathVariable String moneda) {
-        List<Bono> bonos = bonoService.obtenerBonosPorMoneda(moneda);
-        List<BonoResource> resources = bonos.stream()
-                .map(BonoResourceFromEntityAssembler::toResourceFromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(resources);
+            @Parameter(description = "Código de moneda (ej: USD, PEN)") @PathVariable String moneda,
+            WebRequest request) {
+        VersionCatalogo version = bonoService.obtenerVersionCatalogoPorMoneda(moneda);
+        return PeticionCondicional.<List<BonoResource>>noModificado(request, version.etag(),
+                        version.ultimaModificacionMillis(), PeticionCondicional.COMPARTIDO)
+                .orElseGet(() -> listado(version, bonoService.obtenerBonosPorMoneda(moneda)));
     }
 
     @GetMapping("/bonos/catalogo/tasa")
     @Operation(summary = "Filtrar bonos por rango de tasa cupón")
     public ResponseEntity<List<BonoResource>> obtenerBonosPorRangoTasa(
             @Parameter(description = "Tasa mínima (ej: 5.0)") @RequestParam double tasaMinima,
-            @Parameter(description = "Tasa máxima (opcional)") @RequestParam(required = false) Double tasaMaxima) {
+            @Parameter(description = "Tasa máxima (opcional)") @RequestParam(required = false) Double tasaMaxima,
+            WebRequest request) {
         
         double maxTasa = tasaMaxima != null ? tasaMaxima : Double.MAX_VALUE;
-        List<Bono> bonos = bonoService.obtenerBonosPorRangoTasa(tasaMinima, maxTasa);
+        VersionCatalogo version = bonoService.obtenerVersionCatalogoPorRangoTasa(tasaMinima, maxTasa);
+        return PeticionCondicional.<List<BonoResource>>noModificado(request, version.etag(),
+                        version.ultimaModificacionMillis(), PeticionCondicional.COMPARTIDO)
+                .orElseGet(() -> listado(version, bonoService.obtenerBonosPorRangoTasa(tasaMinima, maxTasa)));
+    }
+
+    private static ResponseEntity<List<BonoResource>> listado(VersionCatalogo version, List<Bono> bonos) {
         List<BonoResource> resources = bonos.stream()
                 .map(BonoResourceFromEntityAssembler::toResourceFromEntity)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(resources);
+        return PeticionCondicional.ok(version.etag(), version.ultimaModificacionMillis(), PeticionCondicional.COMPARTIDO)
+                .body(resources);
     }
 
     @GetMapping("/bonos/{id}/flujo")
     @Operation(summary = "Obtener el flujo financiero de un bono")
-    public ResponseEntity<List<FlujoFinancieroResource>> obtenerFlujoFinanciero(@PathVariable Long id) {
+    public ResponseEntity<List<FlujoFinancieroResource>> obtenerFlujoFinanciero(@PathVariable Long id,
+                                                                                WebRequest request) {
+        return bonoService.obtenerVersionBono(id)
+                .map(version -> PeticionCondicional.<List<FlujoFinancieroResource>>noModificado(request,
+                                version.etag(), version.ultimaModificacionMillis(), PeticionCondicional.COMPARTIDO)
+                        .orElseGet(() -> generarFlujoFinanciero(id, version.etag(), version.ultimaModificacionMillis())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<List<FlujoFinancieroResource>> generarFlujoFinanciero(Long id, String etag,
+                                                                                 long ultimaModificacion) {
         return bonoService.obtenerBonoPorId(id)
                 .map(bono -> {
                     List<FlujoFinanciero> flujos = bonoService.obtenerFlujoFinancieroBono(id);
@@ -106,7 +154,22 @@ public class InversorBonoController {
                     List<FlujoFinancieroResource> resources = flujos.stream()
                             .map(FlujoFinancieroResourceFromEntityAssembler::toResourceFromEntity)
                             .collect(Collectors.toList());
-                    return ResponseEntity.ok(resources);
+                    return PeticionCondicional.ok(etag, ultimaModificacion, PeticionCondicional.COMPARTIDO)
+                            .body(resources);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/bonos/{id}/medidas-riesgo")
+    @Operation(summary = "Calcular duración efectiva, convexidad efectiva y duraciones por plazo clave")
+    public ResponseEntity<DuracionConvexidadResource> obtenerMedidasRiesgo(
+            @PathVariable Long id,
+            @RequestParam BigDecimal tasaMercado,
+            @RequestParam(defaultValue = "0.01") BigDecimal cambioPuntosPorcentuales) {
+        return bonoService.obtenerBonoPorId(id)
+                .map(bono -> {
+                    DuracionConvexidad metricas = calculoFinancieroService.calcularMedidasRiesgo(bono, tasaMercado);
+                    return ResponseEntity.ok(duracionConvexidadAssembler.toResource(metricas, cambioPuntosPorcentuales));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -117,6 +180,7 @@ public class InversorBonoController {
         String username = obtenerUsernameAutenticado();
         Bono bono = bonoService.obtenerBonoPorId(resource.getBonoId())
                 .orElseThrow(() -> new IllegalArgumentException("Bono no encontrado"));
+        controlAdmision.admitir(username, "INVERSION", bono);
         
         // Calcular inversión directamente con la tasa en porcentaje
         Calculo calculo = calculoFinancieroService.calcularInversion(bono, resource.getTasaEsperada());
@@ -128,22 +192,49 @@ public class InversorBonoController {
 
     @GetMapping("/calculos")
     @Operation(summary = "Obtener todos mis cálculos de inversión")
-    public ResponseEntity<List<CalculoResource>> obtenerMisCalculos() {
+    public ResponseEntity<List<CalculoResource>> obtenerMisCalculos(
+            @Parameter(description = "Incluir el resumen en texto (informacionAdicional)")
+            @RequestParam(defaultValue = "false") boolean resumen) {
         String username = obtenerUsernameAutenticado();
         List<Calculo> calculos = calculoService.obtenerCalculosPorInversor(username);
         List<CalculoResource> resources = calculos.stream()
-                .map(CalculoResourceFromEntityAssembler::toResourceFromEntity)
+                .map(calculo -> CalculoResourceFromEntityAssembler.toResourceFromEntity(calculo, resumen))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(resources);
     }
 
+    /**
+     * Exporta el historial completo escribiendo cada cálculo en la respuesta a medida que se lee de la base de
+     * datos, con memoria constante sin importar su tamaño.
+     */
+    @GetMapping(value = "/calculos/exportar", produces = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Exportar todo mi historial de cálculos en CSV o NDJSON")
+    public void exportarMisCalculos(
+            @Parameter(description = "Formato de la exportación: csv o ndjson")
+            @RequestParam(defaultValue = "csv") String formato,
+            HttpServletResponse response) throws IOException {
+        String formatoExportacion = EscritorCalculos.formatoDe(formato);
+        String username = obtenerUsernameAutenticado();
+
+        response.setContentType(EscritorCalculos.tipoContenido(formatoExportacion));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("calculos." + EscritorCalculos.extension(formatoExportacion))
+                .build().toString());
+        EscritorCalculos escritor = EscritorCalculos.de(formatoExportacion, response.getOutputStream(), objectMapper);
+        calculoService.exportarCalculosPorInversor(username, escritor);
+        escritor.terminar();
+    }
+
     @GetMapping("/calculos/{id}")
     @Operation(summary = "Obtener detalle de un cálculo específico")
-    public ResponseEntity<CalculoResource> obtenerCalculoPorId(@PathVariable Long id) {
+    public ResponseEntity<CalculoResource> obtenerCalculoPorId(
+            @PathVariable Long id,
+            @Parameter(description = "Incluir el resumen en texto (informacionAdicional)")
+            @RequestParam(defaultValue = "false") boolean resumen) {
         String username = obtenerUsernameAutenticado();
         return calculoService.obtenerCalculoPorId(id)
                 .filter(calculo -> calculo.getInversorUsername().equals(username))
-                .map(CalculoResourceFromEntityAssembler::toResourceFromEntity)
+                .map(calculo -> CalculoResourceFromEntityAssembler.toResourceFromEntity(calculo, resumen))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -171,7 +262,16 @@ public class InversorBonoController {
         Bono bono = bonoService.obtenerBonoPorId(request.getBonoId())
                 .orElseThrow(() -> new IllegalArgumentException("Bono no encontrado"));
         
-        Calculo resultado = calculoFinancieroService.calcularTREAEnriquecido(bono, request.getPrecioCompra(), username);
+        // Peticiones idénticas concurrentes comparten un único cálculo; cada inversor guarda su propia copia
+        CoalescedorCalculos.ClaveCalculo clave =
+                CoalescedorCalculos.ClaveCalculo.de("TREA_ENRIQUECIDO", bono, null, request.getPrecioCompra());
+        // Solo se cobra la admisión si la petición va a calcular
+        if (!coalescedorCalculos.disponible(clave)) {
+            controlAdmision.admitir(username, "TREA", bono);
+        }
+        Calculo resultado = coalescedorCalculos.obtenerOCalcular(clave,
+                username,
+                () -> calculoFinancieroService.calcularTREAEnriquecido(bono, request.getPrecioCompra(), username));
         Calculo calculoGuardado = calculoService.guardarCalculo(resultado);
         
         return ResponseEntity.ok(CalculoResourceFromEntityAssembler.toResourceFromEntity(calculoGuardado));
@@ -185,6 +285,7 @@ public class InversorBonoController {
         Bono bono = bonoService.obtenerBonoPorId(request.getBonoId())
                 .orElseThrow(() -> new IllegalArgumentException("Bono no encontrado"));
         
+        controlAdmision.admitir(username, "TCEA", bono);
         Calculo resultado = calculoFinancieroService.calcularTCEAEnriquecido(bono, username);
         Calculo calculoGuardado = calculoService.guardarCalculo(resultado);
         
@@ -199,6 +300,7 @@ public class InversorBonoController {
         Bono bono = bonoService.obtenerBonoPorId(request.getBonoId())
                 .orElseThrow(() -> new IllegalArgumentException("Bono no encontrado"));
         
+        controlAdmision.admitir(username, "DURACION", bono);
         Calculo resultado = calculoFinancieroService.calcularDuracionEnriquecida(bono, username);
         Calculo calculoGuardado = calculoService.guardarCalculo(resultado);
         
@@ -213,6 +315,7 @@ public class InversorBonoController {
         Bono bono = bonoService.obtenerBonoPorId(request.getBonoId())
                 .orElseThrow(() -> new IllegalArgumentException("Bono no encontrado"));
         
+        controlAdmision.admitir(username, "CONVEXIDAD", bono);
         Calculo resultado = calculoFinancieroService.calcularConvexidadEnriquecida(bono, username);
         Calculo calculoGuardado = calculoService.guardarCalculo(resultado);
         
@@ -227,6 +330,7 @@ public class InversorBonoController {
         Bono bono = bonoService.obtenerBonoPorId(request.getBonoId())
                 .orElseThrow(() -> new IllegalArgumentException("Bono no encontrado"));
         
+        controlAdmision.admitir(username, "PRECIO_MAXIMO", bono);
         Calculo resultado = calculoFinancieroService.calcularPrecioMaximoEnriquecido(bono, request.getTasaEsperada(), username);
         Calculo calculoGuardado = calculoService.guardarCalculo(resultado);
         
@@ -241,14 +345,21 @@ public class InversorBonoController {
         Bono bono = bonoService.obtenerBonoPorId(request.getBonoId())
                 .orElseThrow(() -> new IllegalArgumentException("Bono no encontrado"));
         
-        // Usar el nuevo método que incluye precio de compra para cálculo correcto del VAN
-        Calculo resultado;
-        if (request.getPrecioCompra() != null) {
-            resultado = calculoFinancieroService.calcularAnalisisCompleto(bono, request.getTasaEsperada(), request.getPrecioCompra(), username);
-        } else {
-            // Fallback al método anterior si no se proporciona precio de compra
-            resultado = calculoFinancieroService.calcularAnalisisCompleto(bono, request.getTasaEsperada(), username);
+        CoalescedorCalculos.ClaveCalculo clave = CoalescedorCalculos.ClaveCalculo.de("ANALISIS_COMPLETO", bono,
+                request.getTasaEsperada(), request.getPrecioCompra());
+        if (!coalescedorCalculos.disponible(clave)) {
+            controlAdmision.admitir(username, "ANALISIS_COMPLETO", bono);
         }
+        // Usar el nuevo método que incluye precio de compra para cálculo correcto del VAN
+        Calculo resultado = coalescedorCalculos.obtenerOCalcular(clave,
+                username,
+                () -> {
+                    if (request.getPrecioCompra() != null) {
+                        return calculoFinancieroService.calcularAnalisisCompleto(bono, request.getTasaEsperada(), request.getPrecioCompra(), username);
+                    }
+                    // Fallback al método anterior si no se proporciona precio de compra
+                    return calculoFinancieroService.calcularAnalisisCompleto(bono, request.getTasaEsperada(), username);
+                });
         
         Calculo calculoGuardado = calculoService.guardarCalculo(resultado);
         
@@ -272,6 +383,8 @@ public class InversorBonoController {
         bonoTemporal.setMetodoAmortizacion("AMERICANO");
         bonoTemporal.setMoneda("PEN");
         
+        controlAdmision.admitir(username, "TREA", bonoTemporal);
+        
         // Calcular usando el precio de compra para TREA
         Calculo resultado = calculoFinancieroService.calcularTREAEnriquecido(bonoTemporal, request.getPrecioCompra(), username);
         resultado.setBono(null); // No guardar referencia al bono temporal
@@ -295,12 +408,11 @@ public class InversorBonoController {
             return ResponseEntity.notFound().build();
         }
         
-        // Calcular flujo del inversionista
-        List<FlujoInversionista> flujos = flujoInversionistaService.calcularFlujoInversionista(bono, request.getPrecioCompra());
-        
-        // Calcular métricas
-        FlujoInversionistaService.MetricasInversionista metricas = 
-            flujoInversionistaService.calcularMetricas(flujos, request.getPrecioCompra());
+        // Calcular flujo del inversionista y sus métricas en un solo recorrido
+        FlujoInversionistaService.SimulacionCalculada simulacion =
+            flujoInversionistaService.simular(bono, request.getPrecioCompra());
+        List<FlujoInversionista> flujos = simulacion.getFlujos();
+        FlujoInversionistaService.MetricasInversionista metricas = simulacion.getMetricas();
         
         // Crear respuesta
         FlujoInversionistaResponse response = new FlujoInversionistaResponse();
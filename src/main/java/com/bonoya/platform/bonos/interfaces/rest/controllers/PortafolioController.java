@@ -0,0 +1,125 @@
+package com.bonoya.platform.bonos.interfaces.rest.controllers;
+
+import com.bonoya.platform.bonos.application.services.PortafolioService;
+import com.bonoya.platform.bonos.domain.model.entities.Portafolio;
+import com.bonoya.platform.bonos.domain.model.valueobjects.AnalisisPortafolio;
+import com.bonoya.platform.bonos.domain.model.valueobjects.FlujosPortafolio;
+import com.bonoya.platform.bonos.interfaces.rest.resources.AnalisisPortafolioResource;
+import com.bonoya.platform.bonos.interfaces.rest.resources.CreatePortafolioResource;
+import com.bonoya.platform.bonos.interfaces.rest.resources.PortafolioResource;
+import com.bonoya.platform.bonos.interfaces.rest.resources.PosicionPortafolioRequest;
+import com.bonoya.platform.bonos.interfaces.rest.transform.PortafolioResourceFromEntityAssembler;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping(value = "/api/v1/inversor/portafolios", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Portafolios", description = "Posiciones del inversor y flujos agregados del portafolio")
+public class PortafolioController {
+
+    private final PortafolioService portafolioService;
+
+    public PortafolioController(PortafolioService portafolioService) {
+        this.portafolioService = portafolioService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Listar los portafolios del inversor")
+    public ResponseEntity<List<PortafolioResource>> obtenerPortafolios() {
+        List<PortafolioResource> resources = portafolioService.obtenerPortafolios(obtenerUsernameAutenticado()).stream()
+                .map(PortafolioResourceFromEntityAssembler::toResourceFromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(resources);
+    }
+
+    @PostMapping
+    @Operation(summary = "Crear un portafolio con sus posiciones iniciales")
+    public ResponseEntity<PortafolioResource> crearPortafolio(@RequestBody CreatePortafolioResource resource) {
+        List<PortafolioService.PosicionSolicitada> posiciones = resource.getPosiciones() == null ? List.of()
+                : resource.getPosiciones().stream()
+                        .map(PortafolioController::toPosicionSolicitada)
+                        .collect(Collectors.toList());
+        Portafolio portafolio = portafolioService.crearPortafolio(obtenerUsernameAutenticado(),
+                resource.getNombre(), resource.getDescripcion(), posiciones);
+        return new ResponseEntity<>(PortafolioResourceFromEntityAssembler.toResourceFromEntity(portafolio),
+                HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener un portafolio con sus posiciones")
+    public ResponseEntity<PortafolioResource> obtenerPortafolio(@PathVariable Long id) {
+        return portafolioService.obtenerPortafolio(id, obtenerUsernameAutenticado())
+                .map(portafolio -> ResponseEntity.ok(PortafolioResourceFromEntityAssembler.toResourceFromEntity(portafolio)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Eliminar un portafolio")
+    public ResponseEntity<Void> eliminarPortafolio(@PathVariable Long id) {
+        portafolioService.eliminarPortafolio(id, obtenerUsernameAutenticado());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/posiciones")
+    @Operation(summary = "Agregar una posición al portafolio")
+    public ResponseEntity<PortafolioResource> agregarPosicion(@PathVariable Long id,
+                                                              @RequestBody PosicionPortafolioRequest request) {
+        Portafolio portafolio = portafolioService.agregarPosicion(id, obtenerUsernameAutenticado(),
+                toPosicionSolicitada(request));
+        return ResponseEntity.ok(PortafolioResourceFromEntityAssembler.toResourceFromEntity(portafolio));
+    }
+
+    @DeleteMapping("/{id}/posiciones/{posicionId}")
+    @Operation(summary = "Eliminar una posición del portafolio")
+    public ResponseEntity<PortafolioResource> eliminarPosicion(@PathVariable Long id, @PathVariable Long posicionId) {
+        Portafolio portafolio = portafolioService.eliminarPosicion(id, obtenerUsernameAutenticado(), posicionId);
+        return ResponseEntity.ok(PortafolioResourceFromEntityAssembler.toResourceFromEntity(portafolio));
+    }
+
+    @GetMapping("/{id}/analisis")
+    @Operation(summary = "Escalera de flujos agrupada por fecha y duración, convexidad y TIR del portafolio")
+    public ResponseEntity<AnalisisPortafolioResource> analizarPortafolio(
+            @PathVariable Long id,
+            @RequestParam(required = false) BigDecimal tasaMercado,
+            @RequestParam(defaultValue = "MES") String agrupacion,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaValoracion) {
+        AnalisisPortafolio analisis = portafolioService.analizar(id, obtenerUsernameAutenticado(), tasaMercado,
+                parsearAgrupacion(agrupacion), fechaValoracion != null ? fechaValoracion : LocalDate.now());
+        return ResponseEntity.ok(PortafolioResourceFromEntityAssembler.toResourceFromValue(analisis));
+    }
+
+    private static PortafolioService.PosicionSolicitada toPosicionSolicitada(PosicionPortafolioRequest request) {
+        if (request.getBonoId() == null) {
+            throw new ValidationException("Cada posición requiere el id del bono");
+        }
+        return new PortafolioService.PosicionSolicitada(request.getBonoId(), request.getCantidad(),
+                request.getPrecioCompra());
+    }
+
+    private static FlujosPortafolio.Agrupacion parsearAgrupacion(String valor) {
+        try {
+            return FlujosPortafolio.Agrupacion.valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Agrupación no soportada: " + valor + " (use DIA, MES, TRIMESTRE o ANIO)");
+        }
+    }
+
+    private String obtenerUsernameAutenticado() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,76 @@
+package com.bonoya.platform.bonos.interfaces.rest.controllers;
+
+import com.bonoya.platform.bonos.application.services.SimulacionInversionistaService;
+import com.bonoya.platform.bonos.interfaces.rest.resources.CreateSimulacionRequest;
+import com.bonoya.platform.bonos.interfaces.rest.resources.SimulacionInversionistaResource;
+import com.bonoya.platform.bonos.interfaces.rest.transform.SimulacionInversionistaResourceFromEntityAssembler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping(value = "/api/v1/inversor", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Simulaciones", description = "Simulaciones de inversión guardadas por el inversionista")
+public class SimulacionInversionistaController {
+
+    private final SimulacionInversionistaService simulacionService;
+
+    public SimulacionInversionistaController(SimulacionInversionistaService simulacionService) {
+        this.simulacionService = simulacionService;
+    }
+
+    @PostMapping("/bonos/{bonoId}/simulaciones")
+    @Operation(summary = "Simular la compra de un bono y guardar la simulación con sus flujos")
+    public ResponseEntity<SimulacionInversionistaResource> registrarSimulacion(
+            @PathVariable @Parameter(description = "ID del bono") Long bonoId,
+            @RequestBody CreateSimulacionRequest request) {
+        SimulacionInversionistaService.SimulacionGuardada guardada = simulacionService.registrarSimulacion(
+                bonoId, request.getPrecioCompra(), request.getDescripcion(), obtenerUsernameAutenticado());
+
+        SimulacionInversionistaResource resource =
+                SimulacionInversionistaResourceFromEntityAssembler.toResourceFromEntity(guardada.simulacion());
+        resource.setFlujos(guardada.calculada().getFlujos().stream()
+                .map(SimulacionInversionistaResourceFromEntityAssembler::toResourceFromValue)
+                .collect(Collectors.toList()));
+        return new ResponseEntity<>(resource, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/simulaciones")
+    @Operation(summary = "Listar el resumen de las simulaciones guardadas")
+    public ResponseEntity<List<SimulacionInversionistaResource>> obtenerSimulaciones() {
+        List<SimulacionInversionistaResource> resources = simulacionService.obtenerSimulaciones(obtenerUsernameAutenticado())
+                .stream()
+                .map(SimulacionInversionistaResourceFromEntityAssembler::toResourceFromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(resources);
+    }
+
+    @GetMapping("/simulaciones/{id}")
+    @Operation(summary = "Obtener una simulación guardada con sus flujos")
+    public ResponseEntity<SimulacionInversionistaResource> obtenerSimulacion(@PathVariable Long id) {
+        return simulacionService.obtenerSimulacion(id, obtenerUsernameAutenticado())
+                .map(simulacion -> {
+                    SimulacionInversionistaResource resource =
+                            SimulacionInversionistaResourceFromEntityAssembler.toResourceFromEntity(simulacion);
+                    resource.setFlujos(simulacionService.obtenerFlujos(simulacion.getId()).stream()
+                            .map(SimulacionInversionistaResourceFromEntityAssembler::toResourceFromEntity)
+                            .collect(Collectors.toList()));
+                    return ResponseEntity.ok(resource);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private String obtenerUsernameAutenticado() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getName();
+    }
+}
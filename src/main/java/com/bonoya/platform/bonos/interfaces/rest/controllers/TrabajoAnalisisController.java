@@ -0,0 +1,94 @@
+package com.bonoya.platform.bonos.interfaces.rest.controllers;
+
+import com.bonoya.platform.bonos.application.internal.jobs.TrabajoAnalisis;
+import com.bonoya.platform.bonos.application.services.TrabajoAnalisisService;
+import com.bonoya.platform.bonos.interfaces.rest.resources.AnalisisCompletoRequest;
+import com.bonoya.platform.bonos.interfaces.rest.resources.TrabajoAnalisisResource;
+import com.bonoya.platform.bonos.interfaces.rest.transform.TrabajoAnalisisResourceFromEntityAssembler;
+import com.bonoya.platform.shared.application.exceptions.ResourceNotFoundException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Locale;
+
+@RestController
+@RequestMapping(value = "/api/v1/inversor/trabajos", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "Trabajos de análisis", description = "Análisis asíncronos con consulta de estado")
+public class TrabajoAnalisisController {
+
+    // Tiempo máximo que una conexión SSE espera el resultado antes de cerrarse
+    private static final long TIMEOUT_EVENTOS_MS = 5 * 60 * 1000L;
+
+    private final TrabajoAnalisisService trabajoAnalisisService;
+
+    public TrabajoAnalisisController(TrabajoAnalisisService trabajoAnalisisService) {
+        this.trabajoAnalisisService = trabajoAnalisisService;
+    }
+
+    @PostMapping("/analisis-completo")
+    @Operation(summary = "Encolar un análisis completo y consultar el resultado más tarde")
+    public ResponseEntity<TrabajoAnalisisResource> enviarAnalisisCompleto(
+            @RequestBody AnalisisCompletoRequest request) {
+        TrabajoAnalisis trabajo = trabajoAnalisisService.enviarAnalisisCompleto(request.getBonoId(),
+                request.getTasaEsperada(), request.getPrecioCompra(), obtenerUsernameAutenticado());
+
+        String ubicacion = ubicacion(trabajo);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create(ubicacion))
+                .body(TrabajoAnalisisResourceFromEntityAssembler.toResourceFromEntity(trabajo, ubicacion));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar el estado de un trabajo (202 mientras está pendiente, 200 al terminar)")
+    public ResponseEntity<TrabajoAnalisisResource> obtenerTrabajo(@PathVariable String id) {
+        TrabajoAnalisis trabajo = buscarTrabajo(id);
+        TrabajoAnalisisResource resource =
+                TrabajoAnalisisResourceFromEntityAssembler.toResourceFromEntity(trabajo, ubicacion(trabajo));
+        HttpStatus status = trabajo.terminado() ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(resource);
+    }
+
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Recibir el resultado del trabajo por Server-Sent Events cuando termine")
+    public SseEmitter suscribirTrabajo(@PathVariable String id) {
+        TrabajoAnalisis trabajo = buscarTrabajo(id);
+        SseEmitter emitter = new SseEmitter(TIMEOUT_EVENTOS_MS);
+
+        // El evento se emite desde el hilo que completa el trabajo, o de inmediato si ya terminó
+        trabajo.getResultado().whenComplete((calculo, error) -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(trabajo.getEstado().name().toLowerCase(Locale.ROOT))
+                        .data(TrabajoAnalisisResourceFromEntityAssembler.toResourceFromEntity(trabajo, ubicacion(trabajo)),
+                                MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private TrabajoAnalisis buscarTrabajo(String id) {
+        return trabajoAnalisisService.obtenerTrabajo(id, obtenerUsernameAutenticado())
+                .orElseThrow(() -> new ResourceNotFoundException("Trabajo no encontrado o expirado: " + id));
+    }
+
+    private static String ubicacion(TrabajoAnalisis trabajo) {
+        return "/api/v1/inversor/trabajos/" + trabajo.getId();
+    }
+
+    private String obtenerUsernameAutenticado() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getName();
+    }
+}
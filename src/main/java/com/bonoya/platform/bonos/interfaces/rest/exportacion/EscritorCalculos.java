@@ -0,0 +1,77 @@
+package com.bonoya.platform.bonos.interfaces.rest.exportacion;
+
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Escribe el historial de cálculos registro a registro sobre la respuesta, sin acumularlo en memoria.
+ *
+ * Cada cálculo se escribe en cuanto se recibe; solo se retiene el búfer de salida. Un error de E/S (por
+ * ejemplo, el cliente cerró la conexión) se propaga como {@link UncheckedIOException} para cortar el recorrido.
+ */
+public abstract class EscritorCalculos implements Consumer<Calculo> {
+
+    public static final String CSV = "CSV";
+    public static final String NDJSON = "NDJSON";
+
+    protected final Writer salida;
+
+    protected EscritorCalculos(OutputStream destino) {
+        this.salida = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Interpreta el formato pedido en la consulta ({@code csv}, {@code ndjson} o {@code jsonl}).
+     */
+    public static String formatoDe(String formato) {
+        String valor = formato != null ? formato.trim().toLowerCase(Locale.ROOT) : "";
+        return switch (valor) {
+            case "csv" -> CSV;
+            case "ndjson", "jsonl" -> NDJSON;
+            default -> throw new ValidationException("Formato no soportado: " + formato + " (use csv o ndjson)");
+        };
+    }
+
+    public static String tipoContenido(String formato) {
+        return CSV.equals(formato) ? "text/csv;charset=UTF-8" : "application/x-ndjson";
+    }
+
+    public static String extension(String formato) {
+        return CSV.equals(formato) ? "csv" : "ndjson";
+    }
+
+    public static EscritorCalculos de(String formato, OutputStream destino, ObjectMapper objectMapper) {
+        return CSV.equals(formato)
+                ? new EscritorCalculosCsv(destino)
+                : new EscritorCalculosNdjson(destino, objectMapper);
+    }
+
+    @Override
+    public void accept(Calculo calculo) {
+        try {
+            escribir(calculo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Vacía el búfer pendiente. El flujo de la respuesta lo cierra el contenedor.
+     */
+    public void terminar() throws IOException {
+        salida.flush();
+    }
+
+    protected abstract void escribir(Calculo calculo) throws IOException;
+}
@@ -0,0 +1,121 @@
+package com.bonoya.platform.bonos.interfaces.rest.exportacion;
+
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DetalleCalculo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+/**
+ * CSV con cabecera y una fila plana por cálculo: parámetros del bono en el momento del cálculo seguidos de
+ * los resultados. Los decimales se escriben sin notación científica y los valores ausentes quedan vacíos; los
+ * campos con comas, comillas o saltos de línea van entre comillas dobles.
+ *
+ * Los textos que empiezan con un carácter que una hoja de cálculo interpretaría como fórmula ({@code = + - @},
+ * tabulador o retorno de carro) se prefijan con un apóstrofo; los números se escriben tal cual.
+ */
+class EscritorCalculosCsv extends EscritorCalculos {
+
+    static final String CABECERA = "id,bonoId,bonoNombre,tipoAnalisis,fechaCalculo,moneda,valorNominal,tasaCupon,"
+            + "plazoAnios,frecuenciaPagos,tasaEsperada,trea,treaPorcentaje,precioMaximo,valorPresente,tir,van,tcea,"
+            + "duracion,duracionModificada,convexidad,precioJusto,valorPresenteCupones,yield,sensibilidadPrecio,"
+            + "gananciaCapital,ingresosCupones,rendimientoTotal,spread,margenSeguridad,precioCompra,"
+            + "metodoAmortizacion,informacionAdicional";
+
+    private static final DetalleCalculo SIN_DETALLE = new DetalleCalculo(null, null, null, null);
+
+    private boolean cabeceraEscrita;
+
+    EscritorCalculosCsv(OutputStream destino) {
+        super(destino);
+    }
+
+    @Override
+    protected void escribir(Calculo calculo) throws IOException {
+        if (!cabeceraEscrita) {
+            escribirCabecera();
+        }
+        StringBuilder fila = new StringBuilder(256);
+        campo(fila, calculo.getId());
+        campo(fila, calculo.getBonoId());
+        campo(fila, calculo.getBonoNombre());
+        campo(fila, calculo.getTipoAnalisis());
+        campo(fila, calculo.getFechaCalculo());
+        campo(fila, calculo.getMoneda());
+        campo(fila, calculo.getValorNominal());
+        campo(fila, calculo.getTasaCupon());
+        campo(fila, calculo.getPlazoAnios());
+        campo(fila, calculo.getFrecuenciaPagos());
+        campo(fila, calculo.getTasaEsperada());
+        campo(fila, calculo.getTrea());
+        campo(fila, calculo.getTreaPorcentaje());
+        campo(fila, calculo.getPrecioMaximo());
+        campo(fila, calculo.getValorPresente());
+        campo(fila, calculo.getTir());
+        campo(fila, calculo.getVan());
+        campo(fila, calculo.getTcea());
+        campo(fila, calculo.getDuracion());
+        campo(fila, calculo.getDuracionModificada());
+        campo(fila, calculo.getConvexidad());
+        campo(fila, calculo.getPrecioJusto());
+        campo(fila, calculo.getValorPresenteCupones());
+        campo(fila, calculo.getYield());
+        campo(fila, calculo.getSensibilidadPrecio());
+        campo(fila, calculo.getGananciaCapital());
+        campo(fila, calculo.getIngresosCupones());
+        campo(fila, calculo.getRendimientoTotal());
+        DetalleCalculo detalle = calculo.getDetalle() != null ? calculo.getDetalle() : SIN_DETALLE;
+        campo(fila, detalle.spread());
+        campo(fila, detalle.margenSeguridad());
+        campo(fila, detalle.precioCompra());
+        campo(fila, detalle.metodoAmortizacion());
+        // Solo los cálculos antiguos guardaron el resumen en texto
+        campo(fila, calculo.getInformacionAdicional());
+        fila.setCharAt(fila.length() - 1, '\n');
+        salida.write(fila.toString());
+    }
+
+    @Override
+    public void terminar() throws IOException {
+        // Un historial vacío exporta solo la cabecera
+        if (!cabeceraEscrita) {
+            escribirCabecera();
+        }
+        super.terminar();
+    }
+
+    private void escribirCabecera() throws IOException {
+        salida.write(CABECERA);
+        salida.write('\n');
+        cabeceraEscrita = true;
+    }
+
+    private static void campo(StringBuilder fila, Object valor) {
+        if (valor instanceof BigDecimal decimal) {
+            fila.append(decimal.toPlainString());
+        } else if (valor instanceof Number) {
+            fila.append(valor);
+        } else if (valor != null) {
+            String texto = neutralizarFormula(valor.toString());
+            if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0
+                    || texto.indexOf('\r') >= 0) {
+                fila.append('"').append(texto.replace("\"", "\"\"")).append('"');
+            } else {
+                fila.append(texto);
+            }
+        }
+        fila.append(',');
+    }
+
+    private static String neutralizarFormula(String texto) {
+        if (!texto.isEmpty()) {
+            char inicial = texto.charAt(0);
+            if (inicial == '=' || inicial == '+' || inicial == '-' || inicial == '@' || inicial == '\t'
+                    || inicial == '\r') {
+                return "'" + texto;
+            }
+        }
+        return texto;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bonoya.platform.bonos.interfaces.rest.exportacion;
+
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.interfaces.rest.resources.CalculoResource;
+import com.bonoya.platform.bonos.interfaces.rest.transform.CalculoResourceFromEntityAssembler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Un objeto JSON por línea, con la misma forma que {@code GET /api/v1/inversor/calculos}.
+ */
+class EscritorCalculosNdjson extends EscritorCalculos {
+
+    private final ObjectWriter escritorJson;
+
+    EscritorCalculosNdjson(OutputStream destino, ObjectMapper objectMapper) {
+        super(destino);
+        // Cada registro debe ocupar una sola línea aunque la aplicación indente sus respuestas JSON
+        this.escritorJson = objectMapper.writerFor(CalculoResource.class).without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    protected void escribir(Calculo calculo) throws IOException {
+        salida.write(escritorJson.writeValueAsString(CalculoResourceFromEntityAssembler.toResourceFromEntity(calculo)));
+        salida.write('\n');
+    }
+}
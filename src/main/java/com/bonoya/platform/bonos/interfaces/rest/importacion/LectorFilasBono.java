@@ -0,0 +1,119 @@
+package com.bonoya.platform.bonos.interfaces.rest.importacion;
+
+import com.bonoya.platform.bonos.application.internal.importacion.FilaImportacion;
+import com.bonoya.platform.bonos.interfaces.rest.resources.CreateBonoResource;
+import com.bonoya.platform.bonos.interfaces.rest.transform.BonoResourceFromEntityAssembler;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Lee un archivo de importación registro a registro, sin cargarlo completo en memoria.
+ *
+ * Cada registro se interpreta con los mismos campos que {@link CreateBonoResource} y se convierte con
+ * {@link BonoResourceFromEntityAssembler}, como en el alta individual. Un registro mal formado produce una
+ * fila inválida y la lectura continúa; un error de E/S se propaga como {@link UncheckedIOException}.
+ */
+public abstract class LectorFilasBono implements Iterator<FilaImportacion> {
+
+    public static final String CSV = "CSV";
+    public static final String NDJSON = "NDJSON";
+
+    private final BufferedReader lector;
+    private FilaImportacion siguiente;
+    private long numero;
+    private boolean agotado;
+
+    protected LectorFilasBono(InputStream entrada) {
+        this.lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Deduce el formato a partir del Content-Type de la petición.
+     */
+    public static String formatoDe(String contentType) {
+        String tipo = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        if (tipo.contains("csv")) {
+            return CSV;
+        }
+        if (tipo.contains("ndjson") || tipo.contains("jsonl") || tipo.contains("json-seq")) {
+            return NDJSON;
+        }
+        throw new ValidationException("Formato no soportado: " + contentType
+                + " (use text/csv o application/x-ndjson)");
+    }
+
+    public static LectorFilasBono de(String formato, InputStream entrada, ObjectMapper objectMapper) {
+        return CSV.equals(formato)
+                ? new LectorFilasCsv(entrada, objectMapper)
+                : new LectorFilasNdjson(entrada, objectMapper);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (siguiente == null && !agotado) {
+            String linea = leerLineaConDatos();
+            if (linea == null) {
+                agotado = true;
+            } else {
+                numero++;
+                siguiente = interpretarFila(numero, linea);
+            }
+        }
+        return siguiente != null;
+    }
+
+    @Override
+    public FilaImportacion next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FilaImportacion fila = siguiente;
+        siguiente = null;
+        return fila;
+    }
+
+    /**
+     * Devuelve la siguiente línea no vacía, o null al final del archivo.
+     */
+    protected String leerLineaConDatos() {
+        try {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (!linea.isBlank()) {
+                    return linea;
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FilaImportacion interpretarFila(long numero, String linea) {
+        try {
+            CreateBonoResource recurso = interpretar(linea);
+            return FilaImportacion.valida(numero, BonoResourceFromEntityAssembler.toEntityFromCreateResource(recurso));
+        } catch (IllegalArgumentException | IOException | NullPointerException | IndexOutOfBoundsException e) {
+            String mensaje = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return FilaImportacion.invalida(numero, "Registro mal formado: " + primeraLinea(mensaje));
+        }
+    }
+
+    protected abstract CreateBonoResource interpretar(String linea) throws IOException;
+
+    private static String primeraLinea(String mensaje) {
+        int salto = mensaje.indexOf('\n');
+        String linea = salto >= 0 ? mensaje.substring(0, salto) : mensaje;
+        return linea.length() > 300 ? linea.substring(0, 300) : linea;
+    }
+}
@@ -0,0 +1,94 @@
+package com.bonoya.platform.bonos.interfaces.rest.importacion;
+
+import com.bonoya.platform.bonos.interfaces.rest.resources.CreateBonoResource;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV con cabecera: la primera línea nombra las columnas con los campos del alta individual
+ * ({@code nombre,valorNominal,tasaCupon,...}); el orden es libre y las columnas vacías toman el valor por
+ * defecto. Admite comillas dobles con comas y comillas escapadas ({@code ""}), pero no saltos de línea dentro
+ * de un campo.
+ */
+class LectorFilasCsv extends LectorFilasBono {
+
+    private final ObjectMapper objectMapper;
+    private List<String> columnas;
+
+    LectorFilasCsv(InputStream entrada, ObjectMapper objectMapper) {
+        super(entrada);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected String leerLineaConDatos() {
+        if (columnas == null) {
+            String cabecera = super.leerLineaConDatos();
+            if (cabecera == null) {
+                return null;
+            }
+            columnas = dividir(quitarBom(cabecera)).stream().map(String::trim).toList();
+            if (!columnas.contains("nombre")) {
+                throw new ValidationException("La cabecera CSV debe incluir al menos la columna 'nombre'");
+            }
+        }
+        return super.leerLineaConDatos();
+    }
+
+    @Override
+    protected CreateBonoResource interpretar(String linea) {
+        List<String> valores = dividir(linea);
+        if (valores.size() > columnas.size()) {
+            throw new IllegalArgumentException("Se esperaban " + columnas.size() + " columnas y hay " + valores.size());
+        }
+        Map<String, String> campos = new LinkedHashMap<>();
+        for (int i = 0; i < valores.size(); i++) {
+            String valor = valores.get(i).trim();
+            if (!valor.isEmpty()) {
+                campos.put(columnas.get(i), valor);
+            }
+        }
+        return objectMapper.convertValue(campos, CreateBonoResource.class);
+    }
+
+    static List<String> dividir(String linea) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+
+    private static String quitarBom(String linea) {
+        return !linea.isEmpty() && linea.charAt(0) == '\uFEFF' ? linea.substring(1) : linea;
+    }
+}
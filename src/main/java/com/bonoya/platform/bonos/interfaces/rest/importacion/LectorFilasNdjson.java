@@ -0,0 +1,26 @@
+package com.bonoya.platform.bonos.interfaces.rest.importacion;
+
+import com.bonoya.platform.bonos.interfaces.rest.resources.CreateBonoResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Un objeto JSON por línea con los campos del alta individual de bonos.
+ */
+class LectorFilasNdjson extends LectorFilasBono {
+
+    private final ObjectReader lectorJson;
+
+    LectorFilasNdjson(InputStream entrada, ObjectMapper objectMapper) {
+        super(entrada);
+        this.lectorJson = objectMapper.readerFor(CreateBonoResource.class);
+    }
+
+    @Override
+    protected CreateBonoResource interpretar(String linea) throws IOException {
+        return lectorJson.readValue(linea);
+    }
+}
@@ -0,0 +1,27 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class AnalisisPortafolioResource {
+    private Long portafolioId;
+    private LocalDate fechaValoracion;
+    private String agrupacion;
+    private int posiciones;
+    private String moneda;
+    private BigDecimal costoTotal;
+    private BigDecimal valorMercado;
+    private BigDecimal tir;
+    private BigDecimal tasaMercado;
+    private BigDecimal plazoRemanente;
+    private BigDecimal duracion;
+    private BigDecimal duracionModificada;
+    private BigDecimal convexidad;
+    private List<TramoEscaleraResource> escalera;
+}
@@ -17,7 +17,7 @@ public class CalculoResource {
     private BigDecimal trea;
     private BigDecimal precioMaximo;
     private LocalDate fechaCalculo;
-    private String informacionAdicional;
+    private String informacionAdicional; // Solo si se pide con resumen=true
     
     // Campos adicionales para el historial enriquecido
     private String tipoAnalisis;
@@ -67,6 +67,10 @@ public class CalculoResource {
         private BigDecimal gananciaCapital; // Ganancia de capital esperada
         private BigDecimal ingresosCupones; // Ingresos totales por cupones
         private BigDecimal rendimientoTotal; // Rendimiento total esperado
+        private BigDecimal spread; // TREA menos TCEA del emisor
+        private BigDecimal margenSeguridad; // Valor nominal menos precio máximo
+        private BigDecimal precioCompra; // Precio de compra indicado por el inversor
+        private String metodoAmortizacion;
     }
     
     @Getter
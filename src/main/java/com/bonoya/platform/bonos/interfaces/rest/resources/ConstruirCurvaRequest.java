@@ -0,0 +1,13 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ConstruirCurvaRequest {
+    private String interpolacion; // LINEAL o CUBICA_MONOTONA
+    private List<CotizacionCurvaResource> cotizaciones;
+}
@@ -0,0 +1,15 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class CotizacionCurvaResource {
+    private BigDecimal plazoAnios;
+    private BigDecimal rendimiento;
+    private BigDecimal tasaCupon; // Opcional: sin cupón se trata como cupón cero
+    private Integer frecuenciaPagos;
+}
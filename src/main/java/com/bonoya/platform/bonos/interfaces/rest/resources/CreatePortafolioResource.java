@@ -0,0 +1,14 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class CreatePortafolioResource {
+    private String nombre;
+    private String descripcion;
+    private List<PosicionPortafolioRequest> posiciones;
+}
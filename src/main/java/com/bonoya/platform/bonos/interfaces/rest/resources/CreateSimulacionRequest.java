@@ -0,0 +1,13 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class CreateSimulacionRequest {
+    private BigDecimal precioCompra;
+    private String descripcion;
+}
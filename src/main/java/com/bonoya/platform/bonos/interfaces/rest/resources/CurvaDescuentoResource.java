@@ -0,0 +1,23 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+public class CurvaDescuentoResource {
+    private String moneda;
+    private String interpolacion;
+    private List<NodoCurva> nodos;
+
+    @Getter
+    @Setter
+    public static class NodoCurva {
+        private BigDecimal plazoAnios;
+        private BigDecimal tasaCero; // Tasa cero efectiva anual (decimal)
+        private BigDecimal factorDescuento;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 /**
  * Clase DTO para representar métricas de duración y convexidad en la API REST.
@@ -23,4 +24,9 @@ public class DuracionConvexidadResource {
     // Información para análisis de sensibilidad
     private BigDecimal cambioPuntosPorcentuales;
     private BigDecimal cambioPorcentualPrecio;
+
+    // Medidas efectivas por revaluación y duraciones por plazo clave (años -> duración)
+    private BigDecimal duracionEfectiva;
+    private BigDecimal convexidadEfectiva;
+    private Map<Integer, BigDecimal> duracionesClave;
 } 
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+import java.util.List;
+
+@Getter
+@Setter
+public class ImportacionBonoResource {
+    private Long id;
+    private String formato;
+    private String estado;
+    private long filasImportadas;
+    private long filasConError;
+    private long ultimaFilaConfirmada; // Para reanudar, reenviar el archivo con ?reanudar={id}
+    private String mensaje;
+    private Date creadaEn;
+    private Date actualizadaEn;
+    private List<ErrorFila> errores; // Primeros errores; el total está en filasConError
+
+    @Getter
+    @Setter
+    public static class ErrorFila {
+        private long fila;
+        private String mensaje;
+    }
+}
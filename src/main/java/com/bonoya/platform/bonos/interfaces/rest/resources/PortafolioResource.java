@@ -0,0 +1,15 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class PortafolioResource {
+    private Long id;
+    private String nombre;
+    private String descripcion;
+    private List<PosicionPortafolioResource> posiciones;
+}
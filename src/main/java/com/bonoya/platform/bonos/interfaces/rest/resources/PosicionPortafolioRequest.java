@@ -0,0 +1,14 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class PosicionPortafolioRequest {
+    private Long bonoId;
+    private BigDecimal cantidad; // Número de bonos
+    private BigDecimal precioCompra; // Precio pagado por bono
+}
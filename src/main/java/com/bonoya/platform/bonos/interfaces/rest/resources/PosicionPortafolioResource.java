@@ -0,0 +1,18 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class PosicionPortafolioResource {
+    private Long id;
+    private Long bonoId;
+    private String bonoNombre;
+    private String moneda;
+    private BigDecimal cantidad;
+    private BigDecimal precioCompra;
+    private BigDecimal costoTotal;
+}
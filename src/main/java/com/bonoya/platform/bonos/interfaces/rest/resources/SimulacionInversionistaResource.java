@@ -0,0 +1,29 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class SimulacionInversionistaResource {
+    private Long id;
+    private Long bonoId;
+    private String bonoNombre;
+    private BigDecimal precioCompra;
+    private LocalDate fechaSimulacion;
+    private String descripcion;
+
+    // Métricas guardadas con la simulación
+    private BigDecimal gananciaNeta;
+    private BigDecimal rendimientoTotal;
+    private Integer periodoRecuperacion;
+    private BigDecimal totalCupones;
+    private BigDecimal totalPrincipal;
+
+    // Solo se incluye al consultar una simulación
+    private List<FlujoInversionistaResource> flujos;
+}
@@ -0,0 +1,20 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class TrabajoAnalisisResource {
+    private String id;
+    private String tipo;
+    private String estado;
+    private String prioridad;
+    private Instant creadoEn;
+    private Instant finalizadoEn;
+    private String error;
+    private String ubicacion; // URL para consultar el estado del trabajo
+    private CalculoResource resultado; // Presente solo cuando el trabajo está COMPLETADO
+}
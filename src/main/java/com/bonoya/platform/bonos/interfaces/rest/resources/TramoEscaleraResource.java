@@ -0,0 +1,17 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class TramoEscaleraResource {
+    private LocalDate desde;
+    private BigDecimal interes;
+    private BigDecimal amortizacion;
+    private BigDecimal total;
+    private int pagos;
+}
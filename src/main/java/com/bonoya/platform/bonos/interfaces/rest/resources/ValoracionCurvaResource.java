@@ -0,0 +1,18 @@
+package com.bonoya.platform.bonos.interfaces.rest.resources;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class ValoracionCurvaResource {
+    private Long bonoId;
+    private String moneda;
+    private String interpolacion;
+    private BigDecimal precioMaximo;
+    private BigDecimal precioJusto;
+    private BigDecimal precioCompra;
+    private BigDecimal van;
+}
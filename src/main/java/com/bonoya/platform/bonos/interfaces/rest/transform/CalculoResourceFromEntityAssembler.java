@@ -1,11 +1,19 @@
 package com.bonoya.platform.bonos.interfaces.rest.transform;
 
 import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DetalleCalculo;
 import com.bonoya.platform.bonos.interfaces.rest.resources.CalculoResource;
 
 public class CalculoResourceFromEntityAssembler {
 
     public static CalculoResource toResourceFromEntity(Calculo entity) {
+        return toResourceFromEntity(entity, false);
+    }
+
+    /**
+     * @param conResumen si se arma el texto de {@code informacionAdicional}; sin él solo van los valores
+     */
+    public static CalculoResource toResourceFromEntity(Calculo entity, boolean conResumen) {
         CalculoResource resource = new CalculoResource();
         
         // Campos básicos
@@ -17,7 +25,9 @@ public class CalculoResourceFromEntityAssembler {
         resource.setTrea(entity.getTrea());
         resource.setPrecioMaximo(entity.getPrecioMaximo());
         resource.setFechaCalculo(entity.getFechaCalculo());
-        resource.setInformacionAdicional(entity.getInformacionAdicional());
+        if (conResumen) {
+            resource.setInformacionAdicional(ResumenCalculoAssembler.toResumenFromEntity(entity));
+        }
         
         // Campos adicionales
         resource.setTipoAnalisis(entity.getTipoAnalisis() != null ? entity.getTipoAnalisis() : "TREA");
@@ -56,6 +66,14 @@ public class CalculoResourceFromEntityAssembler {
         resultados.setGananciaCapital(entity.getGananciaCapital());
         resultados.setIngresosCupones(entity.getIngresosCupones());
         resultados.setRendimientoTotal(entity.getRendimientoTotal());
+
+        DetalleCalculo detalle = entity.getDetalle();
+        if (detalle != null) {
+            resultados.setSpread(detalle.spread());
+            resultados.setMargenSeguridad(detalle.margenSeguridad());
+            resultados.setPrecioCompra(detalle.precioCompra());
+            resultados.setMetodoAmortizacion(detalle.metodoAmortizacion());
+        }
         
         resource.setResultados(resultados);
         
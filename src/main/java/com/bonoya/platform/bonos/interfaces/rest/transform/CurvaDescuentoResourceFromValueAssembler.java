@@ -0,0 +1,38 @@
+package com.bonoya.platform.bonos.interfaces.rest.transform;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.CotizacionCurva;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.interfaces.rest.resources.CotizacionCurvaResource;
+import com.bonoya.platform.bonos.interfaces.rest.resources.CurvaDescuentoResource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CurvaDescuentoResourceFromValueAssembler {
+
+    public static CurvaDescuentoResource toResourceFromValue(CurvaDescuento curva) {
+        CurvaDescuentoResource resource = new CurvaDescuentoResource();
+        resource.setMoneda(curva.getMoneda());
+        resource.setInterpolacion(curva.getInterpolacion().name());
+
+        double[] plazos = curva.getPlazos();
+        double[] tasas = curva.getTasasCero();
+        List<CurvaDescuentoResource.NodoCurva> nodos = new ArrayList<>(plazos.length);
+        for (int i = 0; i < plazos.length; i++) {
+            CurvaDescuentoResource.NodoCurva nodo = new CurvaDescuentoResource.NodoCurva();
+            nodo.setPlazoAnios(BigDecimal.valueOf(plazos[i]).setScale(6, RoundingMode.HALF_UP));
+            nodo.setTasaCero(BigDecimal.valueOf(tasas[i]).setScale(10, RoundingMode.HALF_UP));
+            nodo.setFactorDescuento(BigDecimal.valueOf(curva.factorDescuento(plazos[i])).setScale(10, RoundingMode.HALF_UP));
+            nodos.add(nodo);
+        }
+        resource.setNodos(nodos);
+        return resource;
+    }
+
+    public static CotizacionCurva toValueFromResource(CotizacionCurvaResource resource) {
+        return new CotizacionCurva(resource.getPlazoAnios(), resource.getRendimiento(),
+                resource.getTasaCupon(), resource.getFrecuenciaPagos());
+    }
+}
@@ -71,6 +71,9 @@ public class DuracionConvexidadResourceAssembler {
                 .tasaMercado(metricas.getTasaMercado())
                 .cambioPuntosPorcentuales(cambioPuntosPorcentuales)
                 .cambioPorcentualPrecio(cambioPorcentualPrecio)
+                .duracionEfectiva(metricas.getDuracionEfectiva())
+                .convexidadEfectiva(metricas.getConvexidadEfectiva())
+                .duracionesClave(metricas.getDuracionesClave())
                 .build();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.bonoya.platform.bonos.interfaces.rest.transform;
+
+import com.bonoya.platform.bonos.domain.model.entities.ImportacionBono;
+import com.bonoya.platform.bonos.interfaces.rest.resources.ImportacionBonoResource;
+
+public class ImportacionBonoResourceFromEntityAssembler {
+
+    public static ImportacionBonoResource toResourceFromEntity(ImportacionBono importacion) {
+        ImportacionBonoResource resource = new ImportacionBonoResource();
+        resource.setId(importacion.getId());
+        resource.setFormato(importacion.getFormato());
+        resource.setEstado(importacion.getEstado().name());
+        resource.setFilasImportadas(importacion.getFilasImportadas());
+        resource.setFilasConError(importacion.getFilasConError());
+        resource.setUltimaFilaConfirmada(importacion.getUltimaFilaConfirmada());
+        resource.setMensaje(importacion.getMensaje());
+        resource.setCreadaEn(importacion.getCreatedAt());
+        resource.setActualizadaEn(importacion.getUpdatedAt());
+        resource.setErrores(importacion.getErrores().stream()
+                .map(error -> {
+                    ImportacionBonoResource.ErrorFila errorFila = new ImportacionBonoResource.ErrorFila();
+                    errorFila.setFila(error.getFila());
+                    errorFila.setMensaje(error.getMensaje());
+                    return errorFila;
+                })
+                .toList());
+        return resource;
+    }
+}
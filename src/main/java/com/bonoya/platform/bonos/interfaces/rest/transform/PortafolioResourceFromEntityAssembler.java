@@ -0,0 +1,73 @@
+package com.bonoya.platform.bonos.interfaces.rest.transform;
+
+import com.bonoya.platform.bonos.domain.model.entities.Portafolio;
+import com.bonoya.platform.bonos.domain.model.entities.PosicionPortafolio;
+import com.bonoya.platform.bonos.domain.model.valueobjects.AnalisisPortafolio;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
+import com.bonoya.platform.bonos.domain.model.valueobjects.FlujosPortafolio;
+import com.bonoya.platform.bonos.interfaces.rest.resources.AnalisisPortafolioResource;
+import com.bonoya.platform.bonos.interfaces.rest.resources.PortafolioResource;
+import com.bonoya.platform.bonos.interfaces.rest.resources.PosicionPortafolioResource;
+import com.bonoya.platform.bonos.interfaces.rest.resources.TramoEscaleraResource;
+
+import java.util.stream.Collectors;
+
+public class PortafolioResourceFromEntityAssembler {
+
+    public static PortafolioResource toResourceFromEntity(Portafolio portafolio) {
+        PortafolioResource resource = new PortafolioResource();
+        resource.setId(portafolio.getId());
+        resource.setNombre(portafolio.getNombre());
+        resource.setDescripcion(portafolio.getDescripcion());
+        resource.setPosiciones(portafolio.getPosiciones().stream()
+                .map(PortafolioResourceFromEntityAssembler::toResourceFromEntity)
+                .collect(Collectors.toList()));
+        return resource;
+    }
+
+    public static PosicionPortafolioResource toResourceFromEntity(PosicionPortafolio posicion) {
+        PosicionPortafolioResource resource = new PosicionPortafolioResource();
+        resource.setId(posicion.getId());
+        resource.setBonoId(posicion.getBono().getId());
+        resource.setBonoNombre(posicion.getBono().getNombre());
+        resource.setMoneda(posicion.getBono().getMoneda());
+        resource.setCantidad(posicion.getCantidad());
+        resource.setPrecioCompra(posicion.getPrecioCompra());
+        resource.setCostoTotal(posicion.getCostoTotal());
+        return resource;
+    }
+
+    public static AnalisisPortafolioResource toResourceFromValue(AnalisisPortafolio analisis) {
+        AnalisisPortafolioResource resource = new AnalisisPortafolioResource();
+        resource.setPortafolioId(analisis.getPortafolioId());
+        resource.setFechaValoracion(analisis.getFechaValoracion());
+        resource.setAgrupacion(analisis.getAgrupacion().name());
+        resource.setPosiciones(analisis.getPosiciones());
+        resource.setMoneda(analisis.getMoneda());
+        resource.setCostoTotal(analisis.getCostoTotal());
+        resource.setValorMercado(analisis.getValorMercado());
+        resource.setTir(analisis.getTir());
+        resource.setPlazoRemanente(analisis.getPlazoRemanente());
+
+        DuracionConvexidad medidas = analisis.getMedidasRiesgo();
+        resource.setTasaMercado(medidas.getTasaMercado());
+        resource.setDuracion(medidas.getDuracion());
+        resource.setDuracionModificada(medidas.getDuracionModificada());
+        resource.setConvexidad(medidas.getConvexidad());
+
+        resource.setEscalera(analisis.getEscalera().stream()
+                .map(PortafolioResourceFromEntityAssembler::toResourceFromValue)
+                .collect(Collectors.toList()));
+        return resource;
+    }
+
+    private static TramoEscaleraResource toResourceFromValue(FlujosPortafolio.Tramo tramo) {
+        TramoEscaleraResource resource = new TramoEscaleraResource();
+        resource.setDesde(tramo.desde());
+        resource.setInteres(tramo.interes());
+        resource.setAmortizacion(tramo.amortizacion());
+        resource.setTotal(tramo.total());
+        resource.setPagos(tramo.pagos());
+        return resource;
+    }
+}
@@ -0,0 +1,111 @@
+package com.bonoya.platform.bonos.interfaces.rest.transform;
+
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DetalleCalculo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+/**
+ * Arma el resumen legible de un cálculo a partir de sus columnas y de su detalle.
+ *
+ * El resumen ya no se guarda: se genera solo cuando el cliente lo pide, con {@link BigDecimal} redondeado
+ * (mitad hacia arriba) en lugar de {@code String.format} sobre {@code double}, de modo que no depende del
+ * locale del servidor. Los cálculos antiguos que guardaron su texto lo conservan tal cual.
+ */
+public final class ResumenCalculoAssembler {
+
+    private static final BigDecimal CIEN = BigDecimal.valueOf(100);
+    private static final BigDecimal UN_PUNTO = new BigDecimal("0.01");
+    private static final BigDecimal MEDIO_PUNTO_CUADRADO = new BigDecimal("0.00005");
+
+    private static final Map<String, String> TITULOS = Map.of(
+            "TREA", "Análisis TREA",
+            "TCEA", "Análisis TCEA",
+            "DURACION", "Análisis de duración",
+            "CONVEXIDAD", "Análisis de convexidad",
+            "PRECIO_MAXIMO", "Análisis de precio máximo",
+            "ANALISIS_COMPLETO", "Análisis completo");
+
+    private ResumenCalculoAssembler() {
+    }
+
+    public static String toResumenFromEntity(Calculo calculo) {
+        if (calculo.getInformacionAdicional() != null) {
+            return calculo.getInformacionAdicional();
+        }
+        String tipo = calculo.getTipoAnalisis() != null ? calculo.getTipoAnalisis() : "TREA";
+        DetalleCalculo detalle = calculo.getDetalle();
+        Resumen resumen = new Resumen(TITULOS.getOrDefault(tipo, "Análisis " + tipo));
+
+        // En duración, convexidad y TCEA la columna trea guarda la métrica del análisis, no una TREA
+        boolean conTrea = !tipo.equals("DURACION") && !tipo.equals("CONVEXIDAD") && !tipo.equals("TCEA");
+        if (conTrea) {
+            resumen.porcentaje("TREA", calculo.getTreaPorcentaje());
+        }
+        if (tipo.equals("TREA") || tipo.equals("PRECIO_MAXIMO")) {
+            resumen.monto("Precio máximo", calculo.getPrecioMaximo());
+        }
+        resumen.porcentaje("TIR", porCien(calculo.getTir()));
+        resumen.monto("VAN", calculo.getVan());
+        resumen.porcentaje("TCEA", porCien(calculo.getTcea()));
+        if (detalle != null) {
+            resumen.porcentaje("Spread", porCien(detalle.spread()));
+        }
+        resumen.monto("Precio justo", calculo.getPrecioJusto());
+        resumen.valor("Duración", calculo.getDuracion(), 2, " años");
+        resumen.valor("Convexidad", calculo.getConvexidad(), 4, "");
+        if (tipo.equals("DURACION") && calculo.getDuracion() != null) {
+            resumen.porcentaje("Sensibilidad al 1%", calculo.getDuracion().multiply(UN_PUNTO));
+        }
+        if (tipo.equals("CONVEXIDAD") && calculo.getConvexidad() != null) {
+            resumen.valor("Corrección convexidad al 1%", calculo.getConvexidad().multiply(MEDIO_PUNTO_CUADRADO), 4, "%");
+        }
+        if (detalle != null) {
+            resumen.monto("Margen seguridad", detalle.margenSeguridad());
+            resumen.monto("Precio compra", detalle.precioCompra());
+            if (detalle.metodoAmortizacion() != null) {
+                resumen.texto("Método amortización", detalle.metodoAmortizacion());
+            }
+        }
+        return resumen.toString();
+    }
+
+    private static BigDecimal porCien(BigDecimal valor) {
+        return valor != null ? valor.multiply(CIEN) : null;
+    }
+
+    private static final class Resumen {
+        private final StringBuilder texto = new StringBuilder(160);
+        private char separador = '-';
+
+        private Resumen(String titulo) {
+            texto.append(titulo);
+        }
+
+        void porcentaje(String etiqueta, BigDecimal valor) {
+            valor(etiqueta, valor, 2, "%");
+        }
+
+        void monto(String etiqueta, BigDecimal valor) {
+            valor(etiqueta, valor, 2, "");
+        }
+
+        void valor(String etiqueta, BigDecimal valor, int decimales, String sufijo) {
+            if (valor != null) {
+                texto(etiqueta, valor.setScale(decimales, RoundingMode.HALF_UP).toPlainString() + sufijo);
+            }
+        }
+
+        void texto(String etiqueta, String valor) {
+            texto.append(separador == '-' ? " - " : ", ").append(etiqueta).append(": ").append(valor);
+            separador = ',';
+        }
+
+        @Override
+        public String toString() {
+            return texto.toString();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.bonoya.platform.bonos.interfaces.rest.transform;
+
+import com.bonoya.platform.bonos.domain.model.entities.FlujoInversionistaDetalle;
+import com.bonoya.platform.bonos.domain.model.entities.SimulacionInversionista;
+import com.bonoya.platform.bonos.domain.model.valueobjects.FlujoInversionista;
+import com.bonoya.platform.bonos.interfaces.rest.resources.FlujoInversionistaResource;
+import com.bonoya.platform.bonos.interfaces.rest.resources.SimulacionInversionistaResource;
+
+public class SimulacionInversionistaResourceFromEntityAssembler {
+
+    public static SimulacionInversionistaResource toResourceFromEntity(SimulacionInversionista simulacion) {
+        SimulacionInversionistaResource resource = new SimulacionInversionistaResource();
+        resource.setId(simulacion.getId());
+        if (simulacion.getBono() != null) {
+            resource.setBonoId(simulacion.getBono().getId());
+            resource.setBonoNombre(simulacion.getBono().getNombre());
+        }
+        resource.setPrecioCompra(simulacion.getPrecioCompra());
+        resource.setFechaSimulacion(simulacion.getFechaSimulacion());
+        resource.setDescripcion(simulacion.getDescripcion());
+        resource.setGananciaNeta(simulacion.getGananciaNeta());
+        resource.setRendimientoTotal(simulacion.getRendimientoTotal());
+        resource.setPeriodoRecuperacion(simulacion.getPeriodoRecuperacion());
+        resource.setTotalCupones(simulacion.getTotalCupones());
+        resource.setTotalPrincipal(simulacion.getTotalPrincipal());
+        return resource;
+    }
+
+    public static FlujoInversionistaResource toResourceFromEntity(FlujoInversionistaDetalle flujo) {
+        FlujoInversionistaResource resource = new FlujoInversionistaResource();
+        resource.setPeriodo(flujo.getPeriodo());
+        resource.setFecha(flujo.getFecha());
+        resource.setCupon(flujo.getCupon());
+        resource.setPrincipal(flujo.getPrincipal());
+        resource.setFlujoTotal(flujo.getFlujoTotal());
+        resource.setFlujoNeto(flujo.getFlujoNeto());
+        resource.setSaldo(flujo.getSaldoAcumulado());
+        resource.setDescripcion(flujo.getDescripcion());
+        resource.setEsInversionInicial(flujo.isEsInversionInicial());
+        return resource;
+    }
+
+    public static FlujoInversionistaResource toResourceFromValue(FlujoInversionista flujo) {
+        FlujoInversionistaResource resource = new FlujoInversionistaResource();
+        resource.setPeriodo(flujo.getPeriodo());
+        resource.setFecha(flujo.getFecha());
+        resource.setCupon(flujo.getCupon());
+        resource.setPrincipal(flujo.getPrincipal());
+        resource.setFlujoTotal(flujo.getFlujoTotal());
+        resource.setFlujoNeto(flujo.getFlujoNeto());
+        resource.setSaldo(flujo.getSaldoAcumulado());
+        resource.setDescripcion(flujo.getDescripcion());
+        resource.setEsInversionInicial(flujo.isEsInversionInicial());
+        return resource;
+    }
+}
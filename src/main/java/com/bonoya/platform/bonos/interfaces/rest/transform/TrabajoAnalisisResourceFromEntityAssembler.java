@@ -0,0 +1,26 @@
+package com.bonoya.platform.bonos.interfaces.rest.transform;
+
+import com.bonoya.platform.bonos.application.internal.jobs.TrabajoAnalisis;
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.interfaces.rest.resources.TrabajoAnalisisResource;
+
+public class TrabajoAnalisisResourceFromEntityAssembler {
+
+    public static TrabajoAnalisisResource toResourceFromEntity(TrabajoAnalisis trabajo, String ubicacion) {
+        TrabajoAnalisisResource resource = new TrabajoAnalisisResource();
+        resource.setId(trabajo.getId());
+        resource.setTipo(trabajo.getTipo());
+        resource.setEstado(trabajo.getEstado().name());
+        resource.setPrioridad(trabajo.getPrioridad().name());
+        resource.setCreadoEn(trabajo.getCreadoEn());
+        resource.setFinalizadoEn(trabajo.getFinalizadoEn());
+        resource.setError(trabajo.getError());
+        resource.setUbicacion(ubicacion);
+
+        Calculo calculo = trabajo.getCalculo();
+        if (calculo != null) {
+            resource.setResultado(CalculoResourceFromEntityAssembler.toResourceFromEntity(calculo));
+        }
+        return resource;
+    }
+}
@@ -1,5 +1,6 @@
 package com.bonoya.platform.iam.application.internal.commandservices;
 
+import com.bonoya.platform.iam.application.internal.roles.RoleRegistry;
 import com.bonoya.platform.iam.domain.model.commands.SeedRolesCommand;
 import com.bonoya.platform.iam.domain.model.entities.Role;
 import com.bonoya.platform.iam.domain.model.valueobjects.Roles;
@@ -12,9 +13,11 @@ import java.util.Arrays;
 @Service
 public class RoleCommandServiceImpl implements RoleCommandService {
     private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
 
-    public RoleCommandServiceImpl(RoleRepository roleRepository) {
+    public RoleCommandServiceImpl(RoleRepository roleRepository, RoleRegistry roleRegistry) {
         this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
     }
 
     @Override
@@ -24,5 +27,6 @@ public class RoleCommandServiceImpl implements RoleCommandService {
                 roleRepository.save(new Role(Roles.valueOf(role.name())));
             }
         });
+        roleRegistry.reload();
     }
 }
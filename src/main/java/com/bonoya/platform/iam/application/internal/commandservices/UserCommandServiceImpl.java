@@ -1,59 +1,114 @@
 package com.bonoya.platform.iam.application.internal.commandservices;
 
 import com.bonoya.platform.iam.application.internal.outboundservices.hashing.HashingService;
+import com.bonoya.platform.iam.application.internal.security.FailedSignInTracker;
 import com.bonoya.platform.iam.application.internal.outboundservices.tokens.TokenService;
+import com.bonoya.platform.iam.application.internal.roles.RoleRegistry;
 import com.bonoya.platform.iam.domain.model.aggregates.User;
 import com.bonoya.platform.iam.domain.model.commands.SignInCommand;
 import com.bonoya.platform.iam.domain.model.commands.SignUpCommand;
 import com.bonoya.platform.iam.domain.services.UserCommandService;
-import com.bonoya.platform.iam.infrastructure.persistence.jpa.repositories.RoleRepository;
 import com.bonoya.platform.iam.infrastructure.persistence.jpa.repositories.UserRepository;
 import com.bonoya.platform.shared.application.exceptions.InvalidValueException;
 import com.bonoya.platform.shared.application.exceptions.ResourceAlreadyException;
 import com.bonoya.platform.shared.application.exceptions.ResourceNotFoundException;
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
 @Service
 public class UserCommandServiceImpl implements UserCommandService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserCommandServiceImpl.class);
+    // SQLSTATE estándar de unique_violation
+    private static final String VIOLACION_UNICIDAD = "23505";
+
     private final UserRepository userRepository;
     private final HashingService hashingService;
     private final TokenService tokenService;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final FailedSignInTracker failedSignInTracker;
 
-    public UserCommandServiceImpl(UserRepository userRepository, HashingService hashingService, TokenService tokenService, RoleRepository roleRepository) {
+    public UserCommandServiceImpl(UserRepository userRepository, HashingService hashingService, TokenService tokenService, RoleRegistry roleRegistry, FailedSignInTracker failedSignInTracker) {
         this.userRepository = userRepository;
         this.hashingService = hashingService;
         this.tokenService = tokenService;
-        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
+        this.failedSignInTracker = failedSignInTracker;
     }
 
     @Override
     public Optional<User> handle(SignUpCommand command) {
-        if (userRepository.existsByUsername(command.username()))
-            throw new ResourceAlreadyException("Username already exists");
-        
-        // Get the role entities from the database based on the role names
+        // Get the role entities from the in-memory registry based on the role names
         var roleEntities = command.roles().stream()
-                .map(roleName -> roleRepository.findByName(roleName)
+                .map(roleName -> roleRegistry.findByName(roleName)
                         .orElseThrow(() -> new ResourceNotFoundException("Role not found: " + roleName)))
                 .toList();
         
         var user = new User(command.username(), hashingService.encode(command.password()), roleEntities);
-        userRepository.save(user);
-        return userRepository.findByUsername(command.username());
+        // La restricción única de username detecta el duplicado en el mismo INSERT, sin consulta previa
+        try {
+            return Optional.of(userRepository.saveAndFlush(user));
+        } catch (DataIntegrityViolationException e) {
+            if (esUsernameDuplicado(e, command.username())) {
+                throw new ResourceAlreadyException("Username already exists");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Solo una violación de unicidad cuyo username ya existe es un duplicado; cualquier otra restricción
+     * (claves foráneas, nulos, otras columnas únicas) se propaga tal cual. La consulta de confirmación se
+     * hace únicamente en este camino de error.
+     */
+    private boolean esUsernameDuplicado(DataIntegrityViolationException e, String username) {
+        if (!(e.getCause() instanceof ConstraintViolationException violacion)
+                || !VIOLACION_UNICIDAD.equals(violacion.getSQLState())) {
+            return false;
+        }
+        LOGGER.debug("Violación de unicidad {} al registrar {}", violacion.getConstraintName(), username);
+        return userRepository.existsByUsername(username);
     }
 
     @Override
     public Optional<ImmutablePair<User, String>> handle(SignInCommand command) {
+        // Un usuario bloqueado se rechaza antes de consultar la base de datos o calcular el hash
+        failedSignInTracker.verificar(command.username());
         var user = userRepository.findByUsername(command.username());
-        if (user.isEmpty()) throw new ResourceNotFoundException("User not found");
-        if (!hashingService.matches(command.password(), user.get().getPassword()))
+        if (user.isEmpty()) {
+            failedSignInTracker.registrarFallo(command.username(), false);
+            throw new ResourceNotFoundException("User not found");
+        }
+        if (!hashingService.matches(command.password(), user.get().getPassword())) {
+            failedSignInTracker.registrarFallo(command.username(), true);
             throw new InvalidValueException("Invalid password");
+        }
+        failedSignInTracker.registrarExito(command.username());
         var currentUser = user.get();
+        actualizarHashSiEsNecesario(currentUser, command.password());
         var token = tokenService.generateToken(currentUser.getUsername());
         return Optional.of(ImmutablePair.of(currentUser, token));
     }
+
+    /**
+     * Recalcula el hash con el costo actual si se generó con uno menor (la contraseña en claro solo está
+     * disponible al iniciar sesión). Si el ejecutor de hashing está saturado se deja para el siguiente inicio.
+     */
+    private void actualizarHashSiEsNecesario(User user, String rawPassword) {
+        if (!hashingService.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.updatePassword(hashingService.encode(rawPassword));
+            userRepository.save(user);
+        } catch (TooManyRequestsException e) {
+            LOGGER.debug("Se pospone el rehash de {}: hashing saturado", user.getUsername());
+        }
+    }
 }
@@ -4,4 +4,9 @@ package com.bonoya.platform.iam.application.internal.outboundservices.hashing;
 public interface HashingService {
     String encode(CharSequence rawPassword);
     boolean matches(CharSequence rawPassword, String encodedPassword);
+
+    /**
+     * @return true si el hash se generó con parámetros más débiles que los actuales y debe recalcularse
+     */
+    boolean upgradeEncoding(String encodedPassword);
 }
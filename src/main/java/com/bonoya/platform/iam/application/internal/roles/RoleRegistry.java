@@ -0,0 +1,73 @@
+package com.bonoya.platform.iam.application.internal.roles;
+
+import com.bonoya.platform.iam.domain.model.entities.Role;
+import com.bonoya.platform.iam.domain.model.valueobjects.Roles;
+import com.bonoya.platform.iam.infrastructure.persistence.jpa.repositories.RoleRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro en memoria de los roles.
+ *
+ * Los roles son datos de referencia que siembra {@code ApplicationReadyEventHandler} y no cambian durante la
+ * ejecución, así que se leen una vez y se sirven sin consultar la base de datos. Si se pide un rol que aún no
+ * está cargado (por ejemplo, una petición que llega antes de terminar la siembra) se recarga, pero como mucho
+ * una vez por intervalo: un rol que no existe se recuerda como ausente y no genera una consulta por petición.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final long INTERVALO_RECARGA_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final RoleRepository roleRepository;
+    private final long intervaloRecargaNanos;
+    private volatile Map<Roles, Role> roles = Map.of();
+    private long ultimaRecarga;
+    private boolean recargado;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this(roleRepository, INTERVALO_RECARGA_NANOS);
+    }
+
+    RoleRegistry(RoleRepository roleRepository, long intervaloRecargaNanos) {
+        this.roleRepository = roleRepository;
+        this.intervaloRecargaNanos = intervaloRecargaNanos;
+    }
+
+    /**
+     * Vuelve a leer todos los roles de la base de datos.
+     */
+    public synchronized void reload() {
+        Map<Roles, Role> cargados = new EnumMap<>(Roles.class);
+        roleRepository.findAll().forEach(role -> cargados.put(role.getName(), role));
+        roles = Map.copyOf(cargados);
+        ultimaRecarga = System.nanoTime();
+        recargado = true;
+    }
+
+    public Optional<Role> findByName(Roles name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            synchronized (this) {
+                if (!roles.containsKey(name)
+                        && (!recargado || System.nanoTime() - ultimaRecarga >= intervaloRecargaNanos)) {
+                    reload();
+                }
+                role = roles.get(name);
+            }
+        }
+        return Optional.ofNullable(role);
+    }
+
+    public List<Role> findAll() {
+        if (roles.isEmpty()) {
+            reload();
+        }
+        return List.copyOf(roles.values());
+    }
+}
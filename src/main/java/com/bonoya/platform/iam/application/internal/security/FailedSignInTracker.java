@@ -0,0 +1,181 @@
+package com.bonoya.platform.iam.application.internal.security;
+
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro en memoria de inicios de sesión fallidos por usuario.
+ *
+ * Tras {@code max-intentos} fallos dentro de la ventana, el usuario queda bloqueado durante el tiempo
+ * configurado y {@link #verificar(String)} rechaza los intentos con 429 antes de consultar la base de datos o
+ * calcular un hash: el tráfico de fuerza bruta deja de consumir BCrypt. Un inicio de sesión correcto limpia el
+ * registro.
+ *
+ * Los fallos de cuentas existentes y los de nombres desconocidos se guardan en registros separados, cada uno
+ * acotado y con desalojo del usuario usado hace más tiempo. Una ráfaga de nombres aleatorios solo desaloja
+ * otros nombres desconocidos y nunca el registro (ni el bloqueo) de una cuenta real.
+ */
+@Component
+public class FailedSignInTracker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FailedSignInTracker.class);
+
+    private final Registro cuentas;
+    private final Registro desconocidos;
+    private final int maxIntentos;
+    private final long ventanaNanos;
+    private final long bloqueoNanos;
+    private final LongSupplier reloj;
+
+    @Autowired
+    public FailedSignInTracker(MeterRegistry registry,
+                               @Value("${bonoya.login.max-intentos:5}") int maxIntentos,
+                               @Value("${bonoya.login.ventana-minutos:15}") long ventanaMinutos,
+                               @Value("${bonoya.login.bloqueo-minutos:15}") long bloqueoMinutos,
+                               @Value("${bonoya.login.max-registros:100000}") int maxRegistros,
+                               @Value("${bonoya.login.max-registros-desconocidos:10000}") int maxDesconocidos) {
+        this(maxIntentos, TimeUnit.MINUTES.toNanos(ventanaMinutos), TimeUnit.MINUTES.toNanos(bloqueoMinutos),
+                maxRegistros, maxDesconocidos, System::nanoTime);
+        Gauge.builder("bonoya.login.bloqueados", this, FailedSignInTracker::getUsuariosBloqueados)
+                .description("Usuarios bloqueados por inicios de sesión fallidos")
+                .register(registry);
+    }
+
+    FailedSignInTracker(int maxIntentos, long ventanaNanos, long bloqueoNanos, int maxRegistros, int maxDesconocidos,
+                        LongSupplier reloj) {
+        this.maxIntentos = maxIntentos;
+        this.ventanaNanos = ventanaNanos;
+        this.bloqueoNanos = bloqueoNanos;
+        this.cuentas = new Registro(maxRegistros);
+        this.desconocidos = new Registro(maxDesconocidos);
+        this.reloj = reloj;
+    }
+
+    /**
+     * @throws TooManyRequestsException si el usuario está bloqueado, con el tiempo restante como Retry-After
+     */
+    public void verificar(String username) {
+        String clave = clave(username);
+        long ahora = reloj.getAsLong();
+        long restante = Math.max(cuentas.bloqueoRestante(clave, ahora), desconocidos.bloqueoRestante(clave, ahora));
+        if (restante > 0) {
+            throw new TooManyRequestsException("Demasiados intentos fallidos, intente nuevamente más tarde",
+                    Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(restante + 999_999_999L)));
+        }
+    }
+
+    /**
+     * @param cuentaExiste si el usuario existe; los nombres desconocidos se registran aparte
+     */
+    public void registrarFallo(String username, boolean cuentaExiste) {
+        String clave = clave(username);
+        Registro registro = cuentaExiste ? cuentas : desconocidos;
+        synchronized (registro) {
+            long ahora = reloj.getAsLong();
+            Intentos intento = registro.computeIfAbsent(clave, c -> new Intentos(ahora));
+            if (ahora - intento.inicioVentana > ventanaNanos) {
+                intento.inicioVentana = ahora;
+                intento.fallos = 0;
+            }
+            intento.fallos++;
+            intento.ultimoFallo = ahora;
+            if (intento.fallos >= maxIntentos) {
+                intento.bloqueadoHasta = ahora + bloqueoNanos;
+                intento.inicioVentana = ahora;
+                intento.fallos = 0;
+                if (cuentaExiste) {
+                    LOGGER.warn("Usuario {} bloqueado tras {} inicios de sesión fallidos", clave, maxIntentos);
+                }
+            }
+        }
+    }
+
+    public void registrarExito(String username) {
+        String clave = clave(username);
+        synchronized (cuentas) {
+            cuentas.remove(clave);
+        }
+        synchronized (desconocidos) {
+            desconocidos.remove(clave);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bonoya.login.limpieza-ms:60000}")
+    public void purgarExpirados() {
+        long ahora = reloj.getAsLong();
+        for (Registro registro : new Registro[]{cuentas, desconocidos}) {
+            synchronized (registro) {
+                registro.values().removeIf(intento ->
+                        ahora - intento.bloqueadoHasta > 0 && ahora - intento.ultimoFallo > ventanaNanos);
+            }
+        }
+    }
+
+    public int getUsuariosBloqueados() {
+        long ahora = reloj.getAsLong();
+        return cuentas.bloqueados(ahora) + desconocidos.bloqueados(ahora);
+    }
+
+    private static String clave(String username) {
+        return username != null ? username : "";
+    }
+
+    private static final class Intentos {
+        private long inicioVentana;
+        private long ultimoFallo;
+        private long bloqueadoHasta;
+        private int fallos;
+
+        private Intentos(long ahora) {
+            this.inicioVentana = ahora;
+            this.ultimoFallo = ahora;
+            this.bloqueadoHasta = ahora;
+        }
+    }
+
+    /**
+     * Registro acotado en orden de acceso; al superar el máximo se desaloja el usuario usado hace más tiempo.
+     * Todos los accesos se sincronizan sobre el propio registro.
+     */
+    private static final class Registro extends LinkedHashMap<String, Intentos> {
+
+        private final int maximo;
+
+        private Registro(int maximo) {
+            super(16, 0.75f, true);
+            this.maximo = maximo;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Intentos> mayor) {
+            return size() > maximo;
+        }
+
+        private synchronized long bloqueoRestante(String clave, long ahora) {
+            Intentos intento = get(clave);
+            return intento != null ? intento.bloqueadoHasta - ahora : 0;
+        }
+
+        private synchronized int bloqueados(long ahora) {
+            int bloqueados = 0;
+            for (Intentos intento : values()) {
+                if (intento.bloqueadoHasta - ahora > 0) {
+                    bloqueados++;
+                }
+            }
+            return bloqueados;
+        }
+    }
+}
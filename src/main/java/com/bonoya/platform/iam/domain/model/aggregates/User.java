@@ -27,7 +27,8 @@ public class User extends AuditableAbstractAggregateRoot<User> {
     private String password;
 
     @Getter
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    // Los roles son datos de referencia: se asocian por id, nunca se insertan ni actualizan desde el usuario
+    @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles;
@@ -73,6 +74,10 @@ public class User extends AuditableAbstractAggregateRoot<User> {
         return this;
     }
 
+    public void updatePassword(String password) {
+        this.password = password;
+    }
+
     public void setProfile(Profile profile) {
         this.profile = profile;
     }
@@ -99,7 +99,9 @@ public class WebSecurityConfiguration {
                                 "/configuration/security",
                                 "/webjars/**",
                                 "/error",
-                                "/actuator/**").permitAll()
+                                "/actuator/health",
+                                "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")         // Métricas e info solo para ADMIN
                         .requestMatchers("/api/v1/authentication/me").authenticated() // Cualquier usuario autenticado puede acceder
                         .requestMatchers("/api/v1/roles/**").hasRole("ADMIN")     // Solo ADMIN puede acceder
                         .requestMatchers("/api/v1/users/**").hasRole("ADMIN")     // Solo ADMIN puede acceder
@@ -2,6 +2,7 @@ package com.bonoya.platform.iam.infrastructure.authorization.sfs.pipeline;
 
 import com.bonoya.platform.iam.infrastructure.authorization.sfs.model.UsernamePasswordAuthenticationTokenBuilder;
 import com.bonoya.platform.iam.infrastructure.tokens.jwt.BearerTokenService;
+import com.bonoya.platform.shared.infrastructure.timing.TiemposPeticion;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,7 +31,7 @@ public class BearerAuthorizationRequestFilter extends OncePerRequestFilter {
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
-        try {
+        try (TiemposPeticion.Fase fase = TiemposPeticion.fase("auth")) {
             String token = tokenService.getBearerTokenFrom(request);
             LOGGER.info("Token: {}", token);
             if (token != null && tokenService.validateToken(token)) {
@@ -4,4 +4,6 @@ import com.bonoya.platform.iam.application.internal.outboundservices.hashing.Has
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 public interface BCryptHashingService extends HashingService, PasswordEncoder {
+    @Override
+    boolean upgradeEncoding(String encodedPassword);
 }
@@ -1,24 +1,151 @@
 package com.bonoya.platform.iam.infrastructure.hashing.bcrypt.services;
 
 import com.bonoya.platform.iam.infrastructure.hashing.bcrypt.BCryptHashingService;
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashing de contraseñas con BCrypt en un ejecutor propio y acotado.
+ *
+ * BCrypt consume CPU a propósito, así que una ráfaga de inicios de sesión no debe competir sin límite con el
+ * resto de peticiones: como mucho {@code hilos} hashes se calculan a la vez y {@code capacidad} esperan en
+ * cola. Si la cola está llena o la espera supera el máximo, la operación se rechaza de inmediato con
+ * {@link TooManyRequestsException} (429) en lugar de ocupar más hilos de Tomcat.
+ *
+ * El factor de trabajo es configurable; los hashes generados con un costo menor se detectan con
+ * {@link #upgradeEncoding(String)} para volver a calcularlos en el siguiente inicio de sesión correcto.
+ */
 @Service
 public class HashingServiceImpl implements BCryptHashingService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashingServiceImpl.class);
+
     private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaximaMs;
+    private final Timer tiempoEncode;
+    private final Timer tiempoMatches;
+    private final Timer tiempoEnCola;
+    private final Counter rechazos;
+
+    public HashingServiceImpl(MeterRegistry registry,
+                              @Value("${bonoya.hashing.bcrypt.costo:10}") int costo,
+                              @Value("${bonoya.hashing.hilos:0}") int hilos,
+                              @Value("${bonoya.hashing.capacidad:64}") int capacidad,
+                              @Value("${bonoya.hashing.espera-maxima-ms:3000}") long esperaMaximaMs) {
+        int hilosEfectivos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = new BCryptPasswordEncoder(costo);
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.executor = new ThreadPoolExecutor(hilosEfectivos, hilosEfectivos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidad), new FabricaHilos());
 
-    public HashingServiceImpl() {
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.tiempoEncode = tiempo(registry, "encode");
+        this.tiempoMatches = tiempo(registry, "matches");
+        this.tiempoEnCola = Timer.builder("bonoya.hashing.espera")
+                .description("Tiempo en cola antes de calcular el hash")
+                .register(registry);
+        this.rechazos = Counter.builder("bonoya.hashing.rechazos")
+                .description("Operaciones rechazadas por cola llena o espera excedida")
+                .register(registry);
+        Gauge.builder("bonoya.hashing.cola", executor, e -> e.getQueue().size()).register(registry);
+        Gauge.builder("bonoya.hashing.activos", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+        LOGGER.info("BCrypt con costo {} sobre {} hilos (cola de {})", costo, hilosEfectivos, capacidad);
     }
 
     @Override
     public String encode(CharSequence rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return ejecutar(tiempoEncode, () -> passwordEncoder.encode(rawPassword));
     }
 
     @Override
     public boolean matches(CharSequence rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return ejecutar(tiempoMatches, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica si el hash se generó con un costo menor al configurado y debe recalcularse.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T ejecutar(Timer tiempo, Callable<T> operacion) {
+        long encolado = System.nanoTime();
+        Future<T> resultado;
+        try {
+            resultado = executor.submit(() -> {
+                long inicio = System.nanoTime();
+                tiempoEnCola.record(inicio - encolado, TimeUnit.NANOSECONDS);
+                try {
+                    return operacion.call();
+                } finally {
+                    tiempo.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new TooManyRequestsException("Demasiadas autenticaciones simultáneas, intente nuevamente", 1L);
+        }
+        try {
+            return resultado.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            rechazos.increment();
+            throw new TooManyRequestsException("Demasiadas autenticaciones simultáneas, intente nuevamente", 1L);
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido mientras se calculaba el hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Timer tiempo(MeterRegistry registry, String operacion) {
+        return Timer.builder("bonoya.hashing.tiempo")
+                .description("Tiempo de cálculo de BCrypt")
+                .tag("operacion", operacion)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    @PreDestroy
+    void detener() {
+        executor.shutdownNow();
+    }
+
+    private static final class FabricaHilos implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread hilo = new Thread(r, "bcrypt-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
     }
 }
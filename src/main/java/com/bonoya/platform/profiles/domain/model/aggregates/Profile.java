@@ -8,8 +8,12 @@ import com.bonoya.platform.profiles.domain.model.valueobjects.Password;
 import com.bonoya.platform.profiles.domain.model.valueobjects.RazonSocial;
 import com.bonoya.platform.profiles.domain.model.valueobjects.Ruc;
 import com.bonoya.platform.shared.domain.model.aggregates.AuditableAbstractAggregateRoot;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profiles")
 public class Profile extends AuditableAbstractAggregateRoot<Profile> {
 
   @Embedded
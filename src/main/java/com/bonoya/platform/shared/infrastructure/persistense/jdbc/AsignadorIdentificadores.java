@@ -0,0 +1,55 @@
+package com.bonoya.platform.shared.infrastructure.persistense.jdbc;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserva identificadores en bloques desde la secuencia de la columna identidad de una tabla.
+ *
+ * Permite conocer el id de una fila antes de insertarla (escritura diferida, inserciones por lotes) sin una
+ * consulta por fila. Usa la misma secuencia que las inserciones de JPA, por lo que ambos caminos conviven
+ * sin colisiones; los ids de un bloque no usado se pierden, como ocurre con cualquier secuencia.
+ */
+@Component
+public class AsignadorIdentificadores {
+
+    private static final String SQL_BLOQUE =
+            "select nextval(pg_get_serial_sequence(?, 'id')) from generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanoBloque;
+    private final Map<String, Deque<Long>> bloques = new ConcurrentHashMap<>();
+
+    public AsignadorIdentificadores(JdbcTemplate jdbcTemplate,
+                                    @Value("${bonoya.persistencia.bloque-ids:50}") int tamanoBloque) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Devuelve el siguiente id reservado para la tabla, pidiendo un bloque nuevo cuando se agota el actual.
+     */
+    public long siguienteId(String tabla) {
+        Deque<Long> bloque = bloques.computeIfAbsent(tabla, t -> new ArrayDeque<>());
+        synchronized (bloque) {
+            if (bloque.isEmpty()) {
+                bloque.addAll(reservar(tabla, tamanoBloque));
+            }
+            return bloque.pollFirst();
+        }
+    }
+
+    /**
+     * Reserva de una vez la cantidad indicada de ids, sin pasar por el bloque compartido.
+     */
+    public List<Long> reservar(String tabla, int cantidad) {
+        return jdbcTemplate.queryForList(SQL_BLOQUE, Long.class, tabla, cantidad);
+    }
+}
@@ -0,0 +1,50 @@
+package com.bonoya.platform.shared.infrastructure.persistense.jpa.configuration.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+/**
+ * Publica aciertos, fallos, inserciones y desalojos de cada región de la caché de segundo nivel.
+ *
+ * Las regiones se definen en {@code ehcache.xml}; las estadísticas las lleva Ehcache (JSR-107) y se exponen
+ * como {@code cache.gets}, {@code cache.puts} y {@code cache.evictions} con la etiqueta {@code cache} igual
+ * al nombre de la región.
+ */
+@Component
+public class MetricasCacheSegundoNivel implements MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricasCacheSegundoNivel.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public MetricasCacheSegundoNivel(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory jcache)) {
+            LOGGER.info("Caché de segundo nivel deshabilitada, no se publican sus métricas");
+            return;
+        }
+        CacheManager cacheManager = jcache.getCacheManager();
+        for (String nombre : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(nombre);
+            JCacheMetrics.monitor(registry, cache, Tags.of("nivel", "hibernate"));
+        }
+    }
+}
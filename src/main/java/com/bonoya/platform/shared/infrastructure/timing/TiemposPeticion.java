@@ -0,0 +1,163 @@
+package com.bonoya.platform.shared.infrastructure.timing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Desglose del tiempo de una petición por fases (auth, load, schedule, solve, metrics, persist, serialize).
+ *
+ * El registro vive en un {@link ThreadLocal} que solo se inicializa cuando la medición está habilitada; sin
+ * él, {@link #fase(String)} devuelve una instancia compartida que no hace nada, de modo que el costo de las
+ * llamadas instrumentadas es una lectura del {@code ThreadLocal}. Las fases anidadas son exclusivas: mientras
+ * una fase interna está abierta, el tiempo no se suma a la externa, y la suma de fases nunca supera el total.
+ */
+public final class TiemposPeticion {
+
+    private static final ThreadLocal<TiemposPeticion> ACTUAL = new ThreadLocal<>();
+    private static final Fase SIN_MEDICION = () -> { };
+
+    private final long inicio = System.nanoTime();
+    private final Map<String, Long> acumulados = new LinkedHashMap<>();
+    private final Deque<Abierta> abiertas = new ArrayDeque<>();
+    private long inicioSerializacion;
+    private long fin;
+
+    private TiemposPeticion() {
+    }
+
+    /**
+     * Inicia el registro de la petición en el hilo actual.
+     */
+    public static TiemposPeticion iniciar() {
+        TiemposPeticion tiempos = new TiemposPeticion();
+        ACTUAL.set(tiempos);
+        return tiempos;
+    }
+
+    public static void limpiar() {
+        ACTUAL.remove();
+    }
+
+    /**
+     * @return el registro del hilo actual, o null si la medición no está activa
+     */
+    public static TiemposPeticion actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Abre una fase; se cierra al cerrar el {@link Fase} devuelto (pensado para try-with-resources).
+     */
+    public static Fase fase(String nombre) {
+        TiemposPeticion tiempos = ACTUAL.get();
+        return tiempos != null ? tiempos.abrir(nombre) : SIN_MEDICION;
+    }
+
+    /**
+     * Marca el inicio de la serialización de la respuesta; el resto de la petición se atribuye a ella.
+     */
+    public void iniciarSerializacion() {
+        if (inicioSerializacion == 0) {
+            inicioSerializacion = System.nanoTime();
+        }
+    }
+
+    public boolean isSerializando() {
+        return inicioSerializacion != 0 && fin == 0;
+    }
+
+    /**
+     * Cierra el registro: la serialización (si empezó) termina en este instante.
+     */
+    public void finalizar() {
+        if (fin != 0) {
+            return;
+        }
+        fin = System.nanoTime();
+        if (inicioSerializacion != 0) {
+            sumar("serialize", fin - inicioSerializacion);
+        }
+    }
+
+    /**
+     * Tiempo por fase en milisegundos, en orden de aparición, seguido del total transcurrido.
+     */
+    public Map<String, Double> aMapa() {
+        Map<String, Double> mapa = new LinkedHashMap<>();
+        acumulados.forEach((nombre, nanos) -> mapa.put(nombre, nanos / 1_000_000.0));
+        mapa.put("total", ((fin != 0 ? fin : System.nanoTime()) - inicio) / 1_000_000.0);
+        return mapa;
+    }
+
+    /**
+     * Valor de la cabecera {@code Server-Timing}, p. ej. {@code load;dur=1.20, solve;dur=8.41, total;dur=12.03}.
+     */
+    public String aServerTiming() {
+        StringBuilder cabecera = new StringBuilder();
+        for (Map.Entry<String, Double> entrada : aMapa().entrySet()) {
+            if (cabecera.length() > 0) {
+                cabecera.append(", ");
+            }
+            cabecera.append(entrada.getKey()).append(";dur=")
+                    .append(String.format(Locale.ROOT, "%.2f", entrada.getValue()));
+        }
+        return cabecera.toString();
+    }
+
+    private Fase abrir(String nombre) {
+        long ahora = System.nanoTime();
+        Abierta externa = abiertas.peek();
+        if (externa != null) {
+            externa.propio += ahora - externa.desde;
+        }
+        // Las fases se listan en el orden en que se abren por primera vez
+        acumulados.putIfAbsent(nombre, 0L);
+        Abierta abierta = new Abierta(nombre, ahora);
+        abiertas.push(abierta);
+        return () -> cerrar(abierta);
+    }
+
+    private void cerrar(Abierta abierta) {
+        if (!abiertas.contains(abierta)) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        // Cierra también las fases internas que quedaron abiertas por error
+        Abierta cerrada;
+        do {
+            cerrada = abiertas.pop();
+            sumar(cerrada.nombre, cerrada.propio + ahora - cerrada.desde);
+            Abierta externa = abiertas.peek();
+            if (externa != null) {
+                externa.desde = ahora;
+            }
+        } while (cerrada != abierta);
+    }
+
+    private void sumar(String nombre, long nanos) {
+        acumulados.merge(nombre, nanos, Long::sum);
+    }
+
+    /**
+     * Fase abierta; {@link #close()} no lanza excepciones comprobadas.
+     */
+    @FunctionalInterface
+    public interface Fase extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Abierta {
+        private final String nombre;
+        private long desde;
+        private long propio;
+
+        private Abierta(String nombre, long desde) {
+            this.nombre = nombre;
+            this.desde = desde;
+        }
+    }
+}
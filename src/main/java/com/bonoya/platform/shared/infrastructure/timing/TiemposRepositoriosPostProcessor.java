@@ -0,0 +1,48 @@
+package com.bonoya.platform.shared.infrastructure.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Atribuye las llamadas a los repositorios Spring Data a las fases {@code load} (lecturas) y
+ * {@code persist} (escrituras) de {@link TiemposPeticion}.
+ *
+ * El interceptor solo se instala cuando {@code bonoya.server-timing.enabled=true}.
+ */
+@Component
+public class TiemposRepositoriosPostProcessor implements BeanPostProcessor {
+
+    private final boolean habilitado;
+
+    public TiemposRepositoriosPostProcessor(Environment environment) {
+        this.habilitado = environment.getProperty("bonoya.server-timing.enabled", Boolean.class, false);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (habilitado && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, informacion) -> proxyFactory.addAdvice(new FaseRepositorio())));
+        }
+        return bean;
+    }
+
+    static String fasePara(String metodo) {
+        return metodo.startsWith("save") || metodo.startsWith("delete") || metodo.startsWith("flush")
+                ? "persist" : "load";
+    }
+
+    private static final class FaseRepositorio implements MethodInterceptor {
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            try (TiemposPeticion.Fase fase = TiemposPeticion.fase(fasePara(invocation.getMethod().getName()))) {
+                return invocation.proceed();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.bonoya.platform.shared.interfaces.rest.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+
+/**
+ * Soporte para GET condicionales ({@code If-None-Match} / {@code If-Modified-Since}).
+ *
+ * El controlador obtiene primero la versión del recurso con una consulta liviana y solo carga y serializa las
+ * entidades si el cliente no tiene ya esa versión. Las respuestas llevan {@code Cache-Control: no-cache}: un
+ * proxy inverso puede guardarlas, pero debe revalidarlas en cada petición, de modo que la autenticación se
+ * sigue comprobando y la repetición se resuelve con un 304 sin cuerpo.
+ */
+public final class PeticionCondicional {
+
+    /**
+     * Recursos iguales para todos los usuarios autenticados (catálogo, cronograma publicado).
+     */
+    public static final CacheControl COMPARTIDO = CacheControl.noCache().cachePublic();
+
+    /**
+     * Recursos que dependen del usuario autenticado; solo el cliente puede guardarlos.
+     */
+    public static final CacheControl PRIVADO = CacheControl.noCache().cachePrivate();
+
+    private PeticionCondicional() {
+    }
+
+    /**
+     * @param ultimaModificacion milisegundos de la última modificación, o negativo si no se conoce
+     * @return la respuesta 304 si el cliente ya tiene la versión indicada
+     */
+    public static <T> Optional<ResponseEntity<T>> noModificado(WebRequest request, String etag,
+                                                               long ultimaModificacion, CacheControl cacheControl) {
+        if (!request.checkNotModified(etag, ultimaModificacion)) {
+            return Optional.empty();
+        }
+        return Optional.of(cabeceras(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, ultimaModificacion,
+                cacheControl).build());
+    }
+
+    /**
+     * Respuesta 200 con los validadores de la versión servida.
+     */
+    public static ResponseEntity.BodyBuilder ok(String etag, long ultimaModificacion, CacheControl cacheControl) {
+        return cabeceras(ResponseEntity.ok(), etag, ultimaModificacion, cacheControl);
+    }
+
+    private static ResponseEntity.BodyBuilder cabeceras(ResponseEntity.BodyBuilder builder, String etag,
+                                                        long ultimaModificacion, CacheControl cacheControl) {
+        builder.eTag(etag).cacheControl(cacheControl);
+        if (ultimaModificacion >= 0) {
+            builder.lastModified(ultimaModificacion);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,142 @@
+package com.bonoya.platform.shared.interfaces.rest.middleware;
+
+import com.bonoya.platform.shared.infrastructure.timing.TiemposPeticion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Emite la cabecera {@code Server-Timing} con el desglose por fases de cada petición.
+ *
+ * Se ejecuta antes de la cadena de seguridad para que la fase {@code auth} quede dentro del registro. La
+ * cabecera se escribe al final de la petición, cuando ya se conoce la serialización; para ello se ignoran los
+ * {@code flush} mientras se serializa el cuerpo. Si la respuesta supera el búfer del contenedor y se envía
+ * antes de terminar, queda la cabecera que {@link ServerTimingResponseAdvice} fijó antes de serializar.
+ * Deshabilitado ({@code bonoya.server-timing.enabled=false}) el filtro no hace nada.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA = "Server-Timing";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean habilitado;
+
+    public ServerTimingFilter(@Value("${bonoya.server-timing.enabled:false}") boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !habilitado;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        TiemposPeticion tiempos = TiemposPeticion.iniciar();
+        RespuestaDiferida respuesta = new RespuestaDiferida(response, tiempos);
+        try {
+            filterChain.doFilter(request, respuesta);
+        } finally {
+            tiempos.finalizar();
+            TiemposPeticion.limpiar();
+            String cabecera = tiempos.aServerTiming();
+            if (!response.isCommitted()) {
+                response.setHeader(CABECERA, cabecera);
+            }
+            // El contenedor envía lo retenido en el búfer al terminar la petición
+            LOGGER.debug("{} {} -> {}", request.getMethod(), request.getRequestURI(), cabecera);
+        }
+    }
+
+    /**
+     * Respuesta que retiene los {@code flush} durante la serialización para poder añadir la cabecera final.
+     */
+    private static final class RespuestaDiferida extends HttpServletResponseWrapper {
+
+        private final TiemposPeticion tiempos;
+        private ServletOutputStream salida;
+
+        private RespuestaDiferida(HttpServletResponse response, TiemposPeticion tiempos) {
+            super(response);
+            this.tiempos = tiempos;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (salida == null) {
+                salida = new SalidaDiferida(super.getOutputStream(), tiempos);
+            }
+            return salida;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (!tiempos.isSerializando()) {
+                super.flushBuffer();
+            }
+        }
+    }
+
+    private static final class SalidaDiferida extends ServletOutputStream {
+
+        private final ServletOutputStream destino;
+        private final TiemposPeticion tiempos;
+
+        private SalidaDiferida(ServletOutputStream destino, TiemposPeticion tiempos) {
+            this.destino = destino;
+            this.tiempos = tiempos;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            destino.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            destino.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!tiempos.isSerializando()) {
+                destino.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!tiempos.isSerializando()) {
+                destino.close();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return destino.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            destino.setWriteListener(writeListener);
+        }
+    }
+}
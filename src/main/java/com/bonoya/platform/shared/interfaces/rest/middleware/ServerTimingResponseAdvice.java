@@ -0,0 +1,68 @@
+package com.bonoya.platform.shared.interfaces.rest.middleware;
+
+import com.bonoya.platform.shared.infrastructure.timing.TiemposPeticion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Marca el inicio de la serialización y deja una primera cabecera {@code Server-Timing} con las fases
+ * medidas hasta ese momento (la definitiva la escribe {@link ServerTimingFilter} si la respuesta aún no se
+ * ha enviado).
+ *
+ * Con {@code bonoya.server-timing.debug-json=true}, las peticiones con la cabecera {@code X-Debug-Tiempos: true}
+ * reciben el cuerpo JSON envuelto como {@code {"datos": ..., "tiempos": {...}}}.
+ */
+@RestControllerAdvice
+public class ServerTimingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String CABECERA_DEPURACION = "X-Debug-Tiempos";
+
+    private final boolean habilitado;
+    private final boolean depuracionJson;
+
+    public ServerTimingResponseAdvice(@Value("${bonoya.server-timing.enabled:false}") boolean habilitado,
+                                      @Value("${bonoya.server-timing.debug-json:false}") boolean depuracionJson) {
+        this.habilitado = habilitado;
+        this.depuracionJson = depuracionJson;
+    }
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return habilitado;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType, @NonNull MediaType contentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> converterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        TiemposPeticion tiempos = TiemposPeticion.actual();
+        if (tiempos == null) {
+            return body;
+        }
+        response.getHeaders().set(ServerTimingFilter.CABECERA, tiempos.aServerTiming());
+
+        Object cuerpo = body;
+        if (depuracionJson
+                && MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+                && "true".equalsIgnoreCase(request.getHeaders().getFirst(CABECERA_DEPURACION))) {
+            Map<String, Object> envoltorio = new LinkedHashMap<>();
+            envoltorio.put("datos", body);
+            envoltorio.put("tiempos", tiempos.aMapa());
+            cuerpo = envoltorio;
+        }
+        tiempos.iniciarSerializacion();
+        return cuerpo;
+    }
+}
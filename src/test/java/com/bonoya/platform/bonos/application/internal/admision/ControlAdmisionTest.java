@@ -0,0 +1,66 @@
+package com.bonoya.platform.bonos.application.internal.admision;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ControlAdmisionTest {
+
+    private final AtomicLong reloj = new AtomicLong(1_000L);
+    private final AlmacenCubetasMemoria almacen = new AlmacenCubetasMemoria(reloj::get);
+
+    private ControlAdmision control(double capacidadUsuario, double capacidadGlobal) {
+        return new ControlAdmision(almacen, true,
+                new AlmacenCubetas.LimiteCubeta(capacidadUsuario, 10),
+                new AlmacenCubetas.LimiteCubeta(capacidadGlobal, 100),
+                TimeUnit.MINUTES.toNanos(10));
+    }
+
+    @Test
+    @DisplayName("Rechaza con Retry-After al agotar la ráfaga y admite tras la recarga")
+    void rechazaRafagaYRecarga() {
+        ControlAdmision control = control(100, 10_000);
+
+        control.admitir("ana", 60);
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> control.admitir("ana", 60));
+        // Faltan 20 tokens a 10 por segundo
+        assertEquals(2L, ex.getRetryAfterSeconds());
+        assertEquals(1L, control.getRechazadasUsuario());
+
+        // Otro inversor tiene su propia cubeta
+        assertDoesNotThrow(() -> control.admitir("luis", 60));
+
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertDoesNotThrow(() -> control.admitir("ana", 60));
+        assertEquals(3L, control.getAdmitidas());
+    }
+
+    @Test
+    @DisplayName("El rechazo global reembolsa la cubeta del usuario y el costo crece con los períodos")
+    void rechazoGlobalReembolsaYCosto() {
+        ControlAdmision control = control(100, 100);
+
+        control.admitir("ana", 90);
+        assertThrows(TooManyRequestsException.class, () -> control.admitir("luis", 50));
+        assertEquals(1L, control.getRechazadasGlobal());
+
+        // Luis no perdió tokens por el rechazo global
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertDoesNotThrow(() -> control.admitir("luis", 100));
+
+        Bono bono = new Bono();
+        bono.setPlazoAnios(30);
+        bono.setFrecuenciaPagos(2);
+        assertEquals(600.0, ControlAdmision.estimarCosto("ANALISIS_COMPLETO", bono));
+        assertEquals(120.0, ControlAdmision.estimarCosto("TCEA", bono));
+        assertEquals(0, almacen.purgarInactivas(TimeUnit.MINUTES.toNanos(10)));
+    }
+}
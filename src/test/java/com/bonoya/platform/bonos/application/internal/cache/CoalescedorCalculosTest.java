@@ -0,0 +1,134 @@
+package com.bonoya.platform.bonos.application.internal.cache;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la coalescencia de cálculos idénticos.
+ */
+class CoalescedorCalculosTest {
+
+    @Test
+    @DisplayName("Peticiones idénticas concurrentes ejecutan un solo cálculo y cada inversor recibe su copia")
+    void peticionesConcurrentesCompartenCalculo() throws Exception {
+        CoalescedorCalculos coalescedor = new CoalescedorCalculos(0, 100);
+        CoalescedorCalculos.ClaveCalculo clave = CoalescedorCalculos.ClaveCalculo.de(
+                "ANALISIS_COMPLETO", crearBono(), new BigDecimal("5.0"), new BigDecimal("980"));
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Calculo>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String inversor = "inversor" + i;
+                resultados.add(pool.submit(() -> coalescedor.obtenerOCalcular(clave, inversor, () -> {
+                    ejecuciones.incrementAndGet();
+                    esperar(liberar);
+                    return crearCalculo("inversor0");
+                })));
+            }
+            // Se espera a que todas las peticiones estén esperando al mismo cálculo
+            while (coalescedor.getPeticionesCoalescidas() < 7) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            for (int i = 0; i < 8; i++) {
+                Calculo calculo = resultados.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals("inversor" + i, calculo.getInversorUsername());
+                assertEquals(new BigDecimal("6.25"), calculo.getTrea());
+                assertNull(calculo.getId());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, ejecuciones.get());
+        assertEquals(0, coalescedor.getCalculosEnCurso());
+    }
+
+    @Test
+    @DisplayName("El resultado reciente se reutiliza y los importes equivalentes producen la misma clave")
+    void resultadoRecienteSeReutiliza() {
+        CoalescedorCalculos coalescedor = new CoalescedorCalculos(60_000, 100);
+        Bono bono = crearBono();
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        coalescedor.obtenerOCalcular(CoalescedorCalculos.ClaveCalculo.de("TREA_ENRIQUECIDO", bono, null, new BigDecimal("980.00")),
+                "a", () -> { ejecuciones.incrementAndGet(); return crearCalculo("a"); });
+        Calculo segundo = coalescedor.obtenerOCalcular(
+                CoalescedorCalculos.ClaveCalculo.de("TREA_ENRIQUECIDO", bono, null, new BigDecimal("980")),
+                "b", () -> { ejecuciones.incrementAndGet(); return crearCalculo("b"); });
+        coalescedor.obtenerOCalcular(CoalescedorCalculos.ClaveCalculo.de("TREA_ENRIQUECIDO", bono, null, new BigDecimal("990")),
+                "c", () -> { ejecuciones.incrementAndGet(); return crearCalculo("c"); });
+
+        assertEquals(2, ejecuciones.get());
+        assertEquals(1, coalescedor.getAciertosRecientes());
+        assertEquals("b", segundo.getInversorUsername());
+    }
+
+    @Test
+    @DisplayName("Un error del cálculo se propaga y no queda en caché")
+    void errorNoQuedaEnCache() {
+        CoalescedorCalculos coalescedor = new CoalescedorCalculos(60_000, 100);
+        CoalescedorCalculos.ClaveCalculo clave = CoalescedorCalculos.ClaveCalculo.de("TREA_ENRIQUECIDO", crearBono(), null, null);
+
+        assertThrows(IllegalStateException.class, () -> coalescedor.obtenerOCalcular(clave, "a", () -> {
+            throw new IllegalStateException("fallo");
+        }));
+        Calculo calculo = coalescedor.obtenerOCalcular(clave, "a", () -> crearCalculo("a"));
+        assertEquals(new BigDecimal("6.25"), calculo.getTrea());
+    }
+
+    @Test
+    @DisplayName("Solo un resultado reciente o en curso se considera disponible sin calcular")
+    void disponibleSoloConResultadoReutilizable() {
+        CoalescedorCalculos coalescedor = new CoalescedorCalculos(60_000, 100);
+        CoalescedorCalculos.ClaveCalculo clave = CoalescedorCalculos.ClaveCalculo.de("TREA_ENRIQUECIDO", crearBono(), null, null);
+
+        assertFalse(coalescedor.disponible(clave));
+        coalescedor.obtenerOCalcular(clave, "a", () -> {
+            assertTrue(coalescedor.disponible(clave), "un cálculo en curso está disponible para los demás");
+            return crearCalculo("a");
+        });
+        assertTrue(coalescedor.disponible(clave));
+        assertFalse(new CoalescedorCalculos(0, 100).disponible(clave));
+    }
+
+    private static Bono crearBono() {
+        Bono bono = new Bono();
+        bono.setId(7L);
+        bono.setNombre("POPULAR");
+        return bono;
+    }
+
+    private static Calculo crearCalculo(String inversor) {
+        Calculo calculo = new Calculo();
+        calculo.setBono(crearBono());
+        calculo.setInversorUsername(inversor);
+        calculo.setTrea(new BigDecimal("6.25"));
+        return calculo;
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
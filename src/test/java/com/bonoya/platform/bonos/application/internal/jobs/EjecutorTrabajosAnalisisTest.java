@@ -0,0 +1,84 @@
+package com.bonoya.platform.bonos.application.internal.jobs;
+
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del orden por prioridad y del rechazo por capacidad del ejecutor de análisis.
+ */
+class EjecutorTrabajosAnalisisTest {
+
+    private EjecutorTrabajosAnalisis ejecutor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (ejecutor != null) {
+            ejecutor.detener();
+        }
+    }
+
+    @Test
+    @DisplayName("Los trabajos en cola se atienden por prioridad y luego por orden de llegada")
+    void atiendePorPrioridad() throws InterruptedException {
+        ejecutor = new EjecutorTrabajosAnalisis(1, 10);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CountDownLatch terminados = new CountDownLatch(4);
+        List<String> orden = new CopyOnWriteArrayList<>();
+
+        // El único hilo queda ocupado mientras se encolan los demás trabajos
+        ejecutor.enviar(PrioridadTrabajo.NORMAL, () -> esperar(bloqueo));
+        ejecutor.enviar(PrioridadTrabajo.BAJA, registrar(orden, "baja", terminados));
+        ejecutor.enviar(PrioridadTrabajo.NORMAL, registrar(orden, "normal-1", terminados));
+        ejecutor.enviar(PrioridadTrabajo.ALTA, registrar(orden, "alta", terminados));
+        ejecutor.enviar(PrioridadTrabajo.NORMAL, registrar(orden, "normal-2", terminados));
+        bloqueo.countDown();
+
+        assertTrue(terminados.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("alta", "normal-1", "normal-2", "baja"), orden);
+    }
+
+    @Test
+    @DisplayName("Con la capacidad agotada el envío se rechaza con un tiempo de reintento")
+    void rechazaCuandoEstaLleno() throws InterruptedException {
+        ejecutor = new EjecutorTrabajosAnalisis(1, 2);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CountDownLatch liberado = new CountDownLatch(2);
+
+        ejecutor.enviar(PrioridadTrabajo.NORMAL, () -> { esperar(bloqueo); liberado.countDown(); });
+        ejecutor.enviar(PrioridadTrabajo.NORMAL, liberado::countDown);
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> ejecutor.enviar(PrioridadTrabajo.ALTA, () -> { }));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+
+        bloqueo.countDown();
+        assertTrue(liberado.await(5, TimeUnit.SECONDS));
+        // La capacidad se libera al terminar cada trabajo
+        Thread.sleep(50);
+        assertDoesNotThrow(() -> ejecutor.enviar(PrioridadTrabajo.NORMAL, () -> { }));
+    }
+
+    private static Runnable registrar(List<String> orden, String nombre, CountDownLatch terminados) {
+        return () -> {
+            orden.add(nombre);
+            terminados.countDown();
+        };
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.bonoya.platform.bonos.application.internal.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de las métricas de cálculo y de su esquema de etiquetas.
+ */
+class MetricasCalculoTest {
+
+    private SimpleMeterRegistry registry;
+    private MetricasCalculo metricas;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metricas = new MetricasCalculo(registry);
+    }
+
+    @Test
+    @DisplayName("Mide cada análisis por tipo y resultado, y agrupa los tipos desconocidos")
+    void timerPorTipo() {
+        assertEquals("ok", metricas.medirAnalisis("TREA", () -> "ok"));
+        metricas.medirAnalisis("TREA", () -> "ok");
+        assertThrows(IllegalStateException.class, () -> metricas.medirAnalisis("DURACION", () -> {
+            throw new IllegalStateException("fallo");
+        }));
+        metricas.medirAnalisis("bono-42", () -> "ok");
+
+        assertEquals(2, registry.get(MetricasCalculo.TIEMPO_ANALISIS)
+                .tags("tipo", "TREA", "resultado", "exito").timer().count());
+        assertEquals(1, registry.get(MetricasCalculo.TIEMPO_ANALISIS)
+                .tags("tipo", "DURACION", "resultado", "error").timer().count());
+        assertEquals(1, registry.get(MetricasCalculo.TIEMPO_ANALISIS).tag("tipo", "OTRO").timer().count());
+        assertEquals(3, registry.get(MetricasCalculo.TIEMPO_ANALISIS).timers().size());
+        assertTrue(registry.get(MetricasCalculo.TIEMPO_ANALISIS).timers().stream()
+                .map(Timer::getId)
+                .allMatch(id -> id.getTags().size() == 2));
+    }
+
+    @Test
+    @DisplayName("Acumula iteraciones y resoluciones no convergentes de la TIR")
+    void contadoresSolver() {
+        metricas.registrarSolverTir("biseccion", 20, true);
+        metricas.registrarSolverTir("biseccion", 100, false);
+        metricas.registrarPeriodos(24);
+        metricas.registrarPeriodos(0);
+
+        assertEquals(120.0, registry.get(MetricasCalculo.ITERACIONES_TIR).tag("metodo", "biseccion").counter().count());
+        assertEquals(1.0, registry.get(MetricasCalculo.RESOLUCIONES_TIR)
+                .tags("metodo", "biseccion", "resultado", "no_convergio").counter().count());
+        assertEquals(1, registry.get(MetricasCalculo.PERIODOS_CRONOGRAMA).summary().count());
+    }
+}
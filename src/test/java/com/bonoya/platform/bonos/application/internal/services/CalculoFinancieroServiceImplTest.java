@@ -260,6 +260,50 @@ class CalculoFinancieroServiceImplTest {
             "TREA debe ser alta para precio bajo");
     }
 
+    /**
+     * TEST CASO 8: Sin método de amortización el flujo del inversor es alemán
+     * (antes del motor único de cronogramas se trataba como americano)
+     */
+    @Test
+    void testMetodoNuloEsAleman() {
+        Bono bono = crearBonoAmericano();
+        bono.setMetodoAmortizacion(null);
+
+        List<FlujoFinanciero> flujos = calculoService.calcularFlujoFinanciero(bono);
+
+        assertEquals(5, flujos.size());
+        for (int periodo = 1; periodo <= 4; periodo++) {
+            assertEquals(new BigDecimal("250.00"), flujos.get(periodo).getAmortizacion(),
+                "Amortización constante en el período " + periodo);
+        }
+        assertEquals(new BigDecimal("30.00"), flujos.get(1).getInteres());
+        assertEquals(new BigDecimal("22.50"), flujos.get(2).getInteres());
+    }
+
+    /**
+     * TEST CASO 9: El flujo del inversor aplica los períodos de gracia del bono
+     * (antes del motor único de cronogramas se ignoraban)
+     */
+    @Test
+    void testFlujoInversionistaAplicaGracia() {
+        Bono total = crearBonoAleman();
+        total.setPlazosGraciaTotal(1);
+        List<FlujoFinanciero> conGraciaTotal = calculoService.calcularFlujoFinanciero(total);
+
+        assertEquals(0, conGraciaTotal.get(1).getFlujoTotal().signum(), "Sin pago en gracia total");
+        assertEquals(new BigDecimal("1030.00"), conGraciaTotal.get(1).getSaldo(), "El interés se capitaliza");
+        assertEquals(new BigDecimal("343.33"), conGraciaTotal.get(2).getAmortizacion());
+        assertEquals(0, conGraciaTotal.get(4).getSaldo().signum());
+
+        Bono parcial = crearBonoAleman();
+        parcial.setPlazosGraciaParcial(1);
+        List<FlujoFinanciero> conGraciaParcial = calculoService.calcularFlujoFinanciero(parcial);
+
+        assertEquals(0, conGraciaParcial.get(1).getAmortizacion().signum(), "Solo interés en gracia parcial");
+        assertEquals(new BigDecimal("30.00"), conGraciaParcial.get(1).getFlujoTotal());
+        assertEquals(new BigDecimal("333.33"), conGraciaParcial.get(2).getAmortizacion());
+    }
+
     // ================ MÉTODOS AUXILIARES ================
     
     private Bono crearBonoAmericano() {
@@ -0,0 +1,95 @@
+package com.bonoya.platform.bonos.application.internal.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.CalculoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de las medidas de riesgo por revaluación (duración/convexidad efectivas y duraciones clave).
+ */
+@ExtendWith(MockitoExtension.class)
+class CalculoFinancieroServiceMedidasRiesgoTest {
+
+    @Mock
+    private CalculoRepository calculoRepository;
+
+    private CalculoFinancieroServiceImpl calculoService;
+
+    @BeforeEach
+    void setUp() {
+        calculoService = new CalculoFinancieroServiceImpl(calculoRepository);
+    }
+
+    @Test
+    @DisplayName("La duración efectiva coincide con la duración modificada analítica")
+    void duracionEfectivaCoincideConDuracionModificada() {
+        Bono bono = crearBono("AMERICANO", 10, 2);
+
+        DuracionConvexidad metricas = calculoService.calcularMedidasRiesgo(bono, new BigDecimal("7.0"));
+
+        BigDecimal diferencia = metricas.getDuracionModificada().subtract(metricas.getDuracionEfectiva()).abs();
+        assertTrue(diferencia.compareTo(new BigDecimal("0.001")) <= 0,
+                "Duración efectiva " + metricas.getDuracionEfectiva()
+                        + " debe aproximar la duración modificada " + metricas.getDuracionModificada());
+        assertTrue(metricas.getConvexidadEfectiva().compareTo(BigDecimal.ZERO) > 0,
+                "La convexidad efectiva debe ser positiva");
+    }
+
+    @Test
+    @DisplayName("La suma de duraciones clave reproduce la duración efectiva")
+    void sumaDuracionesClaveIgualDuracionEfectiva() {
+        Bono bono = crearBono("ALEMAN", 15, 4);
+
+        DuracionConvexidad metricas = calculoService.calcularMedidasRiesgo(bono, new BigDecimal("0.065"));
+
+        assertEquals(DuracionConvexidad.PLAZOS_CLAVE.length, metricas.getDuracionesClave().size());
+        BigDecimal suma = metricas.getDuracionesClave().values().stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(metricas.getDuracionEfectiva().setScale(4, RoundingMode.HALF_UP),
+                suma.setScale(4, RoundingMode.HALF_UP));
+
+        // Un bono a 15 años no tiene exposición al tramo de 30 años más allá de la interpolación 10-30
+        assertTrue(metricas.getDuracionesClave().get(30).compareTo(BigDecimal.ZERO) >= 0);
+        assertTrue(metricas.getDuracionesClave().get(1).compareTo(BigDecimal.ZERO) > 0);
+    }
+
+    @Test
+    @DisplayName("Un bono corto solo expone los primeros plazos clave")
+    void bonoCortoSinExposicionLarga() {
+        Bono bono = crearBono("AMERICANO", 2, 2);
+
+        DuracionConvexidad metricas = calculoService.calcularMedidasRiesgo(bono, new BigDecimal("6.0"));
+
+        assertEquals(0, metricas.getDuracionesClave().get(5).signum());
+        assertEquals(0, metricas.getDuracionesClave().get(10).signum());
+        assertEquals(0, metricas.getDuracionesClave().get(30).signum());
+        assertTrue(metricas.getDuracionesClave().get(2).compareTo(metricas.getDuracionesClave().get(1)) > 0,
+                "El principal a 2 años concentra la exposición en el plazo clave de 2 años");
+    }
+
+    private Bono crearBono(String metodo, int plazoAnios, int frecuenciaPagos) {
+        Bono bono = new Bono();
+        bono.setId(1L);
+        bono.setNombre("RIESGO");
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("6.0"));
+        bono.setPlazoAnios(plazoAnios);
+        bono.setFrecuenciaPagos(frecuenciaPagos);
+        bono.setMoneda("PEN");
+        bono.setFechaEmision(LocalDate.of(2024, 1, 1));
+        bono.setMetodoAmortizacion(metodo);
+        return bono;
+    }
+}
@@ -0,0 +1,174 @@
+package com.bonoya.platform.bonos.application.internal.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CotizacionCurva;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.BonoRepository;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.CalculoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas del bootstrapping, la interpolación y la caché de curvas de descuento.
+ */
+@ExtendWith(MockitoExtension.class)
+class CurvaDescuentoServiceImplTest {
+
+    @Mock
+    private BonoRepository bonoRepository;
+
+    @Mock
+    private CalculoRepository calculoRepository;
+
+    private CalculoFinancieroServiceImpl calculoService;
+    private CurvaDescuentoServiceImpl curvaService;
+
+    @BeforeEach
+    void setUp() {
+        calculoService = new CalculoFinancieroServiceImpl(calculoRepository);
+        curvaService = new CurvaDescuentoServiceImpl(bonoRepository, calculoService);
+    }
+
+    @Test
+    @DisplayName("Con cotizaciones cupón cero las tasas cero coinciden con los rendimientos")
+    void cotizacionesCuponCeroReproducenRendimientos() {
+        List<CotizacionCurva> cotizaciones = List.of(
+                new CotizacionCurva(new BigDecimal("1"), new BigDecimal("0.05"), null, null),
+                new CotizacionCurva(new BigDecimal("5"), new BigDecimal("6.0"), null, null),
+                new CotizacionCurva(new BigDecimal("2"), new BigDecimal("0.055"), null, null));
+
+        CurvaDescuento curva = curvaService.construirCurva("pen", cotizaciones, CurvaDescuento.Interpolacion.LINEAL);
+
+        assertEquals("PEN", curva.getMoneda());
+        assertArrayEquals(new double[]{1, 2, 5}, curva.getPlazos(), 1e-12);
+        assertArrayEquals(new double[]{0.05, 0.055, 0.06}, curva.getTasasCero(), 1e-9);
+        assertEquals(0.0575, curva.tasaCero(3.5), 1e-9);
+        assertEquals(1 / Math.pow(1.06, 5), curva.factorDescuento(5), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Bonos cuponados a la par con el mismo rendimiento producen una curva plana")
+    void bonosAlaParProducenCurvaPlana() {
+        List<CotizacionCurva> cotizaciones = List.of(
+                new CotizacionCurva(new BigDecimal("2"), new BigDecimal("0.07"), new BigDecimal("0.07"), 1),
+                new CotizacionCurva(new BigDecimal("10"), new BigDecimal("0.07"), new BigDecimal("0.07"), 1));
+
+        CurvaDescuento curva = curvaService.construirCurva("USD", cotizaciones, CurvaDescuento.Interpolacion.LINEAL);
+
+        for (double tasa : curva.getTasasCero()) {
+            assertEquals(0.07, tasa, 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("La interpolación cúbica monótona no sobrepasa los nodos vecinos")
+    void cubicaMonotonaSinSobreoscilacion() {
+        CurvaDescuento curva = new CurvaDescuento("PEN", CurvaDescuento.Interpolacion.CUBICA_MONOTONA,
+                new double[]{1, 2, 5, 10}, new double[]{0.04, 0.06, 0.061, 0.061});
+
+        for (double t = 2.0; t <= 10.0; t += 0.25) {
+            double z = curva.tasaCero(t);
+            assertTrue(z >= 0.06 - 1e-12 && z <= 0.061 + 1e-12, "Tasa fuera de rango en t=" + t + ": " + z);
+        }
+        assertEquals(0.06, curva.tasaCero(2.0), 1e-12);
+    }
+
+    @Test
+    @DisplayName("La reconstrucción reutiliza los nodos de los instrumentos sin cambios")
+    void reconstruccionIncremental() {
+        BootstrapCurva.Instrumento uno = new BootstrapCurva.Instrumento(new double[]{1}, new double[]{1}, 1 / 1.05);
+        BootstrapCurva.Instrumento dos = new BootstrapCurva.Instrumento(new double[]{2}, new double[]{1}, 1 / Math.pow(1.055, 2));
+        BootstrapCurva.Instrumento cinco = new BootstrapCurva.Instrumento(new double[]{5}, new double[]{1}, 1 / Math.pow(1.06, 5));
+        BootstrapCurva.Instrumento cincoNuevo = new BootstrapCurva.Instrumento(new double[]{5}, new double[]{1}, 1 / Math.pow(1.065, 5));
+
+        BootstrapCurva.EstadoCurva inicial = BootstrapCurva.construir(List.of(uno, dos, cinco), null);
+        BootstrapCurva.EstadoCurva reconstruida = BootstrapCurva.construir(List.of(cincoNuevo, dos, uno), inicial);
+
+        assertEquals(0, inicial.nodosReutilizados());
+        assertEquals(2, reconstruida.nodosReutilizados());
+        assertEquals(0.065, reconstruida.tasas()[2], 1e-9);
+    }
+
+    @Test
+    @DisplayName("La curva del catálogo se guarda en caché hasta que se invalida")
+    void curvaCatalogoEnCache() {
+        when(bonoRepository.findByMonedaIgnoreCase("PEN")).thenReturn(List.of(
+                crearBono(1L, 3, new BigDecimal("0.06")),
+                crearBono(2L, 8, new BigDecimal("0.07"))));
+
+        CurvaDescuento primera = curvaService.obtenerCurva("PEN", CurvaDescuento.Interpolacion.LINEAL);
+        curvaService.obtenerCurva("PEN", CurvaDescuento.Interpolacion.CUBICA_MONOTONA);
+        verify(bonoRepository, times(1)).findByMonedaIgnoreCase("PEN");
+
+        curvaService.invalidar("PEN");
+        CurvaDescuento segunda = curvaService.obtenerCurva("PEN", CurvaDescuento.Interpolacion.LINEAL);
+        verify(bonoRepository, times(2)).findByMonedaIgnoreCase("PEN");
+        assertArrayEquals(primera.getTasasCero(), segunda.getTasasCero(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Una invalidación recibida mientras se lee el catálogo no deja vigente la curva leída")
+    void invalidacionDuranteLaConstruccion() {
+        List<Bono> bonos = List.of(crearBono(1L, 3, new BigDecimal("0.06")), crearBono(2L, 8, new BigDecimal("0.07")));
+        when(bonoRepository.findByMonedaIgnoreCase("PEN"))
+                .thenAnswer(invocacion -> {
+                    // Otra transacción confirma un cambio en la moneda durante la lectura
+                    curvaService.invalidar("PEN");
+                    return bonos;
+                })
+                .thenReturn(bonos);
+
+        curvaService.obtenerCurva("PEN", CurvaDescuento.Interpolacion.LINEAL);
+        assertTrue(curvaService.curvasCatalogoVigentes().isEmpty());
+
+        curvaService.obtenerCurva("PEN", CurvaDescuento.Interpolacion.LINEAL);
+        curvaService.obtenerCurva("PEN", CurvaDescuento.Interpolacion.LINEAL);
+        verify(bonoRepository, times(2)).findByMonedaIgnoreCase("PEN");
+        assertEquals(1, curvaService.curvasCatalogoVigentes().size());
+    }
+
+    @Test
+    @DisplayName("Con una curva plana la valoración coincide con el descuento a tasa plana")
+    void valoracionConCurvaPlanaCoincideConTasaPlana() {
+        Bono bono = crearBono(1L, 5, null);
+        List<FlujoFinanciero> flujos = calculoService.calcularFlujoFinanciero(bono);
+        CurvaDescuento plana = new CurvaDescuento("PEN", CurvaDescuento.Interpolacion.LINEAL,
+                new double[]{1}, new double[]{0.07});
+
+        BigDecimal precioCurva = calculoService.calcularPrecioMaximo(flujos, plana);
+        BigDecimal precioPlano = calculoService.calcularPrecioMaximo(flujos, new BigDecimal("0.07"));
+
+        // La curva descuenta por fecha (actual/365) y la tasa plana por período
+        assertEquals(precioPlano.doubleValue(), precioCurva.doubleValue(), 1.0);
+        assertEquals(precioCurva.subtract(new BigDecimal("950")).setScale(2),
+                calculoService.calcularVAN(flujos, new BigDecimal("950"), plana).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private Bono crearBono(Long id, int plazoAnios, BigDecimal tasaDescuento) {
+        Bono bono = new Bono();
+        bono.setId(id);
+        bono.setNombre("CURVA" + id);
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("6.0"));
+        bono.setPlazoAnios(plazoAnios);
+        bono.setFrecuenciaPagos(2);
+        bono.setMoneda("PEN");
+        bono.setFechaEmision(LocalDate.of(2024, 1, 1));
+        bono.setMetodoAmortizacion("AMERICANO");
+        bono.setTasaDescuento(tasaDescuento);
+        return bono;
+    }
+}
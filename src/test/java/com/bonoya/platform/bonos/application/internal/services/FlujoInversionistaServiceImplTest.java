@@ -0,0 +1,83 @@
+package com.bonoya.platform.bonos.application.internal.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.services.CalculoFinancieroService;
+import com.bonoya.platform.bonos.domain.services.FlujoInversionistaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas de las métricas del inversionista calculadas durante la generación de los flujos.
+ */
+@ExtendWith(MockitoExtension.class)
+class FlujoInversionistaServiceImplTest {
+
+    @Mock
+    private CalculoFinancieroService calculoFinancieroService;
+
+    private FlujoInversionistaServiceImpl service;
+    private Bono bono;
+
+    @BeforeEach
+    void setUp() {
+        service = new FlujoInversionistaServiceImpl(calculoFinancieroService);
+        bono = new Bono();
+        bono.setNombre("Bono prueba");
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        when(calculoFinancieroService.calcularFlujoFinanciero(bono)).thenReturn(List.of(
+                flujo(1, inicio.plusYears(1), "80", "0"),
+                flujo(2, inicio.plusYears(2), "80", "0"),
+                flujo(3, inicio.plusYears(3), "80", "1000")));
+    }
+
+    @Test
+    @DisplayName("Las métricas acumuladas coinciden con los totales de los flujos")
+    void metricasEnUnaPasada() {
+        FlujoInversionistaService.SimulacionCalculada simulacion = service.simular(bono, new BigDecimal("950"));
+        FlujoInversionistaService.MetricasInversionista metricas = simulacion.getMetricas();
+
+        assertEquals(4, simulacion.getFlujos().size());
+        assertEquals(0, metricas.getTotalCupones().compareTo(new BigDecimal("240")));
+        assertEquals(0, metricas.getTotalPrincipal().compareTo(new BigDecimal("1000")));
+        assertEquals(0, metricas.getGananciaNeta().compareTo(new BigDecimal("290")));
+        assertEquals(3, metricas.getPeriodoRecuperacion());
+        assertEquals(0, metricas.getRendimientoTotal().compareTo(new BigDecimal("30.52631579")));
+    }
+
+    @Test
+    @DisplayName("calcularMetricas sobre los flujos generados da el mismo resultado que simular")
+    void metricasEquivalentes() {
+        BigDecimal precio = new BigDecimal("950");
+        FlujoInversionistaService.SimulacionCalculada simulacion = service.simular(bono, precio);
+        FlujoInversionistaService.MetricasInversionista recalculadas =
+                service.calcularMetricas(simulacion.getFlujos(), precio);
+
+        assertEquals(0, simulacion.getMetricas().getGananciaNeta().compareTo(recalculadas.getGananciaNeta()));
+        assertEquals(0, simulacion.getMetricas().getRendimientoTotal().compareTo(recalculadas.getRendimientoTotal()));
+        assertEquals(simulacion.getMetricas().getPeriodoRecuperacion(), recalculadas.getPeriodoRecuperacion());
+        assertEquals(0, simulacion.getMetricas().getTotalCupones().compareTo(recalculadas.getTotalCupones()));
+        assertEquals(0, simulacion.getMetricas().getTotalPrincipal().compareTo(recalculadas.getTotalPrincipal()));
+    }
+
+    private static FlujoFinanciero flujo(int periodo, LocalDate fecha, String cupon, String amortizacion) {
+        FlujoFinanciero flujo = new FlujoFinanciero();
+        flujo.setPeriodo(periodo);
+        flujo.setFecha(fecha);
+        flujo.setCupon(new BigDecimal(cupon));
+        flujo.setAmortizacion(new BigDecimal(amortizacion));
+        flujo.setFlujoTotal(new BigDecimal(cupon).add(new BigDecimal(amortizacion)));
+        return flujo;
+    }
+}
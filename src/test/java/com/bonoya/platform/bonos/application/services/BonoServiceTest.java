@@ -0,0 +1,106 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.services.CurvaDescuentoService;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.BonoRepository;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.FlujoFinancieroRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas de la invalidación de la caché de segundo nivel al modificar bonos.
+ */
+@ExtendWith(MockitoExtension.class)
+class BonoServiceTest {
+
+    @Mock
+    private BonoRepository bonoRepository;
+
+    @Mock
+    private FlujoFinancieroRepository flujoFinancieroRepository;
+
+    @Mock
+    private CurvaDescuentoService curvaDescuentoService;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    private BonoService bonoService;
+
+    @BeforeEach
+    void setUp() {
+        bonoService = new BonoService(bonoRepository, flujoFinancieroRepository, curvaDescuentoService, entityManagerFactory);
+        lenient().when(entityManagerFactory.getCache()).thenReturn(cache);
+        lenient().when(cache.unwrap(Cache.class)).thenReturn(cache);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("Actualizar un bono desaloja su entrada y las consultas del catálogo solo tras el commit")
+    void actualizarDesalojaTrasCommit() {
+        when(bonoRepository.findById(7L)).thenReturn(Optional.of(crearBono("PEN")));
+        when(bonoRepository.save(any(Bono.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        bonoService.actualizarBono(7L, crearBono("USD"));
+
+        verifyNoInteractions(cache);
+        confirmar();
+        verify(cache).evictEntityData(Bono.class, 7L);
+        verify(cache).evictQueryRegion(BonoRepository.REGION_CONSULTAS);
+        verify(curvaDescuentoService).invalidar("PEN");
+        verify(curvaDescuentoService).invalidar("USD");
+    }
+
+    @Test
+    @DisplayName("Eliminar un bono desaloja su entrada y las consultas del catálogo tras el commit")
+    void eliminarDesalojaTrasCommit() {
+        bonoService.eliminarBono(7L);
+
+        verifyNoInteractions(cache);
+        confirmar();
+        verify(cache).evictEntityData(Bono.class, 7L);
+        verify(cache).evictQueryRegion(BonoRepository.REGION_CONSULTAS);
+        verify(curvaDescuentoService).invalidarTodas();
+    }
+
+    private static void confirmar() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static Bono crearBono(String moneda) {
+        Bono bono = new Bono();
+        bono.setNombre("CACHE");
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("6.0"));
+        bono.setPlazoAnios(3);
+        bono.setFrecuenciaPagos(2);
+        bono.setMoneda(moneda);
+        bono.setFechaEmision(LocalDate.of(2023, 6, 1));
+        bono.setMetodoAmortizacion("AMERICANO");
+        return bono;
+    }
+}
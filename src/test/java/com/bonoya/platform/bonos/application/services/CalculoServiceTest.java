@@ -0,0 +1,61 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.infrastructure.persistence.jdbc.EscritorDiferidoCalculos;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.CalculoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalculoServiceTest {
+
+    @Mock
+    private CalculoRepository calculoRepository;
+    @Mock
+    private EscritorDiferidoCalculos escritorDiferido;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("La exportación recorre el cursor, limpia el contexto por tramos y añade los pendientes no escritos")
+    void exportaHistorialConPendientes() {
+        CalculoService service = new CalculoService(calculoRepository, escritorDiferido, entityManager,
+                transactionManager, 2);
+        AtomicBoolean cerrado = new AtomicBoolean();
+        when(escritorDiferido.obtenerPendientesPorInversor("ana")).thenReturn(List.of(calculo(3L), calculo(6L)));
+        when(calculoRepository.streamByInversorUsername("ana")).thenReturn(
+                Stream.of(calculo(1L), calculo(2L), calculo(3L), calculo(4L), calculo(5L))
+                        .onClose(() -> cerrado.set(true)));
+
+        List<Long> exportados = new ArrayList<>();
+        long total = service.exportarCalculosPorInversor("ana", calculo -> exportados.add(calculo.getId()));
+
+        // El pendiente 3 ya estaba escrito y no se repite; el 6 aún no, y va al final
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), exportados);
+        assertEquals(6, total);
+        assertTrue(cerrado.get());
+        verify(entityManager, times(2)).clear();
+    }
+
+    private static Calculo calculo(Long id) {
+        Calculo calculo = new Calculo();
+        calculo.setId(id);
+        calculo.setInversorUsername("ana");
+        return calculo;
+    }
+}
@@ -0,0 +1,162 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.application.internal.importacion.FilaImportacion;
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.ImportacionBono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.EstadoImportacion;
+import com.bonoya.platform.bonos.infrastructure.persistence.jdbc.EscritorLotesBonos;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.ImportacionBonoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacionBonoServiceTest {
+
+    @Mock
+    private ImportacionBonoRepository importacionRepository;
+    @Mock
+    private BonoService bonoService;
+    @Mock
+    private EscritorLotesBonos escritorLotes;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImportacionBonoService service;
+    private ImportacionBono importacion;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImportacionBonoService(importacionRepository, bonoService, escritorLotes, transactionManager,
+                2, 2, 10);
+        importacion = new ImportacionBono("emisor", "CSV");
+        importacion.setId(9L);
+        lenient().when(importacionRepository.findById(9L)).thenReturn(Optional.of(importacion));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.detener();
+    }
+
+    @Test
+    @DisplayName("Inserta por lotes con sus flujos y registra las filas inválidas sin detenerse")
+    void importaPorLotes() {
+        when(importacionRepository.save(any(ImportacionBono.class))).thenReturn(importacion);
+
+        ImportacionBono resultado = service.importar("emisor", "CSV", null, List.of(
+                FilaImportacion.valida(1, bono("A")),
+                FilaImportacion.invalida(2, "Registro mal formado"),
+                FilaImportacion.valida(3, bono("B"))).iterator());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Bono>> lotes = ArgumentCaptor.forClass(List.class);
+        verify(escritorLotes, times(2)).insertar(lotes.capture());
+        assertEquals(1, lotes.getAllValues().get(0).size());
+        assertEquals("emisor", lotes.getAllValues().get(0).get(0).getEmisorUsername());
+        assertEquals(4, lotes.getAllValues().get(0).get(0).getFlujos().size());
+
+        assertEquals(EstadoImportacion.COMPLETADA, resultado.getEstado());
+        assertEquals(2, resultado.getFilasImportadas());
+        assertEquals(1, resultado.getFilasConError());
+        assertEquals(3, resultado.getUltimaFilaConfirmada());
+        assertEquals(2, resultado.getErrores().get(0).getFila());
+    }
+
+    @Test
+    @DisplayName("Al reanudar salta las filas confirmadas y queda interrumpida si la lectura se corta")
+    void reanudaDesdeUltimaFilaConfirmada() {
+        importacion.setEstado(EstadoImportacion.INTERRUMPIDA);
+        importacion.confirmarLote(2, 2, List.of(), 10);
+        when(importacionRepository.findByIdAndEmisorUsername(9L, "emisor")).thenReturn(Optional.of(importacion));
+        when(importacionRepository.save(importacion)).thenReturn(importacion);
+
+        Iterator<FilaImportacion> filas = List.of(
+                FilaImportacion.valida(1, bono("A")),
+                FilaImportacion.valida(2, bono("B")),
+                FilaImportacion.valida(3, bono("C")),
+                FilaImportacion.valida(4, bono("D"))).iterator();
+        Iterator<FilaImportacion> cortado = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                if (!filas.hasNext()) {
+                    throw new UncheckedIOException(new IOException("conexión cerrada"));
+                }
+                return true;
+            }
+
+            @Override
+            public FilaImportacion next() {
+                return filas.next();
+            }
+        };
+
+        ImportacionBono resultado = service.importar("emisor", "CSV", 9L, cortado);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Bono>> lote = ArgumentCaptor.forClass(List.class);
+        verify(escritorLotes).insertar(lote.capture());
+        assertEquals(List.of("C", "D"), lote.getValue().stream().map(Bono::getNombre).toList());
+        assertEquals(EstadoImportacion.INTERRUMPIDA, resultado.getEstado());
+        assertEquals(4, resultado.getUltimaFilaConfirmada());
+        assertEquals(4, resultado.getFilasImportadas());
+        assertNotNull(resultado.getMensaje());
+        verify(bonoService).invalidarTrasImportacion(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Un valor que no cabe en su columna numérica se registra como error de la fila y no llega al lote")
+    void valorFueraDePrecisionSeRechazaPorFila() {
+        when(importacionRepository.save(any(ImportacionBono.class))).thenReturn(importacion);
+        Bono enorme = bono("ENORME");
+        enorme.setValorNominal(new BigDecimal("1234567890123456"));
+        Bono tasa = bono("TASA");
+        tasa.setTasaDescuento(new BigDecimal("12345678901234.5"));
+
+        ImportacionBono resultado = service.importar("emisor", "CSV", null, List.of(
+                FilaImportacion.valida(1, enorme),
+                FilaImportacion.valida(2, bono("A")),
+                FilaImportacion.valida(3, tasa)).iterator());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Bono>> lotes = ArgumentCaptor.forClass(List.class);
+        verify(escritorLotes, atLeastOnce()).insertar(lotes.capture());
+        assertEquals(List.of("A"), lotes.getAllValues().stream().flatMap(List::stream).map(Bono::getNombre).toList());
+        assertEquals(EstadoImportacion.COMPLETADA, resultado.getEstado());
+        assertEquals(2, resultado.getFilasConError());
+        assertTrue(resultado.getErrores().get(0).getMensaje().contains("15 dígitos enteros"),
+                resultado.getErrores().get(0).getMensaje());
+        assertTrue(resultado.getErrores().get(1).getMensaje().contains("13 dígitos enteros"),
+                resultado.getErrores().get(1).getMensaje());
+    }
+
+    private static Bono bono(String nombre) {
+        Bono bono = new Bono();
+        bono.setNombre(nombre);
+        bono.setMoneda("PEN");
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("0.08"));
+        bono.setPlazoAnios(2);
+        bono.setFrecuenciaPagos(2);
+        bono.setFechaEmision(LocalDate.of(2025, 1, 15));
+        return bono;
+    }
+}
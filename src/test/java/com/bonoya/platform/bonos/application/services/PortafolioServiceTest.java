@@ -0,0 +1,102 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.Portafolio;
+import com.bonoya.platform.bonos.domain.model.entities.PosicionPortafolio;
+import com.bonoya.platform.bonos.domain.model.valueobjects.AnalisisPortafolio;
+import com.bonoya.platform.bonos.domain.model.valueobjects.FlujosPortafolio;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.BonoRepository;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.PortafolioRepository;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas de la validación de moneda de los portafolios.
+ */
+@ExtendWith(MockitoExtension.class)
+class PortafolioServiceTest {
+
+    @Mock
+    private PortafolioRepository portafolioRepository;
+
+    @Mock
+    private BonoRepository bonoRepository;
+
+    private PortafolioService portafolioService;
+
+    @BeforeEach
+    void setUp() {
+        portafolioService = new PortafolioService(portafolioRepository, bonoRepository);
+    }
+
+    @Test
+    @DisplayName("No se puede agregar una posición en otra moneda que las existentes")
+    void rechazaPosicionEnOtraMoneda() {
+        Portafolio portafolio = new Portafolio("ana", "Renta fija", null);
+        portafolio.agregarPosicion(new PosicionPortafolio(crearBono(1L, "PEN"), BigDecimal.ONE, new BigDecimal("1000")));
+        when(portafolioRepository.findByIdAndInversorUsername(5L, "ana")).thenReturn(Optional.of(portafolio));
+        when(bonoRepository.findAllById(any())).thenReturn(List.of(crearBono(2L, "USD")));
+
+        ValidationException error = assertThrows(ValidationException.class, () -> portafolioService.agregarPosicion(5L,
+                "ana", new PortafolioService.PosicionSolicitada(2L, BigDecimal.ONE, new BigDecimal("1000"))));
+
+        assertTrue(error.getMessage().contains("PEN, USD"), error.getMessage());
+        assertEquals(1, portafolio.getPosiciones().size());
+        verify(portafolioRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Un portafolio que ya mezcla monedas no se analiza")
+    void rechazaAnalisisConMonedasMezcladas() {
+        Portafolio portafolio = new Portafolio("ana", "Mixto", null);
+        portafolio.agregarPosicion(new PosicionPortafolio(crearBono(1L, "PEN"), BigDecimal.ONE, new BigDecimal("1000")));
+        portafolio.agregarPosicion(new PosicionPortafolio(crearBono(2L, "usd"), BigDecimal.ONE, new BigDecimal("1000")));
+        when(portafolioRepository.findByIdAndInversorUsername(5L, "ana")).thenReturn(Optional.of(portafolio));
+
+        assertThrows(ValidationException.class, () -> portafolioService.analizar(5L, "ana", null,
+                FlujosPortafolio.Agrupacion.ANIO, LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("El análisis informa la moneda común de las posiciones")
+    void analisisInformaMoneda() {
+        Portafolio portafolio = new Portafolio("ana", "Soles", null);
+        portafolio.agregarPosicion(new PosicionPortafolio(crearBono(1L, "PEN"), BigDecimal.ONE, new BigDecimal("1000")));
+        portafolio.agregarPosicion(new PosicionPortafolio(crearBono(2L, " pen "), new BigDecimal("2"), new BigDecimal("990")));
+        when(portafolioRepository.findByIdAndInversorUsername(5L, "ana")).thenReturn(Optional.of(portafolio));
+
+        AnalisisPortafolio analisis = portafolioService.analizar(5L, "ana", new BigDecimal("6"),
+                FlujosPortafolio.Agrupacion.ANIO, LocalDate.of(2024, 1, 1));
+
+        assertEquals("PEN", analisis.getMoneda());
+        assertEquals(2, analisis.getPosiciones());
+    }
+
+    private static Bono crearBono(Long id, String moneda) {
+        Bono bono = new Bono();
+        bono.setId(id);
+        bono.setNombre("PORTAFOLIO" + id);
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("6.0"));
+        bono.setPlazoAnios(3);
+        bono.setFrecuenciaPagos(2);
+        bono.setMoneda(moneda);
+        bono.setFechaEmision(LocalDate.of(2023, 6, 1));
+        bono.setMetodoAmortizacion("AMERICANO");
+        return bono;
+    }
+}
@@ -0,0 +1,135 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.domain.services.CurvaDescuentoService;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+import com.bonoya.platform.bonos.infrastructure.persistence.jdbc.LectorCatalogoBonos;
+import com.bonoya.platform.bonos.infrastructure.persistence.snapshot.EscritorSnapshotCatalogo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas de la restauración del snapshot del catálogo: solo se instala lo que sigue vigente.
+ */
+@ExtendWith(MockitoExtension.class)
+class SnapshotCatalogoServiceTest {
+
+    private static final long ACTUALIZADO = 1_700_000_000_000L;
+
+    // La caché de cronogramas es compartida: cada prueba usa nominales propios para no acertar en ella
+    private static final AtomicLong SECUENCIA = new AtomicLong(739_113);
+
+    private static final CurvaDescuento CURVA_PEN = new CurvaDescuento("PEN", CurvaDescuento.Interpolacion.LINEAL,
+            new double[]{1.0, 5.0}, new double[]{0.045, 0.052});
+    private static final CurvaDescuento CURVA_USD = new CurvaDescuento("USD", CurvaDescuento.Interpolacion.LINEAL,
+            new double[]{1.0, 5.0}, new double[]{0.038, 0.041});
+
+    @TempDir
+    Path directorio;
+
+    @Mock
+    private LectorCatalogoBonos lector;
+
+    @Mock
+    private CurvaDescuentoService curvaDescuentoService;
+
+    private Path archivo;
+    private SnapshotCatalogoService service;
+    private GeneradorCronograma.Terminos vigente;
+    private GeneradorCronograma.Terminos modificado;
+
+    @BeforeEach
+    void setUp() {
+        vigente = GeneradorCronograma.Terminos.de(BigDecimal.valueOf(SECUENCIA.incrementAndGet(), 2),
+                new BigDecimal("0.0625"), 5, 2, LocalDate.of(2024, 3, 1), 0, 0, true);
+        modificado = GeneradorCronograma.Terminos.de(BigDecimal.valueOf(SECUENCIA.incrementAndGet(), 2),
+                new BigDecimal("0.0575"), 7, 4, null, 0, 0, false);
+        archivo = directorio.resolve("catalogo.snap");
+        service = new SnapshotCatalogoService(lector, curvaDescuentoService, true, archivo.toString());
+    }
+
+    @AfterEach
+    void restaurarFuente() {
+        GeneradorCronograma.usarPrecompilados(null);
+    }
+
+    @Test
+    @DisplayName("Un bono cuyo updated_at cambió no se sirve desde el snapshot y solo los cálculos cuentan aciertos")
+    void bonoModificadoNoSeSirve() throws IOException {
+        escribirSnapshot(GeneradorCronograma.VERSION_ARITMETICA);
+        when(lector.versionesBonos()).thenReturn(Map.of(1L, ACTUALIZADO, 2L, ACTUALIZADO + 1));
+        when(lector.versionesMonedas()).thenReturn(Map.of());
+
+        service.restaurar();
+
+        assertEquals(1, service.getBonosRestaurados());
+        long aciertos = GeneradorCronograma.getAciertosPrecompilados();
+        assertNotNull(GeneradorCronograma.compilarSinCache(vigente));
+        assertEquals(aciertos, GeneradorCronograma.getAciertosPrecompilados(), "el recorrido del catálogo no cuenta");
+        GeneradorCronograma.compilar(vigente);
+        assertEquals(aciertos + 1, GeneradorCronograma.getAciertosPrecompilados());
+        GeneradorCronograma.compilar(modificado);
+        assertEquals(aciertos + 1, GeneradorCronograma.getAciertosPrecompilados());
+    }
+
+    @Test
+    @DisplayName("Una curva cuya moneda cambió de versión no se restaura")
+    void curvaDeMonedaModificadaNoSeRestaura() throws IOException {
+        escribirSnapshot(GeneradorCronograma.VERSION_ARITMETICA);
+        when(lector.versionesBonos()).thenReturn(Map.of());
+        when(lector.versionesMonedas()).thenReturn(Map.of(
+                "PEN", new LectorCatalogoBonos.VersionMoneda(ACTUALIZADO, 3),
+                "USD", new LectorCatalogoBonos.VersionMoneda(ACTUALIZADO, 5)));
+
+        service.restaurar();
+
+        assertEquals(1, service.getCurvasRestauradas());
+        verify(curvaDescuentoService).restaurarCurvaCatalogo(argThat(curva -> "PEN".equals(curva.getMoneda())));
+        verify(curvaDescuentoService, never()).restaurarCurvaCatalogo(argThat(curva -> "USD".equals(curva.getMoneda())));
+    }
+
+    @Test
+    @DisplayName("Un snapshot de otra versión de la aritmética se ignora por completo")
+    void otraVersionAritmeticaSeIgnora() throws IOException {
+        escribirSnapshot(GeneradorCronograma.VERSION_ARITMETICA + 1);
+
+        service.restaurar();
+
+        assertEquals(0, service.getBonosRestaurados());
+        assertEquals(0, service.getCurvasRestauradas());
+        verifyNoInteractions(lector);
+        verify(curvaDescuentoService, never()).restaurarCurvaCatalogo(any());
+        long aciertos = GeneradorCronograma.getAciertosPrecompilados();
+        GeneradorCronograma.compilar(vigente);
+        assertEquals(aciertos, GeneradorCronograma.getAciertosPrecompilados());
+    }
+
+    // Bono 1 con los términos vigentes y bono 2 con los modificados, ambos guardados en ACTUALIZADO;
+    // PEN con 3 bonos y USD con 4
+    private void escribirSnapshot(int versionAritmetica) throws IOException {
+        try (EscritorSnapshotCatalogo escritor = new EscritorSnapshotCatalogo(archivo, versionAritmetica)) {
+            escritor.agregarCurva(CURVA_PEN, ACTUALIZADO, 3);
+            escritor.agregarCurva(CURVA_USD, ACTUALIZADO, 4);
+            escritor.agregarBono(1, ACTUALIZADO, vigente, GeneradorCronograma.compilarSinCache(vigente));
+            escritor.agregarBono(2, ACTUALIZADO, modificado, GeneradorCronograma.compilarSinCache(modificado));
+            escritor.confirmar();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.bonoya.platform.bonos.application.services;
+
+import com.bonoya.platform.bonos.application.internal.admision.ControlAdmision;
+import com.bonoya.platform.bonos.application.internal.cache.CoalescedorCalculos;
+import com.bonoya.platform.bonos.application.internal.jobs.EjecutorTrabajosAnalisis;
+import com.bonoya.platform.bonos.application.internal.jobs.PrioridadTrabajo;
+import com.bonoya.platform.bonos.application.internal.jobs.TrabajoAnalisis;
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.domain.services.CalculoFinancieroService;
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas de la prioridad y de los límites de retención de los trabajos de análisis.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrabajoAnalisisServiceTest {
+
+    @Mock
+    private EjecutorTrabajosAnalisis ejecutor;
+
+    @Mock
+    private BonoService bonoService;
+
+    @Mock
+    private CalculoService calculoService;
+
+    @Mock
+    private CalculoFinancieroService calculoFinancieroService;
+
+    @Mock
+    private CoalescedorCalculos coalescedorCalculos;
+
+    @Mock
+    private ControlAdmision controlAdmision;
+
+    private TrabajoAnalisisService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrabajoAnalisisService(ejecutor, bonoService, calculoService, calculoFinancieroService,
+                coalescedorCalculos, controlAdmision, 15, 3, 2);
+    }
+
+    @Test
+    @DisplayName("La prioridad se deriva del tamaño del bono")
+    void prioridadPorTamano() {
+        when(bonoService.obtenerBonoPorId(1L)).thenReturn(Optional.of(crearBono(1L, 30, 12)));
+        when(bonoService.obtenerBonoPorId(2L)).thenReturn(Optional.of(crearBono(2L, 5, 2)));
+
+        assertEquals(PrioridadTrabajo.BAJA, enviar(1L, "ana").getPrioridad());
+        assertEquals(PrioridadTrabajo.NORMAL, enviar(2L, "ana").getPrioridad());
+        verify(ejecutor).enviar(eq(PrioridadTrabajo.BAJA), any());
+        verify(ejecutor).enviar(eq(PrioridadTrabajo.NORMAL), any());
+    }
+
+    @Test
+    @DisplayName("Al llegar al límite del inversor se descarta su trabajo terminado más antiguo")
+    void descartaTerminadoMasAntiguoDelInversor() {
+        when(bonoService.obtenerBonoPorId(1L)).thenReturn(Optional.of(crearBono(1L, 5, 2)));
+        // Cada trabajo se ejecuta al encolarlo
+        doAnswer(invocacion -> {
+            invocacion.<Runnable>getArgument(1).run();
+            return null;
+        }).when(ejecutor).enviar(any(), any());
+        when(coalescedorCalculos.obtenerOCalcular(any(), any(), any())).thenReturn(new Calculo());
+
+        TrabajoAnalisis primero = enviar(1L, "ana");
+        TrabajoAnalisis segundo = enviar(1L, "ana");
+        TrabajoAnalisis tercero = enviar(1L, "ana");
+
+        assertTrue(tercero.terminado());
+        assertTrue(service.obtenerTrabajo(tercero.getId(), "ana").isPresent());
+        assertEquals(1, Stream.of(primero, segundo)
+                .filter(trabajo -> service.obtenerTrabajo(trabajo.getId(), "ana").isPresent()).count());
+        // Si ambos terminaron en el mismo instante cualquiera de los dos es el más antiguo
+        if (primero.getFinalizadoEn().isBefore(segundo.getFinalizadoEn())) {
+            assertTrue(service.obtenerTrabajo(primero.getId(), "ana").isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Si todos los trabajos retenidos siguen pendientes el envío se rechaza con 429")
+    void rechazaSiTodosSiguenPendientes() {
+        when(bonoService.obtenerBonoPorId(1L)).thenReturn(Optional.of(crearBono(1L, 5, 2)));
+
+        enviar(1L, "ana");
+        enviar(1L, "ana");
+        assertThrows(TooManyRequestsException.class, () -> enviar(1L, "ana"));
+
+        // Otro inversor aún entra hasta el límite total
+        enviar(1L, "luis");
+        assertThrows(TooManyRequestsException.class, () -> enviar(1L, "luis"));
+        verify(ejecutor, times(3)).enviar(any(), any());
+    }
+
+    private TrabajoAnalisis enviar(Long bonoId, String inversor) {
+        return service.enviarAnalisisCompleto(bonoId, new BigDecimal("6.5"), null, inversor);
+    }
+
+    private static Bono crearBono(Long id, int plazoAnios, int frecuenciaPagos) {
+        Bono bono = new Bono();
+        bono.setId(id);
+        bono.setNombre("TRABAJO" + id);
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("6.0"));
+        bono.setPlazoAnios(plazoAnios);
+        bono.setFrecuenciaPagos(frecuenciaPagos);
+        bono.setMoneda("PEN");
+        bono.setMetodoAmortizacion("AMERICANO");
+        return bono;
+    }
+}
@@ -0,0 +1,85 @@
+package com.bonoya.platform.bonos.domain.model.valueobjects;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DineroTest {
+
+    private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
+
+    @Test
+    @DisplayName("porTasa coincide con multiply(MathContext) + setScale(2, HALF_UP)")
+    void porTasaCoincideConBigDecimal() {
+        Random aleatorio = new Random(7L);
+        for (int i = 0; i < 200_000; i++) {
+            long centimos = importeAleatorio(aleatorio);
+            long tasa = aleatorio.nextInt(4) == 0 ? aleatorio.nextInt(1000) : aleatorio.nextLong() % 3_000_000_000L;
+            BigDecimal esperado = BigDecimal.valueOf(centimos, 2).multiply(BigDecimal.valueOf(tasa, 10), MC)
+                    .setScale(2, RoundingMode.HALF_UP);
+            assertEquals(esperado, Dinero.deCentimos(centimos).porTasa(tasa, 10, 10).toBigDecimal(),
+                    () -> centimos + " x " + tasa);
+        }
+    }
+
+    @Test
+    @DisplayName("dividir coincide con divide(MathContext) + setScale(2, HALF_UP)")
+    void dividirCoincideConBigDecimal() {
+        Random aleatorio = new Random(11L);
+        for (int i = 0; i < 200_000; i++) {
+            long centimos = importeAleatorio(aleatorio);
+            long partes = 1 + aleatorio.nextInt(aleatorio.nextBoolean() ? 12 : 100_000);
+            BigDecimal esperado = BigDecimal.valueOf(centimos, 2).divide(BigDecimal.valueOf(partes), MC)
+                    .setScale(2, RoundingMode.HALF_UP);
+            assertEquals(esperado, Dinero.deCentimos(centimos).dividir(partes, 10).toBigDecimal(),
+                    () -> centimos + " / " + partes);
+        }
+    }
+
+    @Test
+    @DisplayName("Los medios se redondean alejándose de cero, también tras recortar a la precisión")
+    void redondeoHalfUp() {
+        // 0.125 -> 0.13 y -0.125 -> -0.13
+        assertEquals(13L, Dinero.deCentimos(25L).porTasa(5L, 1, 10).getCentimos());
+        assertEquals(-13L, Dinero.deCentimos(-25L).porTasa(5L, 1, 10).getCentimos());
+        // 12.344999 con 6 dígitos queda 12.3450 y sube a 12.35: el recorte previo decide el céntimo
+        assertEquals(1235L, Dinero.deCentimos(123449990L).porTasa(1L, 5, 6).getCentimos());
+        assertEquals(33L, Dinero.deCentimos(100L).dividir(3L, 10).getCentimos());
+    }
+
+    @Test
+    @DisplayName("Los productos que no caben en un long se resuelven con BigDecimal")
+    void desbordamiento() {
+        long centimos = 900_000_000_000_000L;
+        long tasa = 250_000_000L;
+        BigDecimal esperado = BigDecimal.valueOf(centimos, 2).multiply(BigDecimal.valueOf(tasa, 10), MC)
+                .setScale(2, RoundingMode.HALF_UP);
+        assertEquals(esperado, Dinero.deCentimos(centimos).porTasa(tasa, 10, 10).toBigDecimal());
+        assertThrows(ArithmeticException.class, () -> Dinero.deCentimos(Long.MAX_VALUE).mas(Dinero.deCentimos(1L)));
+    }
+
+    @Test
+    @DisplayName("Conversión desde BigDecimal y representabilidad")
+    void conversion() {
+        assertEquals(100051L, Dinero.de(new BigDecimal("1000.505")).getCentimos());
+        assertEquals(new BigDecimal("1000.50"), Dinero.de(new BigDecimal("1000.5")).toBigDecimal());
+        assertTrue(Dinero.esRepresentable(new BigDecimal("1E+3")));
+        assertTrue(Dinero.esRepresentable(new BigDecimal("1000.5000")));
+        assertFalse(Dinero.esRepresentable(new BigDecimal("1000.1234")));
+        assertFalse(Dinero.esRepresentable(new BigDecimal("1E+17")));
+        assertEquals(Dinero.deCentimos(5L), Dinero.de(new BigDecimal("0.05")));
+    }
+
+    // Importes de 1 céntimo a 10^13 céntimos, con signo, repartidos por orden de magnitud
+    private static long importeAleatorio(Random aleatorio) {
+        long magnitud = (long) Math.pow(10, 1 + aleatorio.nextInt(13));
+        long importe = 1 + Math.floorMod(aleatorio.nextLong(), magnitud);
+        return aleatorio.nextInt(10) == 0 ? -importe : importe;
+    }
+}
@@ -0,0 +1,112 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.application.internal.services.CalculoFinancieroServiceImpl;
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.CalculoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Pruebas de las fórmulas cerradas contra el recorrido período a período.
+ */
+class AnaliticaCerradaTest {
+
+    private final CalculoFinancieroServiceImpl servicio = new CalculoFinancieroServiceImpl(mock(CalculoRepository.class));
+
+    @Test
+    @DisplayName("El bono bullet coincide con el recorrido en precio, duración y convexidad")
+    void bulletCoincideConRecorrido() {
+        CronogramaCompilado cronograma = GeneradorCronograma.compilar(crearBono("AMERICANO", 5, 2));
+        assertEquals(CronogramaCompilado.Forma.BULLET, cronograma.getForma());
+
+        compararConRecorrido(cronograma, 0.035, 1e-9);
+    }
+
+    @Test
+    @DisplayName("La amortización constante coincide con el recorrido dentro del redondeo a céntimos")
+    void amortizacionConstanteCoincideConRecorrido() {
+        CronogramaCompilado cronograma = GeneradorCronograma.compilar(crearBono("ALEMAN", 10, 4));
+        assertEquals(CronogramaCompilado.Forma.AMORTIZACION_CONSTANTE, cronograma.getForma());
+
+        // Medio céntimo por flujo como cota del redondeo de los intereses intermedios
+        compararConRecorrido(cronograma, 0.02, 0.005 * cronograma.getPeriodos() / 1000.0);
+    }
+
+    @Test
+    @DisplayName("Un bullet mensual a 30 años se valora igual que con el recorrido")
+    void bulletMensualTreintaAnios() {
+        Bono bono = crearBono("AMERICANO", 30, 12);
+        CronogramaCompilado cronograma = GeneradorCronograma.compilar(bono);
+        assertEquals(360, cronograma.getPeriodos());
+
+        compararConRecorrido(cronograma, 0.004, 1e-9);
+
+        // El servicio elige la fórmula cerrada y el resultado coincide con la versión por lista
+        List<FlujoFinanciero> flujos = cronograma.aFlujosFinancieros(bono);
+        BigDecimal tasa = new BigDecimal("5.5");
+        assertEquals(0, servicio.calcularPrecioMaximo(flujos, tasa).compareTo(servicio.calcularPrecioMaximo(bono, tasa)));
+        assertEquals(servicio.calcularDuracion(flujos, bono.getTasaCupon()).doubleValue(),
+                servicio.calcularDuracion(bono).doubleValue(), 1e-6);
+        assertEquals(servicio.calcularConvexidad(flujos, bono.getTasaCupon()).doubleValue(),
+                servicio.calcularConvexidad(bono).doubleValue(), 1e-4);
+    }
+
+    @Test
+    @DisplayName("Con gracia o tasa casi nula se usa el recorrido período a período")
+    void casosNoAplicables() {
+        CronogramaCompilado conGracia = GeneradorCronograma.compilar(conGracia(crearBono("ALEMAN", 5, 2)));
+        CronogramaCompilado bullet = GeneradorCronograma.compilar(crearBono("AMERICANO", 5, 2));
+
+        assertEquals(CronogramaCompilado.Forma.GENERAL, conGracia.getForma());
+        assertFalse(AnaliticaCerrada.aplicable(conGracia, 0.03));
+        assertFalse(AnaliticaCerrada.aplicable(bullet, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> AnaliticaCerrada.momentos(bullet, 0.0));
+    }
+
+    private static void compararConRecorrido(CronogramaCompilado cronograma, double tasaPeriodica, double toleranciaRelativa) {
+        double[] flujos = cronograma.flujosTotales();
+        double precio = 0.0;
+        double sumaPonderada = 0.0;
+        double sumaConvexidad = 0.0;
+        double descuento = 1.0;
+        for (int t = 1; t <= flujos.length; t++) {
+            descuento /= 1.0 + tasaPeriodica;
+            precio += flujos[t - 1] * descuento;
+            sumaPonderada += t * flujos[t - 1] * descuento;
+            sumaConvexidad += t * (t + 1.0) * flujos[t - 1] * descuento;
+        }
+
+        AnaliticaCerrada.Momentos momentos = AnaliticaCerrada.momentos(cronograma, tasaPeriodica);
+        assertEquals(precio, momentos.precio(), Math.abs(precio) * toleranciaRelativa + 1e-9);
+        assertEquals(sumaPonderada, momentos.sumaPonderada(), Math.abs(sumaPonderada) * toleranciaRelativa + 1e-9);
+        assertEquals(sumaConvexidad, momentos.sumaConvexidad(), Math.abs(sumaConvexidad) * toleranciaRelativa + 1e-9);
+    }
+
+    private static Bono conGracia(Bono bono) {
+        bono.setPlazosGraciaParcial(2);
+        return bono;
+    }
+
+    private static Bono crearBono(String metodo, int plazoAnios, int frecuenciaPagos) {
+        Bono bono = new Bono();
+        bono.setNombre("ANALITICA");
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("6.0"));
+        bono.setPlazoAnios(plazoAnios);
+        bono.setFrecuenciaPagos(frecuenciaPagos);
+        bono.setFechaEmision(LocalDate.of(2024, 1, 15));
+        bono.setMetodoAmortizacion(metodo);
+        bono.setPlazosGraciaTotal(0);
+        bono.setPlazosGraciaParcial(0);
+        return bono;
+    }
+}
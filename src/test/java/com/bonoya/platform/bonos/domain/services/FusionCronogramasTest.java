@@ -0,0 +1,106 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
+import com.bonoya.platform.bonos.domain.model.valueobjects.FlujosPortafolio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la fusión de cronogramas de un portafolio.
+ */
+class FusionCronogramasTest {
+
+    private static final LocalDate VALORACION = LocalDate.of(2025, 3, 1);
+
+    @Test
+    @DisplayName("La fusión coincide con concatenar y ordenar todos los pagos")
+    void fusionCoincideConOrdenamiento() {
+        List<FusionCronogramas.Fuente> fuentes = new ArrayList<>();
+        Map<LocalDate, Double> esperado = new TreeMap<>();
+        for (int i = 0; i < 300; i++) {
+            Bono bono = crearBono(i % 2 == 0 ? "ALEMAN" : "AMERICANO", 1 + i % 10, i % 3 == 0 ? 12 : 2,
+                    LocalDate.of(2020, 1, 1).plusDays(i * 7L));
+            CronogramaCompilado cronograma = GeneradorCronograma.compilar(bono);
+            double cantidad = 1 + i % 5;
+            fuentes.add(new FusionCronogramas.Fuente(cronograma, cantidad, bono.getFechaEmision()));
+            for (int p = 1; p <= cronograma.getPeriodos(); p++) {
+                if (cronograma.fecha(p).isAfter(VALORACION)) {
+                    esperado.merge(cronograma.fecha(p), cronograma.flujoTotalCentimos(p) * cantidad / 100.0, Double::sum);
+                }
+            }
+        }
+
+        FlujosPortafolio flujos = FusionCronogramas.fusionar(fuentes, VALORACION);
+
+        assertEquals(esperado.size(), flujos.getPagos());
+        int i = 0;
+        for (Map.Entry<LocalDate, Double> entrada : esperado.entrySet()) {
+            assertEquals(entrada.getKey(), flujos.fecha(i));
+            assertEquals(entrada.getValue(), flujos.total(i), 1e-6);
+            i++;
+        }
+    }
+
+    @Test
+    @DisplayName("Los pagos de la misma fecha se acumulan y la escalera agrupa por mes")
+    void escaleraAgrupada() {
+        Bono bono = crearBono("AMERICANO", 2, 2, LocalDate.of(2025, 1, 15));
+        CronogramaCompilado cronograma = GeneradorCronograma.compilar(bono);
+        List<FusionCronogramas.Fuente> fuentes = List.of(
+                new FusionCronogramas.Fuente(cronograma, 2, bono.getFechaEmision()),
+                new FusionCronogramas.Fuente(cronograma, 3, bono.getFechaEmision()));
+
+        FlujosPortafolio flujos = FusionCronogramas.fusionar(fuentes, VALORACION);
+        List<FlujosPortafolio.Tramo> anual = flujos.agrupar(FlujosPortafolio.Agrupacion.ANIO);
+
+        assertEquals(4, flujos.getPagos());
+        assertEquals(5 * 30.0, flujos.interes(0), 1e-9);
+        assertEquals(3, anual.size());
+        assertEquals(LocalDate.of(2025, 1, 1), anual.get(0).desde());
+        assertEquals(new BigDecimal("300.00"), anual.get(1).interes());
+        assertEquals(new BigDecimal("5000.00"), anual.get(2).amortizacion());
+    }
+
+    @Test
+    @DisplayName("La TIR reproduce la tasa con la que se valoró el portafolio")
+    void tirYMedidas() {
+        Bono corto = crearBono("AMERICANO", 3, 2, LocalDate.of(2025, 1, 15));
+        Bono largo = crearBono("ALEMAN", 10, 12, LocalDate.of(2024, 6, 30));
+        FlujosPortafolio flujos = FusionCronogramas.fusionar(List.of(
+                new FusionCronogramas.Fuente(GeneradorCronograma.compilar(corto), 10, corto.getFechaEmision()),
+                new FusionCronogramas.Fuente(GeneradorCronograma.compilar(largo), 4, largo.getFechaEmision())), VALORACION);
+
+        double costo = flujos.valorPresente(0.07);
+        assertEquals(0.07, flujos.tir(costo), 1e-8);
+
+        DuracionConvexidad medidas = flujos.medidasRiesgo(0.07);
+        assertTrue(medidas.getDuracion().doubleValue() > 0);
+        assertTrue(medidas.getDuracion().doubleValue() < flujos.plazoRemanente());
+        assertEquals(medidas.getDuracion().doubleValue() / 1.07, medidas.getDuracionModificada().doubleValue(), 1e-9);
+    }
+
+    private static Bono crearBono(String metodo, int plazoAnios, int frecuenciaPagos, LocalDate emision) {
+        Bono bono = new Bono();
+        bono.setNombre("PORTAFOLIO");
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("6.0"));
+        bono.setPlazoAnios(plazoAnios);
+        bono.setFrecuenciaPagos(frecuenciaPagos);
+        bono.setFechaEmision(emision);
+        bono.setMetodoAmortizacion(metodo);
+        bono.setPlazosGraciaTotal(0);
+        bono.setPlazosGraciaParcial(0);
+        return bono;
+    }
+}
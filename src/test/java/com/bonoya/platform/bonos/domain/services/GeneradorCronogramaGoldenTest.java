@@ -0,0 +1,143 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara los cronogramas generados con un archivo de referencia ("golden") producido por la implementación
+ * anterior con {@code BigDecimal}: cualquier diferencia de un céntimo, una fecha o la forma del cronograma
+ * cambia la huella de su línea.
+ *
+ * Para regenerar el archivo tras un cambio intencional de aritmética:
+ * {@code mvn test -Dtest=GeneradorCronogramaGoldenTest -Dcronogramas.regenerar=true}.
+ */
+class GeneradorCronogramaGoldenTest {
+
+    private static final String RECURSO = "/cronogramas/cronogramas-golden.txt";
+    private static final Path ARCHIVO = Path.of("src", "test", "resources", "cronogramas", "cronogramas-golden.txt");
+
+    private static final String[] NOMINALES = {"1000", "1000.50", "2500.75", "1234567.89", "1000.1234"};
+    private static final String[] TASAS = {"0", "3.5", "7.81", "12.345678", "0.000001"};
+    private static final int[][] PLAZOS = {{1, 1}, {5, 2}, {10, 4}, {30, 12}};
+    private static final int[][] GRACIAS = {{0, 0}, {2, 0}, {0, 3}, {1, 2}};
+    private static final int ALEATORIOS = 400;
+
+    @Test
+    @DisplayName("Los cronogramas coinciden céntimo a céntimo con el archivo de referencia")
+    void coincidenConReferencia() throws IOException {
+        List<String> generadas = new ArrayList<>();
+        for (Bono bono : escenarios()) {
+            for (boolean aleman : new boolean[]{true, false}) {
+                generadas.add(linea(bono, aleman));
+            }
+        }
+
+        if (Boolean.getBoolean("cronogramas.regenerar")) {
+            Files.createDirectories(ARCHIVO.getParent());
+            Files.write(ARCHIVO, generadas, StandardCharsets.UTF_8);
+        }
+
+        List<String> referencia;
+        try (InputStream entrada = getClass().getResourceAsStream(RECURSO)) {
+            assertNotNull(entrada, "No se encontró " + RECURSO);
+            referencia = new String(entrada.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+        assertEquals(referencia.size(), generadas.size());
+        for (int i = 0; i < referencia.size(); i++) {
+            assertEquals(referencia.get(i), generadas.get(i), "Escenario " + (i + 1));
+        }
+    }
+
+    /**
+     * Malla de condiciones representativas seguida de condiciones aleatorias con semilla fija.
+     */
+    static List<Bono> escenarios() {
+        List<Bono> bonos = new ArrayList<>();
+        for (String nominal : NOMINALES) {
+            for (String tasa : TASAS) {
+                for (int[] plazo : PLAZOS) {
+                    for (int[] gracia : GRACIAS) {
+                        bonos.add(bono(new BigDecimal(nominal), new BigDecimal(tasa), plazo[0], plazo[1],
+                                gracia[0], gracia[1]));
+                    }
+                }
+            }
+        }
+        Random aleatorio = new Random(20250301L);
+        int[] frecuencias = {1, 2, 3, 4, 6, 12};
+        for (int i = 0; i < ALEATORIOS; i++) {
+            // Nominales de 1 a 10^9 con céntimos y tasas con hasta 6 decimales, como admiten las columnas
+            BigDecimal nominal = BigDecimal.valueOf(1 + (long) (Math.pow(10, 2 + aleatorio.nextInt(10)) * aleatorio.nextDouble()), 2);
+            BigDecimal tasa = BigDecimal.valueOf(aleatorio.nextInt(25_000_000), 6);
+            bonos.add(bono(nominal, tasa, 1 + aleatorio.nextInt(30), frecuencias[aleatorio.nextInt(frecuencias.length)],
+                    aleatorio.nextInt(4), aleatorio.nextInt(4)));
+        }
+        return bonos;
+    }
+
+    private static String linea(Bono bono, boolean aleman) {
+        CronogramaCompilado cronograma = GeneradorCronograma.generar(GeneradorCronograma.Terminos.de(bono, aleman));
+        long interes = 0;
+        long amortizacion = 0;
+        ByteBuffer datos = ByteBuffer.allocate(32 * (cronograma.getPeriodos() + 1) + 64);
+        datos.putInt(cronograma.getForma().ordinal());
+        datos.putLong(Double.doubleToLongBits(cronograma.getTasaCuponPeriodica()));
+        datos.put(cronograma.getValorNominal().toPlainString().getBytes(StandardCharsets.UTF_8));
+        for (int periodo = 0; periodo <= cronograma.getPeriodos(); periodo++) {
+            datos.putLong(cronograma.fechaEpochDay(periodo));
+            datos.putLong(cronograma.interesCentimos(periodo));
+            datos.putLong(cronograma.amortizacionCentimos(periodo));
+            datos.putLong(cronograma.saldoCentimos(periodo));
+            interes += cronograma.interesCentimos(periodo);
+            amortizacion += cronograma.amortizacionCentimos(periodo);
+        }
+        return String.join(" ", bono.getValorNominal().toPlainString(), bono.getTasaCupon().toPlainString(),
+                String.valueOf(bono.getPlazoAnios()), String.valueOf(bono.getFrecuenciaPagos()),
+                String.valueOf(bono.getPlazosGraciaTotal()), String.valueOf(bono.getPlazosGraciaParcial()),
+                aleman ? "ALEMAN" : "AMERICANO", "->", String.valueOf(cronograma.getPeriodos()),
+                String.valueOf(interes), String.valueOf(amortizacion), huella(datos));
+    }
+
+    private static String huella(ByteBuffer datos) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(datos.array(), 0, datos.position());
+            return HexFormat.of().formatHex(sha.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Bono bono(BigDecimal nominal, BigDecimal tasa, int plazoAnios, int frecuencia, int graciaTotal,
+                             int graciaParcial) {
+        Bono bono = new Bono();
+        bono.setNombre("GOLDEN");
+        bono.setValorNominal(nominal);
+        bono.setTasaCupon(tasa);
+        bono.setPlazoAnios(plazoAnios);
+        bono.setFrecuenciaPagos(frecuencia);
+        bono.setFechaEmision(LocalDate.of(2025, 1, 31));
+        bono.setPlazosGraciaTotal(graciaTotal);
+        bono.setPlazosGraciaParcial(graciaParcial);
+        return bono;
+    }
+}
@@ -0,0 +1,112 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del motor único de cronogramas.
+ */
+class GeneradorCronogramaTest {
+
+    @Test
+    @DisplayName("Los flujos del emisor y del inversor salen del mismo cronograma")
+    void emisorEInversorCompartenCronograma() {
+        Bono bono = crearBono("ALEMAN", 0, 0);
+        CronogramaCompilado cronograma = GeneradorCronograma.compilar(bono);
+
+        List<FlujoFinanciero> emisor = bono.generarFlujoCaja(new BigDecimal("0.08"));
+        List<FlujoFinanciero> inversor = cronograma.aFlujosFinancieros(bono);
+
+        assertEquals(cronograma.getPeriodos(), emisor.size());
+        assertEquals(cronograma.getPeriodos() + 1, inversor.size());
+        for (int periodo = 1; periodo <= cronograma.getPeriodos(); periodo++) {
+            assertEquals(inversor.get(periodo).getInteres(), emisor.get(periodo - 1).getInteres());
+            assertEquals(inversor.get(periodo).getAmortizacion(), emisor.get(periodo - 1).getAmortizacion());
+            assertEquals(inversor.get(periodo).getFecha(), emisor.get(periodo - 1).getFecha());
+        }
+        assertEquals(0, cronograma.saldoCentimos(cronograma.getPeriodos()));
+    }
+
+    @Test
+    @DisplayName("Bonos con las mismas condiciones comparten el cronograma compilado")
+    void cronogramaEnCache() {
+        Bono uno = crearBono("AMERICANO", 0, 0);
+        Bono dos = crearBono("AMERICANO", 0, 0);
+        dos.setValorNominal(new BigDecimal("1000"));
+
+        assertSame(GeneradorCronograma.compilar(uno), GeneradorCronograma.compilar(dos));
+        assertNotSame(GeneradorCronograma.compilar(uno), GeneradorCronograma.compilar(uno, true));
+    }
+
+    @Test
+    @DisplayName("Con gracia parcial el método alemán amortiza el saldo en los períodos restantes")
+    void alemanConGraciaParcial() {
+        CronogramaCompilado cronograma = GeneradorCronograma.compilar(crearBono("ALEMAN", 0, 2));
+
+        assertEquals(0, cronograma.amortizacionCentimos(1));
+        assertEquals(0, cronograma.amortizacionCentimos(2));
+        assertEquals(3000, cronograma.interesCentimos(2));
+        // 1000 / 8 períodos restantes
+        assertEquals(12500, cronograma.amortizacionCentimos(3));
+        long totalAmortizado = 0;
+        for (int periodo = 1; periodo <= cronograma.getPeriodos(); periodo++) {
+            totalAmortizado += cronograma.amortizacionCentimos(periodo);
+        }
+        assertEquals(100000, totalAmortizado);
+    }
+
+    @Test
+    @DisplayName("Con gracia total el interés se capitaliza y no hay pagos")
+    void graciaTotalCapitaliza() {
+        CronogramaCompilado cronograma = GeneradorCronograma.compilar(crearBono("AMERICANO", 1, 0));
+
+        assertEquals(0, cronograma.flujoTotalCentimos(1));
+        assertEquals(103000, cronograma.saldoCentimos(1));
+        assertEquals(3090, cronograma.interesCentimos(2));
+        assertEquals(103000 + 3090, cronograma.flujoTotalCentimos(cronograma.getPeriodos()));
+    }
+
+    @Test
+    @DisplayName("Al llenarse la caché se descartan los cronogramas menos usados, no los frecuentes")
+    void cacheDescartaLosMenosUsados() {
+        Bono frecuente = crearBono("ALEMAN", 0, 0);
+        CronogramaCompilado cronograma = GeneradorCronograma.compilar(frecuente);
+        long compilaciones = GeneradorCronograma.getCompilaciones();
+
+        for (int i = 0; i < 3000; i++) {
+            Bono otro = crearBono("AMERICANO", 0, 0);
+            otro.setValorNominal(BigDecimal.valueOf(50_000 + i));
+            GeneradorCronograma.compilar(otro);
+            if (i % 100 == 0) {
+                assertSame(cronograma, GeneradorCronograma.compilar(frecuente));
+            }
+        }
+
+        assertSame(cronograma, GeneradorCronograma.compilar(frecuente));
+        assertEquals(compilaciones + 3000, GeneradorCronograma.getCompilaciones());
+        assertTrue(GeneradorCronograma.getTamanoCache() <= 1024);
+    }
+
+    private static Bono crearBono(String metodo, int graciaTotal, int graciaParcial) {
+        Bono bono = new Bono();
+        bono.setNombre("CRONOGRAMA");
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("6.0"));
+        bono.setPlazoAnios(5);
+        bono.setFrecuenciaPagos(2);
+        bono.setFechaEmision(LocalDate.of(2024, 1, 15));
+        bono.setMetodoAmortizacion(metodo);
+        bono.setPlazosGraciaTotal(graciaTotal);
+        bono.setPlazosGraciaParcial(graciaParcial);
+        return bono;
+    }
+}
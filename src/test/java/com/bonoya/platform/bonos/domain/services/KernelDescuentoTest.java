@@ -0,0 +1,121 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class KernelDescuentoTest {
+
+    private static final double[] TASAS = {-0.02, 0.0, 0.035, 0.07, 0.125, 0.5};
+
+    @AfterEach
+    void restaurar() {
+        KernelDescuento.configurar(false);
+    }
+
+    @Test
+    @DisplayName("Por defecto se usa el núcleo escalar")
+    void escalarPorDefecto() {
+        assertSame(KernelDescuento.escalar(), KernelDescuento.actual());
+    }
+
+    @Test
+    @DisplayName("El núcleo escalar coincide con el descuento directo (1+r)^-t")
+    void escalarCoincideConDescuentoDirecto() {
+        double[][] flujos = flujos(37, 1L);
+        double[] resultados = new double[3 * TASAS.length];
+        KernelDescuento.escalar().acumular(flujos[0], flujos[1], flujos[0].length, TASAS, resultados);
+
+        for (int k = 0; k < TASAS.length; k++) {
+            double precio = 0.0;
+            double ponderada = 0.0;
+            double convexidad = 0.0;
+            for (int i = 0; i < flujos[0].length; i++) {
+                double t = flujos[0][i];
+                double valorActual = flujos[1][i] * Math.pow(1.0 + TASAS[k], -t);
+                precio += valorActual;
+                ponderada += t * valorActual;
+                convexidad += t * (t + 1.0) * valorActual;
+            }
+            assertEquals(precio, resultados[3 * k], Math.abs(precio) * 1e-12);
+            assertEquals(ponderada, resultados[3 * k + 1], Math.abs(ponderada) * 1e-12);
+            assertEquals(convexidad, resultados[3 * k + 2], Math.abs(convexidad) * 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("Las sumas se reparten en parciales fijas y se combinan siempre en el mismo orden")
+    void sumasEnOrdenFijo() {
+        for (int n : new int[]{5, 8, 29, 1000}) {
+            double[][] flujos = flujos(n, 7L * n);
+            double[] resultados = new double[3 * TASAS.length];
+            KernelDescuento.escalar().acumular(flujos[0], flujos[1], n, TASAS, resultados);
+
+            for (int k = 0; k < TASAS.length; k++) {
+                double menosLogBase = -Math.log1p(TASAS[k]);
+                double[] parciales = new double[3 * KernelDescuento.PARCIALES];
+                for (int i = 0; i < n; i++) {
+                    double t = flujos[0][i];
+                    double valorActual = flujos[1][i] * Math.exp(t * menosLogBase);
+                    parciales[i % KernelDescuento.PARCIALES] += valorActual;
+                    parciales[KernelDescuento.PARCIALES + i % KernelDescuento.PARCIALES] += t * valorActual;
+                    parciales[2 * KernelDescuento.PARCIALES + i % KernelDescuento.PARCIALES] += (t + 1.0) * t * valorActual;
+                }
+                for (int suma = 0; suma < 3; suma++) {
+                    double esperado = 0.0;
+                    for (int par = 0; par < KernelDescuento.PARCIALES; par += 4) {
+                        int desde = suma * KernelDescuento.PARCIALES + par;
+                        esperado += (parciales[desde] + parciales[desde + 1]) + (parciales[desde + 2] + parciales[desde + 3]);
+                    }
+                    assertEquals(esperado, resultados[3 * k + suma], 0.0, "n=" + n + " k=" + k + " suma=" + suma);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("El núcleo vectorial coincide con el escalar, incluido el resto que no completa un vector")
+    void vectorialCoincideConEscalar() {
+        assumeTrue(KernelDescuento.vectorial().isPresent(), "núcleo vectorial no compilado (-Pvectorial) o JVM sin jdk.incubator.vector");
+        KernelDescuento vectorial = KernelDescuento.vectorial().get();
+        for (int n : new int[]{0, 1, 3, 8, 13, 1000}) {
+            double[][] flujos = flujos(n, n);
+            double[] escalar = new double[3 * TASAS.length];
+            double[] vector = new double[3 * TASAS.length];
+            KernelDescuento.escalar().acumular(flujos[0], flujos[1], n, TASAS, escalar);
+            vectorial.acumular(flujos[0], flujos[1], n, TASAS, vector);
+            for (int j = 0; j < escalar.length; j++) {
+                assertEquals(escalar[j], vector[j], Math.abs(escalar[j]) * 1e-12 + 1e-12, "n=" + n + " j=" + j);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("El interruptor fuerza el núcleo escalar y vuelve al vectorial solo si está disponible")
+    void interruptor() {
+        assertSame(KernelDescuento.escalar(), KernelDescuento.configurar(false));
+        assertSame(KernelDescuento.escalar(), KernelDescuento.actual());
+
+        KernelDescuento elegido = KernelDescuento.configurar(true);
+        assertSame(KernelDescuento.vectorial().orElse(KernelDescuento.escalar()), elegido);
+    }
+
+    // Tiempos crecientes de hasta 30 años e importes de cupón y amortización
+    private static double[][] flujos(int n, long semilla) {
+        Random aleatorio = new Random(semilla);
+        double[] tiempos = new double[n];
+        double[] montos = new double[n];
+        double t = 0.0;
+        for (int i = 0; i < n; i++) {
+            t += 0.01 + aleatorio.nextDouble() * 0.5;
+            tiempos[i] = t;
+            montos[i] = 10.0 + aleatorio.nextDouble() * 10_000.0;
+        }
+        return new double[][]{tiempos, montos};
+    }
+}
@@ -0,0 +1,99 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.FlujoFinanciero;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DuracionConvexidad;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del núcleo fusionado de precio, duración y convexidad.
+ */
+class KernelMetricasTest {
+
+    private static final MathContext MC = new MathContext(30, RoundingMode.HALF_UP);
+
+    @Test
+    @DisplayName("Un recorrido da el mismo precio, duración y convexidad que las sumas por separado")
+    void coincideConSumasIndependientes() {
+        Bono bono = crearBono();
+        List<FlujoFinanciero> flujos = GeneradorCronograma.compilar(bono).aFlujosFinancieros(bono);
+        BigDecimal tasaPeriodica = new BigDecimal("0.0041");
+
+        BigDecimal precio = BigDecimal.ZERO;
+        BigDecimal sumaPonderada = BigDecimal.ZERO;
+        BigDecimal sumaConvexidad = BigDecimal.ZERO;
+        for (FlujoFinanciero flujo : flujos.subList(1, flujos.size())) {
+            BigDecimal t = BigDecimal.valueOf(flujo.getPeriodo());
+            BigDecimal valorActual = flujo.getFlujoTotal()
+                    .divide(BigDecimal.ONE.add(tasaPeriodica).pow(flujo.getPeriodo(), MC), MC);
+            precio = precio.add(valorActual);
+            sumaPonderada = sumaPonderada.add(t.multiply(valorActual));
+            sumaConvexidad = sumaConvexidad.add(t.multiply(t.add(BigDecimal.ONE)).multiply(valorActual));
+        }
+        double duracionEsperada = sumaPonderada.divide(precio, MC).doubleValue() / 12;
+        double convexidadEsperada = sumaConvexidad
+                .divide(precio.multiply(BigDecimal.ONE.add(tasaPeriodica).pow(2)), MC).doubleValue() / 144;
+
+        KernelMetricas.Metricas metricas = KernelMetricas.calcular(flujos, tasaPeriodica, 12, tasaPeriodica, false);
+
+        assertEquals(precio.doubleValue(), metricas.precio().doubleValue(), 1e-8);
+        assertEquals(duracionEsperada, metricas.duracion().doubleValue(), 1e-9);
+        assertEquals(convexidadEsperada, metricas.convexidad().doubleValue(), 1e-8);
+        assertEquals(duracionEsperada / 1.0041, metricas.duracionConvexidad().getDuracionModificada().doubleValue(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Solo anota los flujos cuando se pide y admite listas desordenadas")
+    void anotacionYOrden() {
+        Bono bono = crearBono();
+        List<FlujoFinanciero> flujos = GeneradorCronograma.compilar(bono).aFlujosFinancieros(bono);
+        BigDecimal tasaPeriodica = new BigDecimal("0.005");
+
+        KernelMetricas.Metricas ordenadas = KernelMetricas.calcular(flujos, tasaPeriodica, 12, tasaPeriodica, false);
+        assertEquals(0, flujos.get(1).getValorActual().signum());
+
+        List<FlujoFinanciero> invertidas = new ArrayList<>(flujos);
+        Collections.reverse(invertidas);
+        KernelMetricas.Metricas desordenadas = KernelMetricas.calcular(invertidas, tasaPeriodica, 12, tasaPeriodica, true);
+
+        assertEquals(0, ordenadas.precio().compareTo(desordenadas.precio()));
+        assertEquals(0, ordenadas.duracion().compareTo(desordenadas.duracion()));
+        assertTrue(flujos.get(1).getValorActual().signum() > 0);
+        assertEquals(BigDecimal.ONE, flujos.get(1).getFactorTiempo());
+    }
+
+    @Test
+    @DisplayName("Sin flujos positivos las métricas son cero")
+    void sinFlujos() {
+        DuracionConvexidad metricas = KernelMetricas.calcular(List.of(), BigDecimal.ONE, 2, BigDecimal.ONE, false)
+                .duracionConvexidad();
+
+        assertEquals(0, metricas.getDuracion().signum());
+        assertEquals(0, metricas.getConvexidad().signum());
+    }
+
+    private static Bono crearBono() {
+        Bono bono = new Bono();
+        bono.setNombre("KERNEL");
+        bono.setValorNominal(new BigDecimal("1000.00"));
+        bono.setTasaCupon(new BigDecimal("6.0"));
+        bono.setPlazoAnios(30);
+        bono.setFrecuenciaPagos(12);
+        bono.setFechaEmision(LocalDate.of(2024, 1, 15));
+        bono.setMetodoAmortizacion("ALEMAN");
+        bono.setPlazosGraciaTotal(0);
+        bono.setPlazosGraciaParcial(0);
+        return bono;
+    }
+}
@@ -0,0 +1,205 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.jdbc;
+
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.shared.infrastructure.persistense.jdbc.AsignadorIdentificadores;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas de la escritura diferida de cálculos.
+ */
+@ExtendWith(MockitoExtension.class)
+class EscritorDiferidoCalculosTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AsignadorIdentificadores asignadorIdentificadores;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Los cálculos reciben id al encolarse y se insertan en un solo lote al vaciar la cola")
+    void encolaYVaciaEnLote() {
+        AtomicLong secuencia = new AtomicLong(100);
+        when(asignadorIdentificadores.siguienteId("calculos")).thenAnswer(inv -> secuencia.incrementAndGet());
+        // Sin iniciar el hilo de fondo para controlar cuándo se escribe
+        EscritorDiferidoCalculos escritor = new EscritorDiferidoCalculos(jdbcTemplate, asignadorIdentificadores, true, 10, 50, 200, 1, directorio.toString());
+
+        Calculo primero = escritor.encolar(crearCalculo("ana"));
+        escritor.encolar(crearCalculo("ana"));
+        escritor.encolar(crearCalculo("luis"));
+
+        assertEquals(101L, primero.getId());
+        assertEquals(3, escritor.getProfundidadCola());
+        assertSame(primero, escritor.obtenerPendiente(101L));
+        assertEquals(2, escritor.obtenerPendientesPorInversor("ana").size());
+
+        escritor.vaciar();
+
+        ArgumentCaptor<BatchPreparedStatementSetter> lote = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), lote.capture());
+        assertEquals(3, lote.getValue().getBatchSize());
+        assertEquals(0, escritor.getProfundidadCola());
+        assertEquals(3, escritor.getEscritos());
+        assertNull(escritor.obtenerPendiente(101L));
+    }
+
+    @Test
+    @DisplayName("Con la cola llena el cálculo se escribe de forma síncrona")
+    void colaLlenaEscribeSincrono() {
+        when(asignadorIdentificadores.siguienteId("calculos")).thenReturn(1L, 2L);
+        EscritorDiferidoCalculos escritor = new EscritorDiferidoCalculos(jdbcTemplate, asignadorIdentificadores, true, 1, 50, 200, 1, directorio.toString());
+
+        escritor.encolar(crearCalculo("ana"));
+        escritor.encolar(crearCalculo("ana"));
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        assertEquals(1, escritor.getEscriturasSincronas());
+        assertEquals(1, escritor.getProfundidadCola());
+        assertNotNull(escritor.obtenerPendiente(1L));
+        assertNull(escritor.obtenerPendiente(2L));
+    }
+
+    @Test
+    @DisplayName("Si falla el lote, las filas válidas se insertan una a una y solo la inválida se aparta")
+    void loteFallidoSeInsertaFilaAFila() throws IOException {
+        AtomicLong secuencia = new AtomicLong();
+        when(asignadorIdentificadores.siguienteId("calculos")).thenAnswer(inv -> secuencia.incrementAndGet());
+        List<Integer> tamanos = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(inv -> {
+            BatchPreparedStatementSetter lote = inv.getArgument(1);
+            tamanos.add(lote.getBatchSize());
+            PreparedStatement ps = mock(PreparedStatement.class);
+            for (int i = 0; i < lote.getBatchSize(); i++) {
+                lote.setValues(ps, i);
+            }
+            if (lote.getBatchSize() > 1 || capturarId(ps) == 2L) {
+                throw new DataIntegrityViolationException("null value in column \"created_at\"");
+            }
+            return new int[lote.getBatchSize()];
+        });
+        EscritorDiferidoCalculos escritor = new EscritorDiferidoCalculos(jdbcTemplate, asignadorIdentificadores, true, 10, 50, 200, 1, directorio.toString());
+
+        escritor.encolar(crearCalculo("ana"));
+        escritor.encolar(crearCalculo("ana"));
+        escritor.encolar(crearCalculo("luis"));
+        escritor.vaciar();
+
+        // Un error no transitorio no se reintenta como lote
+        assertEquals(List.of(3, 1, 1, 1), tamanos);
+        assertEquals(2, escritor.getEscritos());
+        assertEquals(1, escritor.getDescartados());
+        assertTrue(escritor.obtenerPendientesPorInversor("ana").isEmpty());
+
+        List<String> lineas;
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            Path archivo = archivos.findFirst().orElseThrow();
+            lineas = Files.readAllLines(archivo);
+        }
+        assertEquals(1, lineas.size());
+        assertTrue(lineas.get(0).contains("\"id\":2"), lineas.get(0));
+        assertTrue(lineas.get(0).contains("created_at"), lineas.get(0));
+    }
+
+    @Test
+    @DisplayName("Un error transitorio se reintenta como lote con espera")
+    void errorTransitorioSeReintenta() {
+        when(asignadorIdentificadores.siguienteId("calculos")).thenReturn(1L, 2L);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[0]);
+        EscritorDiferidoCalculos escritor = new EscritorDiferidoCalculos(jdbcTemplate, asignadorIdentificadores, true, 10, 50, 200, 1, directorio.toString());
+
+        escritor.encolar(crearCalculo("ana"));
+        escritor.encolar(crearCalculo("ana"));
+        escritor.vaciar();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        assertEquals(2, escritor.getEscritos());
+        assertEquals(0, escritor.getDescartados());
+    }
+
+    @Test
+    @DisplayName("asegurarEscrito espera a que el hilo de fondo termine el lote en curso")
+    void asegurarEscritoEsperaAlLoteEnCurso() throws Exception {
+        when(asignadorIdentificadores.siguienteId("calculos")).thenReturn(7L);
+        CountDownLatch escribiendo = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(inv -> {
+            escribiendo.countDown();
+            continuar.await();
+            return new int[0];
+        });
+        EscritorDiferidoCalculos escritor = new EscritorDiferidoCalculos(jdbcTemplate, asignadorIdentificadores, true, 10, 50, 10, 1, directorio.toString());
+        escritor.iniciar();
+        try {
+            escritor.encolar(crearCalculo("ana"));
+            assertTrue(escribiendo.await(5, TimeUnit.SECONDS));
+
+            Thread liberar = new Thread(() -> {
+                sleep(50);
+                continuar.countDown();
+            });
+            liberar.start();
+            escritor.asegurarEscrito(7L);
+
+            assertNull(escritor.obtenerPendiente(7L));
+            assertEquals(1, escritor.getEscritos());
+        } finally {
+            continuar.countDown();
+            escritor.detener();
+        }
+    }
+
+    private static long capturarId(PreparedStatement ps) throws SQLException {
+        ArgumentCaptor<Long> id = ArgumentCaptor.forClass(Long.class);
+        verify(ps).setLong(eq(1), id.capture());
+        return id.getValue();
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Calculo crearCalculo(String inversor) {
+        Calculo calculo = new Calculo();
+        calculo.setInversorUsername(inversor);
+        calculo.setTrea(new BigDecimal("6.5"));
+        return calculo;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas del borrado por lotes de la retención del historial.
+ */
+@ExtendWith(MockitoExtension.class)
+class PurgadorRetencionTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directorio;
+
+    private PurgadorRetencion purgador;
+
+    @BeforeEach
+    void setUp() {
+        purgador = new PurgadorRetencion(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Archiva el lote y elimina las filas hijas antes que las simulaciones")
+    void eliminaHijasPrimero() throws IOException {
+        LocalDate limite = LocalDate.of(2024, 1, 1);
+        when(jdbcTemplate.queryForList(startsWith("select id from simulaciones_inversionista"), eq(Long.class), eq(limite), eq(2)))
+                .thenReturn(List.of(7L, 9L));
+        when(jdbcTemplate.queryForList(contains("from flujos_inversionista_detalle"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("{\"id\":1}"));
+        when(jdbcTemplate.queryForList(contains("from simulaciones_inversionista t"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("{\"id\":7}", "{\"id\":9}"));
+        when(jdbcTemplate.update(startsWith("delete from flujos_inversionista_detalle"), any(Object[].class))).thenReturn(24);
+        when(jdbcTemplate.update(startsWith("delete from simulaciones_inversionista"), any(Object[].class))).thenReturn(2);
+        Path archivo = directorio.resolve("retencion.ndjson");
+
+        PurgadorRetencion.ResultadoLote resultado =
+                purgador.purgarLote(PurgadorRetencion.Tabla.SIMULACIONES, limite, 2, archivo);
+
+        assertEquals(2, resultado.principales());
+        assertEquals(24, resultado.hijas());
+        InOrder orden = inOrder(jdbcTemplate);
+        orden.verify(jdbcTemplate).update(eq("delete from flujos_inversionista_detalle where simulacion_id in (?, ?)"),
+                eq(new Object[]{7L, 9L}));
+        orden.verify(jdbcTemplate).update(eq("delete from simulaciones_inversionista where id in (?, ?)"),
+                eq(new Object[]{7L, 9L}));
+        String archivado = Files.readString(archivo);
+        assertEquals(3, archivado.lines().count());
+        assertTrue(archivado.startsWith("{\"tabla\":\"flujos_inversionista_detalle\",\"fila\":{\"id\":1}}"));
+        verify(transactionManager).commit(any());
+        assertEquals(List.of(archivo), archivos(), "no deben quedar archivos temporales");
+    }
+
+    @Test
+    @DisplayName("Un lote que no llega a confirmarse no se anexa al archivo")
+    void loteRevertidoNoSeArchiva() throws IOException {
+        when(jdbcTemplate.queryForList(startsWith("select id from calculos"), eq(Long.class), any(), eq(500)))
+                .thenReturn(List.of(3L));
+        when(jdbcTemplate.queryForList(contains("from calculos t"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("{\"id\":3}"));
+        when(jdbcTemplate.update(startsWith("delete from calculos"), any(Object[].class))).thenReturn(1);
+        doThrow(new TransactionSystemException("commit fallido")).when(transactionManager).commit(any());
+        Path archivo = directorio.resolve("retencion.ndjson");
+
+        assertThrows(TransactionSystemException.class,
+                () -> purgador.purgarLote(PurgadorRetencion.Tabla.CALCULOS, LocalDate.now(), 500, archivo));
+
+        assertFalse(Files.exists(archivo));
+        assertEquals(List.of(), archivos(), "el temporal del lote revertido se elimina");
+    }
+
+    @Test
+    @DisplayName("Sin filas antiguas no se ejecuta ningún borrado")
+    void loteVacio() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), anyInt())).thenReturn(List.of());
+
+        PurgadorRetencion.ResultadoLote resultado =
+                purgador.purgarLote(PurgadorRetencion.Tabla.CALCULOS, LocalDate.now(), 500, null);
+
+        assertEquals(PurgadorRetencion.ResultadoLote.VACIO, resultado);
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private List<Path> archivos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.toList();
+        }
+    }
+}
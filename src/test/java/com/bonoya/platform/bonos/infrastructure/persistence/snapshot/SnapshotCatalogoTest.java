@@ -0,0 +1,144 @@
+package com.bonoya.platform.bonos.infrastructure.persistence.snapshot;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.CronogramaCompilado;
+import com.bonoya.platform.bonos.domain.model.valueobjects.CurvaDescuento;
+import com.bonoya.platform.bonos.domain.services.GeneradorCronograma;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCatalogoTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Los cronogramas mapeados coinciden céntimo a céntimo con los generados")
+    void cronogramasMapeadosCoincidenConGenerados() throws IOException {
+        Path archivo = directorio.resolve("catalogo.snap");
+        List<GeneradorCronograma.Terminos> terminos = terminos(200);
+        List<CronogramaCompilado> generados = new ArrayList<>();
+        try (EscritorSnapshotCatalogo escritor = new EscritorSnapshotCatalogo(archivo, 7)) {
+            for (int i = 0; i < terminos.size(); i++) {
+                CronogramaCompilado cronograma = GeneradorCronograma.compilarSinCache(terminos.get(i));
+                generados.add(cronograma);
+                assertTrue(escritor.agregarBono(100 + i, 1_700_000_000_000L + i, terminos.get(i), cronograma));
+            }
+            assertTrue(escritor.getFilas() > 8192, "las columnas deben superar el buffer de escritura");
+            escritor.confirmar();
+        }
+
+        SnapshotCatalogo snapshot = SnapshotCatalogo.mapear(archivo);
+        assertEquals(7, snapshot.getVersionAritmetica());
+        assertEquals(terminos.size(), snapshot.getBonos());
+        for (int i = 0; i < terminos.size(); i++) {
+            assertEquals(100 + i, snapshot.id(i));
+            assertEquals(1_700_000_000_000L + i, snapshot.actualizado(i));
+            assertEquals(terminos.get(i), snapshot.terminos(i));
+
+            CronogramaCompilado esperado = generados.get(i);
+            CronogramaCompilado mapeado = snapshot.cronograma(i);
+            assertEquals(esperado.getForma(), mapeado.getForma());
+            assertEquals(esperado.getTasaCuponPeriodica(), mapeado.getTasaCuponPeriodica());
+            assertEquals(0, esperado.getValorNominal().compareTo(mapeado.getValorNominal()));
+            assertEquals(esperado.getFrecuenciaPagos(), mapeado.getFrecuenciaPagos());
+            assertEquals(esperado.getPeriodos(), mapeado.getPeriodos());
+            assertEquals(esperado.tieneFechas(), mapeado.tieneFechas());
+            for (int p = 0; p <= esperado.getPeriodos(); p++) {
+                assertEquals(esperado.interesCentimos(p), mapeado.interesCentimos(p));
+                assertEquals(esperado.amortizacionCentimos(p), mapeado.amortizacionCentimos(p));
+                assertEquals(esperado.saldoCentimos(p), mapeado.saldoCentimos(p));
+                if (esperado.tieneFechas()) {
+                    assertEquals(esperado.fecha(p), mapeado.fecha(p));
+                }
+            }
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            assertEquals(List.of(archivo), archivos.toList(), "no deben quedar archivos temporales");
+        }
+    }
+
+    @Test
+    @DisplayName("Las curvas de catálogo se conservan con la versión de su moneda")
+    void curvasSeConservan() throws IOException {
+        Path archivo = directorio.resolve("catalogo.snap");
+        CurvaDescuento curva = new CurvaDescuento("PEN", CurvaDescuento.Interpolacion.LINEAL,
+                new double[]{0.5, 1.0, 5.0, 10.0}, new double[]{0.041, 0.043, 0.0512, 0.0587});
+        try (EscritorSnapshotCatalogo escritor = new EscritorSnapshotCatalogo(archivo, 1)) {
+            escritor.agregarCurva(curva, 1_700_000_123_456L, 42);
+            escritor.confirmar();
+        }
+
+        SnapshotCatalogo snapshot = SnapshotCatalogo.mapear(archivo);
+        assertEquals(0, snapshot.getBonos());
+        assertEquals(1, snapshot.getCurvas().size());
+        SnapshotCatalogo.CurvaGuardada guardada = snapshot.getCurvas().get(0);
+        assertEquals("PEN", guardada.curva().getMoneda());
+        assertEquals(1_700_000_123_456L, guardada.actualizado());
+        assertEquals(42, guardada.cantidad());
+        assertArrayEquals(curva.getPlazos(), guardada.curva().getPlazos());
+        assertArrayEquals(curva.getTasasCero(), guardada.curva().getTasasCero());
+    }
+
+    @Test
+    @DisplayName("Un snapshot con un byte alterado se rechaza por CRC")
+    void snapshotAlteradoSeRechaza() throws IOException {
+        Path archivo = directorio.resolve("catalogo.snap");
+        try (EscritorSnapshotCatalogo escritor = new EscritorSnapshotCatalogo(archivo, 1)) {
+            GeneradorCronograma.Terminos terminos = terminos(1).get(0);
+            escritor.agregarBono(1, 0, terminos, GeneradorCronograma.compilarSinCache(terminos));
+            escritor.confirmar();
+        }
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer valor = ByteBuffer.allocate(1);
+            long posicion = canal.size() - 3;
+            canal.read(valor, posicion);
+            valor.put(0, (byte) (valor.get(0) ^ 0x10)).rewind();
+            canal.write(valor, posicion);
+        }
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> SnapshotCatalogo.mapear(archivo));
+        assertTrue(error.getMessage().contains("CRC"));
+    }
+
+    @Test
+    @DisplayName("Un nominal con más de 4 decimales no se guarda")
+    void nominalNoRepresentableSeOmite() throws IOException {
+        GeneradorCronograma.Terminos terminos = GeneradorCronograma.Terminos.de(new BigDecimal("1000.00001"),
+                new BigDecimal("0.05"), 2, 2, null, 0, 0, true);
+        try (EscritorSnapshotCatalogo escritor = new EscritorSnapshotCatalogo(directorio.resolve("catalogo.snap"), 1)) {
+            assertFalse(escritor.agregarBono(1, 0, terminos, GeneradorCronograma.compilarSinCache(terminos)));
+            assertEquals(0, escritor.getBonos());
+        }
+    }
+
+    private static List<GeneradorCronograma.Terminos> terminos(int cantidad) {
+        int[] frecuencias = {1, 2, 4, 12};
+        List<GeneradorCronograma.Terminos> terminos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            int plazo = 1 + i % 30;
+            int frecuencia = frecuencias[i % frecuencias.length];
+            int graciaTotal = i % 7 == 0 ? 1 : 0;
+            int graciaParcial = i % 5 == 0 ? 2 : 0;
+            terminos.add(GeneradorCronograma.Terminos.de(BigDecimal.valueOf(1000 + 37L * i, i % 3),
+                    BigDecimal.valueOf(250 + 13L * i, 4), plazo, frecuencia,
+                    i % 2 == 0 ? LocalDate.of(2024, 1, 15).plusDays(i) : null, graciaTotal, graciaParcial,
+                    i % 3 != 1));
+        }
+        return terminos;
+    }
+}
@@ -0,0 +1,86 @@
+package com.bonoya.platform.bonos.interfaces.rest.exportacion;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.shared.application.exceptions.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EscritorCalculosCsvTest {
+
+    @Test
+    @DisplayName("Escribe la cabecera y una fila plana por cálculo con decimales sin notación científica")
+    void escribeFilasPlanas() throws Exception {
+        Bono bono = new Bono();
+        bono.setId(7L);
+        bono.setNombre("Bono \"Serie A\", tramo 1");
+        Calculo calculo = new Calculo();
+        calculo.setId(42L);
+        calculo.setBono(bono);
+        calculo.setFechaCalculo(LocalDate.of(2025, 3, 1));
+        calculo.setMoneda("PEN");
+        calculo.setTrea(new BigDecimal("1E-7"));
+        calculo.setPrecioMaximo(new BigDecimal("1032.5000"));
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        EscritorCalculos escritor = EscritorCalculos.de(EscritorCalculos.CSV, salida, null);
+        escritor.accept(calculo);
+        escritor.terminar();
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lineas.length);
+        assertEquals(EscritorCalculosCsv.CABECERA, lineas[0]);
+        assertTrue(lineas[1].startsWith("42,7,\"Bono \"\"Serie A\"\", tramo 1\",TREA,2025-03-01,PEN,"));
+        assertTrue(lineas[1].contains(",0.0000001,"));
+        assertTrue(lineas[1].contains(",1032.5000,"));
+        assertEquals(EscritorCalculosCsv.CABECERA.split(",").length, lineas[1].split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1).length);
+        assertEquals("", lineas[2]);
+    }
+
+    @Test
+    @DisplayName("Los textos que una hoja de cálculo ejecutaría como fórmula se prefijan con apóstrofo")
+    void neutralizaFormulas() throws Exception {
+        Bono bono = new Bono();
+        bono.setId(7L);
+        bono.setNombre("=HYPERLINK(\"http://x\",\"y\")");
+        Calculo calculo = new Calculo();
+        calculo.setId(42L);
+        calculo.setBono(bono);
+        calculo.setMoneda("@PEN");
+        calculo.setVan(new BigDecimal("-12.50"));
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        EscritorCalculos escritor = EscritorCalculos.de(EscritorCalculos.CSV, salida, null);
+        escritor.accept(calculo);
+        escritor.terminar();
+
+        String fila = salida.toString(StandardCharsets.UTF_8).split("\n")[1];
+        assertTrue(fila.startsWith("42,7,\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",TREA,,'@PEN,"), fila);
+        assertTrue(fila.contains(",-12.50,"), "los números negativos no se alteran");
+    }
+
+    @Test
+    @DisplayName("Un historial vacío exporta solo la cabecera")
+    void historialVacio() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        EscritorCalculos escritor = EscritorCalculos.de(EscritorCalculos.CSV, salida, null);
+        escritor.terminar();
+
+        assertEquals(EscritorCalculosCsv.CABECERA + "\n", salida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Acepta csv, ndjson y jsonl sin distinguir mayúsculas")
+    void interpretaFormato() {
+        assertEquals(EscritorCalculos.CSV, EscritorCalculos.formatoDe("CSV"));
+        assertEquals(EscritorCalculos.NDJSON, EscritorCalculos.formatoDe("jsonl"));
+        assertThrows(ValidationException.class, () -> EscritorCalculos.formatoDe("xlsx"));
+    }
+}
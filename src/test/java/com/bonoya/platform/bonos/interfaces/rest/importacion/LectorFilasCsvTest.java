@@ -0,0 +1,72 @@
+package com.bonoya.platform.bonos.interfaces.rest.importacion;
+
+import com.bonoya.platform.bonos.application.internal.importacion.FilaImportacion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectorFilasCsvTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    @DisplayName("Lee columnas en cualquier orden, comillas y filas mal formadas sin detenerse")
+    void leeFilasConCabecera() {
+        String csv = """
+                moneda,nombre,valorNominal,tasaCupon,plazoAnios,frecuenciaPagos,fechaEmision,descripcion
+                PEN,Bono A,1000,0.08,5,2,2025-01-15,"Serie ""A"", tramo 1"
+
+                USD,Bono B,abc,0.05,3,1,2025-02-01,
+                USD,Bono C,2500.50,0.06,10,4,2025-03-01,Simple
+                """;
+
+        List<FilaImportacion> filas = leer(LectorFilasBono.CSV, csv);
+
+        assertEquals(3, filas.size());
+        assertEquals(1, filas.get(0).numero());
+        assertEquals("Serie \"A\", tramo 1", filas.get(0).bono().getDescripcion());
+        assertEquals(0, new BigDecimal("1000").compareTo(filas.get(0).bono().getValorNominal()));
+        assertEquals(LocalDate.of(2025, 1, 15), filas.get(0).bono().getFechaEmision());
+
+        assertNull(filas.get(1).bono());
+        assertNotNull(filas.get(1).error());
+
+        assertEquals(3, filas.get(2).numero());
+        assertEquals("USD", filas.get(2).bono().getMoneda());
+        assertEquals(4, filas.get(2).bono().getFrecuenciaPagos());
+    }
+
+    @Test
+    @DisplayName("NDJSON interpreta un objeto por línea con los campos del alta individual")
+    void leeNdjson() {
+        String ndjson = """
+                {"nombre":"Bono A","valorNominal":1000,"tasaCupon":0.08,"plazoAnios":5,"frecuenciaPagos":2,"moneda":"PEN","fechaEmision":"2025-01-15"}
+                {"nombre":"Bono B",
+                """;
+
+        List<FilaImportacion> filas = leer(LectorFilasBono.NDJSON, ndjson);
+
+        assertEquals(2, filas.size());
+        assertEquals("Bono A", filas.get(0).bono().getNombre());
+        assertEquals("ALEMAN", filas.get(0).bono().getMetodoAmortizacion());
+        assertNotNull(filas.get(1).error());
+    }
+
+    private List<FilaImportacion> leer(String formato, String contenido) {
+        LectorFilasBono lector = LectorFilasBono.de(formato,
+                new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), objectMapper);
+        List<FilaImportacion> filas = new ArrayList<>();
+        lector.forEachRemaining(filas::add);
+        return filas;
+    }
+}
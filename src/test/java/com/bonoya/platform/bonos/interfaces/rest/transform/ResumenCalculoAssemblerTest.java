@@ -0,0 +1,61 @@
+package com.bonoya.platform.bonos.interfaces.rest.transform;
+
+import com.bonoya.platform.bonos.domain.model.entities.Calculo;
+import com.bonoya.platform.bonos.domain.model.valueobjects.DetalleCalculo;
+import com.bonoya.platform.bonos.interfaces.rest.resources.CalculoResource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumenCalculoAssemblerTest {
+
+    @Test
+    @DisplayName("Arma el resumen desde las columnas y el detalle, redondeando sin depender del locale")
+    void armaResumenDesdeColumnas() {
+        Calculo calculo = new Calculo();
+        calculo.setTipoAnalisis("ANALISIS_COMPLETO");
+        calculo.setTreaPorcentaje(new BigDecimal("8.765"));
+        calculo.setTir(new BigDecimal("0.087654"));
+        calculo.setVan(new BigDecimal("-12.345"));
+        calculo.setTcea(new BigDecimal("0.0725"));
+        calculo.setDuracion(new BigDecimal("4.1234"));
+        calculo.setConvexidad(new BigDecimal("19.87654"));
+        calculo.setDetalle(DetalleCalculo.dePrecioCompra(new BigDecimal("985")));
+
+        assertEquals("Análisis completo - TREA: 8.77%, TIR: 8.77%, VAN: -12.35, TCEA: 7.25%, Duración: 4.12 años, "
+                + "Convexidad: 19.8765, Precio compra: 985.00", ResumenCalculoAssembler.toResumenFromEntity(calculo));
+    }
+
+    @Test
+    @DisplayName("En duración la columna trea no se presenta como TREA y se agrega la sensibilidad")
+    void resumenDeDuracion() {
+        Calculo calculo = new Calculo();
+        calculo.setTipoAnalisis("DURACION");
+        calculo.setTrea(new BigDecimal("4.5"));
+        calculo.setTreaPorcentaje(new BigDecimal("450"));
+        calculo.setDuracion(new BigDecimal("4.5"));
+        calculo.setTcea(new BigDecimal("0.06"));
+
+        assertEquals("Análisis de duración - TCEA: 6.00%, Duración: 4.50 años, Sensibilidad al 1%: 0.05%",
+                ResumenCalculoAssembler.toResumenFromEntity(calculo));
+    }
+
+    @Test
+    @DisplayName("El texto solo se incluye si se pide y los cálculos antiguos conservan el guardado")
+    void resumenSoloAPedido() {
+        Calculo calculo = new Calculo();
+        calculo.setInformacionAdicional("Texto guardado");
+        calculo.setDetalle(new DetalleCalculo(new BigDecimal("0.01"), new BigDecimal("15"), null, "AMERICANO"));
+
+        CalculoResource sinResumen = CalculoResourceFromEntityAssembler.toResourceFromEntity(calculo);
+        CalculoResource conResumen = CalculoResourceFromEntityAssembler.toResourceFromEntity(calculo, true);
+
+        assertNull(sinResumen.getInformacionAdicional());
+        assertEquals("Texto guardado", conResumen.getInformacionAdicional());
+        assertEquals("AMERICANO", sinResumen.getResultados().getMetodoAmortizacion());
+        assertEquals(new BigDecimal("15"), sinResumen.getResultados().getMargenSeguridad());
+    }
+}
@@ -0,0 +1,91 @@
+package com.bonoya.platform.iam.application.internal.commandservices;
+
+import com.bonoya.platform.iam.application.internal.outboundservices.hashing.HashingService;
+import com.bonoya.platform.iam.application.internal.outboundservices.tokens.TokenService;
+import com.bonoya.platform.iam.application.internal.roles.RoleRegistry;
+import com.bonoya.platform.iam.application.internal.security.FailedSignInTracker;
+import com.bonoya.platform.iam.domain.model.aggregates.User;
+import com.bonoya.platform.iam.domain.model.commands.SignUpCommand;
+import com.bonoya.platform.iam.domain.model.entities.Role;
+import com.bonoya.platform.iam.domain.model.valueobjects.Roles;
+import com.bonoya.platform.iam.infrastructure.persistence.jpa.repositories.UserRepository;
+import com.bonoya.platform.shared.application.exceptions.ResourceAlreadyException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCommandServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private HashingService hashingService;
+    @Mock
+    private TokenService tokenService;
+    @Mock
+    private RoleRegistry roleRegistry;
+    @Mock
+    private FailedSignInTracker failedSignInTracker;
+
+    private UserCommandServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserCommandServiceImpl(userRepository, hashingService, tokenService, roleRegistry, failedSignInTracker);
+        when(roleRegistry.findByName(Roles.ROLE_INVERSOR)).thenReturn(Optional.of(new Role(Roles.ROLE_INVERSOR)));
+        when(hashingService.encode("secreto")).thenReturn("hash");
+    }
+
+    @Test
+    @DisplayName("El registro es un único INSERT y devuelve el usuario guardado sin releerlo")
+    void registroEnUnaEscritura() {
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        User user = service.handle(new SignUpCommand("ana", "secreto", List.of(Roles.ROLE_INVERSOR))).orElseThrow();
+
+        assertEquals("ana", user.getUsername());
+        assertEquals("hash", user.getPassword());
+        assertEquals(1, user.getRoles().size());
+        verify(userRepository).saveAndFlush(any(User.class));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Un username duplicado se traduce a ResourceAlreadyException desde la restricción única")
+    void duplicadoPorRestriccionUnica() {
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violacion("23505", "uk_users_username"));
+        when(userRepository.existsByUsername("ana")).thenReturn(true);
+
+        assertThrows(ResourceAlreadyException.class,
+                () -> service.handle(new SignUpCommand("ana", "secreto", List.of(Roles.ROLE_INVERSOR))));
+    }
+
+    @Test
+    @DisplayName("Otras violaciones de integridad no se informan como username duplicado")
+    void otraRestriccionSePropaga() {
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violacion("23503", "fk_user_roles_role"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> service.handle(new SignUpCommand("ana", "secreto", List.of(Roles.ROLE_INVERSOR))));
+        verify(userRepository, never()).existsByUsername(any());
+    }
+
+    private static DataIntegrityViolationException violacion(String sqlState, String restriccion) {
+        return new DataIntegrityViolationException("violación de " + restriccion, new ConstraintViolationException(
+                "violación de " + restriccion, new SQLException("violación", sqlState), restriccion));
+    }
+}
@@ -0,0 +1,59 @@
+package com.bonoya.platform.iam.application.internal.roles;
+
+import com.bonoya.platform.iam.domain.model.entities.Role;
+import com.bonoya.platform.iam.domain.model.valueobjects.Roles;
+import com.bonoya.platform.iam.infrastructure.persistence.jpa.repositories.RoleRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Test
+    @DisplayName("Sirve los roles desde memoria y, vencido el intervalo, recarga ante un rol ausente")
+    void sirveDesdeMemoria() {
+        when(roleRepository.findAll())
+                .thenReturn(List.of(new Role(Roles.ROLE_EMISOR), new Role(Roles.ROLE_INVERSOR)))
+                .thenReturn(List.of(new Role(Roles.ROLE_EMISOR), new Role(Roles.ROLE_INVERSOR), new Role(Roles.ROLE_ADMIN)));
+        RoleRegistry registry = new RoleRegistry(roleRepository, 0);
+        registry.reload();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Roles.ROLE_INVERSOR, registry.findByName(Roles.ROLE_INVERSOR).orElseThrow().getName());
+        }
+        verify(roleRepository, times(1)).findAll();
+
+        assertTrue(registry.findByName(Roles.ROLE_ADMIN).isPresent());
+        assertEquals(3, registry.findAll().size());
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Un rol inexistente no consulta la base de datos en cada petición")
+    void rolAusenteSeRecuerda() {
+        when(roleRepository.findAll()).thenReturn(List.of(new Role(Roles.ROLE_INVERSOR)));
+        RoleRegistry registry = new RoleRegistry(roleRepository);
+        registry.reload();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(registry.findByName(Roles.ROLE_ADMIN).isEmpty());
+        }
+        verify(roleRepository, times(1)).findAll();
+
+        RoleRegistry sinIntervalo = new RoleRegistry(roleRepository, 0);
+        sinIntervalo.findByName(Roles.ROLE_ADMIN);
+        sinIntervalo.findByName(Roles.ROLE_ADMIN);
+        verify(roleRepository, times(3)).findAll();
+    }
+}
@@ -0,0 +1,79 @@
+package com.bonoya.platform.iam.application.internal.security;
+
+import com.bonoya.platform.shared.application.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FailedSignInTrackerTest {
+
+    private final AtomicLong reloj = new AtomicLong(1_000L);
+    private final FailedSignInTracker tracker = new FailedSignInTracker(3, TimeUnit.MINUTES.toNanos(15),
+            TimeUnit.MINUTES.toNanos(5), 1000, 1000, reloj::get);
+
+    @Test
+    @DisplayName("Bloquea tras los fallos permitidos y libera al vencer el bloqueo")
+    void bloqueaYLibera() {
+        tracker.registrarFallo("ana", true);
+        tracker.registrarFallo("ana", true);
+        assertDoesNotThrow(() -> tracker.verificar("ana"));
+
+        tracker.registrarFallo("ana", true);
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> tracker.verificar("ana"));
+        assertEquals(300L, ex.getRetryAfterSeconds());
+        assertEquals(1, tracker.getUsuariosBloqueados());
+        // El bloqueo es por usuario
+        assertDoesNotThrow(() -> tracker.verificar("luis"));
+
+        reloj.addAndGet(TimeUnit.MINUTES.toNanos(5) + 1);
+        assertDoesNotThrow(() -> tracker.verificar("ana"));
+        assertEquals(0, tracker.getUsuariosBloqueados());
+    }
+
+    @Test
+    @DisplayName("Un inicio correcto o el fin de la ventana reinician el conteo de fallos")
+    void reiniciaConteo() {
+        tracker.registrarFallo("ana", true);
+        tracker.registrarFallo("ana", true);
+        tracker.registrarExito("ana");
+        tracker.registrarFallo("ana", true);
+        assertDoesNotThrow(() -> tracker.verificar("ana"));
+
+        tracker.registrarFallo("ana", true);
+        reloj.addAndGet(TimeUnit.MINUTES.toNanos(16));
+        tracker.registrarFallo("ana", true);
+        assertDoesNotThrow(() -> tracker.verificar("ana"));
+
+        reloj.addAndGet(TimeUnit.MINUTES.toNanos(16));
+        tracker.purgarExpirados();
+        tracker.registrarFallo("ana", true);
+        tracker.registrarFallo("ana", true);
+        assertDoesNotThrow(() -> tracker.verificar("ana"));
+    }
+
+    @Test
+    @DisplayName("Con el registro lleno se desaloja el usuario más antiguo y los nombres desconocidos no desalojan cuentas")
+    void desalojaSinPerderCuentas() {
+        FailedSignInTracker acotado = new FailedSignInTracker(2, TimeUnit.MINUTES.toNanos(15),
+                TimeUnit.MINUTES.toNanos(5), 2, 2, reloj::get);
+        acotado.registrarFallo("ana", true);
+        acotado.registrarFallo("ana", true);
+        for (int i = 0; i < 100; i++) {
+            acotado.registrarFallo("aleatorio" + i, false);
+        }
+        assertThrows(TooManyRequestsException.class, () -> acotado.verificar("ana"));
+
+        // Un usuario nuevo sigue registrándose: se desaloja el menos usado en lugar de ignorar el fallo
+        acotado.registrarFallo("luis", true);
+        acotado.registrarFallo("eva", true);
+        acotado.registrarFallo("luis", true);
+        assertThrows(TooManyRequestsException.class, () -> acotado.verificar("luis"));
+        assertDoesNotThrow(() -> acotado.verificar("ana"));
+    }
+}
@@ -0,0 +1,28 @@
+package com.bonoya.platform.iam.infrastructure.hashing.bcrypt.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashingServiceImplTest {
+
+    @Test
+    @DisplayName("Los hashes con un costo menor al configurado se marcan para recalcular")
+    void detectaCostoDesactualizado() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HashingServiceImpl costoBajo = new HashingServiceImpl(registry, 4, 1, 4, 5000);
+        HashingServiceImpl costoAlto = new HashingServiceImpl(new SimpleMeterRegistry(), 5, 1, 4, 5000);
+
+        String hashAntiguo = costoBajo.encode("secreto");
+        assertTrue(costoAlto.matches("secreto", hashAntiguo));
+        assertFalse(costoAlto.matches("otro", hashAntiguo));
+        assertTrue(costoAlto.upgradeEncoding(hashAntiguo));
+        assertFalse(costoAlto.upgradeEncoding(costoAlto.encode("secreto")));
+
+        assertEquals(1L, registry.get("bonoya.hashing.tiempo").tag("operacion", "encode").timer().count());
+    }
+}
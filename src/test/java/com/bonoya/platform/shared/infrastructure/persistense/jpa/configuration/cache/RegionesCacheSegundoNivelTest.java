@@ -0,0 +1,55 @@
+package com.bonoya.platform.shared.infrastructure.persistense.jpa.configuration.cache;
+
+import com.bonoya.platform.bonos.domain.model.entities.Bono;
+import com.bonoya.platform.bonos.infrastructure.persistence.jpa.repositories.BonoRepository;
+import com.bonoya.platform.iam.domain.model.entities.Role;
+import com.bonoya.platform.profiles.domain.model.aggregates.Profile;
+import org.hibernate.annotations.Cache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Con {@code missing_cache_strategy=fail}, una región usada por una entidad o consulta que no esté declarada en
+ * ehcache.xml impide el arranque; esta prueba lo detecta sin levantar el contexto.
+ */
+class RegionesCacheSegundoNivelTest {
+
+    @Test
+    @DisplayName("Toda región usada por entidades y consultas cacheadas está declarada en ehcache.xml")
+    void regionesDeclaradas() throws Exception {
+        Set<String> regiones = new TreeSet<>(Set.of("default-query-results-region", "default-update-timestamps-region"));
+        for (Class<?> entidad : new Class<?>[]{Bono.class, Role.class, Profile.class}) {
+            Cache cache = entidad.getAnnotation(Cache.class);
+            assertNotNull(cache, entidad.getSimpleName() + " debe ser cacheable");
+            regiones.add(cache.region());
+        }
+        for (Method metodo : BonoRepository.class.getDeclaredMethods()) {
+            QueryHints hints = metodo.getAnnotation(QueryHints.class);
+            if (hints != null) {
+                Arrays.stream(hints.value())
+                        .filter(hint -> hint.name().equals("org.hibernate.cacheRegion"))
+                        .forEach(hint -> regiones.add(hint.value()));
+            }
+        }
+        assertTrue(regiones.contains(BonoRepository.REGION_CONSULTAS));
+
+        CachingProvider proveedor = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider");
+        try (CacheManager manager = proveedor.getCacheManager(getClass().getResource("/ehcache.xml").toURI(),
+                getClass().getClassLoader())) {
+            for (String region : regiones) {
+                assertNotNull(manager.getCache(region), "región sin declarar en ehcache.xml: " + region);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.bonoya.platform.shared.infrastructure.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del registro de fases por petición.
+ */
+class TiemposPeticionTest {
+
+    @AfterEach
+    void limpiar() {
+        TiemposPeticion.limpiar();
+    }
+
+    @Test
+    @DisplayName("Sin registro activo las fases no miden nada")
+    void sinRegistro() {
+        TiemposPeticion.Fase fase = TiemposPeticion.fase("solve");
+        fase.close();
+        assertSame(fase, TiemposPeticion.fase("load"));
+        assertNull(TiemposPeticion.actual());
+    }
+
+    @Test
+    @DisplayName("Las fases anidadas son exclusivas y la suma no supera el total")
+    void fasesExclusivas() throws InterruptedException {
+        TiemposPeticion tiempos = TiemposPeticion.iniciar();
+        try (TiemposPeticion.Fase externa = TiemposPeticion.fase("metrics")) {
+            try (TiemposPeticion.Fase interna = TiemposPeticion.fase("schedule")) {
+                Thread.sleep(20);
+            }
+        }
+        tiempos.iniciarSerializacion();
+        tiempos.finalizar();
+
+        Map<String, Double> mapa = tiempos.aMapa();
+        assertTrue(mapa.get("schedule") >= 20.0);
+        assertTrue(mapa.get("metrics") < 20.0);
+        assertTrue(mapa.containsKey("serialize"));
+        double suma = mapa.get("metrics") + mapa.get("schedule") + mapa.get("serialize");
+        assertTrue(suma <= mapa.get("total"));
+        assertTrue(tiempos.aServerTiming().matches("metrics;dur=\\d+\\.\\d{2}, schedule;dur=\\d+\\.\\d{2}, "
+                + "serialize;dur=\\d+\\.\\d{2}, total;dur=\\d+\\.\\d{2}"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.bonoya.platform.shared.interfaces.rest.cache;
+
+import com.bonoya.platform.bonos.domain.model.valueobjects.VersionCatalogo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeticionCondicionalTest {
+
+    private final VersionCatalogo version = new VersionCatalogo(new Date(1_700_000_000_000L), 12L);
+
+    @Test
+    @DisplayName("Responde 304 con los validadores cuando el cliente ya tiene la versión")
+    void noModificadoConEtagVigente() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/inversor/bonos/catalogo");
+        request.addHeader("If-None-Match", version.etag());
+
+        Optional<ResponseEntity<Object>> respuesta = PeticionCondicional.noModificado(
+                new ServletWebRequest(request, new MockHttpServletResponse()), version.etag(),
+                version.ultimaModificacionMillis(), PeticionCondicional.COMPARTIDO);
+
+        assertTrue(respuesta.isPresent());
+        assertEquals(HttpStatus.NOT_MODIFIED, respuesta.get().getStatusCode());
+        assertEquals(version.etag(), respuesta.get().getHeaders().getETag());
+        assertEquals("no-cache, public", respuesta.get().getHeaders().getCacheControl());
+        assertNull(respuesta.get().getBody());
+    }
+
+    @Test
+    @DisplayName("Continúa con la respuesta completa si la versión cambió")
+    void modificadoConEtagAnterior() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/inversor/bonos/catalogo");
+        request.addHeader("If-None-Match", new VersionCatalogo(version.ultimaModificacion(), 11L).etag());
+
+        Optional<ResponseEntity<Object>> respuesta = PeticionCondicional.noModificado(
+                new ServletWebRequest(request, new MockHttpServletResponse()), version.etag(),
+                version.ultimaModificacionMillis(), PeticionCondicional.COMPARTIDO);
+
+        assertTrue(respuesta.isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+package com.bonoya.platform.shared.interfaces.rest.middleware;
+
+import com.bonoya.platform.shared.infrastructure.timing.TiemposPeticion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la cabecera Server-Timing.
+ */
+class ServerTimingFilterTest {
+
+    @Test
+    @DisplayName("Escribe la cabecera al final incluyendo la serialización aunque el cuerpo haga flush")
+    void cabeceraConSerializacion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/inversor/bonos");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(true).doFilter(request, response, (req, res) -> {
+            try (TiemposPeticion.Fase fase = TiemposPeticion.fase("load")) {
+                assertNotNull(TiemposPeticion.actual());
+            }
+            TiemposPeticion.actual().iniciarSerializacion();
+            res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+            res.getOutputStream().flush();
+            res.flushBuffer();
+        });
+
+        String cabecera = response.getHeader(ServerTimingFilter.CABECERA);
+        assertNotNull(cabecera);
+        assertTrue(cabecera.startsWith("load;dur="));
+        assertTrue(cabecera.contains("serialize;dur="));
+        assertTrue(cabecera.contains("total;dur="));
+        assertEquals("{}", response.getContentAsString());
+        assertNull(TiemposPeticion.actual());
+    }
+
+    @Test
+    @DisplayName("Deshabilitado no añade cabecera ni registro")
+    void deshabilitado() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(false).doFilter(new MockHttpServletRequest(), response,
+                (req, res) -> assertNull(TiemposPeticion.actual()));
+
+        assertNull(response.getHeader(ServerTimingFilter.CABECERA));
+    }
+}
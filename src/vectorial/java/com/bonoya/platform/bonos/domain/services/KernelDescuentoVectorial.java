@@ -0,0 +1,83 @@
+package com.bonoya.platform.bonos.domain.services;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementación de {@link KernelDescuento} con la Vector API: cada iteración descuenta un bloque de
+ * {@value KernelDescuento#PARCIALES} flujos en dos vectores de 4 carriles, con {@code exp} vectorial. El carril
+ * j del primer vector acumula la parcial j y el del segundo la parcial 4 + j, de modo que las sumas siguen el
+ * mismo orden que el núcleo escalar; por eso el ancho es fijo (256 bits) y no el preferido de la plataforma,
+ * que cambiaría ese orden según la CPU. El resto que no completa un bloque se acumula en escalar.
+ *
+ * Solo se compila con el perfil Maven {@code vectorial} y se instancia por reflexión desde
+ * {@link KernelDescuento}; requiere {@code --add-modules jdk.incubator.vector} y registros de al menos 256 bits.
+ */
+final class KernelDescuentoVectorial extends KernelDescuento {
+
+    private static final VectorSpecies<Double> ESPECIE = DoubleVector.SPECIES_256;
+
+    KernelDescuentoVectorial() {
+        if (DoubleVector.SPECIES_PREFERRED.vectorBitSize() < ESPECIE.vectorBitSize()) {
+            throw new UnsupportedOperationException("La plataforma no tiene registros de 256 bits");
+        }
+    }
+
+    @Override
+    public void acumular(double[] tiempos, double[] montos, int n, double[] tasas, double[] resultados) {
+        int carriles = ESPECIE.length();
+        int limite = n - n % PARCIALES;
+        double[] parciales = new double[3 * PARCIALES];
+        for (int k = 0; k < tasas.length; k++) {
+            double menosLogBase = -Math.log1p(tasas[k]);
+            DoubleVector precioBajo = DoubleVector.zero(ESPECIE);
+            DoubleVector precioAlto = DoubleVector.zero(ESPECIE);
+            DoubleVector ponderadaBaja = DoubleVector.zero(ESPECIE);
+            DoubleVector ponderadaAlta = DoubleVector.zero(ESPECIE);
+            DoubleVector convexidadBaja = DoubleVector.zero(ESPECIE);
+            DoubleVector convexidadAlta = DoubleVector.zero(ESPECIE);
+            int i = 0;
+            for (; i < limite; i += PARCIALES) {
+                DoubleVector tBajo = DoubleVector.fromArray(ESPECIE, tiempos, i);
+                DoubleVector tAlto = DoubleVector.fromArray(ESPECIE, tiempos, i + carriles);
+                DoubleVector valorBajo = valorActual(tBajo, montos, i, menosLogBase);
+                DoubleVector valorAlto = valorActual(tAlto, montos, i + carriles, menosLogBase);
+                precioBajo = precioBajo.add(valorBajo);
+                precioAlto = precioAlto.add(valorAlto);
+                ponderadaBaja = ponderadaBaja.add(tBajo.mul(valorBajo));
+                ponderadaAlta = ponderadaAlta.add(tAlto.mul(valorAlto));
+                convexidadBaja = convexidadBaja.add(tBajo.add(1.0).mul(tBajo).mul(valorBajo));
+                convexidadAlta = convexidadAlta.add(tAlto.add(1.0).mul(tAlto).mul(valorAlto));
+            }
+            precioBajo.intoArray(parciales, 0);
+            precioAlto.intoArray(parciales, carriles);
+            ponderadaBaja.intoArray(parciales, PARCIALES);
+            ponderadaAlta.intoArray(parciales, PARCIALES + carriles);
+            convexidadBaja.intoArray(parciales, 2 * PARCIALES);
+            convexidadAlta.intoArray(parciales, 2 * PARCIALES + carriles);
+            for (; i < n; i++) {
+                int parcial = i % PARCIALES;
+                double t = tiempos[i];
+                double valorActual = montos[i] * Math.exp(t * menosLogBase);
+                parciales[parcial] += valorActual;
+                parciales[PARCIALES + parcial] += t * valorActual;
+                parciales[2 * PARCIALES + parcial] += (t + 1.0) * t * valorActual;
+            }
+            resultados[3 * k] = sumarParciales(parciales, 0);
+            resultados[3 * k + 1] = sumarParciales(parciales, PARCIALES);
+            resultados[3 * k + 2] = sumarParciales(parciales, 2 * PARCIALES);
+        }
+    }
+
+    private static DoubleVector valorActual(DoubleVector t, double[] montos, int desde, double menosLogBase) {
+        return t.mul(menosLogBase)
+                .lanewise(VectorOperators.EXP)
+                .mul(DoubleVector.fromArray(ESPECIE, montos, desde));
+    }
+
+    @Override
+    public String nombre() {
+        return "vectorial-2x" + ESPECIE.length() + "x64";
+    }
+}